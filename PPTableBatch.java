@@ -0,0 +1,326 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/*
+ * headless editor, applies the same edits to many registry files in parallel
+ */
+public class PPTableBatch
+{
+    public static void main(String[] args)
+    {
+        List<PPTableEdit> edits = new ArrayList<>();
+        List<Path> files = new ArrayList<>();
+        Map<Path, Path> names = new HashMap<>();
+        Path out_dir = null;
+        PPTableCache cache = null;
+        boolean in_place = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        PPTableBatch batch = null;
+
+        try
+        {
+            for(int i = 0; i < args.length; i++)
+            {
+                switch(args[i])
+                {
+                    case "-e":
+                        edits.add(PPTableEdit.parse(next_arg(args, ++i)));
+                        break;
+                    case "-f":
+                        edits.addAll(read_script(Paths.get(next_arg(args, ++i))));
+                        break;
+                    case "-o":
+                        out_dir = Paths.get(next_arg(args, ++i));
+                        break;
+                    case "-i":
+                        in_place = true;
+                        break;
+                    case "-c":
+                        cache = new PPTableCache(Paths.get(next_arg(args, ++i)), CACHE_SIZE);
+                        break;
+                    case "-j":
+                        threads = Integer.parseInt(next_arg(args, ++i));
+                        break;
+                    default:
+                        Path path = Paths.get(args[i]);
+                        int first = files.size();
+                        add_files(path, files);
+                        for(Path file : files.subList(first, files.size()))
+                            names.put(file, Files.isDirectory(path) ? name_of(path).resolve(path.relativize(file)) : file.getFileName());
+                }
+            }
+
+            if(threads < 1)
+                throw new IllegalArgumentException("Invalid thread count " + threads);
+
+            if(files.isEmpty() || (in_place && out_dir != null))
+            {
+                print_usage();
+                System.exit(2);
+            }
+
+            batch = new PPTableBatch(edits, out_dir, names, in_place, cache);
+            batch.check_outputs(files);
+
+            if(out_dir != null)
+                Files.createDirectories(out_dir);
+        }
+        catch(IllegalArgumentException | IOException e)
+        {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+
+        System.exit(batch.run(files, threads) == 0 ? 0 : 1);
+    }
+
+    /*
+     * names are the paths the files are written to under out_dir, usually the name of the directory
+     * they were found in followed by their path under it, files without one keep their file name
+     * cache may be null to always parse the files
+     */
+    public PPTableBatch(List<PPTableEdit> edits, Path out_dir, Map<Path, Path> names, boolean in_place,
+                        PPTableCache cache)
+    {
+        this.edits = edits;
+        this.out_dir = out_dir;
+        this.names = names;
+        this.in_place = in_place;
+        this.cache = cache;
+    }
+
+    /*
+     * processes files on a work-stealing pool of threads workers,
+     * printing each result as it finishes and a summary at the end
+     * returns the number of files that failed
+     */
+    public int run(List<Path> files, int threads)
+    {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        CompletionService<Result> results = new ExecutorCompletionService<>(pool);
+
+        long start = System.nanoTime();
+        for(Path file : files)
+        {
+            results.submit(new Callable<Result>()
+            {
+                @Override
+                public Result call()
+                {
+                    return process(file);
+                }
+            });
+        }
+
+        int failed = 0;
+        long bytes = 0;
+        for(int i = 0; i < files.size(); i++)
+        {
+            Result r;
+            try
+            {
+                r = results.take().get();
+            }
+            catch(InterruptedException | ExecutionException e)
+            {
+                pool.shutdownNow();
+                throw new IllegalStateException(e);
+            }
+
+            if(r.error == null)
+            {
+                bytes += r.bytes;
+                System.out.printf("ok   %s -> %s (%.1f ms)%n", r.file, r.out, r.nanos / 1e6);
+            }
+            else
+            {
+                failed++;
+                System.out.printf("FAIL %s: %s%n", r.file, r.error);
+            }
+        }
+        pool.shutdown();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(
+            "%d files, %d failed, %d threads in %.3f s (%.1f files/s, %.2f MB/s)%n",
+            files.size(), failed, threads, seconds,
+            files.size() / seconds, bytes / seconds / (1024 * 1024)
+        );
+        if(cache != null)
+            System.out.printf("cache: %d hits, %d misses%n", cache.get_hits(), cache.get_misses());
+
+        return failed;
+    }
+
+    /*
+     * throws if two of the files would be written to the same output
+     */
+    public void check_outputs(List<Path> files) throws IllegalArgumentException
+    {
+        Map<Path, Path> outputs = new HashMap<>();
+        for(Path file : files)
+        {
+            Path out = output_path(file).toAbsolutePath().normalize();
+            Path other = outputs.put(out, file);
+            if(other != null)
+                throw new IllegalArgumentException(other + " and " + file + " would both be written to " + out);
+        }
+    }
+
+    private Result process(Path file)
+    {
+        Result r = new Result(file);
+        long start = System.nanoTime();
+        try
+        {
+            PPTableEditor ppte = cache != null ? cache.open(file.toString()) : new PPTableEditor(file.toString());
+            for(PPTableEdit edit : edits)
+                edit.apply(ppte);
+
+            r.out = output_path(file);
+            if(out_dir != null && r.out.getParent() != null)
+                Files.createDirectories(r.out.getParent());
+            if(!ppte.save(r.out.toString()))
+                r.error = "Failed to write to " + r.out;
+            else r.bytes = Files.size(r.out);
+        }
+        catch(IllegalArgumentException | IOException e)
+        {
+            r.error = e.getMessage();
+        }
+        catch(RuntimeException e)
+        {
+            // a bug for this file only, the other files are still processed
+            r.error = e.toString();
+        }
+        r.nanos = System.nanoTime() - start;
+
+        return r;
+    }
+
+    private Path output_path(Path file)
+    {
+        if(in_place)
+            return file;
+
+        String name = file.getFileName().toString();
+        if(out_dir != null)
+            return out_dir.resolve(names.getOrDefault(file, file.getFileName()));
+
+        // same naming as PPTableEditor.main
+        int dot = name.lastIndexOf('.');
+        String modded = dot == -1 ? name + "_modded" : name.substring(0, dot) + "_modded" + name.substring(dot);
+        return file.resolveSibling(modded);
+    }
+
+    /*
+     * one edit per line, '#' starts a comment
+     */
+    private static List<PPTableEdit> read_script(Path script) throws IOException
+    {
+        List<PPTableEdit> edits = new ArrayList<>();
+        for(String line : Files.readAllLines(script))
+        {
+            int comment = line.indexOf('#');
+            if(comment != -1)
+                line = line.substring(0, comment);
+            line = line.trim();
+
+            if(!line.isEmpty())
+                edits.add(PPTableEdit.parse(line));
+        }
+
+        return edits;
+    }
+
+    /*
+     * adds path, or every table under it if it's a directory, registry files
+     * and raw binary tables named *.bin or pp_table
+     */
+    static void add_files(Path path, List<Path> files) throws IOException
+    {
+        if(!Files.isDirectory(path))
+        {
+            files.add(path);
+            return;
+        }
+
+        try(Stream<Path> walk = Files.walk(path))
+        {
+            walk.filter(p -> Files.isRegularFile(p) && is_table_name(p.getFileName().toString().toLowerCase()))
+                .sorted()
+                .forEachOrdered(files::add);
+        }
+    }
+
+    /*
+     * the last element of path, "rigA" for rigA/ or rigA/., the current directory's name for .
+     */
+    private static Path name_of(Path dir)
+    {
+        Path name = dir.toAbsolutePath().normalize().getFileName();
+        return name != null ? name : Paths.get("");
+    }
+
+    /*
+     * name in lower case
+     */
+    static boolean is_table_name(String name)
+    {
+        return name.endsWith(".reg") || name.endsWith(".bin") || name.equals("pp_table");
+    }
+
+    private static String next_arg(String[] args, int i)
+    {
+        if(i >= args.length)
+            throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        return args[i];
+    }
+
+    private static void print_usage()
+    {
+        System.err.println(
+            "usage: java PPTableBatch [options] <file|dir>...\n" +
+            "  -e <edit>     edit to apply, e.g. sclk7=1630, tdp=220, vdd_offset=-25\n" +
+            "  -f <script>   file of edits, one per line\n" +
+            "  -o <dir>      write the results to dir, under their paths from each dir argument\n" +
+            "  -i            save in place\n" +
+            "  -j <threads>  worker threads, defaults to the number of cores\n" +
+            "  -c <dir>      cache parsed tables in dir\n" +
+            "without -o or -i results are written next to each file as <name>_modded.reg"
+        );
+    }
+
+    private static class Result
+    {
+        Result(Path file)
+        {
+            this.file = file;
+        }
+
+        final Path file;
+        Path out;
+        String error;
+        long nanos, bytes;
+    }
+
+    private final List<PPTableEdit> edits;
+    private final Path out_dir;
+    private final Map<Path, Path> names;
+    private final boolean in_place;
+    private final PPTableCache cache;
+
+    private static final long CACHE_SIZE = 64 * 1024 * 1024;
+}
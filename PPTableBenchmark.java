@@ -0,0 +1,310 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/*
+ * throughput and allocation benchmarks for parsing, decoding, encoding and saving
+ * PowerPlay tables, run on the bundled table and on synthetic tables with
+ * 255 entries in every dependency table
+ *
+ * usage: java PPTableBenchmark [-w warmup iterations] [-i iterations] [-t seconds per iteration] [stage...]
+ * stages: parse, decode, decode_lazy, read, read_layout, to_bytes, save, save_in_place
+ * read and read_layout read every field of the MCLK, SCLK and voltage entries,
+ * through the ATOM_* views and through the codecs generated from the PPTableLayout descriptors
+ *
+ * run with -XX:+UseParallelGC or -XX:+UseSerialGC for steadier allocation numbers
+ */
+public class PPTableBenchmark
+{
+    public static void main(String[] args) throws IOException
+    {
+        int warmup = 3, iterations = 5;
+        double seconds = 1;
+        List<String> stages = new ArrayList<>();
+
+        for(int i = 0; i < args.length; i++)
+        {
+            switch(args[i])
+            {
+                case "-w": warmup = Integer.parseInt(args[++i]); break;
+                case "-i": iterations = Integer.parseInt(args[++i]); break;
+                case "-t": seconds = Double.parseDouble(args[++i]); break;
+                default: stages.add(args[i]);
+            }
+        }
+        if(stages.isEmpty())
+            stages.addAll(Arrays.asList(STAGES));
+
+        Path dir = Files.createTempDirectory("pptable-bench");
+        List<Input> inputs = new ArrayList<>();
+        inputs.add(new Input("bundled", Paths.get("RxVega_M_soft_PowerTable.reg"), dir));
+        inputs.add(new Input("synthetic_255", write_synthetic(dir), dir));
+
+        PPTableBenchmark bench = new PPTableBenchmark(warmup, iterations, (long)(seconds * 1e9));
+        System.out.printf("%-15s %-14s %14s %12s %12s %12s%n",
+                          "input", "stage", "ops/s", "error", "B/op", "MB/s alloc");
+        for(Input input : inputs)
+        {
+            for(String stage : stages)
+                bench.run(input, stage);
+        }
+
+        try(Stream<Path> files = Files.list(dir))
+        {
+            for(Path file : (Iterable<Path>)files::iterator)
+                Files.delete(file);
+        }
+        Files.delete(dir);
+    }
+
+    public PPTableBenchmark(int warmup, int iterations, long iteration_nanos)
+    {
+        this.warmup = warmup;
+        this.iterations = iterations;
+        this.iteration_nanos = iteration_nanos;
+    }
+
+    private void run(Input input, String stage)
+    {
+        Op op = op(input, stage);
+        for(int i = 0; i < warmup; i++)
+            iteration(op);
+
+        double[] ops = new double[iterations];
+        double bytes_per_op = 0;
+        for(int i = 0; i < iterations; i++)
+        {
+            long allocated = allocated_bytes();
+            long[] result = iteration(op);
+            allocated = allocated_bytes() - allocated;
+
+            ops[i] = result[0] / (result[1] / 1e9);
+            bytes_per_op += (double)allocated / result[0] / iterations;
+        }
+
+        double mean = 0, variance = 0;
+        for(double o : ops)
+            mean += o / ops.length;
+        for(double o : ops)
+            variance += (o - mean) * (o - mean) / Math.max(1, ops.length - 1);
+
+        System.out.printf("%-15s %-14s %14.1f %12.1f %12.1f %12.1f%n",
+                          input.name, stage, mean, Math.sqrt(variance),
+                          bytes_per_op, bytes_per_op * mean / (1024 * 1024));
+    }
+
+    /*
+     * runs op until iteration_nanos have passed
+     * returns the number of ops and the elapsed nanoseconds
+     */
+    private long[] iteration(Op op)
+    {
+        long ops = 0, result = 0, start = System.nanoTime(), elapsed;
+        do
+        {
+            // batch the clock reads so they don't dominate fast ops
+            for(int i = 0; i < 16; i++)
+                result ^= op.run();
+            ops += 16;
+            elapsed = System.nanoTime() - start;
+        }
+        while(elapsed < iteration_nanos);
+        sink = result;
+
+        return new long[] { ops, elapsed };
+    }
+
+    private static Op op(Input input, String stage)
+    {
+        switch(stage)
+        {
+            case "parse":
+                return () -> PPTableEditor.parse_reg_file(input.file.toString()).table.length;
+            case "decode":
+                return () -> new PPTableEditor(input.reg).get_voltage_entries().length;
+            case "decode_lazy":
+                // only the header is decoded
+                return () -> new PPTableEditor(input.reg, true).pplay.get_usPowerControlLimit();
+            case "read":
+                return () -> read(input.ppte);
+            case "read_layout":
+                return () -> read_layout(input.ppte);
+            case "to_bytes":
+                return () -> to_bytes(input.ppte);
+            case "save":
+                return () -> input.ppte.save(input.out.toString()) ? 1 : 0;
+            case "save_in_place":
+                // change one clock each time so there is always something to patch
+                return () -> {
+                    PPTableEditor.ATOM_SCLK_ENTRY e = input.copy.get_sclk_entries()[0];
+                    e.set_ulSclk(e.get_ulSclk() ^ 1);
+                    return input.copy.save(input.copy_file.toString()) ? 1 : 0;
+                };
+            default:
+                throw new IllegalArgumentException("Unknown stage " + stage);
+        }
+    }
+
+    private static long read(PPTableEditor ppte)
+    {
+        long n = 0;
+        for(PPTableEditor.ATOM_MCLK_ENTRY e : ppte.get_mclk_entries())
+        {
+            n += e.get_ucVddcInd() + e.get_usVddci() + e.get_usVddgfxOffset() + e.get_usMvdd() +
+                 e.get_ulMclk() + e.get_usReserved();
+        }
+        for(PPTableEditor.ATOM_SCLK_ENTRY e : ppte.get_sclk_entries())
+        {
+            n += e.get_ucVddInd() + e.get_usVddcOffset() + e.get_ulSclk() + e.get_usEdcCurrent() +
+                 e.get_ucReliabilityTemperature() + e.get_ucCKSVOffsetandDisable();
+            if(e.get_layout() == PPTableLayout.SCLK_ENTRY)
+                n += e.get_ulSclkOffset();
+        }
+        for(PPTableEditor.ATOM_VOLTAGE_ENTRY e : ppte.get_voltage_entries())
+            n += e.get_usVdd() + e.get_usCACLow() + e.get_usCACMid() + e.get_usCACHigh();
+        return n;
+    }
+
+    private static long read_layout(PPTableEditor ppte)
+    {
+        ByteBuffer buf = ByteBuffer.wrap(ppte.get_pp_bytes()).order(ByteOrder.LITTLE_ENDIAN);
+        long[] values = READ_VALUES;
+        long n = 0;
+        for(PPTableLayout.Table table : READ_TABLES)
+        {
+            int offset = table.offset(buf);
+            PPTableLayout.Struct entry = table.entry(buf, offset);
+            for(int i = 0; i < table.count(buf, offset); i++)
+            {
+                entry.decode(buf, table.entry_offset(buf, offset, i), values);
+                for(int f = 0; f < entry.field_count(); f++)
+                    n += values[f];
+            }
+        }
+        return n;
+    }
+
+    private static int to_bytes(PPTableEditor ppte)
+    {
+        int n = ppte.pplay.to_bytes().length;
+        n += ppte.pplay.sHeader.to_bytes().length;
+        n += ppte.get_ptune().to_bytes().length;
+        for(PPTableEditor.ATOM_MCLK_ENTRY e : ppte.get_mclk_entries())
+            n += e.to_bytes().length;
+        for(PPTableEditor.ATOM_SCLK_ENTRY e : ppte.get_sclk_entries())
+            n += e.to_bytes().length;
+        for(PPTableEditor.ATOM_VOLTAGE_ENTRY e : ppte.get_voltage_entries())
+            n += e.to_bytes().length;
+        return n;
+    }
+
+    private static long allocated_bytes()
+    {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if(bean instanceof com.sun.management.ThreadMXBean)
+            return ((com.sun.management.ThreadMXBean)bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        return 0;
+    }
+
+    /*
+     * writes a table laid out like the bundled one but with 255 MCLK, SCLK and voltage
+     * entries, the entries repeat the bundled table's ones
+     */
+    private static Path write_synthetic(Path dir) throws IOException
+    {
+        PPTableEditor.RegFile bundled = PPTableEditor.parse_reg_file("RxVega_M_soft_PowerTable.reg");
+        PPTableEditor base = new PPTableEditor(bundled);
+        int n = 255;
+
+        // the sub-tables keep the bundled ones' ucRevId and so their sizes
+        byte[] ptune = base.get_ptune().to_bytes();
+        int sclk_entry_size = base.get_sclk_entries()[0].get_layout().size;
+
+        int ptune_offset = PPTableEditor.ATOM_POWERPLAY_TABLE.size;
+        int mclk_offset = ptune_offset + ptune.length;
+        int sclk_offset = mclk_offset + PPTableEditor.ATOM_MCLK_TABLE.size + PPTableEditor.ATOM_MCLK_ENTRY.size * n;
+        int vddc_offset = sclk_offset + PPTableEditor.ATOM_SCLK_TABLE.size + sclk_entry_size * n;
+        int size = vddc_offset + PPTableEditor.ATOM_VOLTAGE_TABLE.size + PPTableEditor.ATOM_VOLTAGE_ENTRY.size * n;
+
+        byte[] table = new byte[size];
+        System.arraycopy(base.pplay.to_bytes(), 0, table, 0, ptune_offset);
+        put_uint16(table, 0, size);
+        put_uint16(table, 43, mclk_offset);
+        put_uint16(table, 45, sclk_offset);
+        put_uint16(table, 47, vddc_offset);
+        put_uint16(table, 57, ptune_offset);
+        System.arraycopy(ptune, 0, table, ptune_offset, ptune.length);
+
+        byte[] bundled_bytes = base.get_pp_bytes();
+        table[mclk_offset] = bundled_bytes[base.pplay.get_usMclkDependencyTableOffset()];
+        table[sclk_offset] = bundled_bytes[base.pplay.get_usSclkDependencyTableOffset()];
+        table[vddc_offset] = bundled_bytes[base.pplay.get_usVddcLookupTableOffset()];
+        table[mclk_offset + 1] = (byte)n;
+        table[sclk_offset + 1] = (byte)n;
+        table[vddc_offset + 1] = (byte)n;
+        for(int i = 0; i < n; i++)
+        {
+            byte[] e = base.get_mclk_entries()[i % base.get_mclk_entries().length].to_bytes();
+            System.arraycopy(e, 0, table, mclk_offset + 2 + e.length * i, e.length);
+            e = base.get_sclk_entries()[i % base.get_sclk_entries().length].to_bytes();
+            System.arraycopy(e, 0, table, sclk_offset + 2 + e.length * i, e.length);
+            e = base.get_voltage_entries()[i % base.get_voltage_entries().length].to_bytes();
+            System.arraycopy(e, 0, table, vddc_offset + 2 + e.length * i, e.length);
+        }
+
+        Path file = dir.resolve("synthetic_255.reg");
+        Files.write(file, PPTableEditor.encode_reg(bundled.header.getBytes(), table));
+        return file;
+    }
+
+    private static void put_uint16(byte[] b, int offset, int n)
+    {
+        b[offset] = (byte)n;
+        b[offset + 1] = (byte)(n >> 8);
+    }
+
+    private interface Op
+    {
+        long run();
+    }
+
+    private static class Input
+    {
+        Input(String name, Path file, Path dir) throws IOException
+        {
+            this.name = name;
+            this.file = file;
+            reg = PPTableEditor.parse_reg_file(file.toString());
+            ppte = new PPTableEditor(PPTableEditor.parse_reg_file(file.toString()));
+            out = dir.resolve(name + "_out.reg");
+            copy_file = dir.resolve(name + "_copy.reg");
+            Files.write(copy_file, PPTableEditor.encode_reg(reg.header.getBytes(), reg.table));
+            copy = new PPTableEditor(copy_file.toString());
+        }
+
+        final String name;
+        final Path file, out, copy_file;
+        final PPTableEditor.RegFile reg;
+        final PPTableEditor ppte, copy;
+    }
+
+    private static final String[] STAGES = {
+        "parse", "decode", "decode_lazy", "read", "read_layout", "to_bytes", "save", "save_in_place"
+    };
+    private static final PPTableLayout.Table[] READ_TABLES = {
+        PPTableLayout.MCLK, PPTableLayout.SCLK, PPTableLayout.VOLTAGE
+    };
+    private static final long[] READ_VALUES = new long[16];    // stages run on one thread
+
+    private final int warmup, iterations;
+    private final long iteration_nanos;
+    private static volatile long sink;     // keeps the JIT from dropping the benchmarked work
+}
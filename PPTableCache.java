@@ -0,0 +1,308 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+
+/*
+ * on-disk cache of parsed registry files, keyed by a hash of the raw file contents
+ * so a table that has been seen before is opened without parsing its hex text
+ *
+ * each entry is one <hash>.ppt file:
+ *   "PPTC", u16 version, u16 flags, u64 length of the registry file,
+ *   u32 header length, u32 table length,
+ *   u16 offsets of the first CHECKED_TABLES sub-tables of the table's format,
+ *   u8 entry counts of those sub-tables,
+ *   header bytes, table bytes
+ * all little endian
+ *
+ * entries are evicted least recently used first once they take more than max_bytes
+ */
+public class PPTableCache
+{
+    public PPTableCache(Path dir, long max_bytes) throws IOException
+    {
+        this.dir = Files.createDirectories(dir);
+        this.max_bytes = max_bytes;
+        total_bytes = entries_size();
+    }
+
+    /*
+     * same as new PPTableEditor(reg_file), using the cached table if there is one
+     */
+    public PPTableEditor open(String reg_file) throws IllegalArgumentException
+    {
+        Path path = Paths.get(reg_file);
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            FileTime mtime = Files.getLastModifiedTime(path);
+            ByteBuffer data = PPTableEditor.read_table_file(path, channel);
+
+            Path entry = dir.resolve(String.format("%016x.ppt", hash(data)));
+            PPTableEditor.RegFile reg = read_entry(entry, size);
+            boolean hit = reg != null;
+            if(hit)
+            {
+                hits.incrementAndGet();
+                touch(entry);
+            }
+            else
+            {
+                misses.incrementAndGet();
+                reg = PPTableEditor.parse_reg_bytes(data);
+                if(reg == null)
+                    throw new IllegalArgumentException("Invalid registry file");
+            }
+
+            reg.path = path;
+            reg.size = size;
+            reg.mtime = mtime;
+            PPTableEditor ppte = new PPTableEditor(reg);
+
+            if(!hit)
+            {
+                // the table is read either way, failing to cache it only costs a parse next time
+                try
+                {
+                    write_entry(entry, ppte, reg, size);
+                }
+                catch(IOException e)
+                {
+                    System.err.println("Failed to cache " + reg_file + ": " + e.getMessage());
+                }
+            }
+
+            return ppte;
+        }
+        catch(IOException e)
+        {
+            System.err.println("Failed to read " + reg_file);
+            e.printStackTrace();
+            throw new IllegalArgumentException("Invalid registry file");
+        }
+    }
+
+    public long get_hits()
+    {
+        return hits.get();
+    }
+
+    public long get_misses()
+    {
+        return misses.get();
+    }
+
+    /*
+     * 64 bit hash of the remaining bytes of data, CRC32C and CRC32 are both hardware accelerated
+     */
+    static long hash(ByteBuffer data)
+    {
+        CRC32C crc32c = new CRC32C();
+        crc32c.update(data.duplicate());
+        CRC32 crc32 = new CRC32();
+        crc32.update(data.duplicate());
+
+        return crc32c.getValue() << 32 | crc32.getValue();
+    }
+
+    /*
+     * marks the entry as used, it may have been evicted by another process in the meantime
+     * and then only the eviction order is off, so failures are ignored
+     */
+    private static void touch(Path entry)
+    {
+        try
+        {
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+        }
+        catch(IOException e)
+        {
+            // evicted, or the cache directory is read-only
+        }
+    }
+
+    /*
+     * returns null if there is no usable entry for a registry file of reg_size bytes
+     * the entry is read onto the heap rather than mapped, a mapping would keep it from being
+     * deleted by evict() on Windows
+     */
+    private PPTableEditor.RegFile read_entry(Path entry, long reg_size) throws IOException
+    {
+        if(!Files.exists(entry))
+            return null;
+
+        try(FileChannel channel = FileChannel.open(entry, StandardOpenOption.READ))
+        {
+            if(channel.size() < HEADER_SIZE || channel.size() > MAX_ENTRY_SIZE)
+                return null;
+
+            ByteBuffer buf = ByteBuffer.allocate((int)channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            while(buf.hasRemaining())
+            {
+                if(channel.read(buf) == -1)
+                    return null;
+            }
+            if(buf.getInt(0) != MAGIC || buf.getShort(4) != VERSION || buf.getLong(8) != reg_size)
+                return null;
+
+            int header_length = buf.getInt(16), table_length = buf.getInt(20);
+            if((long)HEADER_SIZE + header_length + table_length != buf.limit())
+                return null;
+
+            byte[] header = new byte[header_length], table = new byte[table_length];
+            buf.position(HEADER_SIZE);
+            buf.get(header).get(table);
+
+            PPTableEditor.RegFile reg = new PPTableEditor.RegFile(new String(header), table);
+            reg.canonical = (buf.getShort(6) & FLAG_CANONICAL) != 0;
+
+            // the recorded offsets and counts have to match the table's, otherwise the entry is corrupt
+            ByteBuffer t = ByteBuffer.wrap(table).order(ByteOrder.LITTLE_ENDIAN);
+            PPTableFormat format = PPTableFormat.of(t);
+            if(format == null || !format.is_supported() || table_length < format.powerplay.size)
+                return null;
+            for(int i = 0; i < CHECKED_TABLES; i++)
+            {
+                PPTableLayout.Table checked = format.tables[i];
+                if(checked.offset(t) != Short.toUnsignedInt(buf.getShort(24 + 2 * i)) ||
+                   entry_count(checked, t) != Byte.toUnsignedInt(buf.get(24 + 2 * CHECKED_TABLES + i)))
+                    return null;
+            }
+
+            return reg;
+        }
+        catch(NoSuchFileException e)
+        {
+            // evicted by another process since it was looked up
+            return null;
+        }
+    }
+
+    private void write_entry(Path entry, PPTableEditor ppte, PPTableEditor.RegFile reg, long reg_size)
+        throws IOException
+    {
+        byte[] header = reg.header.getBytes();
+        PPTableFormat format = ppte.get_format();
+        ByteBuffer table = ByteBuffer.wrap(reg.table).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_SIZE + header.length + reg.table.length)
+                                   .order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC)
+           .putShort(VERSION)
+           .putShort(reg.canonical ? FLAG_CANONICAL : 0)
+           .putLong(reg_size)
+           .putInt(header.length)
+           .putInt(reg.table.length);
+        for(int i = 0; i < CHECKED_TABLES; i++)
+            buf.putShort((short)format.tables[i].offset(table));
+        for(int i = 0; i < CHECKED_TABLES; i++)
+            buf.put((byte)entry_count(format.tables[i], table));
+        buf.put(header)
+           .put(reg.table)
+           .flip();
+
+        // write to a temporary file first so readers never see a partial entry
+        Path tmp = Files.createTempFile(dir, "entry", ".tmp");
+        try(FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE))
+        {
+            while(buf.hasRemaining())
+                channel.write(buf);
+        }
+        Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        synchronized(this)
+        {
+            total_bytes += buf.limit();
+            if(total_bytes > max_bytes)
+                evict();
+        }
+    }
+
+    /*
+     * entries of the sub-table, 0 if it has none or doesn't fit in the table
+     */
+    private static int entry_count(PPTableLayout.Table table, ByteBuffer buf)
+    {
+        int offset = table.offset(buf);
+        return offset != 0 && table.fits(buf, offset) ? table.count(buf, offset) : 0;
+    }
+
+    /*
+     * deletes the least recently used entries until the cache fits in max_bytes
+     */
+    private void evict() throws IOException
+    {
+        List<Path> entries = new ArrayList<>();
+        try(Stream<Path> files = Files.list(dir))
+        {
+            files.filter(p -> p.toString().endsWith(".ppt")).forEach(entries::add);
+        }
+
+        List<long[]> times = new ArrayList<>();     // last used, size, index into entries
+        total_bytes = 0;
+        for(int i = 0; i < entries.size(); i++)
+        {
+            try
+            {
+                long size = Files.size(entries.get(i));
+                times.add(new long[] { Files.getLastModifiedTime(entries.get(i)).toMillis(), size, i });
+                total_bytes += size;
+            }
+            catch(IOException e)
+            {
+                // deleted by another process
+            }
+        }
+        times.sort((a, b) -> Long.compare(a[0], b[0]));
+
+        for(long[] t : times)
+        {
+            if(total_bytes <= max_bytes)
+                break;
+
+            try
+            {
+                Files.deleteIfExists(entries.get((int)t[2]));
+                total_bytes -= t[1];
+            }
+            catch(IOException e)
+            {
+                // in use, e.g. still open in another process on Windows, it's retried next time
+            }
+        }
+    }
+
+    private long entries_size() throws IOException
+    {
+        try(Stream<Path> files = Files.list(dir))
+        {
+            return files.filter(p -> p.toString().endsWith(".ppt"))
+                        .mapToLong(p -> p.toFile().length())
+                        .sum();
+        }
+    }
+
+    private static final int MAGIC = 0x43545050;   // "PPTC"
+    private static final short VERSION = 2;
+    private static final short FLAG_CANONICAL = 1;
+    private static final int CHECKED_TABLES = 4;    // every supported format has at least 4 sub-tables
+    private static final int HEADER_SIZE = 24 + 3 * CHECKED_TABLES;
+    private static final int MAX_ENTRY_SIZE = 1 << 20;      // far more than any table and its header
+
+    private final Path dir;
+    private final long max_bytes;
+    private long total_bytes;
+    private final AtomicLong hits = new AtomicLong(), misses = new AtomicLong();
+}
@@ -0,0 +1,1503 @@
+import java.nio.ByteBuffer;
+
+/*
+ * generated by PPTableCodegen from the PPTableLayout descriptors, don't edit
+ */
+class PPTableCodecs
+{
+    /*
+     * the codec of a struct, or null if there is none
+     */
+    static PPTableLayout.Codec get(String struct)
+    {
+        switch(struct)
+        {
+            case "ATOM_POWERPLAY_TABLE": return new StructCodec(0, 0xE1E424D9);
+            case "ATOM_TABLE_HEADER": return new StructCodec(1, 0x1510D0A6);
+            case "ATOM_MCLK_ENTRY": return new StructCodec(2, 0xCD41F9D4);
+            case "ATOM_TONGA_SCLK_ENTRY": return new StructCodec(3, 0xDD75A27A);
+            case "ATOM_SCLK_ENTRY": return new StructCodec(4, 0xA58BEBB3);
+            case "ATOM_VOLTAGE_ENTRY": return new StructCodec(5, 0x5D1545BC);
+            case "ATOM_TONGA_POWERTUNE_TABLE": return new StructCodec(6, 0xA44ADE27);
+            case "ATOM_POWERTUNE_TABLE": return new StructCodec(7, 0x4E48BFF0);
+            case "ATOM_POLARIS_POWERTUNE_TABLE": return new StructCodec(8, 0x92DEDE88);
+            case "ATOM_STATE": return new StructCodec(9, 0x5BED0881);
+            case "ATOM_TONGA_FAN_TABLE": return new StructCodec(10, 0xC119BE27);
+            case "ATOM_FAN_TABLE": return new StructCodec(11, 0x635459AE);
+            case "ATOM_THERMAL_CONTROLLER": return new StructCodec(12, 0x3E87410B);
+            case "ATOM_MM_ENTRY": return new StructCodec(13, 0x034EC847);
+            case "ATOM_VCE_STATE": return new StructCodec(14, 0x89216514);
+            case "ATOM_PPM_TABLE": return new StructCodec(15, 0x13B78CFD);
+            case "ATOM_HARD_LIMIT_ENTRY": return new StructCodec(16, 0x7D87034B);
+            case "ATOM_TONGA_PCIE_ENTRY": return new StructCodec(17, 0x00AA0C92);
+            case "ATOM_PCIE_ENTRY": return new StructCodec(18, 0x368A48BC);
+            case "ATOM_GPIO_TABLE": return new StructCodec(19, 0xCAA5FD37);
+            case "ATOM_VEGA10_POWERPLAY_TABLE": return new StructCodec(20, 0xCAD2DF24);
+            case "ATOM_VEGA10_CLK_ENTRY": return new StructCodec(21, 0x8C82CC6F);
+            case "ATOM_VEGA10_GFXCLK_ENTRY": return new StructCodec(22, 0xD2EE90EC);
+            case "ATOM_VEGA10_GFXCLK_ENTRY_V2": return new StructCodec(23, 0x9894C2B4);
+            case "ATOM_VEGA10_MCLK_ENTRY": return new StructCodec(24, 0xF0A914FA);
+            case "ATOM_VEGA10_VOLTAGE_ENTRY": return new StructCodec(25, 0xADBA62F2);
+            case "ATOM_VEGA10_STATE": return new StructCodec(26, 0x1FB2BD80);
+            case "ATOM_VEGA10_FAN_TABLE": return new StructCodec(27, 0x8341D155);
+            case "ATOM_VEGA10_FAN_TABLE_V2": return new StructCodec(28, 0xEDCED980);
+            case "ATOM_VEGA10_THERMAL_CONTROLLER": return new StructCodec(29, 0x47974BBB);
+            case "ATOM_VEGA10_MM_ENTRY": return new StructCodec(30, 0x0A337671);
+            case "ATOM_VEGA10_POWERTUNE_TABLE": return new StructCodec(31, 0x6D7D60C1);
+            case "ATOM_VEGA10_POWERTUNE_TABLE_V2": return new StructCodec(32, 0xB1047DE5);
+            case "ATOM_VEGA10_POWERTUNE_TABLE_V3": return new StructCodec(33, 0xB33D249F);
+            case "ATOM_VEGA10_HARD_LIMIT_ENTRY": return new StructCodec(34, 0xF7E637B7);
+            case "ATOM_VEGA10_PCIE_ENTRY": return new StructCodec(35, 0xA931E2B3);
+            default: return null;
+        }
+    }
+
+    /*
+     * dispatches on the struct's id with a switch rather than a class per struct,
+     * so a call site decoding several structs stays a direct call
+     */
+    private static final class StructCodec implements PPTableLayout.Codec
+    {
+        StructCodec(int id, int signature)
+        {
+            this.id = id;
+            this.signature = signature;
+        }
+
+        @Override
+        public int signature()
+        {
+            return signature;
+        }
+
+        @Override
+        public void decode(ByteBuffer buf, int base, long[] values)
+        {
+            PPTableCodecs.decode(id, buf, base, values);
+        }
+
+        @Override
+        public void encode(long[] values, ByteBuffer buf, int base)
+        {
+            PPTableCodecs.encode(id, values, buf, base);
+        }
+
+        private final int id, signature;
+    }
+
+    static void decode(int id, ByteBuffer buf, int base, long[] values)
+    {
+        switch(id)
+        {
+            case 0:
+                decode_ATOM_POWERPLAY_TABLE(buf, base, values);
+                return;
+            case 1:
+                decode_ATOM_TABLE_HEADER(buf, base, values);
+                return;
+            case 2:
+                decode_ATOM_MCLK_ENTRY(buf, base, values);
+                return;
+            case 3:
+                decode_ATOM_TONGA_SCLK_ENTRY(buf, base, values);
+                return;
+            case 4:
+                decode_ATOM_SCLK_ENTRY(buf, base, values);
+                return;
+            case 5:
+                decode_ATOM_VOLTAGE_ENTRY(buf, base, values);
+                return;
+            case 6:
+                decode_ATOM_TONGA_POWERTUNE_TABLE(buf, base, values);
+                return;
+            case 7:
+                decode_ATOM_POWERTUNE_TABLE(buf, base, values);
+                return;
+            case 8:
+                decode_ATOM_POLARIS_POWERTUNE_TABLE(buf, base, values);
+                return;
+            case 9:
+                decode_ATOM_STATE(buf, base, values);
+                return;
+            case 10:
+                decode_ATOM_TONGA_FAN_TABLE(buf, base, values);
+                return;
+            case 11:
+                decode_ATOM_FAN_TABLE(buf, base, values);
+                return;
+            case 12:
+                decode_ATOM_THERMAL_CONTROLLER(buf, base, values);
+                return;
+            case 13:
+                decode_ATOM_MM_ENTRY(buf, base, values);
+                return;
+            case 14:
+                decode_ATOM_VCE_STATE(buf, base, values);
+                return;
+            case 15:
+                decode_ATOM_PPM_TABLE(buf, base, values);
+                return;
+            case 16:
+                decode_ATOM_HARD_LIMIT_ENTRY(buf, base, values);
+                return;
+            case 17:
+                decode_ATOM_TONGA_PCIE_ENTRY(buf, base, values);
+                return;
+            case 18:
+                decode_ATOM_PCIE_ENTRY(buf, base, values);
+                return;
+            case 19:
+                decode_ATOM_GPIO_TABLE(buf, base, values);
+                return;
+            case 20:
+                decode_ATOM_VEGA10_POWERPLAY_TABLE(buf, base, values);
+                return;
+            case 21:
+                decode_ATOM_VEGA10_CLK_ENTRY(buf, base, values);
+                return;
+            case 22:
+                decode_ATOM_VEGA10_GFXCLK_ENTRY(buf, base, values);
+                return;
+            case 23:
+                decode_ATOM_VEGA10_GFXCLK_ENTRY_V2(buf, base, values);
+                return;
+            case 24:
+                decode_ATOM_VEGA10_MCLK_ENTRY(buf, base, values);
+                return;
+            case 25:
+                decode_ATOM_VEGA10_VOLTAGE_ENTRY(buf, base, values);
+                return;
+            case 26:
+                decode_ATOM_VEGA10_STATE(buf, base, values);
+                return;
+            case 27:
+                decode_ATOM_VEGA10_FAN_TABLE(buf, base, values);
+                return;
+            case 28:
+                decode_ATOM_VEGA10_FAN_TABLE_V2(buf, base, values);
+                return;
+            case 29:
+                decode_ATOM_VEGA10_THERMAL_CONTROLLER(buf, base, values);
+                return;
+            case 30:
+                decode_ATOM_VEGA10_MM_ENTRY(buf, base, values);
+                return;
+            case 31:
+                decode_ATOM_VEGA10_POWERTUNE_TABLE(buf, base, values);
+                return;
+            case 32:
+                decode_ATOM_VEGA10_POWERTUNE_TABLE_V2(buf, base, values);
+                return;
+            case 33:
+                decode_ATOM_VEGA10_POWERTUNE_TABLE_V3(buf, base, values);
+                return;
+            case 34:
+                decode_ATOM_VEGA10_HARD_LIMIT_ENTRY(buf, base, values);
+                return;
+            case 35:
+                decode_ATOM_VEGA10_PCIE_ENTRY(buf, base, values);
+                return;
+        }
+    }
+
+    static void encode(int id, long[] values, ByteBuffer buf, int base)
+    {
+        switch(id)
+        {
+            case 0:
+                encode_ATOM_POWERPLAY_TABLE(values, buf, base);
+                return;
+            case 1:
+                encode_ATOM_TABLE_HEADER(values, buf, base);
+                return;
+            case 2:
+                encode_ATOM_MCLK_ENTRY(values, buf, base);
+                return;
+            case 3:
+                encode_ATOM_TONGA_SCLK_ENTRY(values, buf, base);
+                return;
+            case 4:
+                encode_ATOM_SCLK_ENTRY(values, buf, base);
+                return;
+            case 5:
+                encode_ATOM_VOLTAGE_ENTRY(values, buf, base);
+                return;
+            case 6:
+                encode_ATOM_TONGA_POWERTUNE_TABLE(values, buf, base);
+                return;
+            case 7:
+                encode_ATOM_POWERTUNE_TABLE(values, buf, base);
+                return;
+            case 8:
+                encode_ATOM_POLARIS_POWERTUNE_TABLE(values, buf, base);
+                return;
+            case 9:
+                encode_ATOM_STATE(values, buf, base);
+                return;
+            case 10:
+                encode_ATOM_TONGA_FAN_TABLE(values, buf, base);
+                return;
+            case 11:
+                encode_ATOM_FAN_TABLE(values, buf, base);
+                return;
+            case 12:
+                encode_ATOM_THERMAL_CONTROLLER(values, buf, base);
+                return;
+            case 13:
+                encode_ATOM_MM_ENTRY(values, buf, base);
+                return;
+            case 14:
+                encode_ATOM_VCE_STATE(values, buf, base);
+                return;
+            case 15:
+                encode_ATOM_PPM_TABLE(values, buf, base);
+                return;
+            case 16:
+                encode_ATOM_HARD_LIMIT_ENTRY(values, buf, base);
+                return;
+            case 17:
+                encode_ATOM_TONGA_PCIE_ENTRY(values, buf, base);
+                return;
+            case 18:
+                encode_ATOM_PCIE_ENTRY(values, buf, base);
+                return;
+            case 19:
+                encode_ATOM_GPIO_TABLE(values, buf, base);
+                return;
+            case 20:
+                encode_ATOM_VEGA10_POWERPLAY_TABLE(values, buf, base);
+                return;
+            case 21:
+                encode_ATOM_VEGA10_CLK_ENTRY(values, buf, base);
+                return;
+            case 22:
+                encode_ATOM_VEGA10_GFXCLK_ENTRY(values, buf, base);
+                return;
+            case 23:
+                encode_ATOM_VEGA10_GFXCLK_ENTRY_V2(values, buf, base);
+                return;
+            case 24:
+                encode_ATOM_VEGA10_MCLK_ENTRY(values, buf, base);
+                return;
+            case 25:
+                encode_ATOM_VEGA10_VOLTAGE_ENTRY(values, buf, base);
+                return;
+            case 26:
+                encode_ATOM_VEGA10_STATE(values, buf, base);
+                return;
+            case 27:
+                encode_ATOM_VEGA10_FAN_TABLE(values, buf, base);
+                return;
+            case 28:
+                encode_ATOM_VEGA10_FAN_TABLE_V2(values, buf, base);
+                return;
+            case 29:
+                encode_ATOM_VEGA10_THERMAL_CONTROLLER(values, buf, base);
+                return;
+            case 30:
+                encode_ATOM_VEGA10_MM_ENTRY(values, buf, base);
+                return;
+            case 31:
+                encode_ATOM_VEGA10_POWERTUNE_TABLE(values, buf, base);
+                return;
+            case 32:
+                encode_ATOM_VEGA10_POWERTUNE_TABLE_V2(values, buf, base);
+                return;
+            case 33:
+                encode_ATOM_VEGA10_POWERTUNE_TABLE_V3(values, buf, base);
+                return;
+            case 34:
+                encode_ATOM_VEGA10_HARD_LIMIT_ENTRY(values, buf, base);
+                return;
+            case 35:
+                encode_ATOM_VEGA10_PCIE_ENTRY(values, buf, base);
+                return;
+        }
+    }
+
+    private static void decode_ATOM_POWERPLAY_TABLE(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Short.toUnsignedLong(buf.getShort(base));                           // sHeader.usStructureSize
+        values[1] = Byte.toUnsignedLong(buf.get(base + 2));                             // sHeader.ucTableFormatRevision
+        values[2] = Byte.toUnsignedLong(buf.get(base + 3));                             // sHeader.ucTableContentRevision
+        values[3] = Byte.toUnsignedLong(buf.get(base + 4));                             // ucTableRevision
+        values[4] = Short.toUnsignedLong(buf.getShort(base + 5));                       // usTableSize
+        values[5] = Integer.toUnsignedLong(buf.getInt(base + 7));                       // ulGoldenPPID
+        values[6] = Integer.toUnsignedLong(buf.getInt(base + 11));                      // ulGoldenRevision
+        values[7] = Short.toUnsignedLong(buf.getShort(base + 15));                      // usFormatID
+        values[8] = Short.toUnsignedLong(buf.getShort(base + 17));                      // usVoltageTime
+        values[9] = Integer.toUnsignedLong(buf.getInt(base + 19));                      // ulPlatformCaps
+        values[10] = Integer.toUnsignedLong(buf.getInt(base + 23));                     // ulMaxODEngineClock
+        values[11] = Integer.toUnsignedLong(buf.getInt(base + 27));                     // ulMaxODMemoryClock
+        values[12] = Short.toUnsignedLong(buf.getShort(base + 31));                     // usPowerControlLimit
+        values[13] = Short.toUnsignedLong(buf.getShort(base + 33));                     // usUlvVoltageOffset
+        values[14] = Short.toUnsignedLong(buf.getShort(base + 35));                     // usStateArrayOffset
+        values[15] = Short.toUnsignedLong(buf.getShort(base + 37));                     // usFanTableOffset
+        values[16] = Short.toUnsignedLong(buf.getShort(base + 39));                     // usThermalControllerOffset
+        values[17] = Short.toUnsignedLong(buf.getShort(base + 41));                     // usReserv
+        values[18] = Short.toUnsignedLong(buf.getShort(base + 43));                     // usMclkDependencyTableOffset
+        values[19] = Short.toUnsignedLong(buf.getShort(base + 45));                     // usSclkDependencyTableOffset
+        values[20] = Short.toUnsignedLong(buf.getShort(base + 47));                     // usVddcLookupTableOffset
+        values[21] = Short.toUnsignedLong(buf.getShort(base + 49));                     // usVddgfxLookupTableOffset
+        values[22] = Short.toUnsignedLong(buf.getShort(base + 51));                     // usMMDependencyTableOffset
+        values[23] = Short.toUnsignedLong(buf.getShort(base + 53));                     // usVCEStateTableOffset
+        values[24] = Short.toUnsignedLong(buf.getShort(base + 55));                     // usPPMTableOffset
+        values[25] = Short.toUnsignedLong(buf.getShort(base + 57));                     // usPowerTuneTableOffset
+        values[26] = Short.toUnsignedLong(buf.getShort(base + 59));                     // usHardLimitTableOffset
+        values[27] = Short.toUnsignedLong(buf.getShort(base + 61));                     // usPCIETableOffset
+        values[28] = Short.toUnsignedLong(buf.getShort(base + 63));                     // usGPIOTableOffset
+        values[29] = Short.toUnsignedLong(buf.getShort(base + 65));                     // usReserved[0]
+        values[30] = Short.toUnsignedLong(buf.getShort(base + 67));                     // usReserved[1]
+        values[31] = Short.toUnsignedLong(buf.getShort(base + 69));                     // usReserved[2]
+        values[32] = Short.toUnsignedLong(buf.getShort(base + 71));                     // usReserved[3]
+        values[33] = Short.toUnsignedLong(buf.getShort(base + 73));                     // usReserved[4]
+        values[34] = Short.toUnsignedLong(buf.getShort(base + 75));                     // usReserved[5]
+    }
+
+    private static void encode_ATOM_POWERPLAY_TABLE(long[] values, ByteBuffer buf, int base)
+    {
+        buf.putShort(base, (short)values[0]);                                           // sHeader.usStructureSize
+        buf.put(base + 2, (byte)values[1]);                                             // sHeader.ucTableFormatRevision
+        buf.put(base + 3, (byte)values[2]);                                             // sHeader.ucTableContentRevision
+        buf.put(base + 4, (byte)values[3]);                                             // ucTableRevision
+        buf.putShort(base + 5, (short)values[4]);                                       // usTableSize
+        buf.putInt(base + 7, (int)values[5]);                                           // ulGoldenPPID
+        buf.putInt(base + 11, (int)values[6]);                                          // ulGoldenRevision
+        buf.putShort(base + 15, (short)values[7]);                                      // usFormatID
+        buf.putShort(base + 17, (short)values[8]);                                      // usVoltageTime
+        buf.putInt(base + 19, (int)values[9]);                                          // ulPlatformCaps
+        buf.putInt(base + 23, (int)values[10]);                                         // ulMaxODEngineClock
+        buf.putInt(base + 27, (int)values[11]);                                         // ulMaxODMemoryClock
+        buf.putShort(base + 31, (short)values[12]);                                     // usPowerControlLimit
+        buf.putShort(base + 33, (short)values[13]);                                     // usUlvVoltageOffset
+        buf.putShort(base + 35, (short)values[14]);                                     // usStateArrayOffset
+        buf.putShort(base + 37, (short)values[15]);                                     // usFanTableOffset
+        buf.putShort(base + 39, (short)values[16]);                                     // usThermalControllerOffset
+        buf.putShort(base + 41, (short)values[17]);                                     // usReserv
+        buf.putShort(base + 43, (short)values[18]);                                     // usMclkDependencyTableOffset
+        buf.putShort(base + 45, (short)values[19]);                                     // usSclkDependencyTableOffset
+        buf.putShort(base + 47, (short)values[20]);                                     // usVddcLookupTableOffset
+        buf.putShort(base + 49, (short)values[21]);                                     // usVddgfxLookupTableOffset
+        buf.putShort(base + 51, (short)values[22]);                                     // usMMDependencyTableOffset
+        buf.putShort(base + 53, (short)values[23]);                                     // usVCEStateTableOffset
+        buf.putShort(base + 55, (short)values[24]);                                     // usPPMTableOffset
+        buf.putShort(base + 57, (short)values[25]);                                     // usPowerTuneTableOffset
+        buf.putShort(base + 59, (short)values[26]);                                     // usHardLimitTableOffset
+        buf.putShort(base + 61, (short)values[27]);                                     // usPCIETableOffset
+        buf.putShort(base + 63, (short)values[28]);                                     // usGPIOTableOffset
+        buf.putShort(base + 65, (short)values[29]);                                     // usReserved[0]
+        buf.putShort(base + 67, (short)values[30]);                                     // usReserved[1]
+        buf.putShort(base + 69, (short)values[31]);                                     // usReserved[2]
+        buf.putShort(base + 71, (short)values[32]);                                     // usReserved[3]
+        buf.putShort(base + 73, (short)values[33]);                                     // usReserved[4]
+        buf.putShort(base + 75, (short)values[34]);                                     // usReserved[5]
+    }
+
+    private static void decode_ATOM_TABLE_HEADER(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucRevId
+        values[1] = Byte.toUnsignedLong(buf.get(base + 1));                             // ucNumEntries
+    }
+
+    private static void encode_ATOM_TABLE_HEADER(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucRevId
+        buf.put(base + 1, (byte)values[1]);                                             // ucNumEntries
+    }
+
+    private static void decode_ATOM_MCLK_ENTRY(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucVddcInd
+        values[1] = Short.toUnsignedLong(buf.getShort(base + 1));                       // usVddci
+        values[2] = Short.toUnsignedLong(buf.getShort(base + 3));                       // usVddgfxOffset
+        values[3] = Short.toUnsignedLong(buf.getShort(base + 5));                       // usMvdd
+        values[4] = Integer.toUnsignedLong(buf.getInt(base + 7));                       // ulMclk
+        values[5] = Short.toUnsignedLong(buf.getShort(base + 11));                      // usReserved
+    }
+
+    private static void encode_ATOM_MCLK_ENTRY(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucVddcInd
+        buf.putShort(base + 1, (short)values[1]);                                       // usVddci
+        buf.putShort(base + 3, (short)values[2]);                                       // usVddgfxOffset
+        buf.putShort(base + 5, (short)values[3]);                                       // usMvdd
+        buf.putInt(base + 7, (int)values[4]);                                           // ulMclk
+        buf.putShort(base + 11, (short)values[5]);                                      // usReserved
+    }
+
+    private static void decode_ATOM_TONGA_SCLK_ENTRY(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucVddInd
+        values[1] = Short.toUnsignedLong(buf.getShort(base + 1));                       // usVddcOffset
+        values[2] = Integer.toUnsignedLong(buf.getInt(base + 3));                       // ulSclk
+        values[3] = Short.toUnsignedLong(buf.getShort(base + 7));                       // usEdcCurrent
+        values[4] = Byte.toUnsignedLong(buf.get(base + 9));                             // ucReliabilityTemperature
+        values[5] = Byte.toUnsignedLong(buf.get(base + 10));                            // ucCKSVOffsetandDisable
+    }
+
+    private static void encode_ATOM_TONGA_SCLK_ENTRY(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucVddInd
+        buf.putShort(base + 1, (short)values[1]);                                       // usVddcOffset
+        buf.putInt(base + 3, (int)values[2]);                                           // ulSclk
+        buf.putShort(base + 7, (short)values[3]);                                       // usEdcCurrent
+        buf.put(base + 9, (byte)values[4]);                                             // ucReliabilityTemperature
+        buf.put(base + 10, (byte)values[5]);                                            // ucCKSVOffsetandDisable
+    }
+
+    private static void decode_ATOM_SCLK_ENTRY(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucVddInd
+        values[1] = Short.toUnsignedLong(buf.getShort(base + 1));                       // usVddcOffset
+        values[2] = Integer.toUnsignedLong(buf.getInt(base + 3));                       // ulSclk
+        values[3] = Short.toUnsignedLong(buf.getShort(base + 7));                       // usEdcCurrent
+        values[4] = Byte.toUnsignedLong(buf.get(base + 9));                             // ucReliabilityTemperature
+        values[5] = Byte.toUnsignedLong(buf.get(base + 10));                            // ucCKSVOffsetandDisable
+        values[6] = Integer.toUnsignedLong(buf.getInt(base + 11));                      // ulSclkOffset
+    }
+
+    private static void encode_ATOM_SCLK_ENTRY(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucVddInd
+        buf.putShort(base + 1, (short)values[1]);                                       // usVddcOffset
+        buf.putInt(base + 3, (int)values[2]);                                           // ulSclk
+        buf.putShort(base + 7, (short)values[3]);                                       // usEdcCurrent
+        buf.put(base + 9, (byte)values[4]);                                             // ucReliabilityTemperature
+        buf.put(base + 10, (byte)values[5]);                                            // ucCKSVOffsetandDisable
+        buf.putInt(base + 11, (int)values[6]);                                          // ulSclkOffset
+    }
+
+    private static void decode_ATOM_VOLTAGE_ENTRY(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Short.toUnsignedLong(buf.getShort(base));                           // usVdd
+        values[1] = Short.toUnsignedLong(buf.getShort(base + 2));                       // usCACLow
+        values[2] = Short.toUnsignedLong(buf.getShort(base + 4));                       // usCACMid
+        values[3] = Short.toUnsignedLong(buf.getShort(base + 6));                       // usCACHigh
+    }
+
+    private static void encode_ATOM_VOLTAGE_ENTRY(long[] values, ByteBuffer buf, int base)
+    {
+        buf.putShort(base, (short)values[0]);                                           // usVdd
+        buf.putShort(base + 2, (short)values[1]);                                       // usCACLow
+        buf.putShort(base + 4, (short)values[2]);                                       // usCACMid
+        buf.putShort(base + 6, (short)values[3]);                                       // usCACHigh
+    }
+
+    private static void decode_ATOM_TONGA_POWERTUNE_TABLE(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucRevId
+        values[1] = Short.toUnsignedLong(buf.getShort(base + 1));                       // usTDP
+        values[2] = Short.toUnsignedLong(buf.getShort(base + 3));                       // usConfigurableTDP
+        values[3] = Short.toUnsignedLong(buf.getShort(base + 5));                       // usTDC
+        values[4] = Short.toUnsignedLong(buf.getShort(base + 7));                       // usBatteryPowerLimit
+        values[5] = Short.toUnsignedLong(buf.getShort(base + 9));                       // usSmallPowerLimit
+        values[6] = Short.toUnsignedLong(buf.getShort(base + 11));                      // usLowCACLeakage
+        values[7] = Short.toUnsignedLong(buf.getShort(base + 13));                      // usHighCACLeakage
+        values[8] = Short.toUnsignedLong(buf.getShort(base + 15));                      // usMaximumPowerDeliveryLimit
+        values[9] = Short.toUnsignedLong(buf.getShort(base + 17));                      // usTjMax
+        values[10] = Short.toUnsignedLong(buf.getShort(base + 19));                     // usPowerTuneDataSetID
+        values[11] = Short.toUnsignedLong(buf.getShort(base + 21));                     // usEDCLimit
+        values[12] = Short.toUnsignedLong(buf.getShort(base + 23));                     // usSoftwareShutdownTemp
+        values[13] = Short.toUnsignedLong(buf.getShort(base + 25));                     // usClockStretchAmount
+        values[14] = Short.toUnsignedLong(buf.getShort(base + 27));                     // usReserve[0]
+        values[15] = Short.toUnsignedLong(buf.getShort(base + 29));                     // usReserve[1]
+    }
+
+    private static void encode_ATOM_TONGA_POWERTUNE_TABLE(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucRevId
+        buf.putShort(base + 1, (short)values[1]);                                       // usTDP
+        buf.putShort(base + 3, (short)values[2]);                                       // usConfigurableTDP
+        buf.putShort(base + 5, (short)values[3]);                                       // usTDC
+        buf.putShort(base + 7, (short)values[4]);                                       // usBatteryPowerLimit
+        buf.putShort(base + 9, (short)values[5]);                                       // usSmallPowerLimit
+        buf.putShort(base + 11, (short)values[6]);                                      // usLowCACLeakage
+        buf.putShort(base + 13, (short)values[7]);                                      // usHighCACLeakage
+        buf.putShort(base + 15, (short)values[8]);                                      // usMaximumPowerDeliveryLimit
+        buf.putShort(base + 17, (short)values[9]);                                      // usTjMax
+        buf.putShort(base + 19, (short)values[10]);                                     // usPowerTuneDataSetID
+        buf.putShort(base + 21, (short)values[11]);                                     // usEDCLimit
+        buf.putShort(base + 23, (short)values[12]);                                     // usSoftwareShutdownTemp
+        buf.putShort(base + 25, (short)values[13]);                                     // usClockStretchAmount
+        buf.putShort(base + 27, (short)values[14]);                                     // usReserve[0]
+        buf.putShort(base + 29, (short)values[15]);                                     // usReserve[1]
+    }
+
+    private static void decode_ATOM_POWERTUNE_TABLE(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucRevId
+        values[1] = Short.toUnsignedLong(buf.getShort(base + 1));                       // usTDP
+        values[2] = Short.toUnsignedLong(buf.getShort(base + 3));                       // usConfigurableTDP
+        values[3] = Short.toUnsignedLong(buf.getShort(base + 5));                       // usTDC
+        values[4] = Short.toUnsignedLong(buf.getShort(base + 7));                       // usBatteryPowerLimit
+        values[5] = Short.toUnsignedLong(buf.getShort(base + 9));                       // usSmallPowerLimit
+        values[6] = Short.toUnsignedLong(buf.getShort(base + 11));                      // usLowCACLeakage
+        values[7] = Short.toUnsignedLong(buf.getShort(base + 13));                      // usHighCACLeakage
+        values[8] = Short.toUnsignedLong(buf.getShort(base + 15));                      // usMaximumPowerDeliveryLimit
+        values[9] = Short.toUnsignedLong(buf.getShort(base + 17));                      // usTjMax
+        values[10] = Short.toUnsignedLong(buf.getShort(base + 19));                     // usPowerTuneDataSetID
+        values[11] = Short.toUnsignedLong(buf.getShort(base + 21));                     // usEDCLimit
+        values[12] = Short.toUnsignedLong(buf.getShort(base + 23));                     // usSoftwareShutdownTemp
+        values[13] = Short.toUnsignedLong(buf.getShort(base + 25));                     // usClockStretchAmount
+        values[14] = Short.toUnsignedLong(buf.getShort(base + 27));                     // usTemperatureLimitHotspot
+        values[15] = Short.toUnsignedLong(buf.getShort(base + 29));                     // usTemperatureLimitLiquid1
+        values[16] = Short.toUnsignedLong(buf.getShort(base + 31));                     // usTemperatureLimitLiquid2
+        values[17] = Short.toUnsignedLong(buf.getShort(base + 33));                     // usTemperatureLimitVrVddc
+        values[18] = Short.toUnsignedLong(buf.getShort(base + 35));                     // usTemperatureLimitVrMvdd
+        values[19] = Short.toUnsignedLong(buf.getShort(base + 37));                     // usTemperatureLimitPlx
+        values[20] = Byte.toUnsignedLong(buf.get(base + 39));                           // ucLiquid1_I2C_address
+        values[21] = Byte.toUnsignedLong(buf.get(base + 40));                           // ucLiquid2_I2C_address
+        values[22] = Byte.toUnsignedLong(buf.get(base + 41));                           // ucLiquid_I2C_Line
+        values[23] = Byte.toUnsignedLong(buf.get(base + 42));                           // ucVr_I2C_address
+        values[24] = Byte.toUnsignedLong(buf.get(base + 43));                           // ucVr_I2C_Line
+        values[25] = Byte.toUnsignedLong(buf.get(base + 44));                           // ucPlx_I2C_address
+        values[26] = Byte.toUnsignedLong(buf.get(base + 45));                           // ucPlx_I2C_Line
+        values[27] = Short.toUnsignedLong(buf.getShort(base + 46));                     // usReserved
+    }
+
+    private static void encode_ATOM_POWERTUNE_TABLE(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucRevId
+        buf.putShort(base + 1, (short)values[1]);                                       // usTDP
+        buf.putShort(base + 3, (short)values[2]);                                       // usConfigurableTDP
+        buf.putShort(base + 5, (short)values[3]);                                       // usTDC
+        buf.putShort(base + 7, (short)values[4]);                                       // usBatteryPowerLimit
+        buf.putShort(base + 9, (short)values[5]);                                       // usSmallPowerLimit
+        buf.putShort(base + 11, (short)values[6]);                                      // usLowCACLeakage
+        buf.putShort(base + 13, (short)values[7]);                                      // usHighCACLeakage
+        buf.putShort(base + 15, (short)values[8]);                                      // usMaximumPowerDeliveryLimit
+        buf.putShort(base + 17, (short)values[9]);                                      // usTjMax
+        buf.putShort(base + 19, (short)values[10]);                                     // usPowerTuneDataSetID
+        buf.putShort(base + 21, (short)values[11]);                                     // usEDCLimit
+        buf.putShort(base + 23, (short)values[12]);                                     // usSoftwareShutdownTemp
+        buf.putShort(base + 25, (short)values[13]);                                     // usClockStretchAmount
+        buf.putShort(base + 27, (short)values[14]);                                     // usTemperatureLimitHotspot
+        buf.putShort(base + 29, (short)values[15]);                                     // usTemperatureLimitLiquid1
+        buf.putShort(base + 31, (short)values[16]);                                     // usTemperatureLimitLiquid2
+        buf.putShort(base + 33, (short)values[17]);                                     // usTemperatureLimitVrVddc
+        buf.putShort(base + 35, (short)values[18]);                                     // usTemperatureLimitVrMvdd
+        buf.putShort(base + 37, (short)values[19]);                                     // usTemperatureLimitPlx
+        buf.put(base + 39, (byte)values[20]);                                           // ucLiquid1_I2C_address
+        buf.put(base + 40, (byte)values[21]);                                           // ucLiquid2_I2C_address
+        buf.put(base + 41, (byte)values[22]);                                           // ucLiquid_I2C_Line
+        buf.put(base + 42, (byte)values[23]);                                           // ucVr_I2C_address
+        buf.put(base + 43, (byte)values[24]);                                           // ucVr_I2C_Line
+        buf.put(base + 44, (byte)values[25]);                                           // ucPlx_I2C_address
+        buf.put(base + 45, (byte)values[26]);                                           // ucPlx_I2C_Line
+        buf.putShort(base + 46, (short)values[27]);                                     // usReserved
+    }
+
+    private static void decode_ATOM_POLARIS_POWERTUNE_TABLE(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucRevId
+        values[1] = Short.toUnsignedLong(buf.getShort(base + 1));                       // usTDP
+        values[2] = Short.toUnsignedLong(buf.getShort(base + 3));                       // usConfigurableTDP
+        values[3] = Short.toUnsignedLong(buf.getShort(base + 5));                       // usTDC
+        values[4] = Short.toUnsignedLong(buf.getShort(base + 7));                       // usBatteryPowerLimit
+        values[5] = Short.toUnsignedLong(buf.getShort(base + 9));                       // usSmallPowerLimit
+        values[6] = Short.toUnsignedLong(buf.getShort(base + 11));                      // usLowCACLeakage
+        values[7] = Short.toUnsignedLong(buf.getShort(base + 13));                      // usHighCACLeakage
+        values[8] = Short.toUnsignedLong(buf.getShort(base + 15));                      // usMaximumPowerDeliveryLimit
+        values[9] = Short.toUnsignedLong(buf.getShort(base + 17));                      // usTjMax
+        values[10] = Short.toUnsignedLong(buf.getShort(base + 19));                     // usPowerTuneDataSetID
+        values[11] = Short.toUnsignedLong(buf.getShort(base + 21));                     // usEDCLimit
+        values[12] = Short.toUnsignedLong(buf.getShort(base + 23));                     // usSoftwareShutdownTemp
+        values[13] = Short.toUnsignedLong(buf.getShort(base + 25));                     // usClockStretchAmount
+        values[14] = Short.toUnsignedLong(buf.getShort(base + 27));                     // usTemperatureLimitHotspot
+        values[15] = Short.toUnsignedLong(buf.getShort(base + 29));                     // usTemperatureLimitLiquid1
+        values[16] = Short.toUnsignedLong(buf.getShort(base + 31));                     // usTemperatureLimitLiquid2
+        values[17] = Short.toUnsignedLong(buf.getShort(base + 33));                     // usTemperatureLimitVrVddc
+        values[18] = Short.toUnsignedLong(buf.getShort(base + 35));                     // usTemperatureLimitVrMvdd
+        values[19] = Short.toUnsignedLong(buf.getShort(base + 37));                     // usTemperatureLimitPlx
+        values[20] = Byte.toUnsignedLong(buf.get(base + 39));                           // ucLiquid1_I2C_address
+        values[21] = Byte.toUnsignedLong(buf.get(base + 40));                           // ucLiquid2_I2C_address
+        values[22] = Byte.toUnsignedLong(buf.get(base + 41));                           // ucLiquid_I2C_Line
+        values[23] = Byte.toUnsignedLong(buf.get(base + 42));                           // ucVr_I2C_address
+        values[24] = Byte.toUnsignedLong(buf.get(base + 43));                           // ucVr_I2C_Line
+        values[25] = Byte.toUnsignedLong(buf.get(base + 44));                           // ucPlx_I2C_address
+        values[26] = Byte.toUnsignedLong(buf.get(base + 45));                           // ucPlx_I2C_Line
+        values[27] = Short.toUnsignedLong(buf.getShort(base + 46));                     // usBoostPowerLimit
+        values[28] = Byte.toUnsignedLong(buf.get(base + 48));                           // ucCKS_LDO_REFSEL
+        values[29] = Byte.toUnsignedLong(buf.get(base + 49));                           // ucHotSpotOnly
+    }
+
+    private static void encode_ATOM_POLARIS_POWERTUNE_TABLE(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucRevId
+        buf.putShort(base + 1, (short)values[1]);                                       // usTDP
+        buf.putShort(base + 3, (short)values[2]);                                       // usConfigurableTDP
+        buf.putShort(base + 5, (short)values[3]);                                       // usTDC
+        buf.putShort(base + 7, (short)values[4]);                                       // usBatteryPowerLimit
+        buf.putShort(base + 9, (short)values[5]);                                       // usSmallPowerLimit
+        buf.putShort(base + 11, (short)values[6]);                                      // usLowCACLeakage
+        buf.putShort(base + 13, (short)values[7]);                                      // usHighCACLeakage
+        buf.putShort(base + 15, (short)values[8]);                                      // usMaximumPowerDeliveryLimit
+        buf.putShort(base + 17, (short)values[9]);                                      // usTjMax
+        buf.putShort(base + 19, (short)values[10]);                                     // usPowerTuneDataSetID
+        buf.putShort(base + 21, (short)values[11]);                                     // usEDCLimit
+        buf.putShort(base + 23, (short)values[12]);                                     // usSoftwareShutdownTemp
+        buf.putShort(base + 25, (short)values[13]);                                     // usClockStretchAmount
+        buf.putShort(base + 27, (short)values[14]);                                     // usTemperatureLimitHotspot
+        buf.putShort(base + 29, (short)values[15]);                                     // usTemperatureLimitLiquid1
+        buf.putShort(base + 31, (short)values[16]);                                     // usTemperatureLimitLiquid2
+        buf.putShort(base + 33, (short)values[17]);                                     // usTemperatureLimitVrVddc
+        buf.putShort(base + 35, (short)values[18]);                                     // usTemperatureLimitVrMvdd
+        buf.putShort(base + 37, (short)values[19]);                                     // usTemperatureLimitPlx
+        buf.put(base + 39, (byte)values[20]);                                           // ucLiquid1_I2C_address
+        buf.put(base + 40, (byte)values[21]);                                           // ucLiquid2_I2C_address
+        buf.put(base + 41, (byte)values[22]);                                           // ucLiquid_I2C_Line
+        buf.put(base + 42, (byte)values[23]);                                           // ucVr_I2C_address
+        buf.put(base + 43, (byte)values[24]);                                           // ucVr_I2C_Line
+        buf.put(base + 44, (byte)values[25]);                                           // ucPlx_I2C_address
+        buf.put(base + 45, (byte)values[26]);                                           // ucPlx_I2C_Line
+        buf.putShort(base + 46, (short)values[27]);                                     // usBoostPowerLimit
+        buf.put(base + 48, (byte)values[28]);                                           // ucCKS_LDO_REFSEL
+        buf.put(base + 49, (byte)values[29]);                                           // ucHotSpotOnly
+    }
+
+    private static void decode_ATOM_STATE(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucEngineClockIndexHigh
+        values[1] = Byte.toUnsignedLong(buf.get(base + 1));                             // ucEngineClockIndexLow
+        values[2] = Byte.toUnsignedLong(buf.get(base + 2));                             // ucMemoryClockIndexHigh
+        values[3] = Byte.toUnsignedLong(buf.get(base + 3));                             // ucMemoryClockIndexLow
+        values[4] = Byte.toUnsignedLong(buf.get(base + 4));                             // ucPCIEGenLow
+        values[5] = Byte.toUnsignedLong(buf.get(base + 5));                             // ucPCIEGenHigh
+        values[6] = Byte.toUnsignedLong(buf.get(base + 6));                             // ucPCIELaneLow
+        values[7] = Byte.toUnsignedLong(buf.get(base + 7));                             // ucPCIELaneHigh
+        values[8] = Short.toUnsignedLong(buf.getShort(base + 8));                       // usClassification
+        values[9] = Integer.toUnsignedLong(buf.getInt(base + 10));                      // ulCapsAndSettings
+        values[10] = Short.toUnsignedLong(buf.getShort(base + 14));                     // usClassification2
+        values[11] = Byte.toUnsignedLong(buf.get(base + 16));                           // ucUnused[0]
+        values[12] = Byte.toUnsignedLong(buf.get(base + 17));                           // ucUnused[1]
+        values[13] = Byte.toUnsignedLong(buf.get(base + 18));                           // ucUnused[2]
+        values[14] = Byte.toUnsignedLong(buf.get(base + 19));                           // ucUnused[3]
+    }
+
+    private static void encode_ATOM_STATE(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucEngineClockIndexHigh
+        buf.put(base + 1, (byte)values[1]);                                             // ucEngineClockIndexLow
+        buf.put(base + 2, (byte)values[2]);                                             // ucMemoryClockIndexHigh
+        buf.put(base + 3, (byte)values[3]);                                             // ucMemoryClockIndexLow
+        buf.put(base + 4, (byte)values[4]);                                             // ucPCIEGenLow
+        buf.put(base + 5, (byte)values[5]);                                             // ucPCIEGenHigh
+        buf.put(base + 6, (byte)values[6]);                                             // ucPCIELaneLow
+        buf.put(base + 7, (byte)values[7]);                                             // ucPCIELaneHigh
+        buf.putShort(base + 8, (short)values[8]);                                       // usClassification
+        buf.putInt(base + 10, (int)values[9]);                                          // ulCapsAndSettings
+        buf.putShort(base + 14, (short)values[10]);                                     // usClassification2
+        buf.put(base + 16, (byte)values[11]);                                           // ucUnused[0]
+        buf.put(base + 17, (byte)values[12]);                                           // ucUnused[1]
+        buf.put(base + 18, (byte)values[13]);                                           // ucUnused[2]
+        buf.put(base + 19, (byte)values[14]);                                           // ucUnused[3]
+    }
+
+    private static void decode_ATOM_TONGA_FAN_TABLE(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucRevId
+        values[1] = Byte.toUnsignedLong(buf.get(base + 1));                             // ucTHyst
+        values[2] = Short.toUnsignedLong(buf.getShort(base + 2));                       // usTMin
+        values[3] = Short.toUnsignedLong(buf.getShort(base + 4));                       // usTMed
+        values[4] = Short.toUnsignedLong(buf.getShort(base + 6));                       // usTHigh
+        values[5] = Short.toUnsignedLong(buf.getShort(base + 8));                       // usPWMMin
+        values[6] = Short.toUnsignedLong(buf.getShort(base + 10));                      // usPWMMed
+        values[7] = Short.toUnsignedLong(buf.getShort(base + 12));                      // usPWMHigh
+        values[8] = Short.toUnsignedLong(buf.getShort(base + 14));                      // usTMax
+        values[9] = Byte.toUnsignedLong(buf.get(base + 16));                            // ucFanControlMode
+        values[10] = Short.toUnsignedLong(buf.getShort(base + 17));                     // usFanPWMMax
+        values[11] = Short.toUnsignedLong(buf.getShort(base + 19));                     // usFanOutputSensitivity
+        values[12] = Short.toUnsignedLong(buf.getShort(base + 21));                     // usFanRPMMax
+        values[13] = Integer.toUnsignedLong(buf.getInt(base + 23));                     // ulMinFanSCLKAcousticLimit
+        values[14] = Byte.toUnsignedLong(buf.get(base + 27));                           // ucTargetTemperature
+        values[15] = Byte.toUnsignedLong(buf.get(base + 28));                           // ucMinimumPWMLimit
+        values[16] = Short.toUnsignedLong(buf.getShort(base + 29));                     // usReserved
+    }
+
+    private static void encode_ATOM_TONGA_FAN_TABLE(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucRevId
+        buf.put(base + 1, (byte)values[1]);                                             // ucTHyst
+        buf.putShort(base + 2, (short)values[2]);                                       // usTMin
+        buf.putShort(base + 4, (short)values[3]);                                       // usTMed
+        buf.putShort(base + 6, (short)values[4]);                                       // usTHigh
+        buf.putShort(base + 8, (short)values[5]);                                       // usPWMMin
+        buf.putShort(base + 10, (short)values[6]);                                      // usPWMMed
+        buf.putShort(base + 12, (short)values[7]);                                      // usPWMHigh
+        buf.putShort(base + 14, (short)values[8]);                                      // usTMax
+        buf.put(base + 16, (byte)values[9]);                                            // ucFanControlMode
+        buf.putShort(base + 17, (short)values[10]);                                     // usFanPWMMax
+        buf.putShort(base + 19, (short)values[11]);                                     // usFanOutputSensitivity
+        buf.putShort(base + 21, (short)values[12]);                                     // usFanRPMMax
+        buf.putInt(base + 23, (int)values[13]);                                         // ulMinFanSCLKAcousticLimit
+        buf.put(base + 27, (byte)values[14]);                                           // ucTargetTemperature
+        buf.put(base + 28, (byte)values[15]);                                           // ucMinimumPWMLimit
+        buf.putShort(base + 29, (short)values[16]);                                     // usReserved
+    }
+
+    private static void decode_ATOM_FAN_TABLE(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucRevId
+        values[1] = Byte.toUnsignedLong(buf.get(base + 1));                             // ucTHyst
+        values[2] = Short.toUnsignedLong(buf.getShort(base + 2));                       // usTMin
+        values[3] = Short.toUnsignedLong(buf.getShort(base + 4));                       // usTMed
+        values[4] = Short.toUnsignedLong(buf.getShort(base + 6));                       // usTHigh
+        values[5] = Short.toUnsignedLong(buf.getShort(base + 8));                       // usPWMMin
+        values[6] = Short.toUnsignedLong(buf.getShort(base + 10));                      // usPWMMed
+        values[7] = Short.toUnsignedLong(buf.getShort(base + 12));                      // usPWMHigh
+        values[8] = Short.toUnsignedLong(buf.getShort(base + 14));                      // usTMax
+        values[9] = Byte.toUnsignedLong(buf.get(base + 16));                            // ucFanControlMode
+        values[10] = Short.toUnsignedLong(buf.getShort(base + 17));                     // usFanPWMMax
+        values[11] = Short.toUnsignedLong(buf.getShort(base + 19));                     // usFanOutputSensitivity
+        values[12] = Short.toUnsignedLong(buf.getShort(base + 21));                     // usFanRPMMax
+        values[13] = Integer.toUnsignedLong(buf.getInt(base + 23));                     // ulMinFanSCLKAcousticLimit
+        values[14] = Byte.toUnsignedLong(buf.get(base + 27));                           // ucTargetTemperature
+        values[15] = Byte.toUnsignedLong(buf.get(base + 28));                           // ucMinimumPWMLimit
+        values[16] = Short.toUnsignedLong(buf.getShort(base + 29));                     // usFanGainEdge
+        values[17] = Short.toUnsignedLong(buf.getShort(base + 31));                     // usFanGainHotspot
+        values[18] = Short.toUnsignedLong(buf.getShort(base + 33));                     // usFanGainLiquid
+        values[19] = Short.toUnsignedLong(buf.getShort(base + 35));                     // usFanGainVrVddc
+        values[20] = Short.toUnsignedLong(buf.getShort(base + 37));                     // usFanGainVrMvdd
+        values[21] = Short.toUnsignedLong(buf.getShort(base + 39));                     // usFanGainPlx
+        values[22] = Short.toUnsignedLong(buf.getShort(base + 41));                     // usFanGainHbm
+        values[23] = Short.toUnsignedLong(buf.getShort(base + 43));                     // usReserved
+    }
+
+    private static void encode_ATOM_FAN_TABLE(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucRevId
+        buf.put(base + 1, (byte)values[1]);                                             // ucTHyst
+        buf.putShort(base + 2, (short)values[2]);                                       // usTMin
+        buf.putShort(base + 4, (short)values[3]);                                       // usTMed
+        buf.putShort(base + 6, (short)values[4]);                                       // usTHigh
+        buf.putShort(base + 8, (short)values[5]);                                       // usPWMMin
+        buf.putShort(base + 10, (short)values[6]);                                      // usPWMMed
+        buf.putShort(base + 12, (short)values[7]);                                      // usPWMHigh
+        buf.putShort(base + 14, (short)values[8]);                                      // usTMax
+        buf.put(base + 16, (byte)values[9]);                                            // ucFanControlMode
+        buf.putShort(base + 17, (short)values[10]);                                     // usFanPWMMax
+        buf.putShort(base + 19, (short)values[11]);                                     // usFanOutputSensitivity
+        buf.putShort(base + 21, (short)values[12]);                                     // usFanRPMMax
+        buf.putInt(base + 23, (int)values[13]);                                         // ulMinFanSCLKAcousticLimit
+        buf.put(base + 27, (byte)values[14]);                                           // ucTargetTemperature
+        buf.put(base + 28, (byte)values[15]);                                           // ucMinimumPWMLimit
+        buf.putShort(base + 29, (short)values[16]);                                     // usFanGainEdge
+        buf.putShort(base + 31, (short)values[17]);                                     // usFanGainHotspot
+        buf.putShort(base + 33, (short)values[18]);                                     // usFanGainLiquid
+        buf.putShort(base + 35, (short)values[19]);                                     // usFanGainVrVddc
+        buf.putShort(base + 37, (short)values[20]);                                     // usFanGainVrMvdd
+        buf.putShort(base + 39, (short)values[21]);                                     // usFanGainPlx
+        buf.putShort(base + 41, (short)values[22]);                                     // usFanGainHbm
+        buf.putShort(base + 43, (short)values[23]);                                     // usReserved
+    }
+
+    private static void decode_ATOM_THERMAL_CONTROLLER(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucRevId
+        values[1] = Byte.toUnsignedLong(buf.get(base + 1));                             // ucType
+        values[2] = Byte.toUnsignedLong(buf.get(base + 2));                             // ucI2cLine
+        values[3] = Byte.toUnsignedLong(buf.get(base + 3));                             // ucI2cAddress
+        values[4] = Byte.toUnsignedLong(buf.get(base + 4));                             // ucFanParameters
+        values[5] = Byte.toUnsignedLong(buf.get(base + 5));                             // ucFanMinRPM
+        values[6] = Byte.toUnsignedLong(buf.get(base + 6));                             // ucFanMaxRPM
+        values[7] = Byte.toUnsignedLong(buf.get(base + 7));                             // ucReserved
+        values[8] = Byte.toUnsignedLong(buf.get(base + 8));                             // ucFlags
+    }
+
+    private static void encode_ATOM_THERMAL_CONTROLLER(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucRevId
+        buf.put(base + 1, (byte)values[1]);                                             // ucType
+        buf.put(base + 2, (byte)values[2]);                                             // ucI2cLine
+        buf.put(base + 3, (byte)values[3]);                                             // ucI2cAddress
+        buf.put(base + 4, (byte)values[4]);                                             // ucFanParameters
+        buf.put(base + 5, (byte)values[5]);                                             // ucFanMinRPM
+        buf.put(base + 6, (byte)values[6]);                                             // ucFanMaxRPM
+        buf.put(base + 7, (byte)values[7]);                                             // ucReserved
+        buf.put(base + 8, (byte)values[8]);                                             // ucFlags
+    }
+
+    private static void decode_ATOM_MM_ENTRY(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucVddcInd
+        values[1] = Short.toUnsignedLong(buf.getShort(base + 1));                       // usVddgfxOffset
+        values[2] = Integer.toUnsignedLong(buf.getInt(base + 3));                       // ulDClk
+        values[3] = Integer.toUnsignedLong(buf.getInt(base + 7));                       // ulVClk
+        values[4] = Integer.toUnsignedLong(buf.getInt(base + 11));                      // ulEClk
+        values[5] = Integer.toUnsignedLong(buf.getInt(base + 15));                      // ulAClk
+        values[6] = Integer.toUnsignedLong(buf.getInt(base + 19));                      // ulSAMUClk
+    }
+
+    private static void encode_ATOM_MM_ENTRY(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucVddcInd
+        buf.putShort(base + 1, (short)values[1]);                                       // usVddgfxOffset
+        buf.putInt(base + 3, (int)values[2]);                                           // ulDClk
+        buf.putInt(base + 7, (int)values[3]);                                           // ulVClk
+        buf.putInt(base + 11, (int)values[4]);                                          // ulEClk
+        buf.putInt(base + 15, (int)values[5]);                                          // ulAClk
+        buf.putInt(base + 19, (int)values[6]);                                          // ulSAMUClk
+    }
+
+    private static void decode_ATOM_VCE_STATE(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucVCEClockIndex
+        values[1] = Byte.toUnsignedLong(buf.get(base + 1));                             // ucFlag
+        values[2] = Byte.toUnsignedLong(buf.get(base + 2));                             // ucSCLKIndex
+        values[3] = Byte.toUnsignedLong(buf.get(base + 3));                             // ucMCLKIndex
+    }
+
+    private static void encode_ATOM_VCE_STATE(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucVCEClockIndex
+        buf.put(base + 1, (byte)values[1]);                                             // ucFlag
+        buf.put(base + 2, (byte)values[2]);                                             // ucSCLKIndex
+        buf.put(base + 3, (byte)values[3]);                                             // ucMCLKIndex
+    }
+
+    private static void decode_ATOM_PPM_TABLE(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucRevId
+        values[1] = Byte.toUnsignedLong(buf.get(base + 1));                             // ucPpmDesign
+        values[2] = Short.toUnsignedLong(buf.getShort(base + 2));                       // usCpuCoreNumber
+        values[3] = Integer.toUnsignedLong(buf.getInt(base + 4));                       // ulPlatformTDP
+        values[4] = Integer.toUnsignedLong(buf.getInt(base + 8));                       // ulSmallACPlatformTDP
+        values[5] = Integer.toUnsignedLong(buf.getInt(base + 12));                      // ulPlatformTDC
+        values[6] = Integer.toUnsignedLong(buf.getInt(base + 16));                      // ulSmallACPlatformTDC
+        values[7] = Integer.toUnsignedLong(buf.getInt(base + 20));                      // ulApuTDP
+        values[8] = Integer.toUnsignedLong(buf.getInt(base + 24));                      // ulDGpuTDP
+        values[9] = Integer.toUnsignedLong(buf.getInt(base + 28));                      // ulDGpuUlvPower
+        values[10] = Integer.toUnsignedLong(buf.getInt(base + 32));                     // ulTjmax
+    }
+
+    private static void encode_ATOM_PPM_TABLE(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucRevId
+        buf.put(base + 1, (byte)values[1]);                                             // ucPpmDesign
+        buf.putShort(base + 2, (short)values[2]);                                       // usCpuCoreNumber
+        buf.putInt(base + 4, (int)values[3]);                                           // ulPlatformTDP
+        buf.putInt(base + 8, (int)values[4]);                                           // ulSmallACPlatformTDP
+        buf.putInt(base + 12, (int)values[5]);                                          // ulPlatformTDC
+        buf.putInt(base + 16, (int)values[6]);                                          // ulSmallACPlatformTDC
+        buf.putInt(base + 20, (int)values[7]);                                          // ulApuTDP
+        buf.putInt(base + 24, (int)values[8]);                                          // ulDGpuTDP
+        buf.putInt(base + 28, (int)values[9]);                                          // ulDGpuUlvPower
+        buf.putInt(base + 32, (int)values[10]);                                         // ulTjmax
+    }
+
+    private static void decode_ATOM_HARD_LIMIT_ENTRY(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Integer.toUnsignedLong(buf.getInt(base));                           // ulSCLKLimit
+        values[1] = Integer.toUnsignedLong(buf.getInt(base + 4));                       // ulMCLKLimit
+        values[2] = Short.toUnsignedLong(buf.getShort(base + 8));                       // usVddcLimit
+        values[3] = Short.toUnsignedLong(buf.getShort(base + 10));                      // usVddciLimit
+        values[4] = Short.toUnsignedLong(buf.getShort(base + 12));                      // usVddgfxLimit
+    }
+
+    private static void encode_ATOM_HARD_LIMIT_ENTRY(long[] values, ByteBuffer buf, int base)
+    {
+        buf.putInt(base, (int)values[0]);                                               // ulSCLKLimit
+        buf.putInt(base + 4, (int)values[1]);                                           // ulMCLKLimit
+        buf.putShort(base + 8, (short)values[2]);                                       // usVddcLimit
+        buf.putShort(base + 10, (short)values[3]);                                      // usVddciLimit
+        buf.putShort(base + 12, (short)values[4]);                                      // usVddgfxLimit
+    }
+
+    private static void decode_ATOM_TONGA_PCIE_ENTRY(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucPCIEGenSpeed
+        values[1] = Byte.toUnsignedLong(buf.get(base + 1));                             // ucPCIELaneWidth
+        values[2] = Byte.toUnsignedLong(buf.get(base + 2));                             // ucReserved[0]
+        values[3] = Byte.toUnsignedLong(buf.get(base + 3));                             // ucReserved[1]
+    }
+
+    private static void encode_ATOM_TONGA_PCIE_ENTRY(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucPCIEGenSpeed
+        buf.put(base + 1, (byte)values[1]);                                             // ucPCIELaneWidth
+        buf.put(base + 2, (byte)values[2]);                                             // ucReserved[0]
+        buf.put(base + 3, (byte)values[3]);                                             // ucReserved[1]
+    }
+
+    private static void decode_ATOM_PCIE_ENTRY(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucPCIEGenSpeed
+        values[1] = Byte.toUnsignedLong(buf.get(base + 1));                             // ucPCIELaneWidth
+        values[2] = Byte.toUnsignedLong(buf.get(base + 2));                             // ucReserved[0]
+        values[3] = Byte.toUnsignedLong(buf.get(base + 3));                             // ucReserved[1]
+        values[4] = Integer.toUnsignedLong(buf.getInt(base + 4));                       // ulPCIE_Sclk
+    }
+
+    private static void encode_ATOM_PCIE_ENTRY(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucPCIEGenSpeed
+        buf.put(base + 1, (byte)values[1]);                                             // ucPCIELaneWidth
+        buf.put(base + 2, (byte)values[2]);                                             // ucReserved[0]
+        buf.put(base + 3, (byte)values[3]);                                             // ucReserved[1]
+        buf.putInt(base + 4, (int)values[4]);                                           // ulPCIE_Sclk
+    }
+
+    private static void decode_ATOM_GPIO_TABLE(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucRevId
+        values[1] = Byte.toUnsignedLong(buf.get(base + 1));                             // ucVRHotTriggeredSclkDpmIndex
+        values[2] = Byte.toUnsignedLong(buf.get(base + 2));                             // ucReserve[0]
+        values[3] = Byte.toUnsignedLong(buf.get(base + 3));                             // ucReserve[1]
+        values[4] = Byte.toUnsignedLong(buf.get(base + 4));                             // ucReserve[2]
+        values[5] = Byte.toUnsignedLong(buf.get(base + 5));                             // ucReserve[3]
+        values[6] = Byte.toUnsignedLong(buf.get(base + 6));                             // ucReserve[4]
+    }
+
+    private static void encode_ATOM_GPIO_TABLE(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucRevId
+        buf.put(base + 1, (byte)values[1]);                                             // ucVRHotTriggeredSclkDpmIndex
+        buf.put(base + 2, (byte)values[2]);                                             // ucReserve[0]
+        buf.put(base + 3, (byte)values[3]);                                             // ucReserve[1]
+        buf.put(base + 4, (byte)values[4]);                                             // ucReserve[2]
+        buf.put(base + 5, (byte)values[5]);                                             // ucReserve[3]
+        buf.put(base + 6, (byte)values[6]);                                             // ucReserve[4]
+    }
+
+    private static void decode_ATOM_VEGA10_POWERPLAY_TABLE(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Short.toUnsignedLong(buf.getShort(base));                           // sHeader.usStructureSize
+        values[1] = Byte.toUnsignedLong(buf.get(base + 2));                             // sHeader.ucTableFormatRevision
+        values[2] = Byte.toUnsignedLong(buf.get(base + 3));                             // sHeader.ucTableContentRevision
+        values[3] = Byte.toUnsignedLong(buf.get(base + 4));                             // ucTableRevision
+        values[4] = Short.toUnsignedLong(buf.getShort(base + 5));                       // usTableSize
+        values[5] = Integer.toUnsignedLong(buf.getInt(base + 7));                       // ulGoldenPPID
+        values[6] = Integer.toUnsignedLong(buf.getInt(base + 11));                      // ulGoldenRevision
+        values[7] = Short.toUnsignedLong(buf.getShort(base + 15));                      // usFormatID
+        values[8] = Integer.toUnsignedLong(buf.getInt(base + 17));                      // ulPlatformCaps
+        values[9] = Integer.toUnsignedLong(buf.getInt(base + 21));                      // ulMaxODEngineClock
+        values[10] = Integer.toUnsignedLong(buf.getInt(base + 25));                     // ulMaxODMemoryClock
+        values[11] = Short.toUnsignedLong(buf.getShort(base + 29));                     // usPowerControlLimit
+        values[12] = Short.toUnsignedLong(buf.getShort(base + 31));                     // usUlvVoltageOffset
+        values[13] = Short.toUnsignedLong(buf.getShort(base + 33));                     // usUlvSmnclkDid
+        values[14] = Short.toUnsignedLong(buf.getShort(base + 35));                     // usUlvMp1clkDid
+        values[15] = Short.toUnsignedLong(buf.getShort(base + 37));                     // usUlvGfxclkBypass
+        values[16] = Short.toUnsignedLong(buf.getShort(base + 39));                     // usGfxclkSlewRate
+        values[17] = Byte.toUnsignedLong(buf.get(base + 41));                           // ucGfxVoltageMode
+        values[18] = Byte.toUnsignedLong(buf.get(base + 42));                           // ucSocVoltageMode
+        values[19] = Byte.toUnsignedLong(buf.get(base + 43));                           // ucUclkVoltageMode
+        values[20] = Byte.toUnsignedLong(buf.get(base + 44));                           // ucUvdVoltageMode
+        values[21] = Byte.toUnsignedLong(buf.get(base + 45));                           // ucVceVoltageMode
+        values[22] = Byte.toUnsignedLong(buf.get(base + 46));                           // ucMp0VoltageMode
+        values[23] = Byte.toUnsignedLong(buf.get(base + 47));                           // ucDcefVoltageMode
+        values[24] = Short.toUnsignedLong(buf.getShort(base + 48));                     // usStateArrayOffset
+        values[25] = Short.toUnsignedLong(buf.getShort(base + 50));                     // usFanTableOffset
+        values[26] = Short.toUnsignedLong(buf.getShort(base + 52));                     // usThermalControllerOffset
+        values[27] = Short.toUnsignedLong(buf.getShort(base + 54));                     // usSocclkDependencyTableOffset
+        values[28] = Short.toUnsignedLong(buf.getShort(base + 56));                     // usMclkDependencyTableOffset
+        values[29] = Short.toUnsignedLong(buf.getShort(base + 58));                     // usGfxclkDependencyTableOffset
+        values[30] = Short.toUnsignedLong(buf.getShort(base + 60));                     // usDcefclkDependencyTableOffset
+        values[31] = Short.toUnsignedLong(buf.getShort(base + 62));                     // usVddcLookupTableOffset
+        values[32] = Short.toUnsignedLong(buf.getShort(base + 64));                     // usVddmemLookupTableOffset
+        values[33] = Short.toUnsignedLong(buf.getShort(base + 66));                     // usMMDependencyTableOffset
+        values[34] = Short.toUnsignedLong(buf.getShort(base + 68));                     // usVCEStateTableOffset
+        values[35] = Short.toUnsignedLong(buf.getShort(base + 70));                     // usReserve
+        values[36] = Short.toUnsignedLong(buf.getShort(base + 72));                     // usPowerTuneTableOffset
+        values[37] = Short.toUnsignedLong(buf.getShort(base + 74));                     // usHardLimitTableOffset
+        values[38] = Short.toUnsignedLong(buf.getShort(base + 76));                     // usVddciLookupTableOffset
+        values[39] = Short.toUnsignedLong(buf.getShort(base + 78));                     // usPCIETableOffset
+        values[40] = Short.toUnsignedLong(buf.getShort(base + 80));                     // usPixclkDependencyTableOffset
+        values[41] = Short.toUnsignedLong(buf.getShort(base + 82));                     // usDispClkDependencyTableOffset
+        values[42] = Short.toUnsignedLong(buf.getShort(base + 84));                     // usPhyClkDependencyTableOffset
+    }
+
+    private static void encode_ATOM_VEGA10_POWERPLAY_TABLE(long[] values, ByteBuffer buf, int base)
+    {
+        buf.putShort(base, (short)values[0]);                                           // sHeader.usStructureSize
+        buf.put(base + 2, (byte)values[1]);                                             // sHeader.ucTableFormatRevision
+        buf.put(base + 3, (byte)values[2]);                                             // sHeader.ucTableContentRevision
+        buf.put(base + 4, (byte)values[3]);                                             // ucTableRevision
+        buf.putShort(base + 5, (short)values[4]);                                       // usTableSize
+        buf.putInt(base + 7, (int)values[5]);                                           // ulGoldenPPID
+        buf.putInt(base + 11, (int)values[6]);                                          // ulGoldenRevision
+        buf.putShort(base + 15, (short)values[7]);                                      // usFormatID
+        buf.putInt(base + 17, (int)values[8]);                                          // ulPlatformCaps
+        buf.putInt(base + 21, (int)values[9]);                                          // ulMaxODEngineClock
+        buf.putInt(base + 25, (int)values[10]);                                         // ulMaxODMemoryClock
+        buf.putShort(base + 29, (short)values[11]);                                     // usPowerControlLimit
+        buf.putShort(base + 31, (short)values[12]);                                     // usUlvVoltageOffset
+        buf.putShort(base + 33, (short)values[13]);                                     // usUlvSmnclkDid
+        buf.putShort(base + 35, (short)values[14]);                                     // usUlvMp1clkDid
+        buf.putShort(base + 37, (short)values[15]);                                     // usUlvGfxclkBypass
+        buf.putShort(base + 39, (short)values[16]);                                     // usGfxclkSlewRate
+        buf.put(base + 41, (byte)values[17]);                                           // ucGfxVoltageMode
+        buf.put(base + 42, (byte)values[18]);                                           // ucSocVoltageMode
+        buf.put(base + 43, (byte)values[19]);                                           // ucUclkVoltageMode
+        buf.put(base + 44, (byte)values[20]);                                           // ucUvdVoltageMode
+        buf.put(base + 45, (byte)values[21]);                                           // ucVceVoltageMode
+        buf.put(base + 46, (byte)values[22]);                                           // ucMp0VoltageMode
+        buf.put(base + 47, (byte)values[23]);                                           // ucDcefVoltageMode
+        buf.putShort(base + 48, (short)values[24]);                                     // usStateArrayOffset
+        buf.putShort(base + 50, (short)values[25]);                                     // usFanTableOffset
+        buf.putShort(base + 52, (short)values[26]);                                     // usThermalControllerOffset
+        buf.putShort(base + 54, (short)values[27]);                                     // usSocclkDependencyTableOffset
+        buf.putShort(base + 56, (short)values[28]);                                     // usMclkDependencyTableOffset
+        buf.putShort(base + 58, (short)values[29]);                                     // usGfxclkDependencyTableOffset
+        buf.putShort(base + 60, (short)values[30]);                                     // usDcefclkDependencyTableOffset
+        buf.putShort(base + 62, (short)values[31]);                                     // usVddcLookupTableOffset
+        buf.putShort(base + 64, (short)values[32]);                                     // usVddmemLookupTableOffset
+        buf.putShort(base + 66, (short)values[33]);                                     // usMMDependencyTableOffset
+        buf.putShort(base + 68, (short)values[34]);                                     // usVCEStateTableOffset
+        buf.putShort(base + 70, (short)values[35]);                                     // usReserve
+        buf.putShort(base + 72, (short)values[36]);                                     // usPowerTuneTableOffset
+        buf.putShort(base + 74, (short)values[37]);                                     // usHardLimitTableOffset
+        buf.putShort(base + 76, (short)values[38]);                                     // usVddciLookupTableOffset
+        buf.putShort(base + 78, (short)values[39]);                                     // usPCIETableOffset
+        buf.putShort(base + 80, (short)values[40]);                                     // usPixclkDependencyTableOffset
+        buf.putShort(base + 82, (short)values[41]);                                     // usDispClkDependencyTableOffset
+        buf.putShort(base + 84, (short)values[42]);                                     // usPhyClkDependencyTableOffset
+    }
+
+    private static void decode_ATOM_VEGA10_CLK_ENTRY(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Integer.toUnsignedLong(buf.getInt(base));                           // ulClk
+        values[1] = Byte.toUnsignedLong(buf.get(base + 4));                             // ucVddInd
+    }
+
+    private static void encode_ATOM_VEGA10_CLK_ENTRY(long[] values, ByteBuffer buf, int base)
+    {
+        buf.putInt(base, (int)values[0]);                                               // ulClk
+        buf.put(base + 4, (byte)values[1]);                                             // ucVddInd
+    }
+
+    private static void decode_ATOM_VEGA10_GFXCLK_ENTRY(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Integer.toUnsignedLong(buf.getInt(base));                           // ulClk
+        values[1] = Byte.toUnsignedLong(buf.get(base + 4));                             // ucVddInd
+        values[2] = Short.toUnsignedLong(buf.getShort(base + 5));                       // usCKSVOffsetandDisable
+        values[3] = Short.toUnsignedLong(buf.getShort(base + 7));                       // usAVFSOffset
+    }
+
+    private static void encode_ATOM_VEGA10_GFXCLK_ENTRY(long[] values, ByteBuffer buf, int base)
+    {
+        buf.putInt(base, (int)values[0]);                                               // ulClk
+        buf.put(base + 4, (byte)values[1]);                                             // ucVddInd
+        buf.putShort(base + 5, (short)values[2]);                                       // usCKSVOffsetandDisable
+        buf.putShort(base + 7, (short)values[3]);                                       // usAVFSOffset
+    }
+
+    private static void decode_ATOM_VEGA10_GFXCLK_ENTRY_V2(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Integer.toUnsignedLong(buf.getInt(base));                           // ulClk
+        values[1] = Byte.toUnsignedLong(buf.get(base + 4));                             // ucVddInd
+        values[2] = Short.toUnsignedLong(buf.getShort(base + 5));                       // usCKSVOffsetandDisable
+        values[3] = Short.toUnsignedLong(buf.getShort(base + 7));                       // usAVFSOffset
+        values[4] = Byte.toUnsignedLong(buf.get(base + 9));                             // ucACGEnable
+        values[5] = Byte.toUnsignedLong(buf.get(base + 10));                            // ucReserved[0]
+        values[6] = Byte.toUnsignedLong(buf.get(base + 11));                            // ucReserved[1]
+        values[7] = Byte.toUnsignedLong(buf.get(base + 12));                            // ucReserved[2]
+    }
+
+    private static void encode_ATOM_VEGA10_GFXCLK_ENTRY_V2(long[] values, ByteBuffer buf, int base)
+    {
+        buf.putInt(base, (int)values[0]);                                               // ulClk
+        buf.put(base + 4, (byte)values[1]);                                             // ucVddInd
+        buf.putShort(base + 5, (short)values[2]);                                       // usCKSVOffsetandDisable
+        buf.putShort(base + 7, (short)values[3]);                                       // usAVFSOffset
+        buf.put(base + 9, (byte)values[4]);                                             // ucACGEnable
+        buf.put(base + 10, (byte)values[5]);                                            // ucReserved[0]
+        buf.put(base + 11, (byte)values[6]);                                            // ucReserved[1]
+        buf.put(base + 12, (byte)values[7]);                                            // ucReserved[2]
+    }
+
+    private static void decode_ATOM_VEGA10_MCLK_ENTRY(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Integer.toUnsignedLong(buf.getInt(base));                           // ulMemClk
+        values[1] = Byte.toUnsignedLong(buf.get(base + 4));                             // ucVddInd
+        values[2] = Byte.toUnsignedLong(buf.get(base + 5));                             // ucVddMemInd
+        values[3] = Byte.toUnsignedLong(buf.get(base + 6));                             // ucVddciInd
+    }
+
+    private static void encode_ATOM_VEGA10_MCLK_ENTRY(long[] values, ByteBuffer buf, int base)
+    {
+        buf.putInt(base, (int)values[0]);                                               // ulMemClk
+        buf.put(base + 4, (byte)values[1]);                                             // ucVddInd
+        buf.put(base + 5, (byte)values[2]);                                             // ucVddMemInd
+        buf.put(base + 6, (byte)values[3]);                                             // ucVddciInd
+    }
+
+    private static void decode_ATOM_VEGA10_VOLTAGE_ENTRY(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Short.toUnsignedLong(buf.getShort(base));                           // usVdd
+    }
+
+    private static void encode_ATOM_VEGA10_VOLTAGE_ENTRY(long[] values, ByteBuffer buf, int base)
+    {
+        buf.putShort(base, (short)values[0]);                                           // usVdd
+    }
+
+    private static void decode_ATOM_VEGA10_STATE(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucSocClockIndexHigh
+        values[1] = Byte.toUnsignedLong(buf.get(base + 1));                             // ucSocClockIndexLow
+        values[2] = Byte.toUnsignedLong(buf.get(base + 2));                             // ucGfxClockIndexHigh
+        values[3] = Byte.toUnsignedLong(buf.get(base + 3));                             // ucGfxClockIndexLow
+        values[4] = Byte.toUnsignedLong(buf.get(base + 4));                             // ucMemClockIndexHigh
+        values[5] = Byte.toUnsignedLong(buf.get(base + 5));                             // ucMemClockIndexLow
+        values[6] = Short.toUnsignedLong(buf.getShort(base + 6));                       // usClassification
+        values[7] = Integer.toUnsignedLong(buf.getInt(base + 8));                       // ulCapsAndSettings
+        values[8] = Short.toUnsignedLong(buf.getShort(base + 12));                      // usClassification2
+    }
+
+    private static void encode_ATOM_VEGA10_STATE(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucSocClockIndexHigh
+        buf.put(base + 1, (byte)values[1]);                                             // ucSocClockIndexLow
+        buf.put(base + 2, (byte)values[2]);                                             // ucGfxClockIndexHigh
+        buf.put(base + 3, (byte)values[3]);                                             // ucGfxClockIndexLow
+        buf.put(base + 4, (byte)values[4]);                                             // ucMemClockIndexHigh
+        buf.put(base + 5, (byte)values[5]);                                             // ucMemClockIndexLow
+        buf.putShort(base + 6, (short)values[6]);                                       // usClassification
+        buf.putInt(base + 8, (int)values[7]);                                           // ulCapsAndSettings
+        buf.putShort(base + 12, (short)values[8]);                                      // usClassification2
+    }
+
+    private static void decode_ATOM_VEGA10_FAN_TABLE(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucRevId
+        values[1] = Short.toUnsignedLong(buf.getShort(base + 1));                       // usFanOutputSensitivity
+        values[2] = Short.toUnsignedLong(buf.getShort(base + 3));                       // usFanAcousticLimitRpm
+        values[3] = Short.toUnsignedLong(buf.getShort(base + 5));                       // usThrottlingRPM
+        values[4] = Short.toUnsignedLong(buf.getShort(base + 7));                       // usTargetTemperature
+        values[5] = Short.toUnsignedLong(buf.getShort(base + 9));                       // usMinimumPWMLimit
+        values[6] = Short.toUnsignedLong(buf.getShort(base + 11));                      // usTargetGfxClk
+        values[7] = Short.toUnsignedLong(buf.getShort(base + 13));                      // usFanGainEdge
+        values[8] = Short.toUnsignedLong(buf.getShort(base + 15));                      // usFanGainHotspot
+        values[9] = Short.toUnsignedLong(buf.getShort(base + 17));                      // usFanGainLiquid
+        values[10] = Short.toUnsignedLong(buf.getShort(base + 19));                     // usFanGainVrVddc
+        values[11] = Short.toUnsignedLong(buf.getShort(base + 21));                     // usFanGainVrMvdd
+        values[12] = Short.toUnsignedLong(buf.getShort(base + 23));                     // usFanGainPlx
+        values[13] = Short.toUnsignedLong(buf.getShort(base + 25));                     // usFanGainHbm
+        values[14] = Byte.toUnsignedLong(buf.get(base + 27));                           // ucEnableZeroRPM
+        values[15] = Short.toUnsignedLong(buf.getShort(base + 28));                     // usFanStopTemperature
+        values[16] = Short.toUnsignedLong(buf.getShort(base + 30));                     // usFanStartTemperature
+    }
+
+    private static void encode_ATOM_VEGA10_FAN_TABLE(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucRevId
+        buf.putShort(base + 1, (short)values[1]);                                       // usFanOutputSensitivity
+        buf.putShort(base + 3, (short)values[2]);                                       // usFanAcousticLimitRpm
+        buf.putShort(base + 5, (short)values[3]);                                       // usThrottlingRPM
+        buf.putShort(base + 7, (short)values[4]);                                       // usTargetTemperature
+        buf.putShort(base + 9, (short)values[5]);                                       // usMinimumPWMLimit
+        buf.putShort(base + 11, (short)values[6]);                                      // usTargetGfxClk
+        buf.putShort(base + 13, (short)values[7]);                                      // usFanGainEdge
+        buf.putShort(base + 15, (short)values[8]);                                      // usFanGainHotspot
+        buf.putShort(base + 17, (short)values[9]);                                      // usFanGainLiquid
+        buf.putShort(base + 19, (short)values[10]);                                     // usFanGainVrVddc
+        buf.putShort(base + 21, (short)values[11]);                                     // usFanGainVrMvdd
+        buf.putShort(base + 23, (short)values[12]);                                     // usFanGainPlx
+        buf.putShort(base + 25, (short)values[13]);                                     // usFanGainHbm
+        buf.put(base + 27, (byte)values[14]);                                           // ucEnableZeroRPM
+        buf.putShort(base + 28, (short)values[15]);                                     // usFanStopTemperature
+        buf.putShort(base + 30, (short)values[16]);                                     // usFanStartTemperature
+    }
+
+    private static void decode_ATOM_VEGA10_FAN_TABLE_V2(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucRevId
+        values[1] = Short.toUnsignedLong(buf.getShort(base + 1));                       // usFanOutputSensitivity
+        values[2] = Short.toUnsignedLong(buf.getShort(base + 3));                       // usFanAcousticLimitRpm
+        values[3] = Short.toUnsignedLong(buf.getShort(base + 5));                       // usThrottlingRPM
+        values[4] = Short.toUnsignedLong(buf.getShort(base + 7));                       // usTargetTemperature
+        values[5] = Short.toUnsignedLong(buf.getShort(base + 9));                       // usMinimumPWMLimit
+        values[6] = Short.toUnsignedLong(buf.getShort(base + 11));                      // usTargetGfxClk
+        values[7] = Short.toUnsignedLong(buf.getShort(base + 13));                      // usFanGainEdge
+        values[8] = Short.toUnsignedLong(buf.getShort(base + 15));                      // usFanGainHotspot
+        values[9] = Short.toUnsignedLong(buf.getShort(base + 17));                      // usFanGainLiquid
+        values[10] = Short.toUnsignedLong(buf.getShort(base + 19));                     // usFanGainVrVddc
+        values[11] = Short.toUnsignedLong(buf.getShort(base + 21));                     // usFanGainVrMvdd
+        values[12] = Short.toUnsignedLong(buf.getShort(base + 23));                     // usFanGainPlx
+        values[13] = Short.toUnsignedLong(buf.getShort(base + 25));                     // usFanGainHbm
+        values[14] = Byte.toUnsignedLong(buf.get(base + 27));                           // ucEnableZeroRPM
+        values[15] = Short.toUnsignedLong(buf.getShort(base + 28));                     // usFanStopTemperature
+        values[16] = Short.toUnsignedLong(buf.getShort(base + 30));                     // usFanStartTemperature
+        values[17] = Byte.toUnsignedLong(buf.get(base + 32));                           // ucFanParameters
+        values[18] = Byte.toUnsignedLong(buf.get(base + 33));                           // ucFanMinRPM
+        values[19] = Byte.toUnsignedLong(buf.get(base + 34));                           // ucFanMaxRPM
+    }
+
+    private static void encode_ATOM_VEGA10_FAN_TABLE_V2(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucRevId
+        buf.putShort(base + 1, (short)values[1]);                                       // usFanOutputSensitivity
+        buf.putShort(base + 3, (short)values[2]);                                       // usFanAcousticLimitRpm
+        buf.putShort(base + 5, (short)values[3]);                                       // usThrottlingRPM
+        buf.putShort(base + 7, (short)values[4]);                                       // usTargetTemperature
+        buf.putShort(base + 9, (short)values[5]);                                       // usMinimumPWMLimit
+        buf.putShort(base + 11, (short)values[6]);                                      // usTargetGfxClk
+        buf.putShort(base + 13, (short)values[7]);                                      // usFanGainEdge
+        buf.putShort(base + 15, (short)values[8]);                                      // usFanGainHotspot
+        buf.putShort(base + 17, (short)values[9]);                                      // usFanGainLiquid
+        buf.putShort(base + 19, (short)values[10]);                                     // usFanGainVrVddc
+        buf.putShort(base + 21, (short)values[11]);                                     // usFanGainVrMvdd
+        buf.putShort(base + 23, (short)values[12]);                                     // usFanGainPlx
+        buf.putShort(base + 25, (short)values[13]);                                     // usFanGainHbm
+        buf.put(base + 27, (byte)values[14]);                                           // ucEnableZeroRPM
+        buf.putShort(base + 28, (short)values[15]);                                     // usFanStopTemperature
+        buf.putShort(base + 30, (short)values[16]);                                     // usFanStartTemperature
+        buf.put(base + 32, (byte)values[17]);                                           // ucFanParameters
+        buf.put(base + 33, (byte)values[18]);                                           // ucFanMinRPM
+        buf.put(base + 34, (byte)values[19]);                                           // ucFanMaxRPM
+    }
+
+    private static void decode_ATOM_VEGA10_THERMAL_CONTROLLER(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucRevId
+        values[1] = Byte.toUnsignedLong(buf.get(base + 1));                             // ucType
+        values[2] = Byte.toUnsignedLong(buf.get(base + 2));                             // ucI2cLine
+        values[3] = Byte.toUnsignedLong(buf.get(base + 3));                             // ucI2cAddress
+        values[4] = Byte.toUnsignedLong(buf.get(base + 4));                             // ucFanParameters
+        values[5] = Byte.toUnsignedLong(buf.get(base + 5));                             // ucFanMinRPM
+        values[6] = Byte.toUnsignedLong(buf.get(base + 6));                             // ucFanMaxRPM
+        values[7] = Byte.toUnsignedLong(buf.get(base + 7));                             // ucFlags
+    }
+
+    private static void encode_ATOM_VEGA10_THERMAL_CONTROLLER(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucRevId
+        buf.put(base + 1, (byte)values[1]);                                             // ucType
+        buf.put(base + 2, (byte)values[2]);                                             // ucI2cLine
+        buf.put(base + 3, (byte)values[3]);                                             // ucI2cAddress
+        buf.put(base + 4, (byte)values[4]);                                             // ucFanParameters
+        buf.put(base + 5, (byte)values[5]);                                             // ucFanMinRPM
+        buf.put(base + 6, (byte)values[6]);                                             // ucFanMaxRPM
+        buf.put(base + 7, (byte)values[7]);                                             // ucFlags
+    }
+
+    private static void decode_ATOM_VEGA10_MM_ENTRY(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucVddcInd
+        values[1] = Integer.toUnsignedLong(buf.getInt(base + 1));                       // ulDClk
+        values[2] = Integer.toUnsignedLong(buf.getInt(base + 5));                       // ulVClk
+        values[3] = Integer.toUnsignedLong(buf.getInt(base + 9));                       // ulEClk
+        values[4] = Integer.toUnsignedLong(buf.getInt(base + 13));                      // ulPSPClk
+    }
+
+    private static void encode_ATOM_VEGA10_MM_ENTRY(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucVddcInd
+        buf.putInt(base + 1, (int)values[1]);                                           // ulDClk
+        buf.putInt(base + 5, (int)values[2]);                                           // ulVClk
+        buf.putInt(base + 9, (int)values[3]);                                           // ulEClk
+        buf.putInt(base + 13, (int)values[4]);                                          // ulPSPClk
+    }
+
+    private static void decode_ATOM_VEGA10_POWERTUNE_TABLE(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucRevId
+        values[1] = Short.toUnsignedLong(buf.getShort(base + 1));                       // usSocketPowerLimit
+        values[2] = Short.toUnsignedLong(buf.getShort(base + 3));                       // usBatteryPowerLimit
+        values[3] = Short.toUnsignedLong(buf.getShort(base + 5));                       // usSmallPowerLimit
+        values[4] = Short.toUnsignedLong(buf.getShort(base + 7));                       // usTdcLimit
+        values[5] = Short.toUnsignedLong(buf.getShort(base + 9));                       // usEdcLimit
+        values[6] = Short.toUnsignedLong(buf.getShort(base + 11));                      // usSoftwareShutdownTemp
+        values[7] = Short.toUnsignedLong(buf.getShort(base + 13));                      // usTemperatureLimitHotSpot
+        values[8] = Short.toUnsignedLong(buf.getShort(base + 15));                      // usTemperatureLimitLiquid1
+        values[9] = Short.toUnsignedLong(buf.getShort(base + 17));                      // usTemperatureLimitLiquid2
+        values[10] = Short.toUnsignedLong(buf.getShort(base + 19));                     // usTemperatureLimitHBM
+        values[11] = Short.toUnsignedLong(buf.getShort(base + 21));                     // usTemperatureLimitVrSoc
+        values[12] = Short.toUnsignedLong(buf.getShort(base + 23));                     // usTemperatureLimitVrMem
+        values[13] = Short.toUnsignedLong(buf.getShort(base + 25));                     // usTemperatureLimitPlx
+        values[14] = Short.toUnsignedLong(buf.getShort(base + 27));                     // usLoadLineResistance
+        values[15] = Byte.toUnsignedLong(buf.get(base + 29));                           // ucLiquid1_I2C_address
+        values[16] = Byte.toUnsignedLong(buf.get(base + 30));                           // ucLiquid2_I2C_address
+        values[17] = Byte.toUnsignedLong(buf.get(base + 31));                           // ucVr_I2C_address
+        values[18] = Byte.toUnsignedLong(buf.get(base + 32));                           // ucPlx_I2C_address
+        values[19] = Byte.toUnsignedLong(buf.get(base + 33));                           // ucLiquid_I2C_LineSCL
+        values[20] = Byte.toUnsignedLong(buf.get(base + 34));                           // ucLiquid_I2C_LineSDA
+        values[21] = Byte.toUnsignedLong(buf.get(base + 35));                           // ucVr_I2C_LineSCL
+        values[22] = Byte.toUnsignedLong(buf.get(base + 36));                           // ucVr_I2C_LineSDA
+        values[23] = Byte.toUnsignedLong(buf.get(base + 37));                           // ucPlx_I2C_LineSCL
+        values[24] = Byte.toUnsignedLong(buf.get(base + 38));                           // ucPlx_I2C_LineSDA
+        values[25] = Short.toUnsignedLong(buf.getShort(base + 39));                     // usTemperatureLimitTedge
+    }
+
+    private static void encode_ATOM_VEGA10_POWERTUNE_TABLE(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucRevId
+        buf.putShort(base + 1, (short)values[1]);                                       // usSocketPowerLimit
+        buf.putShort(base + 3, (short)values[2]);                                       // usBatteryPowerLimit
+        buf.putShort(base + 5, (short)values[3]);                                       // usSmallPowerLimit
+        buf.putShort(base + 7, (short)values[4]);                                       // usTdcLimit
+        buf.putShort(base + 9, (short)values[5]);                                       // usEdcLimit
+        buf.putShort(base + 11, (short)values[6]);                                      // usSoftwareShutdownTemp
+        buf.putShort(base + 13, (short)values[7]);                                      // usTemperatureLimitHotSpot
+        buf.putShort(base + 15, (short)values[8]);                                      // usTemperatureLimitLiquid1
+        buf.putShort(base + 17, (short)values[9]);                                      // usTemperatureLimitLiquid2
+        buf.putShort(base + 19, (short)values[10]);                                     // usTemperatureLimitHBM
+        buf.putShort(base + 21, (short)values[11]);                                     // usTemperatureLimitVrSoc
+        buf.putShort(base + 23, (short)values[12]);                                     // usTemperatureLimitVrMem
+        buf.putShort(base + 25, (short)values[13]);                                     // usTemperatureLimitPlx
+        buf.putShort(base + 27, (short)values[14]);                                     // usLoadLineResistance
+        buf.put(base + 29, (byte)values[15]);                                           // ucLiquid1_I2C_address
+        buf.put(base + 30, (byte)values[16]);                                           // ucLiquid2_I2C_address
+        buf.put(base + 31, (byte)values[17]);                                           // ucVr_I2C_address
+        buf.put(base + 32, (byte)values[18]);                                           // ucPlx_I2C_address
+        buf.put(base + 33, (byte)values[19]);                                           // ucLiquid_I2C_LineSCL
+        buf.put(base + 34, (byte)values[20]);                                           // ucLiquid_I2C_LineSDA
+        buf.put(base + 35, (byte)values[21]);                                           // ucVr_I2C_LineSCL
+        buf.put(base + 36, (byte)values[22]);                                           // ucVr_I2C_LineSDA
+        buf.put(base + 37, (byte)values[23]);                                           // ucPlx_I2C_LineSCL
+        buf.put(base + 38, (byte)values[24]);                                           // ucPlx_I2C_LineSDA
+        buf.putShort(base + 39, (short)values[25]);                                     // usTemperatureLimitTedge
+    }
+
+    private static void decode_ATOM_VEGA10_POWERTUNE_TABLE_V2(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucRevId
+        values[1] = Short.toUnsignedLong(buf.getShort(base + 1));                       // usSocketPowerLimit
+        values[2] = Short.toUnsignedLong(buf.getShort(base + 3));                       // usBatteryPowerLimit
+        values[3] = Short.toUnsignedLong(buf.getShort(base + 5));                       // usSmallPowerLimit
+        values[4] = Short.toUnsignedLong(buf.getShort(base + 7));                       // usTdcLimit
+        values[5] = Short.toUnsignedLong(buf.getShort(base + 9));                       // usEdcLimit
+        values[6] = Short.toUnsignedLong(buf.getShort(base + 11));                      // usSoftwareShutdownTemp
+        values[7] = Short.toUnsignedLong(buf.getShort(base + 13));                      // usTemperatureLimitHotSpot
+        values[8] = Short.toUnsignedLong(buf.getShort(base + 15));                      // usTemperatureLimitLiquid1
+        values[9] = Short.toUnsignedLong(buf.getShort(base + 17));                      // usTemperatureLimitLiquid2
+        values[10] = Short.toUnsignedLong(buf.getShort(base + 19));                     // usTemperatureLimitHBM
+        values[11] = Short.toUnsignedLong(buf.getShort(base + 21));                     // usTemperatureLimitVrSoc
+        values[12] = Short.toUnsignedLong(buf.getShort(base + 23));                     // usTemperatureLimitVrMem
+        values[13] = Short.toUnsignedLong(buf.getShort(base + 25));                     // usTemperatureLimitPlx
+        values[14] = Short.toUnsignedLong(buf.getShort(base + 27));                     // usLoadLineResistance
+        values[15] = Byte.toUnsignedLong(buf.get(base + 29));                           // ucLiquid1_I2C_address
+        values[16] = Byte.toUnsignedLong(buf.get(base + 30));                           // ucLiquid2_I2C_address
+        values[17] = Byte.toUnsignedLong(buf.get(base + 31));                           // ucLiquid_I2C_Line
+        values[18] = Byte.toUnsignedLong(buf.get(base + 32));                           // ucVr_I2C_address
+        values[19] = Byte.toUnsignedLong(buf.get(base + 33));                           // ucVr_I2C_Line
+        values[20] = Byte.toUnsignedLong(buf.get(base + 34));                           // ucPlx_I2C_address
+        values[21] = Byte.toUnsignedLong(buf.get(base + 35));                           // ucPlx_I2C_Line
+        values[22] = Short.toUnsignedLong(buf.getShort(base + 36));                     // usTemperatureLimitTedge
+    }
+
+    private static void encode_ATOM_VEGA10_POWERTUNE_TABLE_V2(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucRevId
+        buf.putShort(base + 1, (short)values[1]);                                       // usSocketPowerLimit
+        buf.putShort(base + 3, (short)values[2]);                                       // usBatteryPowerLimit
+        buf.putShort(base + 5, (short)values[3]);                                       // usSmallPowerLimit
+        buf.putShort(base + 7, (short)values[4]);                                       // usTdcLimit
+        buf.putShort(base + 9, (short)values[5]);                                       // usEdcLimit
+        buf.putShort(base + 11, (short)values[6]);                                      // usSoftwareShutdownTemp
+        buf.putShort(base + 13, (short)values[7]);                                      // usTemperatureLimitHotSpot
+        buf.putShort(base + 15, (short)values[8]);                                      // usTemperatureLimitLiquid1
+        buf.putShort(base + 17, (short)values[9]);                                      // usTemperatureLimitLiquid2
+        buf.putShort(base + 19, (short)values[10]);                                     // usTemperatureLimitHBM
+        buf.putShort(base + 21, (short)values[11]);                                     // usTemperatureLimitVrSoc
+        buf.putShort(base + 23, (short)values[12]);                                     // usTemperatureLimitVrMem
+        buf.putShort(base + 25, (short)values[13]);                                     // usTemperatureLimitPlx
+        buf.putShort(base + 27, (short)values[14]);                                     // usLoadLineResistance
+        buf.put(base + 29, (byte)values[15]);                                           // ucLiquid1_I2C_address
+        buf.put(base + 30, (byte)values[16]);                                           // ucLiquid2_I2C_address
+        buf.put(base + 31, (byte)values[17]);                                           // ucLiquid_I2C_Line
+        buf.put(base + 32, (byte)values[18]);                                           // ucVr_I2C_address
+        buf.put(base + 33, (byte)values[19]);                                           // ucVr_I2C_Line
+        buf.put(base + 34, (byte)values[20]);                                           // ucPlx_I2C_address
+        buf.put(base + 35, (byte)values[21]);                                           // ucPlx_I2C_Line
+        buf.putShort(base + 36, (short)values[22]);                                     // usTemperatureLimitTedge
+    }
+
+    private static void decode_ATOM_VEGA10_POWERTUNE_TABLE_V3(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Byte.toUnsignedLong(buf.get(base));                                 // ucRevId
+        values[1] = Short.toUnsignedLong(buf.getShort(base + 1));                       // usSocketPowerLimit
+        values[2] = Short.toUnsignedLong(buf.getShort(base + 3));                       // usBatteryPowerLimit
+        values[3] = Short.toUnsignedLong(buf.getShort(base + 5));                       // usSmallPowerLimit
+        values[4] = Short.toUnsignedLong(buf.getShort(base + 7));                       // usTdcLimit
+        values[5] = Short.toUnsignedLong(buf.getShort(base + 9));                       // usEdcLimit
+        values[6] = Short.toUnsignedLong(buf.getShort(base + 11));                      // usSoftwareShutdownTemp
+        values[7] = Short.toUnsignedLong(buf.getShort(base + 13));                      // usTemperatureLimitHotSpot
+        values[8] = Short.toUnsignedLong(buf.getShort(base + 15));                      // usTemperatureLimitLiquid1
+        values[9] = Short.toUnsignedLong(buf.getShort(base + 17));                      // usTemperatureLimitLiquid2
+        values[10] = Short.toUnsignedLong(buf.getShort(base + 19));                     // usTemperatureLimitHBM
+        values[11] = Short.toUnsignedLong(buf.getShort(base + 21));                     // usTemperatureLimitVrSoc
+        values[12] = Short.toUnsignedLong(buf.getShort(base + 23));                     // usTemperatureLimitVrMem
+        values[13] = Short.toUnsignedLong(buf.getShort(base + 25));                     // usTemperatureLimitPlx
+        values[14] = Short.toUnsignedLong(buf.getShort(base + 27));                     // usLoadLineResistance
+        values[15] = Byte.toUnsignedLong(buf.get(base + 29));                           // ucLiquid1_I2C_address
+        values[16] = Byte.toUnsignedLong(buf.get(base + 30));                           // ucLiquid2_I2C_address
+        values[17] = Byte.toUnsignedLong(buf.get(base + 31));                           // ucLiquid_I2C_Line
+        values[18] = Byte.toUnsignedLong(buf.get(base + 32));                           // ucVr_I2C_address
+        values[19] = Byte.toUnsignedLong(buf.get(base + 33));                           // ucVr_I2C_Line
+        values[20] = Byte.toUnsignedLong(buf.get(base + 34));                           // ucPlx_I2C_address
+        values[21] = Byte.toUnsignedLong(buf.get(base + 35));                           // ucPlx_I2C_Line
+        values[22] = Short.toUnsignedLong(buf.getShort(base + 36));                     // usTemperatureLimitTedge
+        values[23] = Short.toUnsignedLong(buf.getShort(base + 38));                     // usBoostStartTemperature
+        values[24] = Short.toUnsignedLong(buf.getShort(base + 40));                     // usBoostStopTemperature
+        values[25] = Integer.toUnsignedLong(buf.getInt(base + 42));                     // ulBoostClock
+        values[26] = Integer.toUnsignedLong(buf.getInt(base + 46));                     // ulReserved[0]
+        values[27] = Integer.toUnsignedLong(buf.getInt(base + 50));                     // ulReserved[1]
+    }
+
+    private static void encode_ATOM_VEGA10_POWERTUNE_TABLE_V3(long[] values, ByteBuffer buf, int base)
+    {
+        buf.put(base, (byte)values[0]);                                                 // ucRevId
+        buf.putShort(base + 1, (short)values[1]);                                       // usSocketPowerLimit
+        buf.putShort(base + 3, (short)values[2]);                                       // usBatteryPowerLimit
+        buf.putShort(base + 5, (short)values[3]);                                       // usSmallPowerLimit
+        buf.putShort(base + 7, (short)values[4]);                                       // usTdcLimit
+        buf.putShort(base + 9, (short)values[5]);                                       // usEdcLimit
+        buf.putShort(base + 11, (short)values[6]);                                      // usSoftwareShutdownTemp
+        buf.putShort(base + 13, (short)values[7]);                                      // usTemperatureLimitHotSpot
+        buf.putShort(base + 15, (short)values[8]);                                      // usTemperatureLimitLiquid1
+        buf.putShort(base + 17, (short)values[9]);                                      // usTemperatureLimitLiquid2
+        buf.putShort(base + 19, (short)values[10]);                                     // usTemperatureLimitHBM
+        buf.putShort(base + 21, (short)values[11]);                                     // usTemperatureLimitVrSoc
+        buf.putShort(base + 23, (short)values[12]);                                     // usTemperatureLimitVrMem
+        buf.putShort(base + 25, (short)values[13]);                                     // usTemperatureLimitPlx
+        buf.putShort(base + 27, (short)values[14]);                                     // usLoadLineResistance
+        buf.put(base + 29, (byte)values[15]);                                           // ucLiquid1_I2C_address
+        buf.put(base + 30, (byte)values[16]);                                           // ucLiquid2_I2C_address
+        buf.put(base + 31, (byte)values[17]);                                           // ucLiquid_I2C_Line
+        buf.put(base + 32, (byte)values[18]);                                           // ucVr_I2C_address
+        buf.put(base + 33, (byte)values[19]);                                           // ucVr_I2C_Line
+        buf.put(base + 34, (byte)values[20]);                                           // ucPlx_I2C_address
+        buf.put(base + 35, (byte)values[21]);                                           // ucPlx_I2C_Line
+        buf.putShort(base + 36, (short)values[22]);                                     // usTemperatureLimitTedge
+        buf.putShort(base + 38, (short)values[23]);                                     // usBoostStartTemperature
+        buf.putShort(base + 40, (short)values[24]);                                     // usBoostStopTemperature
+        buf.putInt(base + 42, (int)values[25]);                                         // ulBoostClock
+        buf.putInt(base + 46, (int)values[26]);                                         // ulReserved[0]
+        buf.putInt(base + 50, (int)values[27]);                                         // ulReserved[1]
+    }
+
+    private static void decode_ATOM_VEGA10_HARD_LIMIT_ENTRY(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Integer.toUnsignedLong(buf.getInt(base));                           // ulSOCCLKLimit
+        values[1] = Integer.toUnsignedLong(buf.getInt(base + 4));                       // ulGFXCLKLimit
+        values[2] = Integer.toUnsignedLong(buf.getInt(base + 8));                       // ulMCLKLimit
+        values[3] = Short.toUnsignedLong(buf.getShort(base + 12));                      // usVddcLimit
+        values[4] = Short.toUnsignedLong(buf.getShort(base + 14));                      // usVddciLimit
+        values[5] = Short.toUnsignedLong(buf.getShort(base + 16));                      // usVddMemLimit
+    }
+
+    private static void encode_ATOM_VEGA10_HARD_LIMIT_ENTRY(long[] values, ByteBuffer buf, int base)
+    {
+        buf.putInt(base, (int)values[0]);                                               // ulSOCCLKLimit
+        buf.putInt(base + 4, (int)values[1]);                                           // ulGFXCLKLimit
+        buf.putInt(base + 8, (int)values[2]);                                           // ulMCLKLimit
+        buf.putShort(base + 12, (short)values[3]);                                      // usVddcLimit
+        buf.putShort(base + 14, (short)values[4]);                                      // usVddciLimit
+        buf.putShort(base + 16, (short)values[5]);                                      // usVddMemLimit
+    }
+
+    private static void decode_ATOM_VEGA10_PCIE_ENTRY(ByteBuffer buf, int base, long[] values)
+    {
+        values[0] = Integer.toUnsignedLong(buf.getInt(base));                           // ulLCLK
+        values[1] = Byte.toUnsignedLong(buf.get(base + 4));                             // ucPCIEGenSpeed
+        values[2] = Byte.toUnsignedLong(buf.get(base + 5));                             // ucPCIELaneWidth
+    }
+
+    private static void encode_ATOM_VEGA10_PCIE_ENTRY(long[] values, ByteBuffer buf, int base)
+    {
+        buf.putInt(base, (int)values[0]);                                               // ulLCLK
+        buf.put(base + 4, (byte)values[1]);                                             // ucPCIEGenSpeed
+        buf.put(base + 5, (byte)values[2]);                                             // ucPCIELaneWidth
+    }
+}
@@ -0,0 +1,256 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+
+/*
+ * generates PPTableCodecs.java, a Codec for every struct in PPTableLayout.STRUCTS that reads
+ * and writes its fields in straight-line code with constant offsets
+ * run it again after changing a descriptor, codecs of changed descriptors are ignored until then
+ *
+ * usage: java PPTableCodegen [-o file]
+ *        java PPTableCodegen -check [-n rounds]
+ *
+ * -check round-trips random bytes through every generated codec and compares the values
+ * with the ones the descriptor reads, it exits with 1 if a codec is missing, stale or wrong
+ */
+public class PPTableCodegen
+{
+    public static void main(String[] args)
+    {
+        String out = "PPTableCodecs.java";
+        boolean check = false;
+        int rounds = 1000;
+
+        try
+        {
+            for(int i = 0; i < args.length; i++)
+            {
+                switch(args[i])
+                {
+                    case "-o": out = args[++i]; break;
+                    case "-check": check = true; break;
+                    case "-n": rounds = Integer.parseInt(args[++i]); break;
+                    default: throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        }
+        catch(ArrayIndexOutOfBoundsException | IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage() != null && !(e instanceof ArrayIndexOutOfBoundsException)
+                               ? e.getMessage() : "Missing option value");
+            System.err.println("usage: java PPTableCodegen [-o file] | -check [-n rounds]");
+            System.exit(2);
+        }
+
+        if(check)
+            System.exit(check(rounds) ? 0 : 1);
+
+        try
+        {
+            Files.write(Paths.get(out), generate().getBytes());
+            System.out.println("Wrote " + PPTableLayout.STRUCTS.length + " codecs to " + out);
+        }
+        catch(IOException e)
+        {
+            System.err.println("Failed to write to " + out);
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /*
+     * the source of PPTableCodecs, with \r\n line endings like the rest of the tree
+     */
+    static String generate()
+    {
+        StringBuilder sb = new StringBuilder();
+        line(sb, "import java.nio.ByteBuffer;");
+        line(sb, "");
+        line(sb, "/*");
+        line(sb, " * generated by PPTableCodegen from the PPTableLayout descriptors, don't edit");
+        line(sb, " */");
+        line(sb, "class PPTableCodecs");
+        line(sb, "{");
+        line(sb, "    /*");
+        line(sb, "     * the codec of a struct, or null if there is none");
+        line(sb, "     */");
+        line(sb, "    static PPTableLayout.Codec get(String struct)");
+        line(sb, "    {");
+        line(sb, "        switch(struct)");
+        line(sb, "        {");
+        PPTableLayout.Struct[] structs = PPTableLayout.STRUCTS;
+        for(int i = 0; i < structs.length; i++)
+            line(sb, "            case \"" + structs[i].name + "\": return new StructCodec(" + i + ", " + String.format("0x%08X", structs[i].signature()) + ");");
+        line(sb, "            default: return null;");
+        line(sb, "        }");
+        line(sb, "    }");
+        line(sb, "");
+        line(sb, "    /*");
+        line(sb, "     * dispatches on the struct's id with a switch rather than a class per struct,");
+        line(sb, "     * so a call site decoding several structs stays a direct call");
+        line(sb, "     */");
+        line(sb, "    private static final class StructCodec implements PPTableLayout.Codec");
+        line(sb, "    {");
+        line(sb, "        StructCodec(int id, int signature)");
+        line(sb, "        {");
+        line(sb, "            this.id = id;");
+        line(sb, "            this.signature = signature;");
+        line(sb, "        }");
+        line(sb, "");
+        line(sb, "        @Override");
+        line(sb, "        public int signature()");
+        line(sb, "        {");
+        line(sb, "            return signature;");
+        line(sb, "        }");
+        line(sb, "");
+        line(sb, "        @Override");
+        line(sb, "        public void decode(ByteBuffer buf, int base, long[] values)");
+        line(sb, "        {");
+        line(sb, "            PPTableCodecs.decode(id, buf, base, values);");
+        line(sb, "        }");
+        line(sb, "");
+        line(sb, "        @Override");
+        line(sb, "        public void encode(long[] values, ByteBuffer buf, int base)");
+        line(sb, "        {");
+        line(sb, "            PPTableCodecs.encode(id, values, buf, base);");
+        line(sb, "        }");
+        line(sb, "");
+        line(sb, "        private final int id, signature;");
+        line(sb, "    }");
+
+        for(String method : new String[] { "decode", "encode" })
+        {
+            line(sb, "");
+            if(method.equals("decode"))
+                line(sb, "    static void decode(int id, ByteBuffer buf, int base, long[] values)");
+            else line(sb, "    static void encode(int id, long[] values, ByteBuffer buf, int base)");
+            line(sb, "    {");
+            line(sb, "        switch(id)");
+            line(sb, "        {");
+            for(int i = 0; i < structs.length; i++)
+            {
+                line(sb, "            case " + i + ":");
+                line(sb, method.equals("decode") ? "                decode_" + structs[i].name + "(buf, base, values);"
+                                                 : "                encode_" + structs[i].name + "(values, buf, base);");
+                line(sb, "                return;");
+            }
+            line(sb, "        }");
+            line(sb, "    }");
+        }
+
+        for(PPTableLayout.Struct s : structs)
+        {
+            line(sb, "");
+            line(sb, "    private static void decode_" + s.name + "(ByteBuffer buf, int base, long[] values)");
+            line(sb, "    {");
+            for(int i = 0; i < s.field_count(); i++)
+                field(sb, "        values[" + i + "] = " + read(s.field_size(i), at(s.field_offset(i))) + ";", s.field_name(i));
+            line(sb, "    }");
+            line(sb, "");
+            line(sb, "    private static void encode_" + s.name + "(long[] values, ByteBuffer buf, int base)");
+            line(sb, "    {");
+            for(int i = 0; i < s.field_count(); i++)
+                field(sb, "        " + write(s.field_size(i), at(s.field_offset(i)), "values[" + i + "]") + ";", s.field_name(i));
+            line(sb, "    }");
+        }
+        line(sb, "}");
+
+        return sb.toString();
+    }
+
+    /*
+     * compares every generated codec with its descriptor on rounds structs of random bytes
+     */
+    static boolean check(int rounds)
+    {
+        Random random = new Random(rounds);
+        boolean ok = true;
+
+        for(PPTableLayout.Struct s : PPTableLayout.STRUCTS)
+        {
+            PPTableLayout.Codec codec = s.codec();
+            if(codec == null)
+            {
+                System.out.println(s.name + ": no codec, or it was generated from another descriptor");
+                ok = false;
+                continue;
+            }
+
+            long[] expected = new long[s.field_count()], values = new long[s.field_count()];
+            ByteBuffer in = ByteBuffer.allocate(s.size + 16).order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer out = ByteBuffer.allocate(s.size + 16).order(ByteOrder.LITTLE_ENDIAN);
+            for(int r = 0; r < rounds && ok; r++)
+            {
+                random.nextBytes(in.array());
+                Arrays.fill(out.array(), (byte)0);
+                int base = random.nextInt(16);
+
+                for(int i = 0; i < expected.length; i++)
+                    expected[i] = s.get(in, base, i);
+                codec.decode(in, base, values);
+                codec.encode(values, out, base);
+
+                if(!Arrays.equals(values, expected))
+                {
+                    System.out.println(s.name + ": decode differs from the descriptor at base " + base);
+                    ok = false;
+                }
+                else if(!Arrays.equals(in.array(), base, base + s.size, out.array(), base, base + s.size))
+                {
+                    System.out.println(s.name + ": encode doesn't give back the decoded bytes");
+                    ok = false;
+                }
+            }
+        }
+
+        if(ok)
+            System.out.println(PPTableLayout.STRUCTS.length + " codecs match their descriptors");
+        return ok;
+    }
+
+    private static String at(int offset)
+    {
+        return offset == 0 ? "base" : "base + " + offset;
+    }
+
+    private static String read(int size, String offset)
+    {
+        switch(size)
+        {
+            case 1: return "Byte.toUnsignedLong(buf.get(" + offset + "))";
+            case 2: return "Short.toUnsignedLong(buf.getShort(" + offset + "))";
+            default: return "Integer.toUnsignedLong(buf.getInt(" + offset + "))";
+        }
+    }
+
+    private static String write(int size, String offset, String value)
+    {
+        switch(size)
+        {
+            case 1: return "buf.put(" + offset + ", (byte)" + value + ")";
+            case 2: return "buf.putShort(" + offset + ", (short)" + value + ")";
+            default: return "buf.putInt(" + offset + ", (int)" + value + ")";
+        }
+    }
+
+    /*
+     * a statement with the field name as a comment lined up after it
+     */
+    private static void field(StringBuilder sb, String statement, String name)
+    {
+        StringBuilder s = new StringBuilder(statement);
+        do s.append(' '); while(s.length() < COMMENT_COLUMN);
+        line(sb, s + "// " + name);
+    }
+
+    private static void line(StringBuilder sb, String line)
+    {
+        sb.append(line).append("\r\n");
+    }
+
+    private static final int COMMENT_COLUMN = 88;
+}
@@ -0,0 +1,302 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ * field by field comparison of PowerPlay tables against a reference table
+ *
+ * usage: java PPTableDiff [-json] [-j threads] <reference> <file|dir>...
+ */
+public class PPTableDiff
+{
+    public static void main(String[] args)
+    {
+        boolean json = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Path> files = new ArrayList<>();
+        PPTableEditor reference = null;
+
+        try
+        {
+            for(int i = 0; i < args.length; i++)
+            {
+                if(args[i].equals("-json"))
+                    json = true;
+                else if(args[i].equals("-j") && i + 1 < args.length)
+                    threads = Integer.parseInt(args[++i]);
+                else if(reference == null)
+                    reference = new PPTableEditor(args[i]);
+                else PPTableBatch.add_files(Paths.get(args[i]), files);
+            }
+        }
+        catch(IllegalArgumentException | IOException e)
+        {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+
+        if(reference == null || files.isEmpty())
+        {
+            System.err.println("usage: java PPTableDiff [-json] [-j threads] <reference> <file|dir>...");
+            System.exit(2);
+        }
+
+        final PPTableEditor ref = reference;
+        final boolean as_json = json;
+        int[] drifted = new int[1], printed = new int[1];
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try
+        {
+            if(as_json) System.out.println("[");
+            pool.submit(() ->
+                // diffs run in parallel, results are printed in file order as they become available
+                files.parallelStream()
+                     .map(file -> diff_file(ref, file))
+                     .forEachOrdered(r -> {
+                         if(r.error != null || !r.changes.isEmpty())
+                             drifted[0]++;
+                         System.out.print(as_json ? r.to_json(printed[0]++ == 0) : r.to_text());
+                     })
+            ).get();
+            if(as_json) System.out.println("\n]");
+        }
+        catch(InterruptedException | ExecutionException e)
+        {
+            throw new IllegalStateException(e);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        System.exit(drifted[0] == 0 ? 0 : 1);
+    }
+
+    /*
+     * a field whose value differs, MISSING if the table has no such field
+     */
+    public static class Change
+    {
+        Change(String field, long before, long after)
+        {
+            this.field = field;
+            this.before = before;
+            this.after = after;
+        }
+
+        @Override
+        public String toString()
+        {
+            return field + ": " + value(before) + " -> " + value(after);
+        }
+
+        private static String value(long v)
+        {
+            return v == MISSING ? "(none)" : String.valueOf(v);
+        }
+
+        public final String field;
+        public final long before, after;
+    }
+
+    /*
+     * changes from a to b, ordered by offset when both tables have the same layout
+     */
+    public static List<Change> diff(PPTableEditor a, PPTableEditor b)
+    {
+        byte[] x = a.get_pp_bytes(), y = b.get_pp_bytes();
+
+        // Arrays.equals/mismatch compare many bytes at a time, identical tables stop here
+        if(Arrays.equals(x, y))
+            return new ArrayList<>();
+
+        if(same_layout(a, b))
+            return diff_bytes(a, b);
+
+        return diff_fields(a, b);
+    }
+
+    /*
+     * for tables with their fields at the same offsets, only the fields
+     * covering a differing byte are decoded
+     */
+    private static List<Change> diff_bytes(PPTableEditor a, PPTableEditor b)
+    {
+        byte[] x = a.get_pp_bytes(), y = b.get_pp_bytes();
+        int n = x.length;
+
+        List<PPTableEditor.Field> fields = a.fields();
+        fields.sort(Comparator.comparingInt(f -> f.offset));
+        int[] offsets = new int[fields.size()];
+        for(int i = 0; i < offsets.length; i++)
+            offsets[i] = fields.get(i).offset;
+
+        List<Change> changes = new ArrayList<>();
+        int i = 0, m;
+        while(i < n && (m = Arrays.mismatch(x, i, n, y, i, n)) != -1)
+        {
+            int pos = i + m;
+
+            int k = Arrays.binarySearch(offsets, pos);
+            if(k < 0) k = -k - 2;     // last field starting before pos
+
+            PPTableEditor.Field f = k >= 0 ? fields.get(k) : null;
+            if(f != null && pos < f.offset + f.size)
+            {
+                changes.add(new Change(f.name, a.get_field(f), b.get_field(f)));
+                i = f.offset + f.size;
+            }
+            else
+            {
+                // not in a decoded structure
+                changes.add(new Change(
+                    String.format("pp_bytes[0x%04X]", pos),
+                    Byte.toUnsignedLong(x[pos]), Byte.toUnsignedLong(y[pos])
+                ));
+                i = pos + 1;
+            }
+        }
+
+        return changes;
+    }
+
+    /*
+     * tables laid out differently are matched by field name
+     */
+    private static List<Change> diff_fields(PPTableEditor a, PPTableEditor b)
+    {
+        Map<String, PPTableEditor.Field> b_fields = new HashMap<>();
+        for(PPTableEditor.Field f : b.fields())
+            b_fields.put(f.name, f);
+
+        List<Change> changes = new ArrayList<>();
+        for(PPTableEditor.Field f : a.fields())
+        {
+            PPTableEditor.Field g = b_fields.remove(f.name);
+            long before = a.get_field(f), after = g == null ? MISSING : b.get_field(g);
+            if(before != after)
+                changes.add(new Change(f.name, before, after));
+        }
+        for(PPTableEditor.Field g : b.fields())
+        {
+            if(b_fields.containsKey(g.name))
+                changes.add(new Change(g.name, MISSING, b.get_field(g)));
+        }
+
+        return changes;
+    }
+
+    /*
+     * same format and size, with every sub-table at the same offset with the same ucRevId and entry count,
+     * read through the format's layouts so tables of any supported format compare
+     */
+    private static boolean same_layout(PPTableEditor a, PPTableEditor b)
+    {
+        PPTableFormat format = a.get_format();
+        if(b.get_format() != format || a.get_pp_bytes().length != b.get_pp_bytes().length)
+            return false;
+
+        ByteBuffer x = ByteBuffer.wrap(a.get_pp_bytes()).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer y = ByteBuffer.wrap(b.get_pp_bytes()).order(ByteOrder.LITTLE_ENDIAN);
+        for(PPTableLayout.Table table : format.tables)
+        {
+            int offset = table.offset(x);
+            if(offset != table.offset(y))
+                return false;
+
+            boolean fits = offset != 0 && table.fits(x, offset);
+            if(fits != (offset != 0 && table.fits(y, offset)))
+                return false;
+            if(fits && (x.get(offset) != y.get(offset) || table.count(x, offset) != table.count(y, offset)))
+                return false;
+        }
+        return true;
+    }
+
+    private static Result diff_file(PPTableEditor reference, Path file)
+    {
+        Result r = new Result(file);
+        try
+        {
+            r.changes = diff(reference, new PPTableEditor(file.toString()));
+        }
+        catch(IllegalArgumentException e)
+        {
+            r.error = e.getMessage();
+        }
+        return r;
+    }
+
+    static String json_string(String s)
+    {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for(int i = 0; i < s.length(); i++)
+        {
+            char c = s.charAt(i);
+            if(c == '"' || c == '\\')
+                sb.append('\\').append(c);
+            else if(c < 0x20)
+                sb.append(String.format("\\u%04x", (int)c));
+            else sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+
+    private static class Result
+    {
+        Result(Path file)
+        {
+            this.file = file;
+        }
+
+        String to_text()
+        {
+            if(error != null)
+                return file + ": " + error + "\n";
+            if(changes.isEmpty())
+                return file + ": identical\n";
+
+            StringBuilder sb = new StringBuilder();
+            sb.append(file).append(": ").append(changes.size()).append(" changes\n");
+            for(Change c : changes)
+                sb.append("  ").append(c).append('\n');
+            return sb.toString();
+        }
+
+        String to_json(boolean first)
+        {
+            StringBuilder sb = new StringBuilder(first ? "  " : ",\n  ");
+            sb.append("{\"file\": ").append(json_string(file.toString()));
+            if(error != null)
+                return sb.append(", \"error\": ").append(json_string(error)).append('}').toString();
+
+            sb.append(", \"changes\": [");
+            for(int i = 0; i < changes.size(); i++)
+            {
+                Change c = changes.get(i);
+                sb.append(i == 0 ? "" : ", ")
+                  .append("{\"field\": ").append(json_string(c.field))
+                  .append(", \"reference\": ").append(c.before == MISSING ? "null" : String.valueOf(c.before))
+                  .append(", \"value\": ").append(c.after == MISSING ? "null" : String.valueOf(c.after))
+                  .append('}');
+            }
+            return sb.append("]}").toString();
+        }
+
+        final Path file;
+        List<Change> changes;
+        String error;
+    }
+
+    public static final long MISSING = Long.MIN_VALUE;
+}
@@ -0,0 +1,191 @@
+/*
+ * a single change to a PowerPlay table, written as target=value
+ * clocks are in MHz and voltages in mV, as they're shown in the GUI
+ *
+ *   sclk<P>=<MHz>      core clock of P-state P
+ *   vid<P>=<index>     voltage index of core P-state P
+ *   mclk<P>=<MHz>      memory clock of P-state P
+ *   mvdd<P>=<mV>       memory voltage of P-state P
+ *   vdd<i>=<mV>        voltage entry i
+ *   vdd_offset=<mV>    added to every voltage entry
+ *   power_limit=<%>
+ *   tdp=<W>
+ *   tdc=<A>
+ *   max_power=<W>
+ */
+public class PPTableEdit
+{
+    public PPTableEdit(int target, int index, int value)
+    {
+        this.target = target;
+        this.index = index;
+        this.value = value;
+    }
+
+    public static PPTableEdit parse(String spec) throws IllegalArgumentException
+    {
+        int eq = spec.indexOf('=');
+        if(eq == -1)
+            throw new IllegalArgumentException("Invalid edit \"" + spec + "\": expected target=value");
+
+        String name = spec.substring(0, eq).trim().toLowerCase();
+        String value = spec.substring(eq + 1).trim();
+
+        // split the P-state or entry index off the end of the name
+        int end = name.length();
+        while(end > 0 && Character.isDigit(name.charAt(end - 1)))
+            end--;
+
+        int target = -1;
+        for(int i = 0; i < NAMES.length; i++)
+        {
+            if(NAMES[i].equals(name.substring(0, end)))
+                target = i;
+        }
+        if(target == -1)
+            throw new IllegalArgumentException("Invalid edit \"" + spec + "\": unknown target");
+
+        boolean indexed = target <= VDD;
+        if(indexed == (end == name.length()))
+        {
+            throw new IllegalArgumentException(
+                "Invalid edit \"" + spec + "\": " + NAMES[target] +
+                (indexed ? " needs an index" : " doesn't take an index")
+            );
+        }
+
+        try
+        {
+            int index = indexed ? Integer.parseInt(name.substring(end)) : -1;
+            return new PPTableEdit(target, index, Integer.parseInt(value));
+        }
+        catch(NumberFormatException e)
+        {
+            throw new IllegalArgumentException("Invalid edit \"" + spec + "\": " + e.getMessage());
+        }
+    }
+
+    /*
+     * values are checked against the width of the field they're stored in, and voltages against
+     * the 0xFF0X leakage IDs, before anything is written, so a rejected edit leaves the table as it was
+     */
+    public void apply(PPTableEditor ppte) throws IllegalArgumentException
+    {
+        switch(target)
+        {
+            case SCLK:
+                check_value(value, 0, UINT32_MAX / 100);
+                sclk_entry(ppte).set_ulSclk(value * 100L);
+                break;
+            case VID:
+                if(value < 0 || value >= ppte.get_voltage_entries().length)
+                    throw out_of_range("voltage index", value, ppte.get_voltage_entries().length);
+                sclk_entry(ppte).set_ucVddInd((byte)value);
+                break;
+            case MCLK:
+                check_value(value, 0, UINT32_MAX / 100);
+                mclk_entry(ppte).set_ulMclk(value * 100L);
+                break;
+            case MVDD:
+                check_value(value, 0, UINT16_MAX);
+                mclk_entry(ppte).set_usMvdd(value);
+                break;
+            case VDD:
+                if(index < 0 || index >= ppte.get_voltage_entries().length)
+                    throw out_of_range("voltage entry", index, ppte.get_voltage_entries().length);
+                check_value(value, 0, LEAKAGE_ID - 1);
+                ppte.get_voltage_entries()[index].set_usVdd(value);
+                break;
+            case VDD_OFFSET:
+                // leave the 0xFF0X leakage IDs alone, they aren't voltages
+                for(PPTableEditor.ATOM_VOLTAGE_ENTRY e : ppte.get_voltage_entries())
+                {
+                    if(e.get_usVdd() < LEAKAGE_ID)
+                        check_value((long)e.get_usVdd() + value, 0, LEAKAGE_ID - 1);
+                }
+                for(PPTableEditor.ATOM_VOLTAGE_ENTRY e : ppte.get_voltage_entries())
+                {
+                    if(e.get_usVdd() < LEAKAGE_ID)
+                        e.set_usVdd(e.get_usVdd() + value);
+                }
+                break;
+            case POWER_LIMIT:
+                check_value(value, 0, UINT16_MAX);
+                ppte.pplay.set_usPowerControlLimit(value);
+                break;
+            case TDP:
+                check_value(value, 0, UINT16_MAX);
+                ppte.get_ptune().set_usTDP(value);
+                break;
+            case TDC:
+                check_value(value, 0, UINT16_MAX);
+                ppte.get_ptune().set_usTDC(value);
+                break;
+            case MAX_POWER:
+                check_value(value, 0, UINT16_MAX);
+                ppte.get_ptune().set_usMaximumPowerDeliveryLimit(value);
+                break;
+        }
+    }
+
+    private PPTableEditor.ATOM_SCLK_ENTRY sclk_entry(PPTableEditor ppte)
+    {
+        if(index < 0 || index >= ppte.get_sclk_entries().length)
+            throw out_of_range("core P-state", index, ppte.get_sclk_entries().length);
+        return ppte.get_sclk_entries()[index];
+    }
+
+    private PPTableEditor.ATOM_MCLK_ENTRY mclk_entry(PPTableEditor ppte)
+    {
+        if(index < 0 || index >= ppte.get_mclk_entries().length)
+            throw out_of_range("memory P-state", index, ppte.get_mclk_entries().length);
+        return ppte.get_mclk_entries()[index];
+    }
+
+    private IllegalArgumentException out_of_range(String what, int i, int count)
+    {
+        return new IllegalArgumentException(
+            String.format("%s: %s %d out of range, table has %d", this, what, i, count)
+        );
+    }
+
+    /*
+     * v is what ends up in the field, which holds min..max
+     */
+    private void check_value(long v, long min, long max) throws IllegalArgumentException
+    {
+        if(v < min || v > max)
+        {
+            throw new IllegalArgumentException(
+                String.format("%s: %d out of range, the field holds %d..%d", this, v, min, max)
+            );
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return NAMES[target] + (index >= 0 ? String.valueOf(index) : "") + "=" + value;
+    }
+
+    // targets, the indexed ones come first
+    public static final int SCLK = 0,
+                            VID = 1,
+                            MCLK = 2,
+                            MVDD = 3,
+                            VDD = 4,
+                            VDD_OFFSET = 5,
+                            POWER_LIMIT = 6,
+                            TDP = 7,
+                            TDC = 8,
+                            MAX_POWER = 9;
+    private static final String[] NAMES = {
+        "sclk", "vid", "mclk", "mvdd", "vdd", "vdd_offset", "power_limit", "tdp", "tdc", "max_power"
+    };
+    private static final int LEAKAGE_ID = 0xFF00;
+    private static final long UINT16_MAX = 0xFFFF, UINT32_MAX = 0xFFFFFFFFL;
+
+    public final int target;
+    public final int index;     // P-state or voltage entry, -1 if the target has none
+    public final int value;
+}
@@ -0,0 +1,129 @@
+import java.awt.Color;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+/*
+ * turns typing in a text field into at most one commit per pause in typing
+ * a field's text is parsed and range checked on executor once it hasn't changed
+ * for DELAY ms, then committed on the EDT if it's still the field's text
+ */
+public class PPTableEditPipeline
+{
+    public interface Commit
+    {
+        void commit(int value);
+    }
+
+    public PPTableEditPipeline(ExecutorService executor, Color invalid)
+    {
+        this.executor = executor;
+        this.invalid = invalid;
+    }
+
+    /*
+     * commits the field's value through commit once it's a number in min..max
+     */
+    public void bind(JTextField txt, int min, int max, Commit commit)
+    {
+        Timer timer = new Timer(DELAY, null);
+        timer.setRepeats(false);
+        timer.addActionListener(e -> submit(txt, txt.getText(), min, max, commit));
+        timers.put(txt, timer);
+
+        txt.getDocument().addDocumentListener(new DocumentListener()
+        {
+            @Override
+            public void removeUpdate(DocumentEvent e)
+            {
+                changedUpdate(e);
+            }
+
+            @Override
+            public void insertUpdate(DocumentEvent e)
+            {
+                changedUpdate(e);
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e)
+            {
+                if(!setting_text)
+                    timer.restart();
+            }
+        });
+    }
+
+    /*
+     * shows a value in a bound field without committing it back
+     */
+    public void set_text(JTextField txt, String text)
+    {
+        Timer timer = timers.get(txt);
+        if(timer != null)
+            timer.stop();
+
+        setting_text = true;
+        try
+        {
+            txt.setText(text);
+            txt.setBackground(Color.WHITE);
+            txt.setToolTipText(null);
+        }
+        finally
+        {
+            setting_text = false;
+        }
+    }
+
+    private void submit(JTextField txt, String text, int min, int max, Commit commit)
+    {
+        if(text.isEmpty()) return;
+
+        executor.execute(() -> {
+            String error = null;
+            int value = 0;
+            try
+            {
+                value = Integer.parseInt(text.trim());
+                if(value < min || value > max)
+                    error = value + " is outside " + min + ".." + max;
+            }
+            catch(NumberFormatException e)
+            {
+                error = "\"" + text + "\" is not a number";
+            }
+
+            final String message = error;
+            final int parsed = value;
+            SwingUtilities.invokeLater(() -> {
+                // typed over or replaced while it was being parsed
+                if(!txt.getText().equals(text)) return;
+
+                if(message != null)
+                {
+                    txt.setBackground(invalid);
+                    txt.setToolTipText(message);
+                    return;
+                }
+
+                txt.setBackground(Color.WHITE);
+                txt.setToolTipText(null);
+                commit.commit(parsed);
+            });
+        });
+    }
+
+    private static final int DELAY = 250;     // ms
+
+    private final ExecutorService executor;
+    private final Color invalid;
+    private final Map<JTextField, Timer> timers = new WeakHashMap<>();
+    private boolean setting_text;
+}
@@ -1,115 +1,214 @@
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
 public class PPTableEditor
 {
+    /*
+     * usage: java PPTableEditor [<in> <out>]
+     * with files, converts a registry file to a raw binary table or back, see save()
+     */
     public static void main(String[] args)
     {
+        if(args.length == 2)
+        {
+            System.exit(convert(args[0], args[1]) ? 0 : 1);
+        }
+        else if(args.length != 0)
+        {
+            System.err.println("usage: java PPTableEditor [<in> <out>]");
+            System.exit(2);
+        }
+
         PPTableEditor ppte = new PPTableEditor("RxVega_M_soft_PowerTable.reg");
         ppte.save("RxVega_M_soft_PowerTable_modded.reg");
     }
 
+    /*
+     * reg_file is a registry file or a raw binary table, such as a VBIOS dump
+     * or /sys/class/drm/card0/device/pp_table
+     */
     public PPTableEditor(String reg_file) throws IllegalArgumentException
     {
-        if(!parse_reg_file(reg_file))
+        this(parse_reg_file(reg_file));
+    }
+
+    /*
+     * lazy only decodes the ATOM_POWERPLAY_TABLE header up front, the sub-tables are
+     * decoded the first time they're accessed and errors in them are thrown from there
+     */
+    public PPTableEditor(String reg_file, boolean lazy) throws IllegalArgumentException
+    {
+        this(parse_reg_file(reg_file), lazy);
+    }
+
+    /*
+     * decodes an already parsed registry file, reg is null if it couldn't be parsed
+     */
+    PPTableEditor(RegFile reg) throws IllegalArgumentException
+    {
+        this(reg, false);
+    }
+
+    PPTableEditor(RegFile reg, boolean lazy) throws IllegalArgumentException
+    {
+        if(reg == null)
             throw new IllegalArgumentException("Invalid registry file");
 
-        pplay = new ATOM_POWERPLAY_TABLE(pp_bytes);
-        if(pplay.sHeader.usStructureSize != pp_bytes.length)
+        reg_binary = reg.header.isEmpty();
+        reg_header = reg_binary ? DEFAULT_REG_HEADER : reg.header;
+        pp_bytes = reg.table;
+        reg_path = reg.path;
+        reg_size = reg.size;
+        reg_mtime = reg.mtime;
+        reg_canonical = reg.canonical;
+
+        pp_buffer = ByteBuffer.wrap(pp_bytes).order(ByteOrder.LITTLE_ENDIAN);
+
+        format = PPTableFormat.of(pp_buffer);
+        if(format == null || pp_bytes.length < ATOM_POWERPLAY_TABLE.size)
+            throw new IllegalArgumentException("Invalid PowerPlay table");
+        if(!format.is_supported())
+            throw new IllegalArgumentException("Unsupported PowerPlay table: " + format.name);
+        if(pp_bytes.length < format.powerplay.size)
             throw new IllegalArgumentException("Invalid PowerPlay table");
 
-        byte[] bytes = new byte[ATOM_POWERTUNE_TABLE.size];
-        System.arraycopy(pp_bytes, pplay.usPowerTuneTableOffset, bytes, 0, bytes.length);
-        ptune = new ATOM_POWERTUNE_TABLE(bytes);
+        pplay = new ATOM_POWERPLAY_TABLE(0);
+        if(pplay.sHeader.get_usStructureSize() != pp_bytes.length)
+            throw new IllegalArgumentException("Invalid PowerPlay table");
 
-        bytes = new byte[ATOM_MCLK_TABLE.size];
-        System.arraycopy(pp_bytes, pplay.usMclkDependencyTableOffset, bytes, 0, bytes.length);
-        ATOM_MCLK_TABLE mclk_table = new ATOM_MCLK_TABLE(bytes);
-        mclk_entries = new ATOM_MCLK_ENTRY[mclk_table.ucNumEntries];
-        for(int i = 0; i < mclk_entries.length; i++)
+        if(!lazy && format.editable)
         {
-            int offset = pplay.usMclkDependencyTableOffset + ATOM_MCLK_TABLE.size +
-                            ATOM_MCLK_ENTRY.size * i;
-            bytes = new byte[ATOM_MCLK_ENTRY.size];
-            System.arraycopy(pp_bytes, offset, bytes, 0, bytes.length);
-            mclk_entries[i] = new ATOM_MCLK_ENTRY(bytes);
+            get_ptune();
+            get_mclk_entries();
+            get_sclk_entries();
+            get_voltage_entries();
         }
+    }
 
-        bytes = new byte[ATOM_SCLK_ENTRY.size];
-        System.arraycopy(pp_bytes, pplay.usSclkDependencyTableOffset, bytes, 0, bytes.length);
-        ATOM_SCLK_TABLE sclk_table = new ATOM_SCLK_TABLE(bytes);
-        sclk_entries = new ATOM_SCLK_ENTRY[sclk_table.ucNumEntries];
-        for(int i = 0; i < sclk_entries.length; i++)
+    public ATOM_POWERTUNE_TABLE get_ptune() throws IllegalArgumentException
+    {
+        check_editable();
+        if(ptune == null)
         {
-            int offset = pplay.usSclkDependencyTableOffset + ATOM_SCLK_TABLE.size +
-                            ATOM_SCLK_ENTRY.size * i;
-            bytes = new byte[ATOM_SCLK_ENTRY.size];
-            System.arraycopy(pp_bytes, offset, bytes, 0, bytes.length);
-            sclk_entries[i] = new ATOM_SCLK_ENTRY(bytes);
+            // Tonga tables, ucRevId 0 to 2, are 31 bytes and Polaris ones 50
+            int offset = check_bounds(pplay.get_usPowerTuneTableOffset(), 1);
+            PPTableLayout.Struct layout = PPTableLayout.POWERTUNE_TABLE.header(pp_buffer, offset);
+            ptune = new ATOM_POWERTUNE_TABLE(check_bounds(offset, layout.size), layout);
         }
+        return ptune;
+    }
 
-        bytes = new byte[ATOM_VOLTAGE_ENTRY.size];
-        System.arraycopy(pp_bytes, pplay.usVddcLookupTableOffset, bytes, 0, bytes.length);
-        ATOM_VOLTAGE_TABLE voltage_table = new ATOM_VOLTAGE_TABLE(bytes);
-        voltage_entries = new ATOM_VOLTAGE_ENTRY[voltage_table.ucNumEntries];
-        for(int i = 0; i < voltage_entries.length; i++)
+    public ATOM_MCLK_ENTRY[] get_mclk_entries() throws IllegalArgumentException
+    {
+        check_editable();
+        if(mclk_entries == null)
         {
-            int offset = pplay.usVddcLookupTableOffset + ATOM_VOLTAGE_TABLE.size +
-                            ATOM_VOLTAGE_ENTRY.size * i;
-            bytes = new byte[ATOM_VOLTAGE_ENTRY.size];
-            System.arraycopy(pp_bytes, offset, bytes, 0, bytes.length);
-            voltage_entries[i] = new ATOM_VOLTAGE_ENTRY(bytes);
+            int table_offset = check_bounds(pplay.get_usMclkDependencyTableOffset(), ATOM_MCLK_TABLE.size);
+            ATOM_MCLK_TABLE mclk_table = new ATOM_MCLK_TABLE(table_offset);
+            ATOM_MCLK_ENTRY[] entries = new ATOM_MCLK_ENTRY[Byte.toUnsignedInt(mclk_table.get_ucNumEntries())];
+            check_bounds(table_offset, ATOM_MCLK_TABLE.size + ATOM_MCLK_ENTRY.size * entries.length);
+            for(int i = 0; i < entries.length; i++)
+            {
+                int offset = table_offset + ATOM_MCLK_TABLE.size + ATOM_MCLK_ENTRY.size * i;
+                entries[i] = new ATOM_MCLK_ENTRY(offset);
+            }
+            mclk_entries = entries;
         }
+        return mclk_entries;
     }
 
-    public boolean save(String filename)
+    public ATOM_SCLK_ENTRY[] get_sclk_entries() throws IllegalArgumentException
     {
-        // copy fields
-        System.arraycopy(pplay.to_bytes(), 0, pp_bytes, 0, ATOM_POWERPLAY_TABLE.size);
-        System.arraycopy(ptune.to_bytes(), 0, pp_bytes, pplay.usPowerTuneTableOffset, ATOM_POWERTUNE_TABLE.size);
-        for(int i = 0; i < mclk_entries.length; i++)
-        {
-            int offset = pplay.usMclkDependencyTableOffset + ATOM_MCLK_TABLE.size +
-                         ATOM_MCLK_ENTRY.size * i;
-            System.arraycopy(mclk_entries[i].to_bytes(), 0, pp_bytes, offset, ATOM_MCLK_ENTRY.size);
-        }
-        for(int i = 0; i < sclk_entries.length; i++)
+        check_editable();
+        if(sclk_entries == null)
         {
-            int offset = pplay.usSclkDependencyTableOffset + ATOM_SCLK_TABLE.size +
-                         ATOM_SCLK_ENTRY.size * i;
-            System.arraycopy(sclk_entries[i].to_bytes(), 0, pp_bytes, offset, ATOM_SCLK_ENTRY.size);
+            int table_offset = check_bounds(pplay.get_usSclkDependencyTableOffset(), ATOM_SCLK_TABLE.size);
+            ATOM_SCLK_TABLE sclk_table = new ATOM_SCLK_TABLE(table_offset);
+            ATOM_SCLK_ENTRY[] entries = new ATOM_SCLK_ENTRY[Byte.toUnsignedInt(sclk_table.get_ucNumEntries())];
+            // Tonga entries, ucRevId 0, are 2 bytes shorter
+            PPTableLayout.Struct entry_layout = PPTableLayout.SCLK.entry(pp_buffer, table_offset);
+            int entry_size = entry_layout.size;
+            check_bounds(table_offset, ATOM_SCLK_TABLE.size + entry_size * entries.length);
+            for(int i = 0; i < entries.length; i++)
+            {
+                int offset = table_offset + ATOM_SCLK_TABLE.size + entry_size * i;
+                entries[i] = new ATOM_SCLK_ENTRY(offset, entry_layout);
+            }
+            sclk_entries = entries;
         }
-        for(int i = 0; i < voltage_entries.length; i++)
+        return sclk_entries;
+    }
+
+    public ATOM_VOLTAGE_ENTRY[] get_voltage_entries() throws IllegalArgumentException
+    {
+        check_editable();
+        if(voltage_entries == null)
         {
-            int offset = pplay.usVddcLookupTableOffset + ATOM_VOLTAGE_TABLE.size +
-                         ATOM_VOLTAGE_ENTRY.size * i;
-            System.arraycopy(voltage_entries[i].to_bytes(), 0, pp_bytes, offset, ATOM_VOLTAGE_ENTRY.size);
+            int table_offset = check_bounds(pplay.get_usVddcLookupTableOffset(), ATOM_VOLTAGE_TABLE.size);
+            ATOM_VOLTAGE_TABLE voltage_table = new ATOM_VOLTAGE_TABLE(table_offset);
+            ATOM_VOLTAGE_ENTRY[] entries = new ATOM_VOLTAGE_ENTRY[Byte.toUnsignedInt(voltage_table.get_ucNumEntries())];
+            check_bounds(table_offset, ATOM_VOLTAGE_TABLE.size + ATOM_VOLTAGE_ENTRY.size * entries.length);
+            for(int i = 0; i < entries.length; i++)
+            {
+                int offset = table_offset + ATOM_VOLTAGE_TABLE.size + ATOM_VOLTAGE_ENTRY.size * i;
+                entries[i] = new ATOM_VOLTAGE_ENTRY(offset);
+            }
+            voltage_entries = entries;
         }
+        return voltage_entries;
+    }
 
+    /*
+     * only the fields changed since the file was opened are re-encoded
+     * if filename is the opened file and it still has the layout save() writes,
+     * their hex digits are patched in place, otherwise the whole file is rewritten
+     *
+     * the opened file keeps its format, other files are written as raw binary tables
+     * if they're named *.bin or pp_table, as registry files if they're named *.reg
+     * and otherwise in the format of the opened file
+     */
+    public boolean save(String filename)
+    {
         Path path = Paths.get(filename);
         try
         {
-            StringBuilder data = new StringBuilder();
-
-            data.append(reg_header);
+            boolean same_file = reg_path != null && Files.exists(path) && Files.isSameFile(path, reg_path);
+            boolean unchanged = same_file && Files.size(path) == reg_size &&
+                                Files.getLastModifiedTime(path).equals(reg_mtime);
+            boolean binary = same_file ? reg_binary : is_binary_name(path, reg_binary);
 
-            for(int i = 1; i <= pp_bytes.length; i++)
+            if(unchanged && reg_canonical && !(binary && is_sysfs(path)))
             {
-                data.append(String.format("%02X", pp_bytes[i - 1]));
-
-                if(i != pp_bytes.length)
-                    data.append(", ");
-
-                if(i != pp_bytes.length && i % 16 == 0)
-                    data.append("\\\r\n");
+                if(binary && !dirty.isEmpty())
+                    patch_bin_file(path);
+                else if(!dirty.isEmpty())
+                    patch_reg_file(path);
             }
+            else if(binary) write_bin_file(path, pp_bytes);
+            else write_reg_file(path, reg_header.getBytes(), pp_bytes);
 
-            Files.write(path, data.toString().getBytes());
+            if(same_file)
+            {
+                dirty.clear();
+                reg_canonical = true;
+                reg_size = Files.size(path);
+                reg_mtime = Files.getLastModifiedTime(path);
+            }
+            if(bus != null)
+                bus.publish(new PPTableEventBus.TableSaved(this, path));
         }
         catch(IOException e)
         {
@@ -121,114 +220,639 @@ public class PPTableEditor
         return true;
     }
 
-    private boolean parse_reg_file(String reg_file)
+    public PPTableFormat get_format()
+    {
+        return format;
+    }
+
+    /*
+     * whether any field has been changed since the file was opened or last saved to it
+     */
+    public boolean is_dirty()
+    {
+        return !dirty.isEmpty();
+    }
+
+    /*
+     * changes made through the setters are published on bus, null to stop publishing
+     */
+    public void set_event_bus(PPTableEventBus bus)
+    {
+        this.bus = bus;
+    }
+
+    /*
+     * the table the ATOM_* views read from, callers must not modify it
+     */
+    byte[] get_pp_bytes()
+    {
+        return pp_bytes;
+    }
+
+    /*
+     * the registry text before the table, a default one for raw binary tables
+     */
+    String get_reg_header()
     {
-        try {
-            String data = new String(Files.readAllBytes(Paths.get(reg_file))),
-                   needle = "\"PP_PhmSoftPowerPlayTable\"=hex:";
-            int start = data.indexOf(needle);
-            if(start == -1) return false;
+        return reg_header;
+    }
 
-            reg_header = data.substring(0, start) + needle;
+    /*
+     * whether the table was read from a raw binary table rather than a registry file
+     */
+    boolean is_binary()
+    {
+        return reg_binary;
+    }
 
-            start += needle.length();
-            String hex = data.substring(start);
+    /*
+     * the file the table was read from, null if it wasn't read from a file
+     */
+    Path get_reg_path()
+    {
+        return reg_path;
+    }
 
-            String[] hex_bytes = hex.split(",|\\\\");
-            ArrayList<Byte> bytes = new ArrayList<>();
-            for(String s : hex_bytes)
+    /*
+     * replaces the contents of the table with table, which has to have the same layout
+     */
+    void set_pp_bytes(byte[] table)
+    {
+        if(table.length != pp_bytes.length)
+            throw new IllegalArgumentException("Invalid PowerPlay table");
+
+        System.arraycopy(table, 0, pp_bytes, 0, table.length);
+        dirty.set(0, pp_bytes.length);
+    }
+
+    /*
+     * every field of the tables described in PPTableLayout, struct by struct,
+     * named as they're reached from this class, e.g. pplay.ulGoldenPPID, ptune.usTDP,
+     * sclk_entries[7].ulSclk or fan_table.usTMax
+     * the layouts are the ones of the table's format and of each sub-table's ucRevId,
+     * the tables the editor doesn't decode itself are left out if they're unknown or don't fit
+     */
+    public List<Field> fields()
+    {
+        if(format.editable)
+        {
+            get_ptune();
+            get_mclk_entries();
+            get_sclk_entries();
+            get_voltage_entries();
+        }
+
+        List<Field> fields = new ArrayList<>();
+        add_fields(fields, "pplay.", 0, format.powerplay);
+
+        for(PPTableLayout.Table table : format.tables)
+        {
+            int offset = table.offset(pp_buffer);
+            if(offset == 0 || !table.fits(pp_buffer, offset))
+                continue;
+
+            add_fields(fields, table.name + ".", offset, table.header(pp_buffer, offset));
+            PPTableLayout.Struct entry = table.entry(pp_buffer, offset);
+            for(int i = 0; i < table.count(pp_buffer, offset); i++)
+                add_fields(fields, table.entries + "[" + i + "].", table.entry_offset(pp_buffer, offset, i), entry);
+        }
+
+        return fields;
+    }
+
+    /*
+     * the unsigned value of a field returned by fields()
+     */
+    public long get_field(Field f)
+    {
+        switch(f.size)
+        {
+            case 1: return Byte.toUnsignedLong(pp_bytes[f.offset]);
+            case 2: return get_uint16(f.offset);
+            default: return get_uint32(f.offset);
+        }
+    }
+
+    /*
+     * sets the size byte field at offset through the setters, so it's marked dirty and published
+     */
+    void set_value(int offset, int size, long value)
+    {
+        check_bounds(offset, size);
+        switch(size)
+        {
+            case 1: set_uint8(offset, (byte)value); break;
+            case 2: set_uint16(offset, (int)value); break;
+            default: set_uint32(offset, value);
+        }
+    }
+
+    private static void add_fields(List<Field> fields, String prefix, int offset, PPTableLayout.Struct struct)
+    {
+        for(int i = 0; i < struct.field_count(); i++)
+            fields.add(new Field(prefix + struct.field_name(i), offset + struct.field_offset(i), struct.field_size(i)));
+    }
+
+    /*
+     * converts in to out without decoding the table, so tables of any format can be
+     * converted, out is written as a registry file or raw binary table as in save()
+     * and otherwise in the other format than in
+     */
+    static boolean convert(String in, String out)
+    {
+        try
+        {
+            RegFile reg = parse_reg_file(in);
+            if(reg == null)
+                throw new IllegalArgumentException("Invalid registry file");
+
+            boolean binary = !reg.header.isEmpty();
+            Path path = Paths.get(out);
+            if(is_binary_name(path, binary))
+                write_bin_file(path, reg.table);
+            else write_reg_file(path, (binary ? reg.header : DEFAULT_REG_HEADER).getBytes(), reg.table);
+            return true;
+        }
+        catch(IllegalArgumentException e)
+        {
+            System.err.println(in + ": " + e.getMessage());
+            return false;
+        }
+        catch(IOException e)
+        {
+            System.err.println("Failed to write to " + out);
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /*
+     * whether path is named like a raw binary table, binary if the name doesn't say
+     */
+    private static boolean is_binary_name(Path path, boolean binary)
+    {
+        String name = path.getFileName().toString().toLowerCase();
+        if(name.endsWith(".bin") || name.equals("pp_table"))
+            return true;
+        if(name.endsWith(".reg"))
+            return false;
+        return binary;
+    }
+
+    /*
+     * sysfs attributes can't be mapped or truncated, and report a size of a page
+     * rather than of their contents, so they're read and written with a single call
+     */
+    private static boolean is_sysfs(Path path)
+    {
+        return path.toAbsolutePath().normalize().startsWith(SYSFS);
+    }
+
+    private static void write_reg_file(Path path, byte[] header, byte[] table) throws IOException
+    {
+        replace_file(path, encode_reg(header, table));
+    }
+
+    /*
+     * the driver parses a write to pp_table as a whole table, so it's written in one call there
+     */
+    static void write_bin_file(Path path, byte[] table) throws IOException
+    {
+        if(is_sysfs(path))
+        {
+            try(FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE))
             {
-                s = s.trim().toUpperCase();
+                if(channel.write(ByteBuffer.wrap(table)) != table.length)
+                    throw new IOException("Short write to " + path);
+            }
+            return;
+        }
 
-                if(s.matches("[0-9A-F]{2}$"))
-                    bytes.add((byte)Integer.parseInt(s, 16));
+        replace_file(path, table);
+    }
+
+    /*
+     * writes data to a temporary file next to path and moves it over path, so a write that's
+     * interrupted or fails part way leaves the old file as it was
+     * the temporary file isn't mapped, a mapped file can't be replaced on Windows
+     */
+    private static void replace_file(Path path, byte[] data) throws IOException
+    {
+        Path tmp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try
+        {
+            try(FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE))
+            {
+                ByteBuffer buf = ByteBuffer.wrap(data);
+                while(buf.hasRemaining())
+                    channel.write(buf);
             }
 
-            pp_bytes = new byte[bytes.size()];
-            for(int i = 0; i < pp_bytes.length; i++)
-                pp_bytes[i] = bytes.get(i);
+            // the temporary file is only readable by its owner, the file keeps its permissions
+            if(Files.exists(path))
+            {
+                try
+                {
+                    Files.setPosixFilePermissions(tmp, Files.getPosixFilePermissions(path));
+                }
+                catch(UnsupportedOperationException e)
+                {
+                    // not a POSIX file system
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            Files.deleteIfExists(tmp);
+        }
+    }
 
-            return true;
+    /*
+     * writes each run of dirty bytes at its offset in the file
+     */
+    private void patch_bin_file(Path path) throws IOException
+    {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, pp_bytes.length);
+            for(int from = dirty.nextSetBit(0); from >= 0; from = dirty.nextSetBit(dirty.nextClearBit(from)))
+                buf.put(from, pp_bytes, from, dirty.nextClearBit(from) - from);
+        }
+    }
+
+    /*
+     * rewrites the text of each run of dirty bytes at its offset in the file
+     */
+    private void patch_reg_file(Path path) throws IOException
+    {
+        int header_length = reg_header.getBytes().length;
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE))
+        {
+            int from = dirty.nextSetBit(0);
+            while(from >= 0)
+            {
+                int to = dirty.nextClearBit(from);
+
+                byte[] text = new byte[encoded_length(from, to)];
+                encode_hex(pp_bytes, from, to, text, 0);
+
+                ByteBuffer buf = ByteBuffer.wrap(text);
+                long position = header_length + text_offset(from);
+                while(buf.hasRemaining())
+                    position += channel.write(buf, position);
+
+                from = dirty.nextSetBit(to);
+            }
+        }
+    }
+
+    /*
+     * encodes the table as the registry value text following header
+     * 16 bytes per line, separated by ", " and continued with "\\\r\n"
+     */
+    static byte[] encode_reg(byte[] header, byte[] table)
+    {
+        byte[] out = new byte[encoded_reg_length(header, table)];
+        encode_reg(header, table, out);
+
+        return out;
+    }
+
+    /*
+     * encodes into out, which has to hold encoded_reg_length bytes
+     * returns the number of bytes written
+     */
+    static int encode_reg(byte[] header, byte[] table, byte[] out)
+    {
+        System.arraycopy(header, 0, out, 0, header.length);
+        return encode_hex(table, 0, table.length, out, header.length);
+    }
+
+    static int encoded_reg_length(byte[] header, byte[] table)
+    {
+        return header.length + encoded_length(0, table.length);
+    }
+
+    /*
+     * encodes table[from, to) into out at pos, with the separators and line breaks
+     * between them placed as they are in the whole table
+     * returns the position after the last hex digit
+     */
+    private static int encode_hex(byte[] table, int from, int to, byte[] out, int pos)
+    {
+        for(int i = from + 1; i <= to; i++)
+        {
+            int b = (table[i - 1] & 0xFF) << 1;
+            out[pos++] = HEX_PAIRS[b];
+            out[pos++] = HEX_PAIRS[b + 1];
+
+            if(i != to)
+            {
+                out[pos++] = ',';
+                out[pos++] = ' ';
+
+                if(i % 16 == 0)
+                {
+                    out[pos++] = '\\';
+                    out[pos++] = '\r';
+                    out[pos++] = '\n';
+                }
+            }
+        }
+
+        return pos;
+    }
+
+    private static int encoded_length(int from, int to)
+    {
+        if(to <= from) return 0;
+
+        int n = to - from;
+        return n * 2 + (n - 1) * 2 + ((to - 1) / 16 - from / 16) * 3;
+    }
+
+    /*
+     * offset of the hex digits of byte i from the start of the value, "XX, " per byte
+     * and "\\\r\n" after every 16 bytes
+     */
+    private static int text_offset(int i)
+    {
+        return i * 4 + i / 16 * 3;
+    }
+
+    /*
+     * returns null if the file can't be read or has no PowerPlay table value
+     */
+    static RegFile parse_reg_file(String reg_file) throws IllegalArgumentException
+    {
+        Path path = Paths.get(reg_file);
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            FileTime mtime = Files.getLastModifiedTime(path);
+            RegFile reg = parse_reg_bytes(read_table_file(path, channel));
+            if(reg == null)
+                return null;
+
+            reg.path = path;
+            reg.size = size;
+            reg.mtime = mtime;
+            return reg;
         }
         catch(IOException e)
         {
             System.err.println("Failed to read " + reg_file);
             e.printStackTrace();
+            return null;
+        }
+    }
+
+    /*
+     * the contents of the table file opened as channel, mapped, or read for sysfs attributes
+     * whose reported size isn't the size of their contents
+     */
+    static ByteBuffer read_table_file(Path path, FileChannel channel) throws IOException
+    {
+        return is_sysfs(path) ? read_sysfs(channel) : channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    /*
+     * reads a sysfs attribute up to its end, rather than up to the size it reports
+     */
+    private static ByteBuffer read_sysfs(FileChannel channel) throws IOException
+    {
+        ByteBuffer buf = ByteBuffer.allocate(SYSFS_PAGE);
+        while(channel.read(buf) != -1)
+        {
+            if(!buf.hasRemaining())
+                buf = ByteBuffer.allocate(buf.capacity() * 2).put(buf.flip());
+        }
+        return buf.flip();
+    }
+
+    /*
+     * single pass over the raw file, decoding hex pairs straight into the table
+     * raw binary tables are copied as they are, with an empty header
+     * returns null if there is no PowerPlay table value in the file
+     * throws IllegalArgumentException with the file offset on malformed hex data
+     */
+    static RegFile parse_reg_bytes(ByteBuffer data) throws IllegalArgumentException
+    {
+        if(is_binary_table(data))
+        {
+            byte[] table = new byte[data.limit()];
+            data.get(0, table);
+            RegFile reg = new RegFile("", table);
+            reg.canonical = true;
+            return reg;
+        }
+
+        int start = index_of(data, NEEDLE);
+        if(start == -1) return null;
+
+        int pos = start + NEEDLE.length, limit = data.limit();
+        byte[] header = new byte[pos];
+        data.get(0, header);
+
+        // every byte takes at least 3 characters ("XX,") except the last one
+        byte[] bytes = new byte[(limit - pos) / 3 + 1];
+        int count = 0, high = 0, state = STATE_NEXT;
+        boolean canonical = true;
+
+        parse:
+        for(int i = pos; i < limit; i++)
+        {
+            int c = data.get(i) & 0xFF;
+            if((c == ' ' || c == '\t') && state != STATE_LOW) continue;
+
+            switch(state)
+            {
+                case STATE_NEXT:
+                    if(c == '\\' && count > 0)
+                    {
+                        state = STATE_CONTINUATION;
+                        continue;
+                    }
+                    // an empty value ends on the same line as the needle
+                    if((c == '\r' || c == '\n') && count == 0)
+                        break parse;
+                    if((high = HEX_VALUES[c]) < 0)
+                        throw malformed(c, i);
+                    if(i != pos + text_offset(count))
+                        canonical = false;
+                    state = STATE_LOW;
+                    break;
+                case STATE_LOW:
+                    int low = HEX_VALUES[c];
+                    if(low < 0)
+                        throw malformed(c, i);
+                    bytes[count++] = (byte)(high << 4 | low);
+                    state = STATE_SEPARATOR;
+                    break;
+                case STATE_SEPARATOR:
+                    if(c == ',')
+                        state = STATE_NEXT;
+                    else if(c == '\n')
+                        break parse;
+                    else if(c != '\r')
+                        throw malformed(c, i);
+                    break;
+                case STATE_CONTINUATION:
+                    if(c == '\n')
+                        state = STATE_NEXT;
+                    else if(c != '\r')
+                        throw malformed(c, i);
+                    break;
+            }
+        }
+
+        if(state != STATE_SEPARATOR && count > 0)
+        {
+            throw new IllegalArgumentException(
+                String.format("Invalid registry file: unexpected end of data at offset %d", limit)
+            );
+        }
+
+        RegFile reg = new RegFile(new String(header), Arrays.copyOf(bytes, count));
+        reg.canonical = canonical;
+
+        return reg;
+    }
+
+    /*
+     * a raw binary table starts with its size and a known format revision,
+     * which no registry file does as they start with text
+     */
+    private static boolean is_binary_table(ByteBuffer data)
+    {
+        int limit = data.limit();
+        if(limit < ATOM_COMMON_TABLE_HEADER.size || limit > 0xFFFF)
             return false;
+
+        int size = (data.get(0) & 0xFF) | (data.get(1) & 0xFF) << 8;
+        return size == limit && PPTableFormat.of(data) != null;
+    }
+
+    private static int index_of(ByteBuffer data, byte[] needle)
+    {
+        int last = data.limit() - needle.length;
+
+        search:
+        for(int i = 0; i <= last; i++)
+        {
+            for(int j = 0; j < needle.length; j++)
+            {
+                if(data.get(i + j) != needle[j])
+                    continue search;
+            }
+
+            return i;
         }
+
+        return -1;
+    }
+
+    private static IllegalArgumentException malformed(int c, int offset)
+    {
+        String found = c >= 0x20 && c < 0x7F ? "'" + (char)c + "'" : String.format("0x%02X", c);
+        return new IllegalArgumentException(
+            String.format("Invalid registry file: unexpected %s at offset %d", found, offset)
+        );
     }
 
     /*
-     * converts the 2 bytes at offset to an unsigned 16 bit value
+     * reads the 2 bytes at offset in pp_bytes as an unsigned 16 bit value
      * bytes are in little endian
      * returns an int as java doesn't have an unsigned 16 bit value
      */
-    private int bytes_to_uint16(byte[] bytes, int offset)
+    private int get_uint16(int offset)
+    {
+        return Short.toUnsignedInt(pp_buffer.getShort(offset));
+    }
+
+    /*
+     * the setters only write and mark the field dirty if its value changes
+     */
+    private void set_uint16(int offset, int n)
     {
-        return Byte.toUnsignedInt(bytes[offset + 1]) << 8 | Byte.toUnsignedInt(bytes[offset]);
+        int old = get_uint16(offset);
+        if(old == (n & 0xFFFF)) return;
+
+        pp_buffer.putShort(offset, (short)n);
+        dirty.set(offset, offset + 2);
+        if(bus != null)
+            bus.publish(new PPTableEventBus.FieldChanged(this, offset, 2, old, n & 0xFFFF));
     }
 
-    private byte[] uint16_to_bytes(int n)
+    private long get_uint32(int offset)
     {
-        byte[] b = new byte[2];
-        b[0] = (byte)(n & 0xFF);
-        b[1] = (byte)((n >> 8) & 0xFF);
-        return b;
+        return Integer.toUnsignedLong(pp_buffer.getInt(offset));
     }
 
-    private long bytes_to_uint32(byte[] bytes, int offset)
+    private void set_uint32(int offset, long n)
     {
-        return Byte.toUnsignedLong(bytes[offset + 3]) << 24 |
-               Byte.toUnsignedLong(bytes[offset + 2]) << 16 |
-               Byte.toUnsignedLong(bytes[offset + 1]) << 8 |
-               Byte.toUnsignedLong(bytes[offset]);
+        long old = get_uint32(offset);
+        if(old == (n & 0xFFFFFFFFL)) return;
+
+        pp_buffer.putInt(offset, (int)n);
+        dirty.set(offset, offset + 4);
+        if(bus != null)
+            bus.publish(new PPTableEventBus.FieldChanged(this, offset, 4, old, n & 0xFFFFFFFFL));
     }
 
-    private byte[] uint32_to_bytes(long n)
+    private void set_uint8(int offset, byte n)
+    {
+        byte old = pp_bytes[offset];
+        if(old == n) return;
+
+        pp_bytes[offset] = n;
+        dirty.set(offset);
+        if(bus != null)
+            bus.publish(new PPTableEventBus.FieldChanged(this, offset, 1, Byte.toUnsignedLong(old), Byte.toUnsignedLong(n)));
+    }
+
+    /*
+     * throws unless the ATOM_* views apply to the table's format
+     */
+    void check_editable() throws IllegalArgumentException
+    {
+        if(!format.editable)
+            throw new IllegalArgumentException(format.name + " PowerPlay tables can't be edited");
+    }
+
+    /*
+     * throws if a table of size bytes at offset doesn't fit in pp_bytes
+     */
+    private int check_bounds(int offset, int size) throws IllegalArgumentException
     {
-        byte[] b = new byte[4];
-        b[0] = (byte)(n & 0xFF);
-        b[1] = (byte)((n >> 8) & 0xFF);
-        b[2] = (byte)((n >> 16) & 0xFF);
-        b[3] = (byte)((n >> 24) & 0xFF);
-        return b;
+        if(offset < 0 || offset + size > pp_bytes.length)
+            throw new IllegalArgumentException("Invalid PowerPlay table");
+        return offset;
     }
 
+    /*
+     * the ATOM_* classes are views over pp_bytes at their offset in the table,
+     * reads and writes go straight to the backing table
+     */
     class ATOM_COMMON_TABLE_HEADER
     {
         public static final int size = 4;
 
-        public final int usStructureSize;     // 2 bytes
-        public final byte ucTableFormatRevision;
-        public final byte ucTableContentRevision;
+        private final int offset;
 
-        public ATOM_COMMON_TABLE_HEADER(byte[] bytes) throws IllegalArgumentException
+        public ATOM_COMMON_TABLE_HEADER(int offset)
         {
-            if(bytes.length != size)
-            {
-                throw new IllegalArgumentException(
-                    String.format(
-                        "ATOM_COMMON_TABLE_HEADER: expected %d bytes, got %d bytes", 
-                        size, bytes.length
-                    )
-                );
-            }
-
-            usStructureSize = bytes_to_uint16(bytes, 0);
-            ucTableFormatRevision = bytes[2];
-            ucTableContentRevision = bytes[3];
+            this.offset = offset;
         }
 
+        public int get_usStructureSize() { return get_uint16(offset); }
+        public byte get_ucTableFormatRevision() { return pp_bytes[offset + 2]; }
+        public byte get_ucTableContentRevision() { return pp_bytes[offset + 3]; }
+
         public byte[] to_bytes()
         {
-            byte[] b = new byte[size];
-
-            int i = 0;
-            System.arraycopy(uint16_to_bytes(usStructureSize), 0, b, i, 2); i += 2;
-            b[i++] = ucTableFormatRevision;
-            b[i++] = ucTableContentRevision;
-
-            return b;
+            return Arrays.copyOfRange(pp_bytes, offset, offset + size);
         }
     }
 
@@ -237,109 +861,53 @@ public class PPTableEditor
         public static final int size = ATOM_COMMON_TABLE_HEADER.size + 73;
 
         public final ATOM_COMMON_TABLE_HEADER sHeader;
-        public final byte ucTableRevision;
-        public final int usTableSize;
-        public long ulGoldenPPID;
-        public long ulGoldenRevision;
-        public int usFormatID;
-        public int usVoltageTime;
-        public long ulPlatformCaps;
-        public long ulMaxODEngineClock;
-        public long ulMaxODMemoryClock;
-        public int usPowerControlLimit;
-        public final int usUlvVoltageOffset;
-        public final int usStateArrayOffset;
-        public final int usFanTableOffset;
-        public final int usThermalControllerOffset;
-        public final int usReserv;
-        public final int usMclkDependencyTableOffset;
-        public final int usSclkDependencyTableOffset;
-        public final int usVddcLookupTableOffset;
-        public final int usVddgfxLookupTableOffset;
-        public final int usMMDependencyTableOffset;
-        public final int usVCEStateTableOffset;
-        public final int usPPMTableOffset;
-        public final int usPowerTuneTableOffset;
-        public final int usHardLimitTableOffset;
-        public final int usPCIETableOffset;
-        public final int usGPIOTableOffset;
-        public final int[] usReserved = new int[6];
-
-        public ATOM_POWERPLAY_TABLE(byte[] bytes)
-        {
-            sHeader = new ATOM_COMMON_TABLE_HEADER(Arrays.copyOf(bytes, ATOM_COMMON_TABLE_HEADER.size));
-            int i = ATOM_COMMON_TABLE_HEADER.size;
-            ucTableRevision = bytes[i++];
-            usTableSize = bytes_to_uint16(bytes, i); i += 2;
-            ulGoldenPPID = bytes_to_uint32(bytes, i); i += 4;
-            ulGoldenRevision = bytes_to_uint32(bytes, i); i += 4;
-            usFormatID = bytes_to_uint16(bytes, i); i += 2;
-            usVoltageTime = bytes_to_uint16(bytes, i); i += 2;
-            ulPlatformCaps = bytes_to_uint32(bytes, i); i += 4;
-            ulMaxODEngineClock = bytes_to_uint32(bytes, i); i += 4;
-            ulMaxODMemoryClock = bytes_to_uint32(bytes, i); i += 4;
-            usPowerControlLimit = bytes_to_uint16(bytes, i); i += 2;
-            usUlvVoltageOffset = bytes_to_uint16(bytes, i); i += 2;
-            usStateArrayOffset = bytes_to_uint16(bytes, i); i += 2;
-            usFanTableOffset = bytes_to_uint16(bytes, i); i += 2;
-            usThermalControllerOffset = bytes_to_uint16(bytes, i); i += 2;
-            usReserv = bytes_to_uint16(bytes, i); i += 2;
-            usMclkDependencyTableOffset = bytes_to_uint16(bytes, i); i += 2;
-            usSclkDependencyTableOffset = bytes_to_uint16(bytes, i); i += 2;
-            usVddcLookupTableOffset = bytes_to_uint16(bytes, i); i += 2;
-            usVddgfxLookupTableOffset = bytes_to_uint16(bytes, i); i += 2;
-            usMMDependencyTableOffset = bytes_to_uint16(bytes, i); i += 2;
-            usVCEStateTableOffset = bytes_to_uint16(bytes, i); i += 2;
-            usPPMTableOffset = bytes_to_uint16(bytes, i); i += 2;
-            usPowerTuneTableOffset = bytes_to_uint16(bytes, i); i += 2;
-            usHardLimitTableOffset = bytes_to_uint16(bytes, i); i += 2;
-            usPCIETableOffset = bytes_to_uint16(bytes, i); i += 2;
-            usGPIOTableOffset = bytes_to_uint16(bytes, i); i += 2;
-            for(int j = 0; j < 6; j++)
-            {
-                usReserved[j] = bytes_to_uint16(bytes, i); i+= 2;
-            }
+        private final int offset;
+
+        public ATOM_POWERPLAY_TABLE(int offset)
+        {
+            this.offset = offset;
+            sHeader = new ATOM_COMMON_TABLE_HEADER(offset);
         }
 
+        public byte get_ucTableRevision() { return pp_bytes[offset + 4]; }
+        public int get_usTableSize() { return get_uint16(offset + 5); }
+        public long get_ulGoldenPPID() { return get_uint32(offset + 7); }
+        public void set_ulGoldenPPID(long n) { set_uint32(offset + 7, n); }
+        public long get_ulGoldenRevision() { return get_uint32(offset + 11); }
+        public void set_ulGoldenRevision(long n) { set_uint32(offset + 11, n); }
+        public int get_usFormatID() { return get_uint16(offset + 15); }
+        public void set_usFormatID(int n) { set_uint16(offset + 15, n); }
+        public int get_usVoltageTime() { return get_uint16(offset + 17); }
+        public void set_usVoltageTime(int n) { set_uint16(offset + 17, n); }
+        public long get_ulPlatformCaps() { return get_uint32(offset + 19); }
+        public void set_ulPlatformCaps(long n) { set_uint32(offset + 19, n); }
+        public long get_ulMaxODEngineClock() { return get_uint32(offset + 23); }
+        public void set_ulMaxODEngineClock(long n) { set_uint32(offset + 23, n); }
+        public long get_ulMaxODMemoryClock() { return get_uint32(offset + 27); }
+        public void set_ulMaxODMemoryClock(long n) { set_uint32(offset + 27, n); }
+        public int get_usPowerControlLimit() { return get_uint16(offset + 31); }
+        public void set_usPowerControlLimit(int n) { set_uint16(offset + 31, n); }
+        public int get_usUlvVoltageOffset() { return get_uint16(offset + 33); }
+        public int get_usStateArrayOffset() { return get_uint16(offset + 35); }
+        public int get_usFanTableOffset() { return get_uint16(offset + 37); }
+        public int get_usThermalControllerOffset() { return get_uint16(offset + 39); }
+        public int get_usReserv() { return get_uint16(offset + 41); }
+        public int get_usMclkDependencyTableOffset() { return get_uint16(offset + 43); }
+        public int get_usSclkDependencyTableOffset() { return get_uint16(offset + 45); }
+        public int get_usVddcLookupTableOffset() { return get_uint16(offset + 47); }
+        public int get_usVddgfxLookupTableOffset() { return get_uint16(offset + 49); }
+        public int get_usMMDependencyTableOffset() { return get_uint16(offset + 51); }
+        public int get_usVCEStateTableOffset() { return get_uint16(offset + 53); }
+        public int get_usPPMTableOffset() { return get_uint16(offset + 55); }
+        public int get_usPowerTuneTableOffset() { return get_uint16(offset + 57); }
+        public int get_usHardLimitTableOffset() { return get_uint16(offset + 59); }
+        public int get_usPCIETableOffset() { return get_uint16(offset + 61); }
+        public int get_usGPIOTableOffset() { return get_uint16(offset + 63); }
+        public int get_usReserved(int i) { return get_uint16(offset + 65 + 2 * i); }    // 6 entries
+
         public byte[] to_bytes()
         {
-            byte[] b = new byte[size];
-
-            int i = 0;
-            System.arraycopy(sHeader.to_bytes(), 0, b, i, ATOM_COMMON_TABLE_HEADER.size); 
-            i += ATOM_COMMON_TABLE_HEADER.size;
-            b[i++] = ucTableRevision;
-            System.arraycopy(uint16_to_bytes(usTableSize), 0, b, i, 2); i += 2;
-            System.arraycopy(uint32_to_bytes(ulGoldenPPID), 0, b, i, 4); i += 4;
-            System.arraycopy(uint32_to_bytes(ulGoldenRevision), 0, b, i, 4); i += 4;
-            System.arraycopy(uint16_to_bytes(usFormatID), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usVoltageTime), 0, b, i, 2); i += 2;
-            System.arraycopy(uint32_to_bytes(ulPlatformCaps), 0, b, i, 4); i += 4;
-            System.arraycopy(uint32_to_bytes(ulMaxODEngineClock), 0, b, i, 4); i += 4;
-            System.arraycopy(uint32_to_bytes(ulMaxODMemoryClock), 0, b, i, 4); i += 4;
-            System.arraycopy(uint16_to_bytes(usPowerControlLimit), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usUlvVoltageOffset), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usStateArrayOffset), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usFanTableOffset), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usThermalControllerOffset), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usReserv), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usMclkDependencyTableOffset), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usSclkDependencyTableOffset), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usVddcLookupTableOffset), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usVddgfxLookupTableOffset), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usMMDependencyTableOffset), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usVCEStateTableOffset), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usPPMTableOffset), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usPowerTuneTableOffset), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usHardLimitTableOffset), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usPCIETableOffset), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usGPIOTableOffset), 0, b, i, 2); i += 2;
-            for(int j = 0; j < 6; j++)
-            {
-                System.arraycopy(uint16_to_bytes(usReserved[j]), 0, b, i, 2); i += 2;
-            }
-
-            return b;
+            return Arrays.copyOfRange(pp_bytes, offset, offset + size);
         }
     }
 
@@ -347,37 +915,29 @@ public class PPTableEditor
     {
         public static final int size = 13;
 
-        public byte ucVddcInd;
-        public int usVddci;
-        public int usVddgfxOffset;
-        public int usMvdd;
-        public long ulMclk;
-        public int usReserved;
+        private final int offset;
 
-        public ATOM_MCLK_ENTRY(byte[] bytes)
+        public ATOM_MCLK_ENTRY(int offset)
         {
-            int i = 0;
-            ucVddcInd = bytes[i++];
-            usVddci = bytes_to_uint16(bytes, i); i += 2;
-            usVddgfxOffset = bytes_to_uint16(bytes, i); i += 2;
-            usMvdd = bytes_to_uint16(bytes, i); i += 2;
-            ulMclk = bytes_to_uint32(bytes, i); i += 4;
-            usReserved = bytes_to_uint16(bytes, i); i += 2;
+            this.offset = offset;
         }
 
+        public byte get_ucVddcInd() { return pp_bytes[offset]; }
+        public void set_ucVddcInd(byte n) { set_uint8(offset, n); }
+        public int get_usVddci() { return get_uint16(offset + 1); }
+        public void set_usVddci(int n) { set_uint16(offset + 1, n); }
+        public int get_usVddgfxOffset() { return get_uint16(offset + 3); }
+        public void set_usVddgfxOffset(int n) { set_uint16(offset + 3, n); }
+        public int get_usMvdd() { return get_uint16(offset + 5); }
+        public void set_usMvdd(int n) { set_uint16(offset + 5, n); }
+        public long get_ulMclk() { return get_uint32(offset + 7); }
+        public void set_ulMclk(long n) { set_uint32(offset + 7, n); }
+        public int get_usReserved() { return get_uint16(offset + 11); }
+        public void set_usReserved(int n) { set_uint16(offset + 11, n); }
+
         public byte[] to_bytes()
         {
-            byte[] b = new byte[size];
-
-            int i = 0;
-            b[i++] = ucVddcInd;
-            System.arraycopy(uint16_to_bytes(usVddci), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usVddgfxOffset), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usMvdd), 0, b, i, 2); i += 2;
-            System.arraycopy(uint32_to_bytes(ulMclk), 0, b, i, 4); i += 4;
-            System.arraycopy(uint16_to_bytes(usReserved), 0, b, i, 2); i += 2;
-
-            return b;
+            return Arrays.copyOfRange(pp_bytes, offset, offset + size);
         }
     }
 
@@ -385,55 +945,61 @@ public class PPTableEditor
     {
         public static final int size = 2;
 
-        public final byte ucRevId;
-        public final byte ucNumEntries;
+        private final int offset;
 
-        public ATOM_MCLK_TABLE(byte[] bytes)
+        public ATOM_MCLK_TABLE(int offset)
         {
-            int i = 0;
-            ucRevId = bytes[i++];
-            ucNumEntries = bytes[i++];
+            this.offset = offset;
         }
+
+        public byte get_ucRevId() { return pp_bytes[offset]; }
+        public byte get_ucNumEntries() { return pp_bytes[offset + 1]; }
     }
     
     class ATOM_SCLK_ENTRY
     {
-        public static final int size = 15;
+        public static final int size = 15;     // of a Fiji or Polaris entry
 
-        public byte ucVddInd;                   // index into voltage_entries
-        public int usVddcOffset;
-        public long ulSclk;
-        public int usEdcCurrent;
-        public byte ucReliabilityTemperature;
-        public byte ucCKSVOffsetandDisable;
-        public long ulSclkOffset; // Polaris Only, remove for compatibility with Fiji
+        private final int offset;
+        private final PPTableLayout.Struct layout;
 
-        public ATOM_SCLK_ENTRY(byte[] bytes)
+        public ATOM_SCLK_ENTRY(int offset, PPTableLayout.Struct layout)
         {
-            int i = 0;
-            ucVddInd = bytes[i++];
-            usVddcOffset = bytes_to_uint16(bytes, i); i += 2;
-            ulSclk = bytes_to_uint32(bytes, i); i += 4;
-            usEdcCurrent = bytes_to_uint16(bytes, i); i += 2;
-            ucReliabilityTemperature = bytes[i++];
-            ucCKSVOffsetandDisable = bytes[i++];
-            ulSclkOffset = bytes_to_uint32(bytes, i); i += 4;
+            this.offset = offset;
+            this.layout = layout;
         }
 
-        public byte[] to_bytes()
+        /*
+         * PPTableLayout.SCLK_ENTRY, or TONGA_SCLK_ENTRY for a table with ucRevId 0
+         */
+        public PPTableLayout.Struct get_layout() { return layout; }
+
+        public byte get_ucVddInd() { return pp_bytes[offset]; }               // index into voltage_entries
+        public void set_ucVddInd(byte n) { set_uint8(offset, n); }
+        public int get_usVddcOffset() { return get_uint16(offset + 1); }
+        public void set_usVddcOffset(int n) { set_uint16(offset + 1, n); }
+        public long get_ulSclk() { return get_uint32(offset + 3); }
+        public void set_ulSclk(long n) { set_uint32(offset + 3, n); }
+        public int get_usEdcCurrent() { return get_uint16(offset + 7); }
+        public void set_usEdcCurrent(int n) { set_uint16(offset + 7, n); }
+        public byte get_ucReliabilityTemperature() { return pp_bytes[offset + 9]; }
+        public void set_ucReliabilityTemperature(byte n) { set_uint8(offset + 9, n); }
+        public byte get_ucCKSVOffsetandDisable() { return pp_bytes[offset + 10]; }
+        public void set_ucCKSVOffsetandDisable(byte n) { set_uint8(offset + 10, n); }
+        // not in Tonga entries, throws IllegalArgumentException for those
+        public long get_ulSclkOffset() { return get_uint32(sclk_offset_field()); }
+        public void set_ulSclkOffset(long n) { set_uint32(sclk_offset_field(), n); }
+
+        private int sclk_offset_field() throws IllegalArgumentException
         {
-            byte[] b = new byte[size];
-
-            int i = 0;
-            b[i++] = ucVddInd;
-            System.arraycopy(uint16_to_bytes(usVddcOffset), 0, b, i, 2); i += 2;
-            System.arraycopy(uint32_to_bytes(ulSclk), 0, b, i, 4); i += 4;
-            System.arraycopy(uint16_to_bytes(usEdcCurrent), 0, b, i, 2); i += 2;
-            b[i++] = ucReliabilityTemperature;
-            b[i++] = ucCKSVOffsetandDisable;
-            System.arraycopy(uint32_to_bytes(ulSclkOffset), 0, b, i, 4); i += 4;
+            if(layout != PPTableLayout.SCLK_ENTRY)
+                throw new IllegalArgumentException("Tonga SCLK entries have no ulSclkOffset");
+            return offset + 11;
+        }
 
-            return b;
+        public byte[] to_bytes()
+        {
+            return Arrays.copyOfRange(pp_bytes, offset, offset + layout.size);
         }
     }
 
@@ -441,46 +1007,40 @@ public class PPTableEditor
     {
         public static final int size = 2;
 
-        public final byte ucRevId;
-        public final byte ucNumEntries;
+        private final int offset;
 
-        public ATOM_SCLK_TABLE(byte[] bytes)
+        public ATOM_SCLK_TABLE(int offset)
         {
-            int i = 0;
-            ucRevId = bytes[i++];
-            ucNumEntries = bytes[i++];
+            this.offset = offset;
         }
+
+        public byte get_ucRevId() { return pp_bytes[offset]; }
+        public byte get_ucNumEntries() { return pp_bytes[offset + 1]; }
     }
 
     class ATOM_VOLTAGE_ENTRY
     {
         public static final int size = 8;
 
-        public int usVdd;
-        public int usCACLow;
-        public int usCACMid;
-        public int usCACHigh;
+        private final int offset;
 
-        public ATOM_VOLTAGE_ENTRY(byte[] bytes)
+        public ATOM_VOLTAGE_ENTRY(int offset)
         {
-            int i = 0;
-            usVdd = bytes_to_uint16(bytes, i); i += 2;
-            usCACLow = bytes_to_uint16(bytes, i); i += 2;
-            usCACMid = bytes_to_uint16(bytes, i); i += 2;
-            usCACHigh = bytes_to_uint16(bytes, i); i += 2;
+            this.offset = offset;
         }
 
+        public int get_usVdd() { return get_uint16(offset); }
+        public void set_usVdd(int n) { set_uint16(offset, n); }
+        public int get_usCACLow() { return get_uint16(offset + 2); }
+        public void set_usCACLow(int n) { set_uint16(offset + 2, n); }
+        public int get_usCACMid() { return get_uint16(offset + 4); }
+        public void set_usCACMid(int n) { set_uint16(offset + 4, n); }
+        public int get_usCACHigh() { return get_uint16(offset + 6); }
+        public void set_usCACHigh(int n) { set_uint16(offset + 6, n); }
+
         public byte[] to_bytes()
         {
-            byte[] b = new byte[size];
-
-            int i = 0;
-            System.arraycopy(uint16_to_bytes(usVdd), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usCACLow), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usCACMid), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usCACHigh), 0, b, i, 2); i += 2;
-
-            return b;
+            return Arrays.copyOfRange(pp_bytes, offset, offset + size);
         }
     }
 
@@ -488,126 +1048,203 @@ public class PPTableEditor
     {
         public static final int size = 2;
 
-        public final byte ucRevId;
-        public final byte ucNumEntries;
+        private final int offset;
 
-        public ATOM_VOLTAGE_TABLE(byte[] bytes)
+        public ATOM_VOLTAGE_TABLE(int offset)
         {
-            int i = 0;
-            ucRevId = bytes[i++];
-            ucNumEntries = bytes[i++];
+            this.offset = offset;
         }
+
+        public byte get_ucRevId() { return pp_bytes[offset]; }
+        public byte get_ucNumEntries() { return pp_bytes[offset + 1]; }
     }
 
     class ATOM_POWERTUNE_TABLE
     {
-        public static final int size = 48;
-
-        public byte ucRevId;
-        public int usTDP;
-        public int usConfigurableTDP;
-        public int usTDC;
-        public int usBatteryPowerLimit;
-        public int usSmallPowerLimit;
-        public int usLowCACLeakage;
-        public int usHighCACLeakage;
-        public int usMaximumPowerDeliveryLimit;
-        public int usTjMax;
-        public int usPowerTuneDataSetID;
-        public int usEDCLimit;
-        public int usSoftwareShutdownTemp;
-        public int usClockStretchAmount;
-        public int usTemperatureLimitHotspot;
-        public int usTemperatureLimitLiquid1;
-        public int usTemperatureLimitLiquid2;
-        public int usTemperatureLimitVrVddc;
-        public int usTemperatureLimitVrMvdd;
-        public int usTemperatureLimitPlx;
-        public byte ucLiquid1_I2C_address;
-        public byte ucLiquid2_I2C_address;
-        public byte ucLiquid_I2C_Line;
-        public byte ucVr_I2C_address;
-        public byte ucVr_I2C_Line;
-        public byte ucPlx_I2C_address;
-        public byte ucPlx_I2C_Line;
-        public int usReserved;
-
-        public ATOM_POWERTUNE_TABLE(byte[] bytes)
-        {
-            int i = 0;
-            ucRevId = bytes[i++];
-            usTDP = bytes_to_uint16(bytes, i); i += 2;
-            usConfigurableTDP = bytes_to_uint16(bytes, i); i += 2;
-            usTDC = bytes_to_uint16(bytes, i); i += 2;
-            usBatteryPowerLimit = bytes_to_uint16(bytes, i); i += 2;
-            usSmallPowerLimit = bytes_to_uint16(bytes, i); i += 2;
-            usLowCACLeakage = bytes_to_uint16(bytes, i); i += 2;
-            usHighCACLeakage = bytes_to_uint16(bytes, i); i += 2;
-            usMaximumPowerDeliveryLimit = bytes_to_uint16(bytes, i); i += 2;
-            usTjMax = bytes_to_uint16(bytes, i); i += 2;
-            usPowerTuneDataSetID = bytes_to_uint16(bytes, i); i += 2;
-            usEDCLimit = bytes_to_uint16(bytes, i); i += 2;
-            usSoftwareShutdownTemp = bytes_to_uint16(bytes, i); i += 2;
-            usClockStretchAmount = bytes_to_uint16(bytes, i); i += 2;
-            usTemperatureLimitHotspot = bytes_to_uint16(bytes, i); i += 2;
-            usTemperatureLimitLiquid1 = bytes_to_uint16(bytes, i); i += 2;
-            usTemperatureLimitLiquid2 = bytes_to_uint16(bytes, i); i += 2;
-            usTemperatureLimitVrVddc = bytes_to_uint16(bytes, i); i += 2;
-            usTemperatureLimitVrMvdd = bytes_to_uint16(bytes, i); i += 2;
-            usTemperatureLimitPlx = bytes_to_uint16(bytes, i); i += 2;
-            ucLiquid1_I2C_address = bytes[i++];
-            ucLiquid2_I2C_address = bytes[i++];
-            ucLiquid_I2C_Line = bytes[i++];
-            ucVr_I2C_address = bytes[i++];
-            ucVr_I2C_Line = bytes[i++];
-            ucPlx_I2C_address = bytes[i++];
-            ucPlx_I2C_Line = bytes[i++];
-            usReserved = bytes_to_uint16(bytes, i); i += 2;
+        public static final int size = 48;     // of a Fiji table
+
+        private final int offset;
+        private final PPTableLayout.Struct layout;
+
+        public ATOM_POWERTUNE_TABLE(int offset, PPTableLayout.Struct layout)
+        {
+            this.offset = offset;
+            this.layout = layout;
         }
 
+        /*
+         * PPTableLayout.POWERTUNE, or TONGA_POWERTUNE or POLARIS_POWERTUNE as its ucRevId says
+         */
+        public PPTableLayout.Struct get_layout() { return layout; }
+
+        public byte get_ucRevId() { return pp_bytes[offset]; }
+        public void set_ucRevId(byte n) { set_uint8(offset, n); }
+        public int get_usTDP() { return get_uint16(offset + 1); }
+        public void set_usTDP(int n) { set_uint16(offset + 1, n); }
+        public int get_usConfigurableTDP() { return get_uint16(offset + 3); }
+        public void set_usConfigurableTDP(int n) { set_uint16(offset + 3, n); }
+        public int get_usTDC() { return get_uint16(offset + 5); }
+        public void set_usTDC(int n) { set_uint16(offset + 5, n); }
+        public int get_usBatteryPowerLimit() { return get_uint16(offset + 7); }
+        public void set_usBatteryPowerLimit(int n) { set_uint16(offset + 7, n); }
+        public int get_usSmallPowerLimit() { return get_uint16(offset + 9); }
+        public void set_usSmallPowerLimit(int n) { set_uint16(offset + 9, n); }
+        public int get_usLowCACLeakage() { return get_uint16(offset + 11); }
+        public void set_usLowCACLeakage(int n) { set_uint16(offset + 11, n); }
+        public int get_usHighCACLeakage() { return get_uint16(offset + 13); }
+        public void set_usHighCACLeakage(int n) { set_uint16(offset + 13, n); }
+        public int get_usMaximumPowerDeliveryLimit() { return get_uint16(offset + 15); }
+        public void set_usMaximumPowerDeliveryLimit(int n) { set_uint16(offset + 15, n); }
+        public int get_usTjMax() { return get_uint16(offset + 17); }
+        public void set_usTjMax(int n) { set_uint16(offset + 17, n); }
+        public int get_usPowerTuneDataSetID() { return get_uint16(offset + 19); }
+        public void set_usPowerTuneDataSetID(int n) { set_uint16(offset + 19, n); }
+        public int get_usEDCLimit() { return get_uint16(offset + 21); }
+        public void set_usEDCLimit(int n) { set_uint16(offset + 21, n); }
+        public int get_usSoftwareShutdownTemp() { return get_uint16(offset + 23); }
+        public void set_usSoftwareShutdownTemp(int n) { set_uint16(offset + 23, n); }
+        public int get_usClockStretchAmount() { return get_uint16(offset + 25); }
+        public void set_usClockStretchAmount(int n) { set_uint16(offset + 25, n); }
+        public int get_usTemperatureLimitHotspot() { return get_uint16(fiji_field(27)); }
+        public void set_usTemperatureLimitHotspot(int n) { set_uint16(fiji_field(27), n); }
+        public int get_usTemperatureLimitLiquid1() { return get_uint16(fiji_field(29)); }
+        public void set_usTemperatureLimitLiquid1(int n) { set_uint16(fiji_field(29), n); }
+        public int get_usTemperatureLimitLiquid2() { return get_uint16(fiji_field(31)); }
+        public void set_usTemperatureLimitLiquid2(int n) { set_uint16(fiji_field(31), n); }
+        public int get_usTemperatureLimitVrVddc() { return get_uint16(fiji_field(33)); }
+        public void set_usTemperatureLimitVrVddc(int n) { set_uint16(fiji_field(33), n); }
+        public int get_usTemperatureLimitVrMvdd() { return get_uint16(fiji_field(35)); }
+        public void set_usTemperatureLimitVrMvdd(int n) { set_uint16(fiji_field(35), n); }
+        public int get_usTemperatureLimitPlx() { return get_uint16(fiji_field(37)); }
+        public void set_usTemperatureLimitPlx(int n) { set_uint16(fiji_field(37), n); }
+        public byte get_ucLiquid1_I2C_address() { return pp_bytes[fiji_field(39)]; }
+        public void set_ucLiquid1_I2C_address(byte n) { set_uint8(fiji_field(39), n); }
+        public byte get_ucLiquid2_I2C_address() { return pp_bytes[fiji_field(40)]; }
+        public void set_ucLiquid2_I2C_address(byte n) { set_uint8(fiji_field(40), n); }
+        public byte get_ucLiquid_I2C_Line() { return pp_bytes[fiji_field(41)]; }
+        public void set_ucLiquid_I2C_Line(byte n) { set_uint8(fiji_field(41), n); }
+        public byte get_ucVr_I2C_address() { return pp_bytes[fiji_field(42)]; }
+        public void set_ucVr_I2C_address(byte n) { set_uint8(fiji_field(42), n); }
+        public byte get_ucVr_I2C_Line() { return pp_bytes[fiji_field(43)]; }
+        public void set_ucVr_I2C_Line(byte n) { set_uint8(fiji_field(43), n); }
+        public byte get_ucPlx_I2C_address() { return pp_bytes[fiji_field(44)]; }
+        public void set_ucPlx_I2C_address(byte n) { set_uint8(fiji_field(44), n); }
+        public byte get_ucPlx_I2C_Line() { return pp_bytes[fiji_field(45)]; }
+        public void set_ucPlx_I2C_Line(byte n) { set_uint8(fiji_field(45), n); }
+        public int get_usReserved() { return get_uint16(fiji_field(46)); }
+        public void set_usReserved(int n) { set_uint16(fiji_field(46), n); }
+
         public byte[] to_bytes()
         {
-            byte[] b = new byte[size];
-
-            int i = 0;
-            b[i++] = ucRevId;
-            System.arraycopy(uint16_to_bytes(usTDP), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usConfigurableTDP), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usTDC), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usBatteryPowerLimit), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usSmallPowerLimit), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usLowCACLeakage), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usHighCACLeakage), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usMaximumPowerDeliveryLimit), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usTjMax), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usPowerTuneDataSetID), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usEDCLimit), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usSoftwareShutdownTemp), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usClockStretchAmount), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usTemperatureLimitHotspot), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usTemperatureLimitLiquid1), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usTemperatureLimitLiquid2), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usTemperatureLimitVrVddc), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usTemperatureLimitVrMvdd), 0, b, i, 2); i += 2;
-            System.arraycopy(uint16_to_bytes(usTemperatureLimitPlx), 0, b, i, 2); i += 2;
-            b[i++] = ucLiquid1_I2C_address;
-            b[i++] = ucLiquid2_I2C_address;
-            b[i++] = ucLiquid_I2C_Line;
-            b[i++] = ucVr_I2C_address;
-            b[i++] = ucVr_I2C_Line;
-            b[i++] = ucPlx_I2C_address;
-            b[i++] = ucPlx_I2C_Line;
-            System.arraycopy(uint16_to_bytes(usReserved), 0, b, i, 2); i += 2;
-
-            return b;
+            return Arrays.copyOfRange(pp_bytes, offset, offset + layout.size);
+        }
+
+        // the fields from usTemperatureLimitHotspot on, Tonga tables have usReserve[2] there instead
+        private int fiji_field(int field) throws IllegalArgumentException
+        {
+            if(layout == PPTableLayout.TONGA_POWERTUNE)
+                throw new IllegalArgumentException("Field isn't in Tonga PowerTune tables");
+            return offset + field;
         }
     };
 
+    /*
+     * a field of the table at its offset in pp_bytes
+     */
+    public static class Field
+    {
+        Field(String name, int offset, int size)
+        {
+            this.name = name;
+            this.offset = offset;
+            this.size = size;
+        }
+
+        @Override
+        public String toString()
+        {
+            return name;
+        }
+
+        public final String name;
+        public final int offset;
+        public final int size;
+    }
+
+    /*
+     * a registry file split into the text up to the PowerPlay table value and the table itself
+     * the header of a raw binary table is empty
+     */
+    static class RegFile
+    {
+        RegFile(String header, byte[] table)
+        {
+            this.header = header;
+            this.table = table;
+        }
+
+        final String header;
+        final byte[] table;
+        boolean canonical;      // hex digits of every byte are where encode_reg puts them
+        Path path;              // null if the table wasn't read from a file
+        long size;
+        FileTime mtime;
+    }
+
+    private static final byte[] NEEDLE = "\"PP_PhmSoftPowerPlayTable\"=hex:".getBytes();
+    // written before raw binary tables saved as registry files, the key of the first display adapter
+    private static final String DEFAULT_REG_HEADER =
+        "Windows Registry Editor Version 5.00\r\n\r\n" +
+        "[HKEY_LOCAL_MACHINE\\SYSTEM\\CurrentControlSet\\Control\\Class\\{4d36e968-e325-11ce-bfc1-08002be10318}\\0000]\r\n" +
+        "\"PP_PhmSoftPowerPlayTable\"=hex:";
+    private static final Path SYSFS = Paths.get("/sys");
+    private static final int SYSFS_PAGE = 4096;
+    private static final byte[] HEX_VALUES = new byte[256];
+    static
+    {
+        Arrays.fill(HEX_VALUES, (byte)-1);
+        for(int i = 0; i < 10; i++)
+            HEX_VALUES['0' + i] = (byte)i;
+        for(int i = 0; i < 6; i++)
+        {
+            HEX_VALUES['A' + i] = (byte)(10 + i);
+            HEX_VALUES['a' + i] = (byte)(10 + i);
+        }
+    }
+
+    // upper case hex digits of every byte value, 2 per byte
+    private static final byte[] HEX_PAIRS = new byte[512];
+    static
+    {
+        byte[] digits = "0123456789ABCDEF".getBytes();
+        for(int i = 0; i < 256; i++)
+        {
+            HEX_PAIRS[i << 1] = digits[i >> 4];
+            HEX_PAIRS[(i << 1) + 1] = digits[i & 0xF];
+        }
+    }
+
+    // parse_reg_bytes states
+    private static final int STATE_NEXT = 0,            // expecting the high nibble of a byte
+                             STATE_LOW = 1,             // expecting the low nibble of a byte
+                             STATE_SEPARATOR = 2,       // expecting ',' or the end of the value
+                             STATE_CONTINUATION = 3;    // expecting the newline after '\\'
+
     private String reg_header;
     private byte[] pp_bytes;
-    public ATOM_POWERPLAY_TABLE pplay;
-    public ATOM_POWERTUNE_TABLE ptune;
-    public final ATOM_MCLK_ENTRY[] mclk_entries;
-    public final ATOM_SCLK_ENTRY[] sclk_entries;
-    public final ATOM_VOLTAGE_ENTRY[] voltage_entries;
-}
\ No newline at end of file
+    private ByteBuffer pp_buffer;   // little endian view over pp_bytes shared by the ATOM_* views
+    private final BitSet dirty = new BitSet();  // bytes of pp_bytes changed since the last save to reg_path
+    private Path reg_path;          // the opened file
+    private long reg_size;
+    private FileTime reg_mtime;
+    private boolean reg_canonical;  // hex digits of every byte are where encode_reg puts them
+    private boolean reg_binary;     // the opened file is a raw binary table
+    private PPTableEventBus bus;
+    private final PPTableFormat format;
+    public ATOM_POWERPLAY_TABLE pplay;      // the Tonga, Fiji and Polaris header, see get_format()
+    // decoded on first access, see get_ptune() etc.
+    private ATOM_POWERTUNE_TABLE ptune;
+    private ATOM_MCLK_ENTRY[] mclk_entries;
+    private ATOM_SCLK_ENTRY[] sclk_entries;
+    private ATOM_VOLTAGE_ENTRY[] voltage_entries;
+}
\ No newline at end of file
@@ -1,5 +1,9 @@
+import java.awt.BorderLayout;
 import java.awt.Color;
+import java.awt.Component;
 import java.awt.Container;
+import java.awt.Cursor;
+import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.GraphicsDevice;
 import java.awt.GraphicsEnvironment;
@@ -9,12 +13,28 @@ import java.awt.Insets;
 import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.BiPredicate;
 
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
+import javax.swing.DefaultCellEditor;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
@@ -23,10 +43,20 @@ import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTabbedPane;
+import javax.swing.JTable;
 import javax.swing.JTextField;
+import javax.swing.KeyStroke;
+import javax.swing.ListSelectionModel;
+import javax.swing.ProgressMonitor;
 import javax.swing.SwingUtilities;
-import javax.swing.event.DocumentEvent;
-import javax.swing.event.DocumentListener;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableColumn;
 
 public class PPTableEditorGUI extends JFrame
 {
@@ -39,14 +69,35 @@ public class PPTableEditorGUI extends JFrame
     {
         super("PP Table Editor");
 
-        main_panel.setLayout(new GridBagLayout());
+        getContentPane().add(tabs, BorderLayout.CENTER);
+        tabs.addChangeListener(new ChangeListener()
+        {
+            @Override
+            public void stateChanged(ChangeEvent e)
+            {
+                Document doc = selected_document();
+                if(doc != active)
+                    activate(doc);
+            }
+        });
+        validate_timer.setRepeats(false);
 
         add_menu_bar();
 
         setSize(500, 300);
         setResizable(false);
         setVisible(true);
-        setDefaultCloseOperation(EXIT_ON_CLOSE);
+        // closing asks about unsaved changes first, see confirm_exit()
+        setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+        addWindowListener(new WindowAdapter()
+        {
+            @Override
+            public void windowClosing(WindowEvent e)
+            {
+                if(confirm_exit())
+                    System.exit(0);
+            }
+        });
         // open in center of screen
         GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
         GraphicsDevice defaultScreen = ge.getDefaultScreenDevice();
@@ -63,12 +114,15 @@ public class PPTableEditorGUI extends JFrame
         JMenu menu_file = new JMenu("File");
         menu_bar.add(menu_file);
 
-        JMenuItem menu_item_open = new JMenuItem("Open");
+        menu_item_open = new JMenuItem("Open");
         menu_file.add(menu_item_open);
 
-        JMenuItem menu_item_saveas = new JMenuItem("Save As");
+        menu_item_saveas = new JMenuItem("Save As");
         menu_file.add(menu_item_saveas);
 
+        menu_item_close = new JMenuItem("Close");
+        menu_file.add(menu_item_close);
+
         ActionListener listener = new ActionListener()
         {
             @Override
@@ -82,70 +136,21 @@ public class PPTableEditorGUI extends JFrame
 
                 if(e.getSource() == menu_item_open)
                 {
+                    // one file per GPU, e.g. the 0000, 0001, ... subkeys
+                    fc.setMultiSelectionEnabled(true);
                     if(fc.showOpenDialog(main_panel) == JFileChooser.APPROVE_OPTION)
                     {
-                        try
-                        {
-                            File file = fc.getSelectedFile();
-                            ppte = new PPTableEditor(file.getAbsolutePath());
-
-                            SwingUtilities.invokeLater(new Runnable()
-                            {
-                                @Override
-                                public void run()
-                                {
-                                    if(panel_core != null)
-                                        main_panel.remove(panel_core);
-
-                                    if(panel_voltage != null)
-                                        main_panel.remove(panel_voltage);
-
-                                    if(panel_memory != null)
-                                        main_panel.remove(panel_memory);
-
-                                    if(panel_power != null)
-                                        main_panel.remove(panel_power);
-
-                                    GridBagConstraints gbc = new GridBagConstraints();
-                                    gbc.insets = new Insets(5, 5, 5, 0);
-
-                                    gbc.gridy = 0;
-                                    gbc.gridheight = 2;
-
-                                    // left, spans 2 rows
-                                    gbc.gridx = 0; 
-                                    add_core_panel(gbc);
-
-                                    // middle, spans 2 rows
-                                    gbc.gridx = 1;
-                                    add_voltage_panel(gbc);
-
-                                    gbc.gridx = 2; 
-                                    gbc.gridheight = 1;
-                                    gbc.insets.bottom = 0;
-                                    gbc.insets.right = 5;
-
-                                    // top right
-                                    gbc.gridy = 0;
-                                    add_memory_panel(gbc);
-
-                                    // bottom right
-                                    gbc.gridy = 1; 
-                                    gbc.insets.bottom = 5;
-                                    add_power_panel(gbc);
-
-                                    revalidate();
-                                    repaint();
-                                    pack();
-                                }
-                            });
-                        }
-                        catch(IllegalArgumentException ex)
-                        {
-                            show_error_dialog(ex.getMessage());
-                        }
+                        List<String> paths = new ArrayList<>();
+                        for(File file : fc.getSelectedFiles())
+                            paths.add(file.getAbsolutePath());
+                        open(paths);
                     }
                 }
+                else if(e.getSource() == menu_item_close)
+                {
+                    if(active != null)
+                        close(active);
+                }
                 else if(e.getSource() == menu_item_saveas)
                 {
                     if(ppte == null)
@@ -155,104 +160,410 @@ public class PPTableEditorGUI extends JFrame
                     }
 
                     if(fc.showSaveDialog(main_panel) == JFileChooser.APPROVE_OPTION)
-                    {
-                        String save_path = fc.getSelectedFile().getAbsolutePath();
-
-                        if(ppte.save(save_path))
-                            show_success_dialog("Successfully saved to " + save_path);
-                        else show_error_dialog("Failed to save PowerPlay registry file");
-                    }
+                        save(fc.getSelectedFile().getAbsolutePath());
                 }
             }
         };
 
         menu_item_open.addActionListener(listener);
         menu_item_saveas.addActionListener(listener);
+        menu_item_close.addActionListener(listener);
 
-        setJMenuBar(menu_bar);
-    }
+        menu_edit = new JMenu("Edit");
+        menu_bar.add(menu_edit);
 
-    private void add_core_panel(GridBagConstraints con)
-    {
-        panel_core = new JPanel(new GridBagLayout());
+        menu_item_undo = new JMenuItem("Undo");
+        menu_item_undo.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK));
+        menu_edit.add(menu_item_undo);
 
-        GridBagConstraints gbc = new GridBagConstraints();
-        gbc.gridx = 0; gbc.gridy = 0;
-        gbc.insets = new Insets(5, 5, 0, 0);
-        panel_core.add(new JLabel("P-State"), gbc);
-        gbc.gridx++;
-        panel_core.add(new JLabel("Frequency (MHz)"), gbc);
-        gbc.gridx++;
-        panel_core.add(new JLabel("VID"), gbc);
+        menu_item_redo = new JMenuItem("Redo");
+        menu_item_redo.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK));
+        menu_edit.add(menu_item_redo);
 
-        for(int i = 0; i < ppte.sclk_entries.length; i++)
+        ActionListener edit_listener = new ActionListener()
         {
-            PPTableEditor.ATOM_SCLK_ENTRY e = ppte.sclk_entries[i];
-            gbc.gridx = 0; gbc.gridy = i + 1;
+            @Override
+            public void actionPerformed(ActionEvent e)
+            {
+                if(ppte == null) return;
 
-            panel_core.add(new JLabel("P" + i), gbc);
+                stop_cell_editing();
+                if(e.getSource() == menu_item_undo)
+                    active.journal.undo(ppte);
+                else active.journal.redo(ppte);
+                update_edit_menu();
+            }
+        };
+        menu_item_undo.addActionListener(edit_listener);
+        menu_item_redo.addActionListener(edit_listener);
+        update_edit_menu();
+
+        setJMenuBar(menu_bar);
+    }
 
-            JTextField txt_clock = new JTextField(5);
-            txt_clock.setText(String.valueOf(e.ulSclk / 100));
-            gbc.gridx++;
-            panel_core.add(txt_clock, gbc);
-            JTextField txt_index = new JTextField(2);
-            txt_index.setText(String.valueOf(e.ucVddInd));
-            gbc.gridx++;
-            panel_core.add(txt_index, gbc);
+    private void update_edit_menu()
+    {
+        menu_item_undo.setEnabled(ppte != null && active.journal.can_undo());
+        menu_item_redo.setEnabled(ppte != null && active.journal.can_redo());
+    }
 
-            DocumentListener listener = new DocumentListener()
+    /*
+     * reads and decodes the files in the background and opens a tab for each,
+     * files that are already open just have their tab selected
+     */
+    private void open(List<String> paths)
+    {
+        List<String> to_open = new ArrayList<>();
+        Document already_open = null;
+        for(String path : paths)
+        {
+            Document doc = find_document(path);
+            if(doc == null)
+                to_open.add(path);
+            else already_open = doc;
+        }
+        if(to_open.isEmpty())
+        {
+            if(already_open != null)
+                tabs.setSelectedComponent(already_open.tab);
+            return;
+        }
+
+        new BackgroundTask<Map<String, Object>>("Opening", to_open.size() == 1 ? to_open.get(0) : to_open.size() + " files")
+        {
+            // each path maps to its table, or the message of the error reading it
+            @Override
+            protected Map<String, Object> doInBackground()
             {
-                @Override
-                public void removeUpdate(DocumentEvent ev)
+                Map<String, Object> results = new LinkedHashMap<>();
+                for(int i = 0; i < to_open.size() && !isCancelled(); i++)
                 {
-                    changedUpdate(ev);
-                }
-            
-                @Override
-                public void insertUpdate(DocumentEvent ev)
-                {
-                    changedUpdate(ev);
-                }
-            
-                @Override
-                public void changedUpdate(DocumentEvent ev)
-                {
-                    if(ev.getDocument() == txt_clock.getDocument())
+                    String path = to_open.get(i);
+                    try
                     {
-                        txt_clock.setBackground(Color.WHITE);
-                        String s = txt_clock.getText();
-                        if(s.isEmpty()) return;
-
-                        try {
-                            e.ulSclk = Integer.parseInt(s) * 100;
-                        }
-                        catch(NumberFormatException ex)
-                        {
-                            txt_clock.setBackground(invalid);
-                        }
+                        PPTableEditor table = new PPTableEditor(path);
+                        table.check_editable();
+                        results.put(path, table);
                     }
-                    else if(ev.getDocument() == txt_index.getDocument())
+                    catch(IllegalArgumentException e)
                     {
-                        txt_index.setBackground(Color.WHITE);
-                        String s = txt_index.getText();
-                        if(s.isEmpty()) return;
+                        results.put(path, e.getMessage());
+                    }
+                    setProgress(100 * (i + 1) / to_open.size());
+                }
+                return results;
+            }
 
-                        try {
-                            e.ucVddInd = (byte)Integer.parseInt(s);
-                        }
-                        catch(NumberFormatException ex)
-                        {
-                            txt_index.setBackground(invalid);
-                        }
+            @Override
+            void succeeded(Map<String, Object> results)
+            {
+                StringBuilder errors = new StringBuilder();
+                Document last = null;
+                for(Map.Entry<String, Object> r : results.entrySet())
+                {
+                    if(r.getValue() instanceof String)
+                    {
+                        errors.append(r.getKey()).append(": ").append(r.getValue()).append('\n');
+                        continue;
                     }
+
+                    last = new Document(r.getKey());
+                    documents.add(last);
+                    tables.put(last.path, (PPTableEditor)r.getValue());
+                    tabs.addTab(Paths.get(last.path).getFileName().toString(), last.tab);
+                    tabs.setToolTipTextAt(tabs.getTabCount() - 1, last.path);
                 }
-            };
 
-            txt_clock.getDocument().addDocumentListener(listener);
-            txt_index.getDocument().addDocumentListener(listener);
+                if(last != null)
+                    tabs.setSelectedComponent(last.tab);
+                if(errors.length() > 0)
+                    show_error_dialog(errors.toString().trim());
+            }
+        }.start();
+    }
+
+    /*
+     * shows doc in its tab, re-reading its table if it was evicted from the cache
+     * the views are shared, only the selected tab holds them
+     */
+    private void activate(Document doc)
+    {
+        if(active != null)
+        {
+            stop_cell_editing();
+            if(ppte != null)
+                ppte.set_event_bus(null);
+            active.tab.removeAll();
+        }
+        active = doc;
+        ppte = null;
+        update_edit_menu();
+        if(doc == null)
+        {
+            setTitle("PP Table Editor");
+            return;
+        }
+
+        PPTableEditor table = tables.get(doc.path);
+        if(table != null)
+        {
+            show_document(doc, table);
+            return;
+        }
+
+        new BackgroundTask<PPTableEditor>("Opening", doc.path)
+        {
+            @Override
+            protected PPTableEditor doInBackground()
+            {
+                setProgress(10);
+                PPTableEditor.RegFile reg = PPTableEditor.parse_reg_file(doc.path);
+                if(isCancelled()) return null;
+
+                setProgress(60);
+                PPTableEditor table = new PPTableEditor(reg);
+                table.check_editable();
+                setProgress(100);
+                return table;
+            }
+
+            @Override
+            void succeeded(PPTableEditor table)
+            {
+                // the file may have changed since it was evicted
+                doc.journal.clear();
+                tables.put(doc.path, table);
+                if(active == doc)
+                    show_document(doc, table);
+            }
+        }.start();
+    }
+
+    private void show_document(Document doc, PPTableEditor table)
+    {
+        ppte = table;
+        doc.tab.add(main_panel, BorderLayout.CENTER);
+        show_table();
+
+        ppte.set_event_bus(bus);
+        bus.publish(new PPTableEventBus.TableLoaded(ppte));
+    }
+
+    private void close(Document doc)
+    {
+        if(doc == active && ppte != null && ppte.is_dirty())
+        {
+            int answer = JOptionPane.showConfirmDialog(
+                this,
+                "Discard the unsaved changes to " + doc.path + "?",
+                "Close",
+                JOptionPane.YES_NO_OPTION
+            );
+            if(answer != JOptionPane.YES_OPTION)
+                return;
         }
 
+        if(doc == active)
+        {
+            stop_cell_editing();
+            if(ppte != null)
+                ppte.set_event_bus(null);
+            doc.tab.removeAll();
+            active = null;
+            ppte = null;
+        }
+        documents.remove(doc);
+        tables.remove(doc.path);
+        tabs.remove(doc.tab);
+        if(selected_document() != active)
+            activate(selected_document());
+    }
+
+    /*
+     * offers to save every document with unsaved changes, their tables are never evicted
+     * returns false if exiting was cancelled or a file failed to save
+     */
+    private boolean confirm_exit()
+    {
+        stop_cell_editing();
+        for(Document doc : new ArrayList<>(documents))
+        {
+            PPTableEditor table = tables.get(doc.path);
+            if(table == null || !table.is_dirty())
+                continue;
+
+            tabs.setSelectedComponent(doc.tab);
+            int answer = JOptionPane.showConfirmDialog(
+                this,
+                "Save the changes to " + doc.path + " before exiting?",
+                "Exit",
+                JOptionPane.YES_NO_CANCEL_OPTION
+            );
+            if(answer == JOptionPane.CANCEL_OPTION || answer == JOptionPane.CLOSED_OPTION)
+                return false;
+            if(answer == JOptionPane.YES_OPTION && !table.save(doc.path))
+            {
+                show_error_dialog("Failed to save " + doc.path);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Document selected_document()
+    {
+        for(Document doc : documents)
+        {
+            if(doc.tab == tabs.getSelectedComponent())
+                return doc;
+        }
+        return null;
+    }
+
+    private Document find_document(String path)
+    {
+        for(Document doc : documents)
+        {
+            if(doc.path.equals(path))
+                return doc;
+        }
+        return null;
+    }
+
+    private void save(String save_path)
+    {
+        new BackgroundTask<Boolean>("Saving", save_path)
+        {
+            @Override
+            protected Boolean doInBackground()
+            {
+                setProgress(10);
+                return ppte.save(save_path);
+            }
+
+            @Override
+            void succeeded(Boolean saved)
+            {
+                if(saved)
+                    show_success_dialog("Successfully saved to " + save_path);
+                else show_error_dialog("Failed to save PowerPlay registry file");
+            }
+
+            @Override
+            void cancelled()
+            {
+                // files are written to a temporary file and moved into place, so this is all or nothing
+                show_error_dialog("Saving to " + save_path + " was cancelled, the file is either as it was or fully saved");
+            }
+        }.start();
+    }
+
+    /*
+     * the panels are built for the first table, after that opening a table
+     * only refreshes the models and fields from it
+     */
+    private void show_table()
+    {
+        if(panel_core == null)
+        {
+            GridBagConstraints gbc = new GridBagConstraints();
+            gbc.insets = new Insets(5, 5, 5, 0);
+            gbc.fill = GridBagConstraints.BOTH;
+
+            gbc.gridy = 0;
+            gbc.gridheight = 2;
+
+            // left, spans 2 rows
+            gbc.gridx = 0; 
+            add_core_panel(gbc);
+
+            // middle, spans 2 rows
+            gbc.gridx = 1;
+            add_voltage_panel(gbc);
+
+            gbc.gridx = 2; 
+            gbc.gridheight = 1;
+            gbc.insets.bottom = 0;
+            gbc.insets.right = 5;
+
+            // top right
+            gbc.gridy = 0;
+            add_memory_panel(gbc);
+
+            // bottom right
+            gbc.gridy = 1; 
+            gbc.insets.bottom = 5;
+            add_power_panel(gbc);
+
+            // bottom, spans 3 columns
+            gbc.gridx = 0;
+            gbc.gridy = 2;
+            gbc.gridwidth = 3;
+            gbc.insets = new Insets(0, 5, 5, 5);
+            lbl_status = new JLabel(" ");
+            main_panel.add(lbl_status, gbc);
+
+            subscribe();
+        }
+
+        stop_cell_editing();
+
+        core_model.fireTableDataChanged();
+        voltage_model.fireTableDataChanged();
+        memory_model.fireTableDataChanged();
+        update_power_panel();
+
+        revalidate();
+        repaint();
+        pack();
+    }
+
+    private void stop_cell_editing()
+    {
+        if(table_core == null) return;
+
+        if(table_core.isEditing()) table_core.getCellEditor().cancelCellEditing();
+        if(table_voltage.isEditing()) table_voltage.getCellEditor().cancelCellEditing();
+        if(table_memory.isEditing()) table_memory.getCellEditor().cancelCellEditing();
+    }
+
+    private void add_core_panel(GridBagConstraints con)
+    {
+        core_model = new EntryTableModel("P-State", "Frequency (MHz)", "VID")
+        {
+            @Override
+            public int getRowCount()
+            {
+                return ppte == null ? 0 : ppte.get_sclk_entries().length;
+            }
+
+            @Override
+            public Object getValueAt(int row, int col)
+            {
+                PPTableEditor.ATOM_SCLK_ENTRY e = ppte.get_sclk_entries()[row];
+                if(col == 0) return "P" + row;
+                if(col == 1) return (int)(e.get_ulSclk() / 100);
+                return Byte.toUnsignedInt(e.get_ucVddInd());
+            }
+
+            @Override
+            void set_value(int row, int col, int value)
+            {
+                PPTableEditor.ATOM_SCLK_ENTRY e = ppte.get_sclk_entries()[row];
+                if(col == 1) e.set_ulSclk(value * 100L);
+                else e.set_ucVddInd((byte)value);
+            }
+
+            @Override
+            int max_value(int col)
+            {
+                return col == 1 ? MAX_CLOCK : ppte.get_voltage_entries().length - 1;
+            }
+        };
+        table_core = create_table(core_model);
+
+        panel_core = new JPanel(new BorderLayout());
+        panel_core.add(new JScrollPane(table_core), BorderLayout.CENTER);
         panel_core.setBorder(BorderFactory.createTitledBorder("Core"));
 
         main_panel.add(panel_core, con);
@@ -260,60 +571,37 @@ public class PPTableEditorGUI extends JFrame
 
     private void add_voltage_panel(GridBagConstraints con)
     {
-        panel_voltage = new JPanel(new GridBagLayout());
-        GridBagConstraints gbc = new GridBagConstraints();
-        gbc.gridx = 0; gbc.gridy = 0;
-        gbc.insets = new Insets(5, 5, 0, 0);
-        panel_voltage.add(new JLabel("ID"), gbc);
-        gbc.gridx++;
-        panel_voltage.add(new JLabel("Value (mV)"), gbc);
-
-        for(int i = 0; i < ppte.voltage_entries.length; i++)
+        voltage_model = new EntryTableModel("ID", "Value (mV)")
         {
-            PPTableEditor.ATOM_VOLTAGE_ENTRY entry = ppte.voltage_entries[i];
-            gbc.gridx = 0; gbc.gridy = i + 1;
+            @Override
+            public int getRowCount()
+            {
+                return ppte == null ? 0 : ppte.get_voltage_entries().length;
+            }
 
-            JTextField txt_index = new JTextField(2);
-            txt_index.setText(String.valueOf(i));
-            txt_index.setEditable(false);
-            panel_voltage.add(txt_index, gbc);
-            JTextField txt_voltage = new JTextField(5);
-            txt_voltage.setText(String.valueOf(entry.usVdd));
-            gbc.gridx++; 
-            panel_voltage.add(txt_voltage, gbc);
+            @Override
+            public Object getValueAt(int row, int col)
+            {
+                return col == 0 ? row : ppte.get_voltage_entries()[row].get_usVdd();
+            }
 
-            txt_voltage.getDocument().addDocumentListener(new DocumentListener()
+            @Override
+            void set_value(int row, int col, int value)
             {
-                @Override
-                public void removeUpdate(DocumentEvent e)
-                {
-                    changedUpdate(e);
-                }
-            
-                @Override
-                public void insertUpdate(DocumentEvent e)
-                {
-                    changedUpdate(e);
-                }
-            
-                @Override
-                public void changedUpdate(DocumentEvent e)
-                {
-                    txt_voltage.setBackground(Color.WHITE);
-                    String s = txt_voltage.getText();
-                    if(s.isEmpty()) return;
+                ppte.get_voltage_entries()[row].set_usVdd(value);
+            }
 
-                    try {
-                        entry.usVdd = Integer.parseInt(s);
-                    }
-                    catch(NumberFormatException ex)
-                    {
-                        txt_voltage.setBackground(invalid);
-                    }
-                }
-            });
-        }
+            @Override
+            int max_value(int col)
+            {
+                // the whole field, so the 0xFF0X leakage IDs some entries hold can be committed as they are
+                return 0xFFFF;
+            }
+        };
+        table_voltage = create_table(voltage_model);
 
+        panel_voltage = new JPanel(new BorderLayout());
+        panel_voltage.add(new JScrollPane(table_voltage), BorderLayout.CENTER);
         panel_voltage.setBorder(BorderFactory.createTitledBorder("Voltage"));
 
         main_panel.add(panel_voltage, con);
@@ -321,84 +609,74 @@ public class PPTableEditorGUI extends JFrame
 
     private void add_memory_panel(GridBagConstraints con)
     {
-        panel_memory = new JPanel(new GridBagLayout());
-        GridBagConstraints gbc = new GridBagConstraints();
-        gbc.gridx = 0; gbc.gridy = 0;
-        gbc.insets = new Insets(5, 5, 0, 0);
-        panel_memory.add(new JLabel("Frequency (MHz)"), gbc);
-        gbc.gridx++;
-        panel_memory.add(new JLabel("Voltage (mV)"), gbc);
-
-        for(int i = 0; i < ppte.mclk_entries.length; i++)
+        memory_model = new EntryTableModel("Frequency (MHz)", "Voltage (mV)")
         {
-            PPTableEditor.ATOM_MCLK_ENTRY e = ppte.mclk_entries[i];
-            gbc.gridx = 0; gbc.gridy = i + 1;
-
-            JTextField txt_clock = new JTextField(5);
-            txt_clock.setText(String.valueOf(e.ulMclk / 100));
-            panel_memory.add(txt_clock, gbc);
-            JTextField txt_voltage = new JTextField(5);
-            txt_voltage.setText(String.valueOf(e.usMvdd));
-            gbc.gridx++;
-            panel_memory.add(txt_voltage, gbc);
+            @Override
+            public int getRowCount()
+            {
+                return ppte == null ? 0 : ppte.get_mclk_entries().length;
+            }
 
-            DocumentListener listener = new DocumentListener()
+            @Override
+            public Object getValueAt(int row, int col)
             {
-                @Override
-                public void removeUpdate(DocumentEvent ev)
-                {
-                    changedUpdate(ev);
-                }
-            
-                @Override
-                public void insertUpdate(DocumentEvent ev)
-                {
-                    changedUpdate(ev);
-                }
-            
-                @Override
-                public void changedUpdate(DocumentEvent ev)
-                {
-                    if(ev.getDocument() == txt_clock.getDocument())
-                    {
-                        txt_clock.setBackground(Color.WHITE);
-                        String s = txt_clock.getText();
-                        if(s.isEmpty()) return;
+                PPTableEditor.ATOM_MCLK_ENTRY e = ppte.get_mclk_entries()[row];
+                return col == 0 ? (int)(e.get_ulMclk() / 100) : e.get_usMvdd();
+            }
 
-                        try {
-                            e.ulMclk = Integer.parseInt(s) * 100;
-                        }
-                        catch(NumberFormatException ex)
-                        {
-                            txt_clock.setBackground(invalid);
-                        }
-                    }
-                    else if(ev.getDocument() == txt_voltage.getDocument())
-                    {
-                        txt_voltage.setBackground(Color.WHITE);
-                        String s = txt_voltage.getText();
-                        if(s.isEmpty()) return;
+            @Override
+            boolean is_editable(int col)
+            {
+                return true;
+            }
 
-                        try {
-                            e.usMvdd = Integer.parseInt(s);
-                        }
-                        catch(NumberFormatException ex)
-                        {
-                            txt_voltage.setBackground(invalid);
-                        }
-                    }
-                }
-            };
+            @Override
+            void set_value(int row, int col, int value)
+            {
+                PPTableEditor.ATOM_MCLK_ENTRY e = ppte.get_mclk_entries()[row];
+                if(col == 0) e.set_ulMclk(value * 100L);
+                else e.set_usMvdd(value);
+            }
 
-            txt_clock.getDocument().addDocumentListener(listener);
-            txt_voltage.getDocument().addDocumentListener(listener);
-        }
+            @Override
+            int max_value(int col)
+            {
+                return col == 0 ? MAX_CLOCK : 0xFFFF;
+            }
+        };
+        table_memory = create_table(memory_model);
 
+        panel_memory = new JPanel(new BorderLayout());
+        panel_memory.add(new JScrollPane(table_memory), BorderLayout.CENTER);
         panel_memory.setBorder(BorderFactory.createTitledBorder("Memory"));
 
         main_panel.add(panel_memory, con);
     }
 
+    /*
+     * only the visible rows are rendered, the scroll pane shows up to VISIBLE_ROWS of them
+     */
+    private JTable create_table(EntryTableModel model)
+    {
+        JTable table = new JTable(model);
+        table.setDefaultEditor(Integer.class, int_editor);
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.getTableHeader().setReorderingAllowed(false);
+        table.putClientProperty("terminateEditOnFocusLost", Boolean.TRUE);
+
+        int width = 0;
+        for(int i = 0; i < model.getColumnCount(); i++)
+        {
+            TableColumn column = table.getColumnModel().getColumn(i);
+            int w = table.getFontMetrics(table.getFont()).stringWidth(model.getColumnName(i)) + 16;
+            column.setPreferredWidth(w);
+            width += w;
+        }
+        table.setPreferredScrollableViewportSize(new Dimension(width, table.getRowHeight() * VISIBLE_ROWS));
+
+        return table;
+    }
+
     private void add_power_panel(GridBagConstraints con)
     {
         panel_power = new JPanel(new GridBagLayout());
@@ -407,131 +685,403 @@ public class PPTableEditorGUI extends JFrame
 
         gbc.gridx = 0; gbc.gridy = 0;
         panel_power.add(new JLabel("Power limit (%):"), gbc);
-        JTextField txt_power_limit = new JTextField(3);
-        txt_power_limit.setText(String.valueOf(ppte.pplay.usPowerControlLimit));
+        txt_power_limit = new JTextField(3);
         gbc.gridx = (gbc.gridx + 1) % 2;
         panel_power.add(txt_power_limit, gbc);
 
-        txt_power_limit.getDocument().addDocumentListener(new DocumentListener()
-        {
-            @Override
-            public void removeUpdate(DocumentEvent e)
-            {
-                changedUpdate(e);
-            }
-        
-            @Override
-            public void insertUpdate(DocumentEvent e)
-            {
-                changedUpdate(e);
-            }
-        
-            @Override
-            public void changedUpdate(DocumentEvent e)
-            {
-                txt_power_limit.setBackground(Color.WHITE);
-                String s = txt_power_limit.getText();
-                if(s.isEmpty()) return;
-
-                try {
-                    ppte.pplay.usPowerControlLimit = Integer.parseInt(s);
-                }
-                catch(NumberFormatException ex)
-                {
-                    txt_power_limit.setBackground(invalid);
-                }
-            }
-        });
-
         gbc.gridx = (gbc.gridx + 1) % 2; gbc.gridy++;
         panel_power.add(new JLabel("TDP (W):"), gbc);
-        JTextField txt_tdp = new JTextField(3);
-        txt_tdp.setText(String.valueOf(ppte.ptune.usTDP));
+        txt_tdp = new JTextField(3);
         gbc.gridx = (gbc.gridx + 1) % 2;
         panel_power.add(txt_tdp, gbc);
 
         gbc.gridx = (gbc.gridx + 1) % 2; gbc.gridy++;
         panel_power.add(new JLabel("TDC (A):"), gbc);
-        JTextField txt_tdc = new JTextField(3);
-        txt_tdc.setText(String.valueOf(ppte.ptune.usTDC));
+        txt_tdc = new JTextField(3);
         gbc.gridx = (gbc.gridx + 1) % 2;
         panel_power.add(txt_tdc, gbc);
 
         gbc.gridx = (gbc.gridx + 1) % 2; gbc.gridy++;
         panel_power.add(new JLabel("Max power limit (W):"), gbc);
-        JTextField txt_max_plimit = new JTextField(3);
-        txt_max_plimit.setText(String.valueOf(ppte.ptune.usMaximumPowerDeliveryLimit));
+        txt_max_plimit = new JTextField(3);
         gbc.gridx = (gbc.gridx + 1) % 2;
         panel_power.add(txt_max_plimit, gbc);
 
-        DocumentListener listener = new DocumentListener()
+        edits.bind(txt_power_limit, 0, 0xFFFF, new PPTableEditPipeline.Commit()
         {
             @Override
-            public void removeUpdate(DocumentEvent e)
+            public void commit(int value)
             {
-                changedUpdate(e);
+                ppte.pplay.set_usPowerControlLimit(value);
             }
-        
+        });
+        edits.bind(txt_tdp, 0, 0xFFFF, new PPTableEditPipeline.Commit()
+        {
             @Override
-            public void insertUpdate(DocumentEvent e)
+            public void commit(int value)
             {
-                changedUpdate(e);
+                ppte.get_ptune().set_usTDP(value);
             }
-        
+        });
+        edits.bind(txt_tdc, 0, 0xFFFF, new PPTableEditPipeline.Commit()
+        {
             @Override
-            public void changedUpdate(DocumentEvent e)
+            public void commit(int value)
             {
-                if(e.getDocument() == txt_tdp.getDocument())
-                {
-                    txt_tdp.setBackground(Color.WHITE);
-                    String s = txt_tdp.getText();
-                    if(s.isEmpty()) return;
+                ppte.get_ptune().set_usTDC(value);
+            }
+        });
+        edits.bind(txt_max_plimit, 0, 0xFFFF, new PPTableEditPipeline.Commit()
+        {
+            @Override
+            public void commit(int value)
+            {
+                ppte.get_ptune().set_usMaximumPowerDeliveryLimit(value);
+            }
+        });
 
-                    try {
-                        ppte.ptune.usTDP = Integer.parseInt(s);
-                    }
-                    catch(NumberFormatException ex)
+        panel_power.setBorder(BorderFactory.createTitledBorder("Power Limits"));
+
+        main_panel.add(panel_power, con);
+    }
+
+    /*
+     * only fields whose value differs from their text are updated, so text being typed isn't replaced
+     */
+    private void update_power_panel()
+    {
+        update_field(txt_power_limit, ppte.pplay.get_usPowerControlLimit());
+        update_field(txt_tdp, ppte.get_ptune().get_usTDP());
+        update_field(txt_tdc, ppte.get_ptune().get_usTDC());
+        update_field(txt_max_plimit, ppte.get_ptune().get_usMaximumPowerDeliveryLimit());
+    }
+
+    private void update_field(JTextField txt, int value)
+    {
+        if(!txt.getText().trim().equals(String.valueOf(value)))
+            edits.set_text(txt, String.valueOf(value));
+    }
+
+    /*
+     * the views, the title's dirty marker and the validation status follow the table through the bus
+     */
+    private void subscribe()
+    {
+        // ahead of the views so the edit menu sees the change recorded
+        bus.subscribe(PPTableEventBus.FieldChanged.class, new PPTableEventBus.Listener<PPTableEventBus.FieldChanged>()
+        {
+            @Override
+            public void on_event(PPTableEventBus.FieldChanged e)
+            {
+                active.journal.on_event(e);
+            }
+        });
+        bus.subscribe(PPTableEventBus.FieldChanged.class, new PPTableEventBus.Listener<PPTableEventBus.FieldChanged>()
+        {
+            @Override
+            public void on_event(PPTableEventBus.FieldChanged e)
+            {
+                core_model.fireTableRowsUpdated(0, core_model.getRowCount() - 1);
+                voltage_model.fireTableRowsUpdated(0, voltage_model.getRowCount() - 1);
+                memory_model.fireTableRowsUpdated(0, memory_model.getRowCount() - 1);
+                update_power_panel();
+                update_title();
+                update_edit_menu();
+                validate_timer.restart();
+            }
+        });
+        bus.subscribe(PPTableEventBus.TableLoaded.class, new PPTableEventBus.Listener<PPTableEventBus.TableLoaded>()
+        {
+            @Override
+            public void on_event(PPTableEventBus.TableLoaded e)
+            {
+                update_edit_menu();
+                update_title();
+                validate_timer.restart();
+            }
+        });
+        bus.subscribe(PPTableEventBus.TableSaved.class, new PPTableEventBus.Listener<PPTableEventBus.TableSaved>()
+        {
+            @Override
+            public void on_event(PPTableEventBus.TableSaved e)
+            {
+                // published from the save task's thread
+                SwingUtilities.invokeLater(new Runnable()
+                {
+                    @Override
+                    public void run()
                     {
-                        txt_tdp.setBackground(invalid);
+                        update_title();
                     }
-                }
-                else if(e.getDocument() == txt_tdc.getDocument())
-                {
-                    txt_tdc.setBackground(Color.WHITE);
-                    String s = txt_tdc.getText();
-                    if(s.isEmpty()) return;
+                });
+            }
+        });
+    }
 
-                    try {
-                        ppte.ptune.usTDC = Integer.parseInt(s);
-                    }
-                    catch(NumberFormatException ex)
+    private void update_title()
+    {
+        if(ppte == null) return;
+
+        String dirty = ppte.is_dirty() ? " *" : "";
+        setTitle("PP Table Editor - " + active.path + dirty);
+        tabs.setTitleAt(documents.indexOf(active), Paths.get(active.path).getFileName() + dirty);
+    }
+
+    /*
+     * validates a copy of the table in the background and shows the result in the status line
+     */
+    private void validate_table()
+    {
+        PPTableEditor table = ppte;
+        byte[] snapshot = ppte.get_pp_bytes().clone();
+        background.execute(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                List<PPTableValidator.Violation> violations = validator.validate(snapshot);
+                SwingUtilities.invokeLater(new Runnable()
+                {
+                    @Override
+                    public void run()
                     {
-                        txt_tdc.setBackground(invalid);
+                        if(table != ppte) return;
+
+                        if(violations.isEmpty())
+                        {
+                            lbl_status.setText("No problems found");
+                            lbl_status.setToolTipText(null);
+                            return;
+                        }
+
+                        StringBuilder tip = new StringBuilder("<html>");
+                        for(PPTableValidator.Violation v : violations)
+                            tip.append(v.toString().replace("&", "&amp;").replace("<", "&lt;")).append("<br>");
+                        lbl_status.setText(violations.size() + " problems: " + violations.get(0));
+                        lbl_status.setToolTipText(tip.append("</html>").toString());
                     }
-                }
-                else if(e.getDocument() == txt_max_plimit.getDocument())
+                });
+            }
+        });
+    }
+
+    /*
+     * an entry table, the first column is a read-only label unless is_editable says otherwise
+     */
+    private abstract class EntryTableModel extends AbstractTableModel
+    {
+        EntryTableModel(String... columns)
+        {
+            this.columns = columns;
+        }
+
+        abstract void set_value(int row, int col, int value);
+
+        /*
+         * the largest value the field under col holds, the smallest is 0
+         */
+        abstract int max_value(int col);
+
+        boolean is_editable(int col)
+        {
+            return col > 0;
+        }
+
+        @Override
+        public int getColumnCount()
+        {
+            return columns.length;
+        }
+
+        @Override
+        public String getColumnName(int col)
+        {
+            return columns[col];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int col)
+        {
+            return is_editable(col) ? Integer.class : Object.class;
+        }
+
+        @Override
+        public boolean isCellEditable(int row, int col)
+        {
+            return is_editable(col);
+        }
+
+        @Override
+        public void setValueAt(Object value, int row, int col)
+        {
+            set_value(row, col, (Integer)value);
+            fireTableCellUpdated(row, col);
+        }
+
+        private final String[] columns;
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    /*
+     * shared by every table as only one cell is edited at a time,
+     * an invalid number, or one the field can't hold, keeps the cell editing and highlights it
+     */
+    private class IntegerCellEditor extends DefaultCellEditor
+    {
+        IntegerCellEditor()
+        {
+            super(new JTextField());
+            txt = (JTextField)getComponent();
+            txt.setHorizontalAlignment(JTextField.RIGHT);
+        }
+
+        @Override
+        public Component getTableCellEditorComponent(JTable table, Object value, boolean selected, int row, int col)
+        {
+            txt.setBackground(Color.WHITE);
+            txt.setToolTipText(null);
+            max = ((EntryTableModel)table.getModel()).max_value(col);
+            return super.getTableCellEditorComponent(table, value, selected, row, col);
+        }
+
+        @Override
+        public boolean stopCellEditing()
+        {
+            try {
+                value = Integer.parseInt(txt.getText().trim());
+            }
+            catch(NumberFormatException ex)
+            {
+                txt.setBackground(invalid);
+                return false;
+            }
+            if(value < 0 || value > max)
+            {
+                txt.setBackground(invalid);
+                txt.setToolTipText("0 to " + max);
+                return false;
+            }
+            return super.stopCellEditing();
+        }
+
+        @Override
+        public Object getCellEditorValue()
+        {
+            return value;
+        }
+
+        private final JTextField txt;
+        private int value;
+        private int max;
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    /*
+     * runs file I/O off the EDT with a cancellable progress monitor,
+     * succeeded() is called on the EDT with the result unless the task was cancelled
+     * and exceptions are shown with show_error_dialog
+     */
+    private abstract class BackgroundTask<T> extends SwingWorker<T, Void>
+    {
+        BackgroundTask(String message, String path)
+        {
+            monitor = new ProgressMonitor(PPTableEditorGUI.this, message, path, 0, 100);
+            monitor.setMillisToDecideToPopup(100);
+            monitor.setMillisToPopup(250);
+
+            addPropertyChangeListener(new PropertyChangeListener()
+            {
+                @Override
+                public void propertyChange(PropertyChangeEvent ev)
                 {
-                    txt_max_plimit.setBackground(Color.WHITE);
-                    String s = txt_max_plimit.getText();
-                    if(s.isEmpty()) return;
+                    if(ev.getPropertyName().equals("progress"))
+                        monitor.setProgress((Integer)ev.getNewValue());
+                }
+            });
 
-                    try {
-                        ppte.ptune.usMaximumPowerDeliveryLimit = Integer.parseInt(s);
-                    }
-                    catch(NumberFormatException ex)
-                    {
-                        txt_max_plimit.setBackground(invalid);
-                    }
+            // ProgressMonitor has no listener for its cancel button
+            cancel_timer = new Timer(100, new ActionListener()
+            {
+                @Override
+                public void actionPerformed(ActionEvent e)
+                {
+                    if(monitor.isCanceled())
+                        cancel(true);
                 }
+            });
+        }
+
+        void start()
+        {
+            set_busy(true);
+            cancel_timer.start();
+            execute();
+        }
+
+        abstract void succeeded(T result);
+
+        /*
+         * called on the EDT instead of succeeded() if the task was cancelled
+         */
+        void cancelled()
+        {
+        }
+
+        @Override
+        protected void done()
+        {
+            cancel_timer.stop();
+            monitor.close();
+            set_busy(false);
+            if(isCancelled())
+            {
+                cancelled();
+                return;
             }
-        };
-        txt_tdp.getDocument().addDocumentListener(listener);
-        txt_tdc.getDocument().addDocumentListener(listener);
-        txt_max_plimit.getDocument().addDocumentListener(listener);
 
-        panel_power.setBorder(BorderFactory.createTitledBorder("Power Limits"));
+            try
+            {
+                succeeded(get());
+            }
+            catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            catch(ExecutionException e)
+            {
+                Throwable cause = e.getCause();
+                show_error_dialog(cause.getMessage() != null ? cause.getMessage() : cause.toString());
+            }
+        }
 
-        main_panel.add(panel_power, con);
+        private final ProgressMonitor monitor;
+        private final Timer cancel_timer;
+    }
+
+    /*
+     * the table isn't edited while a task is reading or writing it
+     */
+    private void set_busy(boolean busy)
+    {
+        menu_item_open.setEnabled(!busy);
+        menu_item_saveas.setEnabled(!busy);
+        menu_item_close.setEnabled(!busy);
+        tabs.setEnabled(!busy);
+        menu_edit.setEnabled(!busy);
+        set_enabled(main_panel, !busy);
+        setCursor(busy ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : null);
+    }
+
+    private static void set_enabled(Container c, boolean enabled)
+    {
+        for(Component child : c.getComponents())
+        {
+            child.setEnabled(enabled);
+            if(child instanceof Container)
+                set_enabled((Container)child, enabled);
+        }
     }
 
     private void show_error_dialog(String msg)
@@ -554,8 +1104,72 @@ public class PPTableEditorGUI extends JFrame
         );
     }
 
-    private Container main_panel = getContentPane();
+    /*
+     * an open file, its table is kept in the shared cache while it has one
+     */
+    private class Document
+    {
+        Document(String path)
+        {
+            this.path = path;
+        }
+
+        final String path;
+        final PPTableJournal journal = new PPTableJournal(JOURNAL_SIZE);
+        final JPanel tab = new JPanel(new BorderLayout());     // holds main_panel while selected
+    }
+
+    private final JPanel main_panel = new JPanel(new GridBagLayout());
+    private final JTabbedPane tabs = new JTabbedPane();
+    private final List<Document> documents = new ArrayList<>();
+    private Document active;
     private JPanel panel_core, panel_voltage, panel_memory, panel_power;
+    private JTable table_core, table_voltage, table_memory;
+    private EntryTableModel core_model, voltage_model, memory_model;
+    private JTextField txt_power_limit, txt_tdp, txt_tdc, txt_max_plimit;
+    private JLabel lbl_status;
+    private JMenu menu_edit;
+    private JMenuItem menu_item_open, menu_item_saveas, menu_item_close, menu_item_undo, menu_item_redo;
     private PPTableEditor ppte;
     private final Color invalid = new Color(0xFFFFAFAF);
+    private final IntegerCellEditor int_editor = new IntegerCellEditor();
+    private final PPTableEventBus bus = new PPTableEventBus();
+    // tables of inactive tabs without unsaved changes are dropped first once over TABLE_CACHE_SIZE,
+    // tabs with undo history keep their table, a re-read one wouldn't match the history
+    private final PPTableLRUCache<String> tables = new PPTableLRUCache<>(TABLE_CACHE_SIZE, new BiPredicate<>()
+    {
+        @Override
+        public boolean test(String path, PPTableEditor table)
+        {
+            Document doc = find_document(path);
+            return table != ppte && !table.is_dirty() &&
+                   (doc == null || !(doc.journal.can_undo() || doc.journal.can_redo()));
+        }
+    });
+    private final PPTableValidator validator = new PPTableValidator();
+    // parsing typed values and validation, off the EDT
+    private final ExecutorService background = Executors.newSingleThreadExecutor(new ThreadFactory()
+    {
+        @Override
+        public Thread newThread(Runnable r)
+        {
+            Thread t = new Thread(r, "PPTableEditorGUI background");
+            t.setDaemon(true);
+            return t;
+        }
+    });
+    private final PPTableEditPipeline edits = new PPTableEditPipeline(background, invalid);
+    private final Timer validate_timer = new Timer(VALIDATE_DELAY, new ActionListener()
+    {
+        @Override
+        public void actionPerformed(ActionEvent e)
+        {
+            validate_table();
+        }
+    });
+    private static final int VISIBLE_ROWS = 8;
+    private static final int MAX_CLOCK = (int)(0xFFFFFFFFL / 100);  // MHz, clocks are stored in 10 kHz units
+    private static final long JOURNAL_SIZE = 1 << 20;   // bytes of undo history per file
+    private static final long TABLE_CACHE_SIZE = 4 << 20;
+    private static final int VALIDATE_DELAY = 300;     // ms after the last change
 }
\ No newline at end of file
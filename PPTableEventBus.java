@@ -0,0 +1,112 @@
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/*
+ * delivers typed events to the listeners subscribed to their class,
+ * synchronously on the thread that publishes them
+ * a PPTableEditor with a bus publishes FieldChanged from its setters and TableSaved from save()
+ */
+public class PPTableEventBus
+{
+    public interface Listener<E>
+    {
+        void on_event(E event);
+    }
+
+    public <E> void subscribe(Class<E> type, Listener<? super E> listener)
+    {
+        listeners.computeIfAbsent(type, t -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public <E> void unsubscribe(Class<E> type, Listener<? super E> listener)
+    {
+        List<Listener<?>> l = listeners.get(type);
+        if(l != null)
+            l.remove(listener);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void publish(Object event)
+    {
+        List<Listener<?>> l = listeners.get(event.getClass());
+        if(l == null) return;
+
+        for(Listener<?> listener : l)
+            ((Listener<Object>)listener).on_event(event);
+    }
+
+    /*
+     * size bytes at offset in the table changed, the values are unsigned
+     */
+    public static class FieldChanged
+    {
+        FieldChanged(PPTableEditor table, int offset, int size, long old_value, long new_value)
+        {
+            this.table = table;
+            this.offset = offset;
+            this.size = size;
+            this.old_value = old_value;
+            this.new_value = new_value;
+        }
+
+        public final PPTableEditor table;
+        public final int offset, size;
+        public final long old_value, new_value;
+    }
+
+    /*
+     * a table was opened and is about to be shown
+     */
+    public static class TableLoaded
+    {
+        public TableLoaded(PPTableEditor table)
+        {
+            this.table = table;
+        }
+
+        public final PPTableEditor table;
+    }
+
+    public static class TableSaved
+    {
+        TableSaved(PPTableEditor table, Path path)
+        {
+            this.table = table;
+            this.path = path;
+        }
+
+        public final PPTableEditor table;
+        public final Path path;
+    }
+
+    /*
+     * a file under a PPTableWatcher's directory was added, changed or removed
+     * table is null if the file was removed or can't be read, error says why in the latter case
+     * previous is null if the file is new or couldn't be read before
+     * changes are empty unless both tables are Tonga, Fiji or Polaris tables
+     */
+    public static class TableChanged
+    {
+        TableChanged(Path path, PPTableEditor previous, PPTableEditor table, String error,
+                     List<PPTableDiff.Change> changes, List<PPTableValidator.Violation> violations)
+        {
+            this.path = path;
+            this.previous = previous;
+            this.table = table;
+            this.error = error;
+            this.changes = changes;
+            this.violations = violations;
+        }
+
+        public final Path path;
+        public final PPTableEditor previous, table;
+        public final String error;
+        public final List<PPTableDiff.Change> changes;
+        public final List<PPTableValidator.Violation> violations;
+    }
+
+    private final Map<Class<?>, List<Listener<?>>> listeners = new ConcurrentHashMap<>();
+}
@@ -0,0 +1,779 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*
+ * exports tables for offline analysis as one row per table and per MCLK, SCLK and voltage entry,
+ * to CSV and to a binary columnar format
+ *
+ * rows are gathered into blocks of BLOCK_ROWS rows of primitive columns, taken from a fixed
+ * pool, and every output file is encoded and written by a thread of its own, so an export
+ * streams in constant memory and values are written from the columns without building strings
+ *
+ * binary files (.ppc), all little endian:
+ *   "PPCF", u16 version, u16 column count, then for each column its u8 width, 0 for strings
+ *   and 1, 2 or 4 bytes for unsigned values, and its name as u16 length + UTF-8
+ *   then blocks, each a u32 row count followed by every column as a u8 encoding and its values
+ *     PLAIN (0)     a value of the column's width per row
+ *     CONSTANT (1)  one value of the column's width for every row
+ *     RUNS (2)      strings, a u32 run count then u32 rows and u16 length + UTF-8 per run
+ *
+ * columns follow the Polaris layouts, fields a table's layout doesn't have,
+ * such as ulSclkOffset in Tonga tables, are 0
+ * tables other than Tonga, Fiji and Polaris are skipped
+ *
+ * usage: java PPTableExport [-o dir] [-l table,mclk,sclk,voltage] [-f csv,bin] [-j threads] <file|dir>...
+ */
+public class PPTableExport implements AutoCloseable
+{
+    public static void main(String[] args)
+    {
+        Path out_dir = Paths.get(".");
+        boolean[] levels = { true, true, true, true };
+        boolean csv = true, binary = true;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Path> files = new ArrayList<>();
+
+        try
+        {
+            for(int i = 0; i < args.length; i++)
+            {
+                switch(args[i])
+                {
+                    case "-o":
+                        out_dir = Paths.get(next_arg(args, ++i));
+                        break;
+                    case "-l":
+                        levels = new boolean[LEVEL_NAMES.length];
+                        for(String name : next_arg(args, ++i).split(","))
+                            levels[level(name)] = true;
+                        break;
+                    case "-f":
+                        csv = binary = false;
+                        for(String format : next_arg(args, ++i).split(","))
+                        {
+                            switch(format)
+                            {
+                                case "csv": csv = true; break;
+                                case "bin": binary = true; break;
+                                default: throw new IllegalArgumentException("Unknown format " + format);
+                            }
+                        }
+                        break;
+                    case "-j":
+                        threads = Integer.parseInt(next_arg(args, ++i));
+                        break;
+                    default:
+                        PPTableBatch.add_files(Paths.get(args[i]), files);
+                }
+            }
+
+            if(files.isEmpty())
+            {
+                System.err.println(
+                    "usage: java PPTableExport [-o dir] [-l table,mclk,sclk,voltage] [-f csv,bin] [-j threads] <file|dir>..."
+                );
+                System.exit(2);
+            }
+        }
+        catch(IllegalArgumentException | IOException e)
+        {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+
+        long start = System.nanoTime();
+        int failed = 0;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try
+        {
+            PPTableExport export = new PPTableExport(out_dir, levels, csv, binary);
+            // files are parsed in parallel a batch at a time and added in order
+            for(int from = 0; from < files.size(); from += PARSE_BATCH)
+            {
+                List<Path> batch = files.subList(from, Math.min(files.size(), from + PARSE_BATCH));
+                List<Object> tables = pool.submit(
+                    () -> batch.parallelStream().map(PPTableExport::open).collect(Collectors.toList())
+                ).get();
+
+                for(int i = 0; i < tables.size(); i++)
+                {
+                    Object table = tables.get(i);
+                    if(table instanceof PPTableEditor)
+                    {
+                        try
+                        {
+                            if(export.add((PPTableEditor)table))
+                                continue;
+                            table = ((PPTableEditor)table).get_format() + " tables aren't exported";
+                        }
+                        catch(IllegalArgumentException e)
+                        {
+                            table = e.getMessage();
+                        }
+                    }
+
+                    failed++;
+                    System.out.printf("FAIL %s: %s%n", batch.get(i), table);
+                }
+            }
+            export.close();
+
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d files, %d failed in %.3f s (%.1f files/s)%n",
+                              files.size(), failed, seconds, files.size() / seconds);
+            for(int i = 0; i < LEVEL_NAMES.length; i++)
+            {
+                if(levels[i])
+                    System.out.printf("%-8s %d rows%n", LEVEL_NAMES[i], export.get_rows(i));
+            }
+        }
+        catch(IOException | InterruptedException | ExecutionException e)
+        {
+            System.err.println("Export failed: " + e.getMessage());
+            System.exit(1);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        System.exit(failed == 0 ? 0 : 1);
+    }
+
+    /*
+     * writes <level>.csv and <level>.ppc in dir for each level set in levels, indexed by TABLE etc.
+     */
+    public PPTableExport(Path dir, boolean[] levels, boolean csv, boolean binary) throws IOException
+    {
+        Files.createDirectories(dir);
+        for(int i = 0; i < LEVEL_NAMES.length; i++)
+        {
+            if(i >= levels.length || !levels[i]) continue;
+
+            Level level = create_level(i);
+            if(csv)
+                level.outputs.add(new CsvOutput(dir.resolve(level.name + ".csv"), level));
+            if(binary)
+                level.outputs.add(new BinaryOutput(dir.resolve(level.name + ".ppc"), level));
+            this.levels[i] = level;
+        }
+    }
+
+    /*
+     * adds the rows of a table, tables have to be added from one thread
+     * returns false if the table was skipped as its format isn't Tonga, Fiji or Polaris
+     * throws IllegalArgumentException if a sub-table doesn't fit in the table, in which case
+     * none of its rows are added, and IOException if writing has failed
+     */
+    public boolean add(PPTableEditor table) throws IOException, IllegalArgumentException
+    {
+        check_error();
+        if(!table.get_format().editable)
+            return false;
+
+        // bounds checks, so every entry read below is in the table
+        table.get_ptune();
+        table.get_mclk_entries();
+        table.get_sclk_entries();
+        table.get_voltage_entries();
+
+        ByteBuffer buf = ByteBuffer.wrap(table.get_pp_bytes()).order(ByteOrder.LITTLE_ENDIAN);
+        String file = table.get_reg_path() != null ? table.get_reg_path().toString() : "";
+
+        if(levels[TABLE] != null)
+            add_table_row(levels[TABLE], buf, file);
+        if(levels[MCLK] != null)
+            add_entry_rows(levels[MCLK], PPTableLayout.MCLK, buf, file);
+        if(levels[SCLK] != null)
+            add_entry_rows(levels[SCLK], PPTableLayout.SCLK, buf, file);
+        if(levels[VOLTAGE] != null)
+            add_entry_rows(levels[VOLTAGE], PPTableLayout.VOLTAGE, buf, file);
+
+        return true;
+    }
+
+    /*
+     * adds every table in order, returns the number of tables skipped
+     */
+    public long export(Stream<PPTableEditor> tables) throws IOException, IllegalArgumentException
+    {
+        long skipped = 0;
+        for(Iterator<PPTableEditor> it = tables.iterator(); it.hasNext();)
+        {
+            if(!add(it.next()))
+                skipped++;
+        }
+        return skipped;
+    }
+
+    public long get_rows(int level)
+    {
+        return levels[level] != null ? levels[level].rows : 0;
+    }
+
+    /*
+     * writes the last rows and closes the files
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if(closed) return;
+        closed = true;
+
+        for(Level level : levels)
+        {
+            if(level == null) continue;
+
+            if(level.block.rows > 0)
+                submit(level);
+            for(Output out : level.outputs)
+            {
+                out.writer.execute(() -> {
+                    try
+                    {
+                        out.close();
+                    }
+                    catch(IOException e)
+                    {
+                        fail(e);
+                    }
+                });
+                out.writer.shutdown();
+            }
+        }
+
+        try
+        {
+            for(Level level : levels)
+            {
+                if(level == null) continue;
+                for(Output out : level.outputs)
+                    out.writer.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            }
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing", e);
+        }
+        check_error();
+    }
+
+    private void add_table_row(Level level, ByteBuffer buf, String file) throws IOException
+    {
+        Block block = level.block;
+        int row = block.rows, c = 0;
+        block.files[row] = file;
+
+        PPTableLayout.Struct pplay = PPTableLayout.POWERPLAY;
+        for(int i = 0; i < pplay.field_count(); i++)
+            block.values[c++][row] = pplay.get(buf, 0, i);
+
+        int offset = PPTableLayout.POWERTUNE_TABLE.offset(buf);
+        PPTableLayout.Struct layout = PPTableLayout.POWERTUNE_TABLE.header(buf, offset);
+        int[] fields = level.fields(layout);
+        for(int i = 0; i < fields.length; i++)
+            block.values[c++][row] = fields[i] == -1 ? 0 : layout.get(buf, offset, fields[i]);
+
+        for(PPTableLayout.Table table : COUNTED_TABLES)
+            block.values[c++][row] = table.count(buf, table.offset(buf));
+
+        end_row(level);
+    }
+
+    private void add_entry_rows(Level level, PPTableLayout.Table table, ByteBuffer buf, String file) throws IOException
+    {
+        int offset = table.offset(buf);
+        PPTableLayout.Struct layout = table.entry(buf, offset);
+        int[] fields = level.fields(layout);
+
+        for(int e = 0; e < table.count(buf, offset); e++)
+        {
+            Block block = level.block;
+            int row = block.rows, base = table.entry_offset(buf, offset, e);
+            block.files[row] = file;
+            block.values[0][row] = e;
+            for(int i = 0; i < fields.length; i++)
+                block.values[i + 1][row] = fields[i] == -1 ? 0 : layout.get(buf, base, fields[i]);
+
+            end_row(level);
+        }
+    }
+
+    private void end_row(Level level) throws IOException
+    {
+        level.rows++;
+        if(++level.block.rows == BLOCK_ROWS)
+            submit(level);
+    }
+
+    /*
+     * hands the level's block to its outputs and takes a free one, waiting for one if
+     * the writers are behind, the last output to write a block puts it back in the pool
+     */
+    private void submit(Level level) throws IOException
+    {
+        Block block = level.block;
+        block.pending.set(level.outputs.size());
+        for(Output out : level.outputs)
+        {
+            out.writer.execute(() -> {
+                try
+                {
+                    if(error == null)
+                        out.write(block);
+                }
+                catch(IOException e)
+                {
+                    fail(e);
+                }
+                finally
+                {
+                    if(block.pending.decrementAndGet() == 0)
+                    {
+                        block.rows = 0;
+                        level.free.add(block);
+                    }
+                }
+            });
+        }
+
+        try
+        {
+            level.block = level.outputs.isEmpty() ? block : level.free.take();
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing", e);
+        }
+        if(level.outputs.isEmpty())
+            block.rows = 0;
+        check_error();
+    }
+
+    private synchronized void fail(IOException e)
+    {
+        if(error == null)
+            error = e;
+    }
+
+    private void check_error() throws IOException
+    {
+        IOException e = error;
+        if(e != null)
+            throw new IOException(e.getMessage(), e);
+    }
+
+    /*
+     * the columns of a level, file first, then the fields in the layouts used as columns
+     */
+    private static Level create_level(int level)
+    {
+        List<String> names = new ArrayList<>();
+        List<Integer> widths = new ArrayList<>();
+        PPTableLayout.Struct columns;
+
+        if(level == TABLE)
+        {
+            PPTableLayout.Struct pplay = PPTableLayout.POWERPLAY;
+            for(int i = 0; i < pplay.field_count(); i++)
+            {
+                names.add("pplay." + pplay.field_name(i));
+                widths.add(pplay.field_size(i));
+            }
+            columns = PPTableLayout.POLARIS_POWERTUNE;
+            for(int i = 0; i < columns.field_count(); i++)
+            {
+                names.add("ptune." + columns.field_name(i));
+                widths.add(columns.field_size(i));
+            }
+            for(int i = 0; i < COUNTED_TABLES.length; i++)
+            {
+                names.add(LEVEL_NAMES[i + 1] + "_count");
+                widths.add(1);
+            }
+        }
+        else
+        {
+            columns = level == MCLK ? PPTableLayout.MCLK_ENTRY
+                    : level == SCLK ? PPTableLayout.SCLK_ENTRY
+                    : PPTableLayout.VOLTAGE_ENTRY;
+            names.add("index");
+            widths.add(1);
+            for(int i = 0; i < columns.field_count(); i++)
+            {
+                names.add(columns.field_name(i));
+                widths.add(columns.field_size(i));
+            }
+        }
+
+        int[] w = new int[widths.size()];
+        for(int i = 0; i < w.length; i++)
+            w[i] = widths.get(i);
+        return new Level(LEVEL_NAMES[level], names.toArray(new String[0]), w, columns);
+    }
+
+    private static Object open(Path file)
+    {
+        try
+        {
+            return new PPTableEditor(file.toString(), true);
+        }
+        catch(IllegalArgumentException e)
+        {
+            return e.getMessage();
+        }
+    }
+
+    private static int level(String name) throws IllegalArgumentException
+    {
+        for(int i = 0; i < LEVEL_NAMES.length; i++)
+        {
+            if(LEVEL_NAMES[i].equals(name))
+                return i;
+        }
+        throw new IllegalArgumentException("Unknown level " + name);
+    }
+
+    private static String next_arg(String[] args, int i)
+    {
+        if(i >= args.length)
+            throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        return args[i];
+    }
+
+    /*
+     * BLOCK_ROWS rows, the file of each row and the other columns as unsigned values
+     */
+    private static class Block
+    {
+        Block(int columns)
+        {
+            values = new long[columns][BLOCK_ROWS];
+        }
+
+        final String[] files = new String[BLOCK_ROWS];
+        final long[][] values;      // by column, then row
+        final AtomicInteger pending = new AtomicInteger();   // outputs still writing the block
+        int rows;
+    }
+
+    private static class Level
+    {
+        Level(String name, String[] names, int[] widths, PPTableLayout.Struct columns)
+        {
+            this.name = name;
+            this.names = names;
+            this.widths = widths;
+            this.columns = columns;
+            for(int i = 0; i < POOL_BLOCKS; i++)
+                free.add(new Block(names.length));
+            block = free.poll();
+        }
+
+        /*
+         * for each of the columns taken from the columns struct, the index of the field
+         * with its name in layout, or -1 if layout doesn't have it
+         */
+        int[] fields(PPTableLayout.Struct layout)
+        {
+            int[] f = fields.get(layout);
+            if(f == null)
+            {
+                f = new int[columns.field_count()];
+                for(int i = 0; i < f.length; i++)
+                    f[i] = layout.index_of(columns.field_name(i));
+                fields.put(layout, f);
+            }
+            return f;
+        }
+
+        final String name;
+        final String[] names;       // of every column but file
+        final int[] widths;
+        final PPTableLayout.Struct columns;
+        final List<Output> outputs = new ArrayList<>();
+        final BlockingQueue<Block> free = new ArrayBlockingQueue<>(POOL_BLOCKS);
+        final Map<PPTableLayout.Struct, int[]> fields = new IdentityHashMap<>();
+        Block block;                // being filled
+        long rows;
+    }
+
+    /*
+     * a file written by a thread of its own through a buffer
+     */
+    private abstract static class Output
+    {
+        Output(Path file, Level level) throws IOException
+        {
+            this.level = level;
+            channel = FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE
+            );
+            writer = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "export " + file.getFileName());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+
+        abstract void write(Block block) throws IOException;
+
+        void close() throws IOException
+        {
+            try
+            {
+                flush();
+            }
+            finally
+            {
+                channel.close();
+            }
+        }
+
+        /*
+         * makes room for n more bytes in buf
+         */
+        void ensure(int n) throws IOException
+        {
+            if(buf.remaining() < n)
+                flush();
+        }
+
+        void flush() throws IOException
+        {
+            buf.flip();
+            while(buf.hasRemaining())
+                channel.write(buf);
+            buf.clear();
+        }
+
+        void put_bytes(byte[] b) throws IOException
+        {
+            for(int i = 0; i < b.length; i += buf.capacity())
+            {
+                int n = Math.min(buf.capacity(), b.length - i);
+                ensure(n);
+                buf.put(b, i, n);
+            }
+        }
+
+        final Level level;
+        final FileChannel channel;
+        final ByteBuffer buf = ByteBuffer.allocate(OUTPUT_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+        final ExecutorService writer;
+    }
+
+    private static class CsvOutput extends Output
+    {
+        CsvOutput(Path file, Level level) throws IOException
+        {
+            super(file, level);
+            StringBuilder header = new StringBuilder("file");
+            for(String name : level.names)
+                header.append(',').append(name);
+            buf.put(header.append('\n').toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        void write(Block block) throws IOException
+        {
+            for(int row = 0; row < block.rows; row++)
+            {
+                String file = block.files[row];
+                if(file != last_file)
+                {
+                    last_file = file;
+                    last_bytes = csv_field(file);
+                }
+                put_bytes(last_bytes);
+
+                ensure(block.values.length * 11 + 1);
+                for(long[] column : block.values)
+                {
+                    buf.put((byte)',');
+                    put_number(column[row]);
+                }
+                buf.put((byte)'\n');
+            }
+        }
+
+        /*
+         * writes n in decimal, n is an unsigned 32 bit value so it takes at most 10 digits
+         */
+        private void put_number(long n)
+        {
+            int i = digits.length;
+            do
+            {
+                digits[--i] = (byte)('0' + n % 10);
+                n /= 10;
+            }
+            while(n != 0);
+            buf.put(digits, i, digits.length - i);
+        }
+
+        /*
+         * the file quoted if it has a comma, quote or line break in it
+         */
+        private static byte[] csv_field(String s)
+        {
+            if(s.indexOf(',') == -1 && s.indexOf('"') == -1 && s.indexOf('\n') == -1 && s.indexOf('\r') == -1)
+                return s.getBytes(StandardCharsets.UTF_8);
+            return ("\"" + s.replace("\"", "\"\"") + "\"").getBytes(StandardCharsets.UTF_8);
+        }
+
+        private final byte[] digits = new byte[20];
+        private String last_file;
+        private byte[] last_bytes;
+    }
+
+    private static class BinaryOutput extends Output
+    {
+        BinaryOutput(Path file, Level level) throws IOException
+        {
+            super(file, level);
+            buf.put(MAGIC);
+            buf.putShort((short)VERSION);
+            buf.putShort((short)(level.names.length + 1));
+            put_name(0, "file");
+            for(int i = 0; i < level.names.length; i++)
+                put_name(level.widths[i], level.names[i]);
+        }
+
+        @Override
+        void write(Block block) throws IOException
+        {
+            ensure(4);
+            buf.putInt(block.rows);
+            put_files(block);
+
+            for(int c = 0; c < block.values.length; c++)
+            {
+                long[] column = block.values[c];
+                int width = level.widths[c];
+
+                boolean constant = true;
+                for(int row = 1; row < block.rows && constant; row++)
+                    constant = column[row] == column[0];
+
+                if(constant)
+                {
+                    ensure(1 + width);
+                    buf.put((byte)CONSTANT);
+                    put_value(width, column[0]);
+                    continue;
+                }
+
+                ensure(1);
+                buf.put((byte)PLAIN);
+                for(int row = 0; row < block.rows; row++)
+                {
+                    ensure(width);
+                    put_value(width, column[row]);
+                }
+            }
+        }
+
+        /*
+         * the file column as runs of rows from the same file
+         */
+        private void put_files(Block block) throws IOException
+        {
+            int runs = 0;
+            for(int row = 0; row < block.rows; row++)
+            {
+                if(row == 0 || block.files[row] != block.files[row - 1])
+                    runs++;
+            }
+
+            ensure(5);
+            buf.put((byte)RUNS);
+            buf.putInt(runs);
+            for(int row = 0; row < block.rows;)
+            {
+                int end = row + 1;
+                while(end < block.rows && block.files[end] == block.files[row])
+                    end++;
+
+                byte[] name = block.files[row].getBytes(StandardCharsets.UTF_8);
+                ensure(6);
+                buf.putInt(end - row);
+                buf.putShort((short)name.length);
+                put_bytes(name);
+                row = end;
+            }
+        }
+
+        private void put_value(int width, long value)
+        {
+            switch(width)
+            {
+                case 1: buf.put((byte)value); break;
+                case 2: buf.putShort((short)value); break;
+                default: buf.putInt((int)value);
+            }
+        }
+
+        private void put_name(int width, String name)
+        {
+            byte[] b = name.getBytes(StandardCharsets.UTF_8);
+            buf.put((byte)width);
+            buf.putShort((short)b.length);
+            buf.put(b);
+        }
+    }
+
+    // levels
+    public static final int TABLE = 0,
+                            MCLK = 1,
+                            SCLK = 2,
+                            VOLTAGE = 3;
+    private static final String[] LEVEL_NAMES = { "table", "mclk", "sclk", "voltage" };
+
+    // binary column encodings
+    private static final int PLAIN = 0,
+                             CONSTANT = 1,
+                             RUNS = 2;
+
+    private static final byte[] MAGIC = { 'P', 'P', 'C', 'F' };
+    private static final int VERSION = 1;
+    private static final int BLOCK_ROWS = 4096;
+    private static final int POOL_BLOCKS = 4;       // per level, the one being filled and 3 being written
+    private static final int OUTPUT_BUFFER = 1 << 16;
+    private static final int PARSE_BATCH = 256;
+    // the entry counts at the end of a table row, in the order of MCLK etc.
+    private static final PPTableLayout.Table[] COUNTED_TABLES = {
+        PPTableLayout.MCLK, PPTableLayout.SCLK, PPTableLayout.VOLTAGE
+    };
+
+    private final Level[] levels = new Level[LEVEL_NAMES.length];
+    private volatile IOException error;     // the first write that failed
+    private boolean closed;
+}
@@ -0,0 +1,104 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/*
+ * the PowerPlay table formats by sHeader.ucTableFormatRevision, looked up in a table of all 256
+ * revisions, so a directory mixing generations is decoded in one pass without trial parsing
+ * within a format each sub-table's layout is looked up by its ucRevId, see PPTableLayout.Table
+ *
+ * as in the Linux amdgpu driver, revisions from 7 up that no later generation claims
+ * are v1.0 tables, Tonga, Fiji or Polaris
+ * formats without a powerplay struct are known so they're reported by name, but not decoded
+ */
+public class PPTableFormat
+{
+    PPTableFormat(String name, PPTableLayout.Struct powerplay, PPTableLayout.Table[] tables, boolean editable)
+    {
+        this.name = name;
+        this.powerplay = powerplay;
+        this.tables = tables;
+        this.editable = editable;
+    }
+
+    /*
+     * null if the table is too short to have a header or its revision is unknown
+     */
+    public static PPTableFormat of(ByteBuffer table)
+    {
+        if(table.limit() < PPTableEditor.ATOM_COMMON_TABLE_HEADER.size)
+            return null;
+        return FORMATS[Byte.toUnsignedInt(table.get(FORMAT_REVISION))];
+    }
+
+    public static PPTableFormat of(byte[] table)
+    {
+        return of(ByteBuffer.wrap(table).order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    public boolean is_supported()
+    {
+        return powerplay != null;
+    }
+
+    /*
+     * the generation of a table in this format, which for v1.0 tables follows from
+     * the revisions of the tables that changed between Tonga, Fiji and Polaris
+     */
+    public String generation(ByteBuffer table)
+    {
+        if(this != TONGA)
+            return name;
+
+        int sclk = table_revision(table, PPTableLayout.SCLK);
+        int ptune = table_revision(table, PPTableLayout.POWERTUNE_TABLE);
+        if(sclk >= 1 || ptune >= 4)
+            return "Polaris";
+        if(ptune == 3)
+            return "Fiji";
+        return "Tonga";
+    }
+
+    @Override
+    public String toString()
+    {
+        return name;
+    }
+
+    /*
+     * ucRevId of a table, -1 if there is none
+     */
+    private static int table_revision(ByteBuffer buf, PPTableLayout.Table table)
+    {
+        if(buf.limit() < table.pointer + 2)
+            return -1;
+        int offset = table.offset(buf);
+        return offset == 0 || offset >= buf.limit() ? -1 : Byte.toUnsignedInt(buf.get(offset));
+    }
+
+    public final String name;
+    public final PPTableLayout.Struct powerplay;    // null if tables of this format aren't decoded
+    public final PPTableLayout.Table[] tables;
+    public final boolean editable;                  // the ATOM_* views in PPTableEditor apply
+
+    public static final PPTableFormat TONGA = new PPTableFormat(
+        "Tonga/Fiji/Polaris", PPTableLayout.POWERPLAY, PPTableLayout.TABLES, true
+    );
+    public static final PPTableFormat VEGA10 = new PPTableFormat(
+        "Vega10", PPTableLayout.VEGA10_POWERPLAY, PPTableLayout.VEGA10_TABLES, false
+    );
+    public static final PPTableFormat VEGA12 = new PPTableFormat("Vega12", null, null, false);
+    public static final PPTableFormat VEGA20 = new PPTableFormat("Vega20", null, null, false);
+    public static final PPTableFormat NAVI10 = new PPTableFormat("Navi10", null, null, false);
+
+    private static final int FORMAT_REVISION = 2;   // offset of sHeader.ucTableFormatRevision
+    private static final PPTableFormat[] FORMATS = new PPTableFormat[256];
+    static
+    {
+        for(int i = 7; i < FORMATS.length; i++)
+            FORMATS[i] = TONGA;
+        FORMATS[8] = VEGA10;
+        FORMATS[9] = VEGA12;
+        FORMATS[11] = VEGA20;
+        FORMATS[12] = NAVI10;
+    }
+}
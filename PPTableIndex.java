@@ -0,0 +1,448 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * index of the key header fields of every registry file in a directory, kept in
+ * <dir>/.pptable.idx so inventory queries don't have to parse the files
+ * updating only parses files whose size or modification time changed
+ *
+ * the index file is read in one go and queried in place:
+ *   "PPTI", u16 version, u16 field count, u32 record count, u32 record size, u64 offset of the paths
+ *   then per file, sorted by path:
+ *     u32 path offset, u32 path length, u64 size, u64 mtime in ns, u64 content hash,
+ *     u32 status (0 if the table could be read), u32 mask of the fields the table doesn't have,
+ *     u32 per field in FIELD_NAMES
+ *   then the UTF-8 paths relative to the directory
+ * all little endian
+ *
+ * usage: java PPTableIndex <dir> update
+ *                          <dir> query [field op value]...
+ * where op is one of = != < <= > >=, e.g. ptune.usTDP=50 pplay.ulGoldenRevision<0xC8000080
+ *
+ * fields are read by name through the layouts of each table's format, so a directory can mix
+ * formats, a field the format or its sub-table revision doesn't have never matches a condition
+ */
+public class PPTableIndex
+{
+    public static void main(String[] args)
+    {
+        if(args.length < 2 || !(args[1].equals("update") || args[1].equals("query")))
+        {
+            StringBuilder fields = new StringBuilder();
+            for(String name : FIELD_NAMES)
+                fields.append(' ').append(name);
+            System.err.println(
+                "usage: java PPTableIndex <dir> update\n" +
+                "                         <dir> query [field op value]...\n" +
+                "fields:" + fields
+            );
+            System.exit(2);
+        }
+
+        try
+        {
+            PPTableIndex index = new PPTableIndex(Paths.get(args[0]));
+            long start = System.nanoTime();
+            if(args[1].equals("update"))
+            {
+                int parsed = index.update();
+                System.out.printf("%d files, %d parsed, %d unreadable in %.1f ms%n",
+                                  index.size(), parsed, index.unreadable(), (System.nanoTime() - start) / 1e6);
+                return;
+            }
+
+            List<Condition> conditions = new ArrayList<>();
+            for(int i = 2; i < args.length; i++)
+                conditions.add(Condition.parse(args[i]));
+
+            List<Integer> matches = index.query(conditions);
+            double ms = (System.nanoTime() - start) / 1e6;
+            for(int record : matches)
+            {
+                StringBuilder sb = new StringBuilder(index.path(record));
+                for(int f = 0; f < FIELD_NAMES.length; f++)
+                {
+                    long v = index.get(record, f);
+                    sb.append(' ').append(FIELD_NAMES[f]).append('=').append(v == MISSING ? "(none)" : String.valueOf(v));
+                }
+                System.out.println(sb);
+            }
+            System.err.printf("%d of %d files match (%.2f ms)%n", matches.size(), index.size(), ms);
+        }
+        catch(IllegalArgumentException | IOException e)
+        {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /*
+     * opens the index of dir, which is empty until update() if it doesn't exist yet
+     */
+    public PPTableIndex(Path dir) throws IOException
+    {
+        this.dir = dir;
+        index_file = dir.resolve(INDEX_FILE);
+        load();
+    }
+
+    /*
+     * brings the index up to date with the tables under the directory
+     * returns the number of files that were parsed
+     */
+    public int update() throws IOException
+    {
+        Map<String, Integer> old_records = new HashMap<>();
+        for(int i = 0; i < count; i++)
+            old_records.put(path(i), i);
+
+        List<Path> files = new ArrayList<>();
+        PPTableBatch.add_files(dir, files);
+
+        // files come back sorted, so the records are sorted by path
+        List<byte[]> records = new ArrayList<>(), paths = new ArrayList<>();
+        List<Integer> stale = new ArrayList<>();
+        for(Path file : files)
+        {
+            String path = dir.relativize(file).toString();
+            Integer old = old_records.get(path);
+            long size = Files.size(file), mtime = Files.getLastModifiedTime(file).to(TimeUnit.NANOSECONDS);
+
+            byte[] record = new byte[record_size];
+            if(old != null && index.getLong(record_offset(old) + 8) == size &&
+               index.getLong(record_offset(old) + 16) == mtime)
+                index.get(record_offset(old), record, 0, record_size);
+            else stale.add(records.size());
+
+            records.add(record);
+            paths.add(path.getBytes(StandardCharsets.UTF_8));
+        }
+
+        stale.parallelStream().forEach(i -> read_record(files.get(i), records.get(i)));
+
+        write(records, paths);
+        load();
+        return stale.size();
+    }
+
+    /*
+     * records whose fields satisfy every condition, unreadable files never match
+     */
+    public List<Integer> query(List<Condition> conditions)
+    {
+        List<Integer> matches = new ArrayList<>();
+        for(int i = 0; i < count; i++)
+        {
+            if(index.getInt(record_offset(i) + 32) != STATUS_OK)
+                continue;
+
+            boolean match = true;
+            for(Condition c : conditions)
+            {
+                long v = get(i, c.field);
+                if(v == MISSING || !c.test(v))
+                {
+                    match = false;
+                    break;
+                }
+            }
+            if(match)
+                matches.add(i);
+        }
+
+        return matches;
+    }
+
+    public int size()
+    {
+        return count;
+    }
+
+    public int unreadable()
+    {
+        int n = 0;
+        for(int i = 0; i < count; i++)
+        {
+            if(index.getInt(record_offset(i) + 32) != STATUS_OK)
+                n++;
+        }
+        return n;
+    }
+
+    /*
+     * path of a record relative to the directory
+     */
+    public String path(int record)
+    {
+        int offset = record_offset(record);
+        byte[] path = new byte[index.getInt(offset + 4)];
+        index.get(paths_offset + index.getInt(offset), path);
+        return new String(path, StandardCharsets.UTF_8);
+    }
+
+    public long get_hash(int record)
+    {
+        return index.getLong(record_offset(record) + 24);
+    }
+
+    /*
+     * the value of FIELD_NAMES[field] in a record, MISSING if the table has no such field
+     */
+    public long get(int record, int field)
+    {
+        if((index.getInt(record_offset(record) + 36) & 1 << field) != 0)
+            return MISSING;
+        return Integer.toUnsignedLong(index.getInt(record_offset(record) + FIELDS_OFFSET + 4 * field));
+    }
+
+    /*
+     * a field compared to a value, e.g. ptune.usTDP>=50
+     */
+    public static class Condition
+    {
+        public Condition(int field, String op, long value) throws IllegalArgumentException
+        {
+            this.field = field;
+            this.op = op;
+            this.value = value;
+
+            if(!(op.equals("=") || op.equals("!=") || op.equals("<") || op.equals("<=") ||
+                 op.equals(">") || op.equals(">=")))
+                throw new IllegalArgumentException("Unknown operator " + op);
+        }
+
+        public static Condition parse(String spec) throws IllegalArgumentException
+        {
+            int i = 0;
+            while(i < spec.length() && "=!<>".indexOf(spec.charAt(i)) == -1)
+                i++;
+            int j = i;
+            while(j < spec.length() && "=!<>".indexOf(spec.charAt(j)) != -1)
+                j++;
+            if(i == 0 || i == spec.length() || j == spec.length())
+                throw new IllegalArgumentException("Invalid condition \"" + spec + "\"");
+
+            String name = spec.substring(0, i).trim();
+            int field = -1;
+            for(int f = 0; f < FIELD_NAMES.length; f++)
+            {
+                if(FIELD_NAMES[f].equals(name))
+                    field = f;
+            }
+            if(field == -1)
+                throw new IllegalArgumentException("Unknown field " + name);
+
+            try
+            {
+                return new Condition(field, spec.substring(i, j), Long.decode(spec.substring(j).trim()));
+            }
+            catch(NumberFormatException e)
+            {
+                throw new IllegalArgumentException("Invalid value in \"" + spec + "\"");
+            }
+        }
+
+        boolean test(long v)
+        {
+            switch(op)
+            {
+                case "=": return v == value;
+                case "!=": return v != value;
+                case "<": return v < value;
+                case "<=": return v <= value;
+                case ">": return v > value;
+                default: return v >= value;
+            }
+        }
+
+        public final int field;
+        public final String op;
+        public final long value;
+    }
+
+    /*
+     * fills in a record for file, all but its path
+     */
+    private void read_record(Path file, byte[] record)
+    {
+        ByteBuffer r = ByteBuffer.wrap(record).order(ByteOrder.LITTLE_ENDIAN);
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            r.putLong(8, size);
+            r.putLong(16, Files.getLastModifiedTime(file).to(TimeUnit.NANOSECONDS));
+
+            ByteBuffer data = PPTableEditor.read_table_file(file, channel);
+            r.putLong(24, PPTableCache.hash(data));
+
+            PPTableEditor.RegFile reg = PPTableEditor.parse_reg_bytes(data);
+            if(reg == null)
+                throw new IllegalArgumentException("Invalid registry file");
+
+            // nothing is decoded, the fields are read straight from the table
+            PPTableEditor ppte = new PPTableEditor(reg, true);
+            ByteBuffer table = ByteBuffer.wrap(ppte.get_pp_bytes()).order(ByteOrder.LITTLE_ENDIAN);
+            int missing = 0;
+            for(int f = 0; f < FIELD_NAMES.length; f++)
+            {
+                long v = read_field(table, ppte.get_format(), f);
+                if(v == MISSING)
+                    missing |= 1 << f;
+                r.putInt(FIELDS_OFFSET + 4 * f, v == MISSING ? 0 : (int)v);
+            }
+            r.putInt(32, STATUS_OK);
+            r.putInt(36, missing);
+        }
+        catch(IllegalArgumentException | IOException e)
+        {
+            r.putInt(32, STATUS_UNREADABLE);
+        }
+    }
+
+    /*
+     * FIELD_NAMES[field] looked up by name in the powerplay struct or the sub-table of the format,
+     * MISSING if the format, or the revision of the sub-table, has no such field
+     */
+    private static long read_field(ByteBuffer table, PPTableFormat format, int field)
+    {
+        String name = FIELD_NAMES[field];
+        int dot = name.indexOf('.');
+        String struct_name = name.substring(0, dot);
+
+        int base = 0;
+        PPTableLayout.Struct struct = format.powerplay;
+        if(!struct_name.equals("pplay"))
+        {
+            struct = null;
+            for(PPTableLayout.Table t : format.tables)
+            {
+                if(!t.name.equals(struct_name))
+                    continue;
+                base = t.offset(table);
+                if(base != 0 && t.fits(table, base))
+                    struct = t.header(table, base);
+            }
+            if(struct == null)
+                return MISSING;
+        }
+
+        int i = struct.index_of(name.substring(dot + 1));
+        return i == -1 ? MISSING : struct.get(table, base, i);
+    }
+
+    private void write(List<byte[]> records, List<byte[]> paths) throws IOException
+    {
+        long paths_length = 0;
+        for(byte[] p : paths)
+            paths_length += p.length;
+        long length = HEADER_SIZE + (long)record_size * records.size() + paths_length;
+        if(length > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Too many files to index");
+
+        ByteBuffer buf = ByteBuffer.allocate((int)length).order(ByteOrder.LITTLE_ENDIAN);
+        long paths_start = HEADER_SIZE + (long)record_size * records.size();
+        buf.putInt(MAGIC)
+           .putShort(VERSION)
+           .putShort((short)FIELD_NAMES.length)
+           .putInt(records.size())
+           .putInt(record_size)
+           .putLong(paths_start)
+           .putLong(0);
+
+        int path_offset = 0;
+        for(int i = 0; i < records.size(); i++)
+        {
+            ByteBuffer r = ByteBuffer.wrap(records.get(i)).order(ByteOrder.LITTLE_ENDIAN);
+            r.putInt(0, path_offset).putInt(4, paths.get(i).length);
+            buf.put(records.get(i));
+            path_offset += paths.get(i).length;
+        }
+        for(byte[] p : paths)
+            buf.put(p);
+        buf.flip();
+
+        // write to a temporary file first so a failed update leaves the old index
+        Path tmp = Files.createTempFile(dir, "index", ".tmp");
+        try(FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE))
+        {
+            while(buf.hasRemaining())
+                channel.write(buf);
+        }
+        Files.move(tmp, index_file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /*
+     * reads the index file, an index that's missing, from another version or corrupt is treated as empty
+     * it's read onto the heap rather than mapped, as update() replaces the file and a mapped file
+     * can't be replaced on Windows until the mapping is garbage collected
+     */
+    private void load() throws IOException
+    {
+        index = EMPTY;
+        count = 0;
+        paths_offset = 0;
+        record_size = FIELDS_OFFSET + 4 * FIELD_NAMES.length;
+        if(!Files.exists(index_file))
+            return;
+
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(index_file)).order(ByteOrder.LITTLE_ENDIAN);
+        if(buf.limit() < HEADER_SIZE)
+            return;
+        if(buf.getInt(0) != MAGIC || buf.getShort(4) != VERSION || buf.getShort(6) != FIELD_NAMES.length ||
+           buf.getInt(12) != record_size)
+            return;
+
+        long records = Integer.toUnsignedLong(buf.getInt(8)), paths_start = buf.getLong(16);
+        if(paths_start < HEADER_SIZE + records * record_size || paths_start > buf.limit())
+            return;
+        for(int i = 0; i < records; i++)
+        {
+            long path_start = paths_start + Integer.toUnsignedLong(buf.getInt(HEADER_SIZE + record_size * i));
+            if(path_start + Integer.toUnsignedLong(buf.getInt(HEADER_SIZE + record_size * i + 4)) > buf.limit())
+                return;
+        }
+
+        index = buf;
+        count = (int)records;
+        paths_offset = (int)paths_start;
+    }
+
+    private int record_offset(int record)
+    {
+        return HEADER_SIZE + record_size * record;
+    }
+
+    private static final String INDEX_FILE = ".pptable.idx";
+    private static final int MAGIC = 0x49545050;   // "PPTI"
+    private static final short VERSION = 2;
+    private static final int HEADER_SIZE = 32;
+    private static final int FIELDS_OFFSET = 40;
+    private static final int STATUS_OK = 0, STATUS_UNREADABLE = 1;
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    public static final long MISSING = -1;
+
+    // at most 32, one bit each in the missing field mask
+    public static final String[] FIELD_NAMES = {
+        "pplay.ucTableRevision", "pplay.ulGoldenPPID", "pplay.ulGoldenRevision", "pplay.usFormatID",
+        "pplay.usPowerControlLimit", "ptune.usTDP", "ptune.usTDC", "ptune.usMaximumPowerDeliveryLimit",
+        "ptune.usTjMax", "ptune.usSoftwareShutdownTemp", "ptune.usTemperatureLimitHotspot"
+    };
+
+    private final Path dir, index_file;
+    private ByteBuffer index;
+    private int count, paths_offset, record_size;
+}
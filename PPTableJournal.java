@@ -0,0 +1,174 @@
+/*
+ * undo/redo history of the changes to a table, kept as (offset, size, old value, new value)
+ * records in primitive arrays used as a ring buffer
+ * once the history takes max_bytes the oldest records are dropped
+ *
+ * a change to the same field as the last one within MERGE_WINDOW ms, such as
+ * the next keystroke in a field, is merged into the last record
+ */
+public class PPTableJournal implements PPTableEventBus.Listener<PPTableEventBus.FieldChanged>
+{
+    public PPTableJournal(long max_bytes)
+    {
+        capacity = (int)Math.max(1, Math.min(Integer.MAX_VALUE - 8, max_bytes / RECORD_BYTES));
+        int initial = Math.min(capacity, 64);
+        offsets = new int[initial];
+        sizes = new byte[initial];
+        old_values = new long[initial];
+        new_values = new long[initial];
+        times = new long[initial];
+    }
+
+    /*
+     * records changes published by a table's setters, except the ones undo() and redo() make
+     */
+    @Override
+    public void on_event(PPTableEventBus.FieldChanged e)
+    {
+        if(!applying)
+            record(e.offset, e.size, e.old_value, e.new_value, System.currentTimeMillis());
+    }
+
+    public void record(int offset, int size, long old_value, long new_value, long time)
+    {
+        // anything undone can't be redone after a new change
+        count = position;
+
+        if(position > 0)
+        {
+            int last = index(position - 1);
+            if(offsets[last] == offset && sizes[last] == size && time - times[last] <= MERGE_WINDOW)
+            {
+                new_values[last] = new_value;
+                times[last] = time;
+                // typed back to where it started
+                if(old_values[last] == new_value)
+                    count = --position;
+                return;
+            }
+        }
+
+        if(count == capacity)
+        {
+            // full, drop the oldest
+            head = (head + 1) % capacity;
+            count--;
+            position--;
+        }
+        else if(count == offsets.length)
+            grow();
+
+        int i = index(count);
+        offsets[i] = offset;
+        sizes[i] = (byte)size;
+        old_values[i] = old_value;
+        new_values[i] = new_value;
+        times[i] = time;
+        position = ++count;
+    }
+
+    public boolean can_undo()
+    {
+        return position > 0;
+    }
+
+    public boolean can_redo()
+    {
+        return position < count;
+    }
+
+    /*
+     * restores the field changed last, returns false if there is nothing to undo
+     */
+    public boolean undo(PPTableEditor table)
+    {
+        if(!can_undo())
+            return false;
+
+        int i = index(--position);
+        apply(table, offsets[i], sizes[i], old_values[i]);
+        // a change straight after an undo starts a new record
+        times[i] = Long.MIN_VALUE;
+        return true;
+    }
+
+    public boolean redo(PPTableEditor table)
+    {
+        if(!can_redo())
+            return false;
+
+        int i = index(position++);
+        apply(table, offsets[i], sizes[i], new_values[i]);
+        times[i] = Long.MIN_VALUE;
+        return true;
+    }
+
+    public void clear()
+    {
+        head = count = position = 0;
+    }
+
+    /*
+     * bytes used by the records held
+     */
+    public long size()
+    {
+        return (long)count * RECORD_BYTES;
+    }
+
+    private void apply(PPTableEditor table, int offset, int size, long value)
+    {
+        applying = true;
+        try
+        {
+            table.set_value(offset, size, value);
+        }
+        finally
+        {
+            applying = false;
+        }
+    }
+
+    /*
+     * grows the arrays up to capacity, unrolling the ring so head is at 0
+     */
+    private void grow()
+    {
+        int n = (int)Math.min(capacity, offsets.length * 2L);
+        int[] o = new int[n];
+        byte[] s = new byte[n];
+        long[] ov = new long[n], nv = new long[n], t = new long[n];
+        for(int k = 0; k < count; k++)
+        {
+            int i = index(k);
+            o[k] = offsets[i];
+            s[k] = sizes[i];
+            ov[k] = old_values[i];
+            nv[k] = new_values[i];
+            t[k] = times[i];
+        }
+        offsets = o;
+        sizes = s;
+        old_values = ov;
+        new_values = nv;
+        times = t;
+        head = 0;
+    }
+
+    private int index(int k)
+    {
+        return (head + k) % offsets.length;
+    }
+
+    public static final long MERGE_WINDOW = 1000;         // ms
+    private static final int RECORD_BYTES = 4 + 1 + 8 + 8 + 8;
+
+    private final int capacity;             // records
+    private int[] offsets;
+    private byte[] sizes;
+    private long[] old_values, new_values, times;
+    private int head;                       // index of the oldest record
+    private int count;                      // records held, including undone ones
+    private int position;                   // records not undone
+    private boolean applying;
+}
@@ -0,0 +1,94 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/*
+ * decoded tables by key, bounded by an estimate of the memory they take
+ * once over max_bytes the least recently used tables are dropped,
+ * except the ones evictable says no to, given their key, such as tables with unsaved changes
+ */
+public class PPTableLRUCache<K>
+{
+    public PPTableLRUCache(long max_bytes, BiPredicate<K, PPTableEditor> evictable)
+    {
+        this.max_bytes = max_bytes;
+        this.evictable = evictable;
+    }
+
+    /*
+     * returns null if key isn't cached, or has been evicted
+     */
+    public synchronized PPTableEditor get(K key)
+    {
+        return tables.get(key);
+    }
+
+    public synchronized void put(K key, PPTableEditor table)
+    {
+        PPTableEditor old = tables.put(key, table);
+        if(old != null)
+            total_bytes -= weight(old);
+        total_bytes += weight(table);
+
+        evict();
+    }
+
+    public synchronized PPTableEditor remove(K key)
+    {
+        PPTableEditor table = tables.remove(key);
+        if(table != null)
+            total_bytes -= weight(table);
+        return table;
+    }
+
+    public synchronized int size()
+    {
+        return tables.size();
+    }
+
+    public synchronized long get_bytes()
+    {
+        return total_bytes;
+    }
+
+    public synchronized long get_evictions()
+    {
+        return evictions;
+    }
+
+    /*
+     * drops tables, least recently used first, until the cache fits in max_bytes
+     */
+    public synchronized void evict()
+    {
+        Iterator<Map.Entry<K, PPTableEditor>> it = tables.entrySet().iterator();
+        while(total_bytes > max_bytes && it.hasNext())
+        {
+            Map.Entry<K, PPTableEditor> e = it.next();
+            PPTableEditor table = e.getValue();
+            if(!evictable.test(e.getKey(), table))
+                continue;
+
+            it.remove();
+            total_bytes -= weight(table);
+            evictions++;
+        }
+    }
+
+    /*
+     * the table, its header and the ATOM_* views over it
+     */
+    static long weight(PPTableEditor table)
+    {
+        return table.get_pp_bytes().length + 2L * table.get_reg_header().length() + VIEW_BYTES;
+    }
+
+    private static final int VIEW_BYTES = 4096;
+
+    private final long max_bytes;
+    private final BiPredicate<K, PPTableEditor> evictable;
+    // in access order, least recently used first
+    private final Map<K, PPTableEditor> tables = new LinkedHashMap<>(16, 0.75f, true);
+    private long total_bytes, evictions;
+}
@@ -0,0 +1,589 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * descriptors of the structures in a PowerPlay table, each a list of little endian fields
+ * named as in the ATOM_* structs, where the size of a field follows from its prefix,
+ * uc is 1 byte, us 2 and ul 4, and name[n] is an array of n fields
+ *
+ * a descriptor is compiled once into flat offset and size arrays, decoding reads
+ * straight from those so it costs about as much as the hand-written ATOM_* views
+ *
+ * supporting another table only takes a Struct for it and a Table in TABLES,
+ * PPTableCodegen then generates a straight-line Codec for the Struct in PPTableCodecs
+ */
+public class PPTableLayout
+{
+    /*
+     * reads and writes every field of a struct, generated by PPTableCodegen
+     * signature is the Struct.signature() of the descriptor it was generated from
+     */
+    public interface Codec
+    {
+        int signature();
+        void decode(ByteBuffer buf, int base, long[] values);
+        void encode(long[] values, ByteBuffer buf, int base);
+    }
+
+    /*
+     * a struct compiled from its field names
+     */
+    public static class Struct
+    {
+        public Struct(String name, String... fields) throws IllegalArgumentException
+        {
+            List<String> names = new ArrayList<>();
+            List<Integer> sizes = new ArrayList<>();
+            for(String field : fields)
+            {
+                int bracket = field.indexOf('[');
+                String base = bracket == -1 ? field : field.substring(0, bracket);
+                int size = type_size(base.substring(base.lastIndexOf('.') + 1));
+                if(bracket == -1)
+                {
+                    names.add(field);
+                    sizes.add(size);
+                    continue;
+                }
+
+                int count = Integer.parseInt(field.substring(bracket + 1, field.length() - 1));
+                for(int i = 0; i < count; i++)
+                {
+                    names.add(base + "[" + i + "]");
+                    sizes.add(size);
+                }
+            }
+
+            this.name = name;
+            this.names = names.toArray(new String[0]);
+            this.offsets = new int[this.names.length];
+            this.sizes = new int[this.names.length];
+            int offset = 0;
+            for(int i = 0; i < this.names.length; i++)
+            {
+                this.offsets[i] = offset;
+                this.sizes[i] = sizes.get(i);
+                offset += sizes.get(i);
+                indices.put(this.names[i], i);
+            }
+            this.size = offset;
+
+            // a codec generated from an older version of the descriptor is ignored
+            Codec codec = PPTableCodecs.get(name);
+            this.codec = codec != null && codec.signature() == signature() ? codec : null;
+        }
+
+        public int field_count()
+        {
+            return names.length;
+        }
+
+        public String field_name(int i)
+        {
+            return names[i];
+        }
+
+        public int field_offset(int i)
+        {
+            return offsets[i];
+        }
+
+        public int field_size(int i)
+        {
+            return sizes[i];
+        }
+
+        /*
+         * returns -1 if the struct has no such field
+         */
+        public int index_of(String field)
+        {
+            Integer i = indices.get(field);
+            return i == null ? -1 : i;
+        }
+
+        /*
+         * the unsigned value of field i of the struct at base in buf, which is little endian
+         */
+        public long get(ByteBuffer buf, int base, int i)
+        {
+            int offset = base + offsets[i];
+            switch(sizes[i])
+            {
+                case 1: return Byte.toUnsignedLong(buf.get(offset));
+                case 2: return Short.toUnsignedLong(buf.getShort(offset));
+                default: return Integer.toUnsignedLong(buf.getInt(offset));
+            }
+        }
+
+        public void set(ByteBuffer buf, int base, int i, long value)
+        {
+            int offset = base + offsets[i];
+            switch(sizes[i])
+            {
+                case 1: buf.put(offset, (byte)value); break;
+                case 2: buf.putShort(offset, (short)value); break;
+                default: buf.putInt(offset, (int)value);
+            }
+        }
+
+        /*
+         * reads every field of the struct at base into the first field_count() values
+         * through the generated codec if there is one for this descriptor
+         */
+        public void decode(ByteBuffer buf, int base, long[] values)
+        {
+            if(codec != null)
+            {
+                codec.decode(buf, base, values);
+                return;
+            }
+            for(int i = 0; i < names.length; i++)
+                values[i] = get(buf, base, i);
+        }
+
+        public void encode(long[] values, ByteBuffer buf, int base)
+        {
+            if(codec != null)
+            {
+                codec.encode(values, buf, base);
+                return;
+            }
+            for(int i = 0; i < names.length; i++)
+                set(buf, base, i, values[i]);
+        }
+
+        /*
+         * hash of the struct name and its field names and sizes
+         */
+        public int signature()
+        {
+            int h = name.hashCode();
+            for(int i = 0; i < names.length; i++)
+                h = (h * 31 + names[i].hashCode()) * 31 + sizes[i];
+            return h;
+        }
+
+        /*
+         * null if there is no generated codec for this descriptor
+         */
+        public Codec codec()
+        {
+            return codec;
+        }
+
+        @Override
+        public String toString()
+        {
+            return name;
+        }
+
+        public final String name;
+        public final int size;
+        private final String[] names;
+        private final int[] offsets;
+        private final int[] sizes;
+        private final Map<String, Integer> indices = new HashMap<>();
+        private final Codec codec;
+    }
+
+    /*
+     * a sub-table reached through the usXXXOffset field at pointer in the powerplay struct,
+     * a struct of its own, or a header followed by ucNumEntries entries
+     *
+     * the struct, or the entries' struct, is looked up by the table's ucRevId, its first byte,
+     * tables with a ucRevId that has no layout are unknown and have no struct
+     */
+    public static class Table
+    {
+        /*
+         * layout is null if the table only has the layouts given with revisions()
+         */
+        public Table(String name, int pointer, Struct layout)
+        {
+            this(name, pointer, null, null, layout);
+        }
+
+        public Table(String name, int pointer, Struct header, String entries, Struct entry)
+        {
+            this.name = name;
+            this.pointer = pointer;
+            this.header = header;
+            this.entries = entries;
+            count_offset = header == null ? -1 : header.field_offset(header.index_of("ucNumEntries"));
+            if(entry != null)
+                Arrays.fill(layouts, entry);
+        }
+
+        /*
+         * a table whose entries only have the layouts given with revisions()
+         */
+        public Table(String name, int pointer, Struct header, String entries)
+        {
+            this(name, pointer, header, entries, null);
+        }
+
+        /*
+         * the struct, or the entries' struct, of tables with a ucRevId in from..to
+         */
+        public Table revisions(int from, int to, Struct layout)
+        {
+            Arrays.fill(layouts, from, to + 1, layout);
+            return this;
+        }
+
+        /*
+         * offset of the table in buf, 0 if there is none
+         */
+        public int offset(ByteBuffer buf)
+        {
+            return Short.toUnsignedInt(buf.getShort(pointer));
+        }
+
+        /*
+         * the struct at the start of the table at offset, null if its ucRevId is unknown
+         */
+        public Struct header(ByteBuffer buf, int offset)
+        {
+            return entries != null ? header : layouts[Byte.toUnsignedInt(buf.get(offset))];
+        }
+
+        /*
+         * null if the table has no entries or its ucRevId is unknown
+         */
+        public Struct entry(ByteBuffer buf, int offset)
+        {
+            return entries != null ? layouts[Byte.toUnsignedInt(buf.get(offset))] : null;
+        }
+
+        public int count(ByteBuffer buf, int offset)
+        {
+            return entries == null ? 0 : Byte.toUnsignedInt(buf.get(offset + count_offset));
+        }
+
+        public int entry_offset(ByteBuffer buf, int offset, int i)
+        {
+            return offset + header.size + entry(buf, offset).size * i;
+        }
+
+        /*
+         * whether the table at offset is known and lies within buf with all its entries
+         */
+        public boolean fits(ByteBuffer buf, int offset)
+        {
+            if(offset <= 0 || offset >= buf.limit())
+                return false;
+
+            Struct layout = layouts[Byte.toUnsignedInt(buf.get(offset))];
+            if(layout == null)
+                return false;
+            if(entries == null)
+                return offset + layout.size <= buf.limit();
+            return offset + header.size <= buf.limit() &&
+                   offset + header.size + layout.size * count(buf, offset) <= buf.limit();
+        }
+
+        @Override
+        public String toString()
+        {
+            return name;
+        }
+
+        public final String name;
+        public final int pointer;
+        public final String entries;    // name of the entries, null if it has none
+        private final Struct header;    // null if the table has no entries
+        private final int count_offset;
+        private final Struct[] layouts = new Struct[256];   // by ucRevId
+    }
+
+    private static int type_size(String field) throws IllegalArgumentException
+    {
+        if(field.startsWith("uc")) return 1;
+        if(field.startsWith("us")) return 2;
+        if(field.startsWith("ul")) return 4;
+        throw new IllegalArgumentException("Invalid field \"" + field + "\": expected a uc, us or ul prefix");
+    }
+
+    // Tonga, Fiji and Polaris, v1.0 tables
+
+    public static final Struct POWERPLAY = new Struct("ATOM_POWERPLAY_TABLE",
+        "sHeader.usStructureSize", "sHeader.ucTableFormatRevision", "sHeader.ucTableContentRevision",
+        "ucTableRevision", "usTableSize", "ulGoldenPPID", "ulGoldenRevision", "usFormatID",
+        "usVoltageTime", "ulPlatformCaps", "ulMaxODEngineClock", "ulMaxODMemoryClock",
+        "usPowerControlLimit", "usUlvVoltageOffset", "usStateArrayOffset", "usFanTableOffset",
+        "usThermalControllerOffset", "usReserv", "usMclkDependencyTableOffset",
+        "usSclkDependencyTableOffset", "usVddcLookupTableOffset", "usVddgfxLookupTableOffset",
+        "usMMDependencyTableOffset", "usVCEStateTableOffset", "usPPMTableOffset",
+        "usPowerTuneTableOffset", "usHardLimitTableOffset", "usPCIETableOffset", "usGPIOTableOffset",
+        "usReserved[6]"
+    );
+    // ucRevId and ucNumEntries, the header of every table with entries
+    public static final Struct TABLE_HEADER = new Struct("ATOM_TABLE_HEADER", "ucRevId", "ucNumEntries");
+    public static final Struct MCLK_ENTRY = new Struct("ATOM_MCLK_ENTRY",
+        "ucVddcInd", "usVddci", "usVddgfxOffset", "usMvdd", "ulMclk", "usReserved"
+    );
+    public static final Struct TONGA_SCLK_ENTRY = new Struct("ATOM_TONGA_SCLK_ENTRY",
+        "ucVddInd", "usVddcOffset", "ulSclk", "usEdcCurrent", "ucReliabilityTemperature",
+        "ucCKSVOffsetandDisable"
+    );
+    public static final Struct SCLK_ENTRY = new Struct("ATOM_SCLK_ENTRY",
+        "ucVddInd", "usVddcOffset", "ulSclk", "usEdcCurrent", "ucReliabilityTemperature",
+        "ucCKSVOffsetandDisable", "ulSclkOffset"
+    );
+    public static final Struct VOLTAGE_ENTRY = new Struct("ATOM_VOLTAGE_ENTRY",
+        "usVdd", "usCACLow", "usCACMid", "usCACHigh"
+    );
+    public static final Struct TONGA_POWERTUNE = new Struct("ATOM_TONGA_POWERTUNE_TABLE",
+        "ucRevId", "usTDP", "usConfigurableTDP", "usTDC", "usBatteryPowerLimit", "usSmallPowerLimit",
+        "usLowCACLeakage", "usHighCACLeakage", "usMaximumPowerDeliveryLimit", "usTjMax",
+        "usPowerTuneDataSetID", "usEDCLimit", "usSoftwareShutdownTemp", "usClockStretchAmount",
+        "usReserve[2]"
+    );
+    // the Fiji layout, ATOM_POWERTUNE_TABLE in PPTableEditor
+    public static final Struct POWERTUNE = new Struct("ATOM_POWERTUNE_TABLE",
+        "ucRevId", "usTDP", "usConfigurableTDP", "usTDC", "usBatteryPowerLimit", "usSmallPowerLimit",
+        "usLowCACLeakage", "usHighCACLeakage", "usMaximumPowerDeliveryLimit", "usTjMax",
+        "usPowerTuneDataSetID", "usEDCLimit", "usSoftwareShutdownTemp", "usClockStretchAmount",
+        "usTemperatureLimitHotspot", "usTemperatureLimitLiquid1", "usTemperatureLimitLiquid2",
+        "usTemperatureLimitVrVddc", "usTemperatureLimitVrMvdd", "usTemperatureLimitPlx",
+        "ucLiquid1_I2C_address", "ucLiquid2_I2C_address", "ucLiquid_I2C_Line", "ucVr_I2C_address",
+        "ucVr_I2C_Line", "ucPlx_I2C_address", "ucPlx_I2C_Line", "usReserved"
+    );
+    public static final Struct POLARIS_POWERTUNE = new Struct("ATOM_POLARIS_POWERTUNE_TABLE",
+        "ucRevId", "usTDP", "usConfigurableTDP", "usTDC", "usBatteryPowerLimit", "usSmallPowerLimit",
+        "usLowCACLeakage", "usHighCACLeakage", "usMaximumPowerDeliveryLimit", "usTjMax",
+        "usPowerTuneDataSetID", "usEDCLimit", "usSoftwareShutdownTemp", "usClockStretchAmount",
+        "usTemperatureLimitHotspot", "usTemperatureLimitLiquid1", "usTemperatureLimitLiquid2",
+        "usTemperatureLimitVrVddc", "usTemperatureLimitVrMvdd", "usTemperatureLimitPlx",
+        "ucLiquid1_I2C_address", "ucLiquid2_I2C_address", "ucLiquid_I2C_Line", "ucVr_I2C_address",
+        "ucVr_I2C_Line", "ucPlx_I2C_address", "ucPlx_I2C_Line", "usBoostPowerLimit",
+        "ucCKS_LDO_REFSEL", "ucHotSpotOnly"
+    );
+    public static final Struct STATE = new Struct("ATOM_STATE",
+        "ucEngineClockIndexHigh", "ucEngineClockIndexLow", "ucMemoryClockIndexHigh",
+        "ucMemoryClockIndexLow", "ucPCIEGenLow", "ucPCIEGenHigh", "ucPCIELaneLow", "ucPCIELaneHigh",
+        "usClassification", "ulCapsAndSettings", "usClassification2", "ucUnused[4]"
+    );
+    public static final Struct TONGA_FAN = new Struct("ATOM_TONGA_FAN_TABLE",
+        "ucRevId", "ucTHyst", "usTMin", "usTMed", "usTHigh", "usPWMMin", "usPWMMed", "usPWMHigh",
+        "usTMax", "ucFanControlMode", "usFanPWMMax", "usFanOutputSensitivity", "usFanRPMMax",
+        "ulMinFanSCLKAcousticLimit", "ucTargetTemperature", "ucMinimumPWMLimit", "usReserved"
+    );
+    // the Fiji and Polaris layout
+    public static final Struct FAN = new Struct("ATOM_FAN_TABLE",
+        "ucRevId", "ucTHyst", "usTMin", "usTMed", "usTHigh", "usPWMMin", "usPWMMed", "usPWMHigh",
+        "usTMax", "ucFanControlMode", "usFanPWMMax", "usFanOutputSensitivity", "usFanRPMMax",
+        "ulMinFanSCLKAcousticLimit", "ucTargetTemperature", "ucMinimumPWMLimit", "usFanGainEdge",
+        "usFanGainHotspot", "usFanGainLiquid", "usFanGainVrVddc", "usFanGainVrMvdd", "usFanGainPlx",
+        "usFanGainHbm", "usReserved"
+    );
+    public static final Struct THERMAL_CONTROLLER = new Struct("ATOM_THERMAL_CONTROLLER",
+        "ucRevId", "ucType", "ucI2cLine", "ucI2cAddress", "ucFanParameters", "ucFanMinRPM",
+        "ucFanMaxRPM", "ucReserved", "ucFlags"
+    );
+    public static final Struct MM_ENTRY = new Struct("ATOM_MM_ENTRY",
+        "ucVddcInd", "usVddgfxOffset", "ulDClk", "ulVClk", "ulEClk", "ulAClk", "ulSAMUClk"
+    );
+    public static final Struct VCE_STATE = new Struct("ATOM_VCE_STATE",
+        "ucVCEClockIndex", "ucFlag", "ucSCLKIndex", "ucMCLKIndex"
+    );
+    public static final Struct PPM = new Struct("ATOM_PPM_TABLE",
+        "ucRevId", "ucPpmDesign", "usCpuCoreNumber", "ulPlatformTDP", "ulSmallACPlatformTDP",
+        "ulPlatformTDC", "ulSmallACPlatformTDC", "ulApuTDP", "ulDGpuTDP", "ulDGpuUlvPower", "ulTjmax"
+    );
+    public static final Struct HARD_LIMIT_ENTRY = new Struct("ATOM_HARD_LIMIT_ENTRY",
+        "ulSCLKLimit", "ulMCLKLimit", "usVddcLimit", "usVddciLimit", "usVddgfxLimit"
+    );
+    public static final Struct TONGA_PCIE_ENTRY = new Struct("ATOM_TONGA_PCIE_ENTRY",
+        "ucPCIEGenSpeed", "ucPCIELaneWidth", "ucReserved[2]"
+    );
+    public static final Struct PCIE_ENTRY = new Struct("ATOM_PCIE_ENTRY",
+        "ucPCIEGenSpeed", "ucPCIELaneWidth", "ucReserved[2]", "ulPCIE_Sclk"
+    );
+    public static final Struct GPIO = new Struct("ATOM_GPIO_TABLE",
+        "ucRevId", "ucVRHotTriggeredSclkDpmIndex", "ucReserve[5]"
+    );
+
+    // Vega10, v2.0 tables
+
+    public static final Struct VEGA10_POWERPLAY = new Struct("ATOM_VEGA10_POWERPLAY_TABLE",
+        "sHeader.usStructureSize", "sHeader.ucTableFormatRevision", "sHeader.ucTableContentRevision",
+        "ucTableRevision", "usTableSize", "ulGoldenPPID", "ulGoldenRevision", "usFormatID",
+        "ulPlatformCaps", "ulMaxODEngineClock", "ulMaxODMemoryClock", "usPowerControlLimit",
+        "usUlvVoltageOffset", "usUlvSmnclkDid", "usUlvMp1clkDid", "usUlvGfxclkBypass",
+        "usGfxclkSlewRate", "ucGfxVoltageMode", "ucSocVoltageMode", "ucUclkVoltageMode",
+        "ucUvdVoltageMode", "ucVceVoltageMode", "ucMp0VoltageMode", "ucDcefVoltageMode",
+        "usStateArrayOffset", "usFanTableOffset", "usThermalControllerOffset",
+        "usSocclkDependencyTableOffset", "usMclkDependencyTableOffset", "usGfxclkDependencyTableOffset",
+        "usDcefclkDependencyTableOffset", "usVddcLookupTableOffset", "usVddmemLookupTableOffset",
+        "usMMDependencyTableOffset", "usVCEStateTableOffset", "usReserve", "usPowerTuneTableOffset",
+        "usHardLimitTableOffset", "usVddciLookupTableOffset", "usPCIETableOffset",
+        "usPixclkDependencyTableOffset", "usDispClkDependencyTableOffset", "usPhyClkDependencyTableOffset"
+    );
+    // SOCCLK, DCEFCLK, PIXCLK, DISPCLK and PHYCLK entries
+    public static final Struct VEGA10_CLK_ENTRY = new Struct("ATOM_VEGA10_CLK_ENTRY", "ulClk", "ucVddInd");
+    public static final Struct VEGA10_GFXCLK_ENTRY = new Struct("ATOM_VEGA10_GFXCLK_ENTRY",
+        "ulClk", "ucVddInd", "usCKSVOffsetandDisable", "usAVFSOffset"
+    );
+    public static final Struct VEGA10_GFXCLK_ENTRY_V2 = new Struct("ATOM_VEGA10_GFXCLK_ENTRY_V2",
+        "ulClk", "ucVddInd", "usCKSVOffsetandDisable", "usAVFSOffset", "ucACGEnable", "ucReserved[3]"
+    );
+    public static final Struct VEGA10_MCLK_ENTRY = new Struct("ATOM_VEGA10_MCLK_ENTRY",
+        "ulMemClk", "ucVddInd", "ucVddMemInd", "ucVddciInd"
+    );
+    public static final Struct VEGA10_VOLTAGE_ENTRY = new Struct("ATOM_VEGA10_VOLTAGE_ENTRY", "usVdd");
+    public static final Struct VEGA10_STATE = new Struct("ATOM_VEGA10_STATE",
+        "ucSocClockIndexHigh", "ucSocClockIndexLow", "ucGfxClockIndexHigh", "ucGfxClockIndexLow",
+        "ucMemClockIndexHigh", "ucMemClockIndexLow", "usClassification", "ulCapsAndSettings",
+        "usClassification2"
+    );
+    public static final Struct VEGA10_FAN = new Struct("ATOM_VEGA10_FAN_TABLE",
+        "ucRevId", "usFanOutputSensitivity", "usFanAcousticLimitRpm", "usThrottlingRPM",
+        "usTargetTemperature", "usMinimumPWMLimit", "usTargetGfxClk", "usFanGainEdge",
+        "usFanGainHotspot", "usFanGainLiquid", "usFanGainVrVddc", "usFanGainVrMvdd", "usFanGainPlx",
+        "usFanGainHbm", "ucEnableZeroRPM", "usFanStopTemperature", "usFanStartTemperature"
+    );
+    public static final Struct VEGA10_FAN_V2 = new Struct("ATOM_VEGA10_FAN_TABLE_V2",
+        "ucRevId", "usFanOutputSensitivity", "usFanAcousticLimitRpm", "usThrottlingRPM",
+        "usTargetTemperature", "usMinimumPWMLimit", "usTargetGfxClk", "usFanGainEdge",
+        "usFanGainHotspot", "usFanGainLiquid", "usFanGainVrVddc", "usFanGainVrMvdd", "usFanGainPlx",
+        "usFanGainHbm", "ucEnableZeroRPM", "usFanStopTemperature", "usFanStartTemperature",
+        "ucFanParameters", "ucFanMinRPM", "ucFanMaxRPM"
+    );
+    public static final Struct VEGA10_THERMAL_CONTROLLER = new Struct("ATOM_VEGA10_THERMAL_CONTROLLER",
+        "ucRevId", "ucType", "ucI2cLine", "ucI2cAddress", "ucFanParameters", "ucFanMinRPM",
+        "ucFanMaxRPM", "ucFlags"
+    );
+    public static final Struct VEGA10_MM_ENTRY = new Struct("ATOM_VEGA10_MM_ENTRY",
+        "ucVddcInd", "ulDClk", "ulVClk", "ulEClk", "ulPSPClk"
+    );
+    public static final Struct VEGA10_POWERTUNE = new Struct("ATOM_VEGA10_POWERTUNE_TABLE",
+        "ucRevId", "usSocketPowerLimit", "usBatteryPowerLimit", "usSmallPowerLimit", "usTdcLimit",
+        "usEdcLimit", "usSoftwareShutdownTemp", "usTemperatureLimitHotSpot", "usTemperatureLimitLiquid1",
+        "usTemperatureLimitLiquid2", "usTemperatureLimitHBM", "usTemperatureLimitVrSoc",
+        "usTemperatureLimitVrMem", "usTemperatureLimitPlx", "usLoadLineResistance",
+        "ucLiquid1_I2C_address", "ucLiquid2_I2C_address", "ucVr_I2C_address", "ucPlx_I2C_address",
+        "ucLiquid_I2C_LineSCL", "ucLiquid_I2C_LineSDA", "ucVr_I2C_LineSCL", "ucVr_I2C_LineSDA",
+        "ucPlx_I2C_LineSCL", "ucPlx_I2C_LineSDA", "usTemperatureLimitTedge"
+    );
+    public static final Struct VEGA10_POWERTUNE_V2 = new Struct("ATOM_VEGA10_POWERTUNE_TABLE_V2",
+        "ucRevId", "usSocketPowerLimit", "usBatteryPowerLimit", "usSmallPowerLimit", "usTdcLimit",
+        "usEdcLimit", "usSoftwareShutdownTemp", "usTemperatureLimitHotSpot", "usTemperatureLimitLiquid1",
+        "usTemperatureLimitLiquid2", "usTemperatureLimitHBM", "usTemperatureLimitVrSoc",
+        "usTemperatureLimitVrMem", "usTemperatureLimitPlx", "usLoadLineResistance",
+        "ucLiquid1_I2C_address", "ucLiquid2_I2C_address", "ucLiquid_I2C_Line", "ucVr_I2C_address",
+        "ucVr_I2C_Line", "ucPlx_I2C_address", "ucPlx_I2C_Line", "usTemperatureLimitTedge"
+    );
+    public static final Struct VEGA10_POWERTUNE_V3 = new Struct("ATOM_VEGA10_POWERTUNE_TABLE_V3",
+        "ucRevId", "usSocketPowerLimit", "usBatteryPowerLimit", "usSmallPowerLimit", "usTdcLimit",
+        "usEdcLimit", "usSoftwareShutdownTemp", "usTemperatureLimitHotSpot", "usTemperatureLimitLiquid1",
+        "usTemperatureLimitLiquid2", "usTemperatureLimitHBM", "usTemperatureLimitVrSoc",
+        "usTemperatureLimitVrMem", "usTemperatureLimitPlx", "usLoadLineResistance",
+        "ucLiquid1_I2C_address", "ucLiquid2_I2C_address", "ucLiquid_I2C_Line", "ucVr_I2C_address",
+        "ucVr_I2C_Line", "ucPlx_I2C_address", "ucPlx_I2C_Line", "usTemperatureLimitTedge",
+        "usBoostStartTemperature", "usBoostStopTemperature", "ulBoostClock", "ulReserved[2]"
+    );
+    public static final Struct VEGA10_HARD_LIMIT_ENTRY = new Struct("ATOM_VEGA10_HARD_LIMIT_ENTRY",
+        "ulSOCCLKLimit", "ulGFXCLKLimit", "ulMCLKLimit", "usVddcLimit", "usVddciLimit", "usVddMemLimit"
+    );
+    public static final Struct VEGA10_PCIE_ENTRY = new Struct("ATOM_VEGA10_PCIE_ENTRY",
+        "ulLCLK", "ucPCIEGenSpeed", "ucPCIELaneWidth"
+    );
+
+    // every struct above, the ones PPTableCodegen generates codecs for
+    public static final Struct[] STRUCTS = {
+        POWERPLAY, TABLE_HEADER, MCLK_ENTRY, TONGA_SCLK_ENTRY, SCLK_ENTRY, VOLTAGE_ENTRY,
+        TONGA_POWERTUNE, POWERTUNE, POLARIS_POWERTUNE, STATE, TONGA_FAN, FAN, THERMAL_CONTROLLER,
+        MM_ENTRY, VCE_STATE, PPM, HARD_LIMIT_ENTRY, TONGA_PCIE_ENTRY, PCIE_ENTRY, GPIO,
+        VEGA10_POWERPLAY, VEGA10_CLK_ENTRY, VEGA10_GFXCLK_ENTRY, VEGA10_GFXCLK_ENTRY_V2,
+        VEGA10_MCLK_ENTRY, VEGA10_VOLTAGE_ENTRY, VEGA10_STATE, VEGA10_FAN, VEGA10_FAN_V2,
+        VEGA10_THERMAL_CONTROLLER, VEGA10_MM_ENTRY, VEGA10_POWERTUNE, VEGA10_POWERTUNE_V2,
+        VEGA10_POWERTUNE_V3, VEGA10_HARD_LIMIT_ENTRY, VEGA10_PCIE_ENTRY
+    };
+
+    // the ucRevId ranges of each layout are the ones the Linux amdgpu driver uses
+
+    public static final Table MCLK = new Table("mclk_table", 43, TABLE_HEADER, "mclk_entries", MCLK_ENTRY);
+    public static final Table SCLK = new Table("sclk_table", 45, TABLE_HEADER, "sclk_entries")
+        .revisions(0, 0, TONGA_SCLK_ENTRY)
+        .revisions(1, 255, SCLK_ENTRY);
+    public static final Table VOLTAGE = new Table("voltage_table", 47, TABLE_HEADER, "voltage_entries", VOLTAGE_ENTRY);
+    public static final Table POWERTUNE_TABLE = new Table("ptune", 57, null)
+        .revisions(0, 2, TONGA_POWERTUNE)
+        .revisions(3, 3, POWERTUNE)
+        .revisions(4, 255, POLARIS_POWERTUNE);
+
+    // the tables PPTableEditor decodes first, then the rest in the order of their offsets
+    public static final Table[] TABLES = {
+        MCLK, SCLK, VOLTAGE, POWERTUNE_TABLE,
+        new Table("state_array", 35, TABLE_HEADER, "states", STATE),
+        new Table("fan_table", 37, null).revisions(0, 7, TONGA_FAN).revisions(8, 255, FAN),
+        new Table("thermal_controller", 39, THERMAL_CONTROLLER),
+        new Table("vddgfx_table", 49, TABLE_HEADER, "vddgfx_entries", VOLTAGE_ENTRY),
+        new Table("mm_table", 51, TABLE_HEADER, "mm_entries", MM_ENTRY),
+        new Table("vce_state_table", 53, TABLE_HEADER, "vce_states", VCE_STATE),
+        new Table("ppm_table", 55, PPM),
+        new Table("hard_limit_table", 59, TABLE_HEADER, "hard_limit_entries", HARD_LIMIT_ENTRY),
+        new Table("pcie_table", 61, TABLE_HEADER, "pcie_entries")
+            .revisions(0, 0, TONGA_PCIE_ENTRY)
+            .revisions(1, 255, PCIE_ENTRY),
+        new Table("gpio_table", 63, GPIO)
+    };
+
+    public static final Table[] VEGA10_TABLES = {
+        vega10_table("socclk", "Socclk", VEGA10_CLK_ENTRY),
+        vega10_table("mclk", "Mclk", VEGA10_MCLK_ENTRY),
+        new Table("gfxclk_table", vega10_pointer("usGfxclkDependencyTableOffset"), TABLE_HEADER, "gfxclk_entries")
+            .revisions(0, 0, VEGA10_GFXCLK_ENTRY)
+            .revisions(1, 1, VEGA10_GFXCLK_ENTRY_V2),
+        vega10_table("dcefclk", "Dcefclk", VEGA10_CLK_ENTRY),
+        new Table("voltage_table", vega10_pointer("usVddcLookupTableOffset"), TABLE_HEADER, "voltage_entries",
+                  VEGA10_VOLTAGE_ENTRY),
+        new Table("vddmem_table", vega10_pointer("usVddmemLookupTableOffset"), TABLE_HEADER, "vddmem_entries",
+                  VEGA10_VOLTAGE_ENTRY),
+        new Table("vddci_table", vega10_pointer("usVddciLookupTableOffset"), TABLE_HEADER, "vddci_entries",
+                  VEGA10_VOLTAGE_ENTRY),
+        new Table("ptune", vega10_pointer("usPowerTuneTableOffset"), null)
+            .revisions(1, 1, VEGA10_POWERTUNE)
+            .revisions(2, 2, VEGA10_POWERTUNE_V2)
+            .revisions(3, 255, VEGA10_POWERTUNE_V3),
+        new Table("state_array", vega10_pointer("usStateArrayOffset"), TABLE_HEADER, "states", VEGA10_STATE),
+        new Table("fan_table", vega10_pointer("usFanTableOffset"), null)
+            .revisions(10, 10, VEGA10_FAN)
+            .revisions(11, 11, VEGA10_FAN_V2),
+        new Table("thermal_controller", vega10_pointer("usThermalControllerOffset"), VEGA10_THERMAL_CONTROLLER),
+        new Table("mm_table", vega10_pointer("usMMDependencyTableOffset"), TABLE_HEADER, "mm_entries",
+                  VEGA10_MM_ENTRY),
+        new Table("vce_state_table", vega10_pointer("usVCEStateTableOffset"), TABLE_HEADER, "vce_states",
+                  VCE_STATE),
+        new Table("hard_limit_table", vega10_pointer("usHardLimitTableOffset"), TABLE_HEADER,
+                  "hard_limit_entries", VEGA10_HARD_LIMIT_ENTRY),
+        new Table("pcie_table", vega10_pointer("usPCIETableOffset"), TABLE_HEADER, "pcie_entries",
+                  VEGA10_PCIE_ENTRY),
+        vega10_table("pixclk", "Pixclk", VEGA10_CLK_ENTRY),
+        vega10_table("dispclk", "DispClk", VEGA10_CLK_ENTRY),
+        vega10_table("phyclk", "PhyClk", VEGA10_CLK_ENTRY)
+    };
+
+    /*
+     * offset of a usXXXOffset field in ATOM_VEGA10_POWERPLAY_TABLE
+     */
+    private static int vega10_pointer(String field)
+    {
+        return VEGA10_POWERPLAY.field_offset(VEGA10_POWERPLAY.index_of(field));
+    }
+
+    /*
+     * a clock dependency table, e.g. socclk_table with socclk_entries at usSocclkDependencyTableOffset
+     */
+    private static Table vega10_table(String name, String field, Struct entry)
+    {
+        return new Table(name + "_table", vega10_pointer("us" + field + "DependencyTableOffset"), TABLE_HEADER,
+                         name + "_entries", entry);
+    }
+}
@@ -0,0 +1,716 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * a local HTTP API over PPTableEditor, for tools that inspect and edit tables remotely
+ * files are named relative to a root directory and tables stay open in a bounded cache,
+ * tables with unsaved changes are never evicted
+ *
+ *   POST /load?file=f               opens f, if it isn't open already
+ *   GET  /fields?file=f[&prefix=p]  the values of the fields whose names start with p
+ *   POST /patch?file=f              sets the fields of the JSON object in the body, {"name": value, ...}
+ *   GET  /validate?file=f           the violations of the PPTableValidator rules
+ *   POST /save?file=f[&to=t]        saves f, to t if given
+ *   GET  /stats                     requests, errors and latencies by endpoint as a flat JSON object
+ *
+ * requests are handled on virtual threads when the JDK has them, otherwise on a cached pool
+ * errors are {"error": message}, with status 400 for bad requests and tables, 404 for missing files
+ *
+ * usage: java PPTableServer [-p port] [-root dir] [-cache MB]
+ *        java PPTableServer -client <url> <file> [-n requests] [-c connections]
+ *
+ * -client loads file, reads its fields n times from c threads and prints the latencies it
+ * measured next to the ones from /stats, it exits with 1 if the server didn't count every request
+ */
+public class PPTableServer
+{
+    public static void main(String[] args)
+    {
+        int port = 8080, requests = 10000, connections = 16;
+        long cache_mb = 64;
+        Path root = Paths.get(".");
+        String client = null;
+        List<String> files = new ArrayList<>();
+
+        try
+        {
+            for(int i = 0; i < args.length; i++)
+            {
+                switch(args[i])
+                {
+                    case "-p": port = Integer.parseInt(next_arg(args, ++i)); break;
+                    case "-root": root = Paths.get(next_arg(args, ++i)); break;
+                    case "-cache": cache_mb = Long.parseLong(next_arg(args, ++i)); break;
+                    case "-client": client = next_arg(args, ++i); break;
+                    case "-n": requests = Integer.parseInt(next_arg(args, ++i)); break;
+                    case "-c": connections = Integer.parseInt(next_arg(args, ++i)); break;
+                    default: files.add(args[i]);
+                }
+            }
+            if(client != null ? files.size() != 1 : !files.isEmpty())
+                throw new IllegalArgumentException(
+                    "usage: java PPTableServer [-p port] [-root dir] [-cache MB]\n" +
+                    "       java PPTableServer -client <url> <file> [-n requests] [-c connections]"
+                );
+        }
+        catch(IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+
+        try
+        {
+            if(client != null)
+            {
+                System.exit(load_test(client, files.get(0), requests, connections) ? 0 : 1);
+            }
+
+            PPTableServer server = new PPTableServer(root, cache_mb << 20);
+            server.start(port);
+            System.out.println("Listening on http://localhost:" + server.get_port() +
+                               " (" + server.executor_name + " threads), root " + server.root);
+        }
+        catch(IOException | InterruptedException e)
+        {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    public PPTableServer(Path root, long cache_bytes) throws IOException
+    {
+        this.root = root.toRealPath();
+        // a patch sets dirty under the table's lock while holding the cache's, see patch()
+        tables = new PPTableLRUCache<>(cache_bytes, (path, table) -> {
+            synchronized(table)
+            {
+                return !table.is_dirty();
+            }
+        });
+
+        ExecutorService virtual = virtual_thread_executor();
+        executor = virtual != null ? virtual : Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "PPTableServer");
+            t.setDaemon(true);
+            return t;
+        });
+        executor_name = virtual != null ? "virtual" : "platform";
+        for(int i = 0; i < stats.length; i++)
+            stats[i] = new Stats();
+    }
+
+    /*
+     * listens on the loopback address, port 0 picks a free port
+     */
+    public void start(int port) throws IOException
+    {
+        // headers and body are written separately, with Nagle's algorithm the body
+        // waits for the client's delayed ACK of the headers, some 40 ms per request
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        for(int i = 0; i < ENDPOINTS.length; i++)
+        {
+            int endpoint = i;
+            server.createContext("/" + ENDPOINTS[i], exchange -> handle(endpoint, exchange));
+        }
+        server.setExecutor(executor);
+        started = System.nanoTime();
+        server.start();
+    }
+
+    public void stop()
+    {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    public int get_port()
+    {
+        return server.getAddress().getPort();
+    }
+
+    /*
+     * Executors.newVirtualThreadPerTaskExecutor() on JDKs that have it, null otherwise
+     * looked up reflectively so the server still builds and runs on older JDKs
+     */
+    private static ExecutorService virtual_thread_executor()
+    {
+        try
+        {
+            return (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch(ReflectiveOperationException | UnsupportedOperationException e)
+        {
+            return null;
+        }
+    }
+
+    private void handle(int endpoint, HttpExchange exchange) throws IOException
+    {
+        long start = System.nanoTime();
+        int status = 200;
+        String body;
+        try
+        {
+            String method = exchange.getRequestMethod();
+            if(!method.equals(endpoint == FIELDS || endpoint == VALIDATE || endpoint == STATS ? "GET" : "POST"))
+            {
+                status = 405;
+                body = error("Method " + method + " not allowed");
+            }
+            else body = respond(endpoint, query(exchange.getRequestURI()), exchange);
+        }
+        catch(UncheckedIOException e)
+        {
+            status = e.getCause() instanceof NoSuchFileException ? 404 : 500;
+            body = error(e.getCause() instanceof NoSuchFileException ? "No such file " + e.getCause().getMessage()
+                                                                     : String.valueOf(e.getCause()));
+        }
+        catch(IllegalArgumentException e)
+        {
+            status = 400;
+            body = error(e.getMessage());
+        }
+        catch(RuntimeException e)
+        {
+            status = 500;
+            body = error(String.valueOf(e));
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try(OutputStream out = exchange.getResponseBody())
+        {
+            out.write(bytes);
+        }
+
+        // /stats isn't counted, so a client reading it sees only its own requests
+        if(endpoint != STATS)
+            stats[endpoint].record(System.nanoTime() - start, status != 200);
+    }
+
+    private String respond(int endpoint, Map<String, String> query, HttpExchange exchange) throws IOException
+    {
+        if(endpoint == STATS)
+            return stats();
+
+        String file = query.get("file");
+        if(file == null)
+            throw new IllegalArgumentException("Missing file");
+        Path path = resolve(file);
+
+        if(endpoint == LOAD)
+        {
+            boolean cached = tables.get(path) != null;
+            PPTableEditor table = open(file, path);
+            synchronized(table)
+            {
+                return "{\"file\": " + PPTableDiff.json_string(file) +
+                       ", \"format\": " + PPTableDiff.json_string(table.get_format().generation(buffer(table))) +
+                       ", \"editable\": " + table.get_format().editable +
+                       ", \"fields\": " + table.fields().size() +
+                       ", \"cached\": " + cached + "}";
+            }
+        }
+
+        if(endpoint == PATCH)
+            return patch(file, path, exchange);
+
+        PPTableEditor table = open(file, path);
+        switch(endpoint)
+        {
+            case FIELDS:
+            {
+                String prefix = query.getOrDefault("prefix", "");
+                StringBuilder sb = new StringBuilder("{\"file\": ").append(PPTableDiff.json_string(file))
+                                                                  .append(", \"fields\": {");
+                synchronized(table)
+                {
+                    boolean first = true;
+                    for(PPTableEditor.Field f : table.fields())
+                    {
+                        if(!f.name.startsWith(prefix)) continue;
+                        sb.append(first ? "" : ", ").append(PPTableDiff.json_string(f.name))
+                          .append(": ").append(table.get_field(f));
+                        first = false;
+                    }
+                }
+                return sb.append("}}").toString();
+            }
+            case VALIDATE:
+            {
+                List<PPTableValidator.Violation> violations;
+                synchronized(table)
+                {
+                    violations = validator.validate(table);
+                }
+                StringBuilder sb = new StringBuilder("{\"file\": ").append(PPTableDiff.json_string(file))
+                                                                  .append(", \"violations\": [");
+                for(int i = 0; i < violations.size(); i++)
+                {
+                    PPTableValidator.Violation v = violations.get(i);
+                    sb.append(i == 0 ? "" : ", ")
+                      .append("{\"rule\": ").append(PPTableDiff.json_string(v.rule))
+                      .append(", \"message\": ").append(PPTableDiff.json_string(v.message)).append('}');
+                }
+                return sb.append("]}").toString();
+            }
+            default:    // SAVE
+            {
+                String to = query.getOrDefault("to", file);
+                Path to_path = resolve(to);
+                synchronized(table)
+                {
+                    if(!table.save(to_path.toString()))
+                        throw new IllegalStateException("Failed to write to " + to);
+                    return "{\"file\": " + PPTableDiff.json_string(file) + ", \"saved\": " +
+                           PPTableDiff.json_string(to) + ", \"dirty\": " + table.is_dirty() + "}";
+                }
+            }
+        }
+    }
+
+    /*
+     * the lookup and the patch are done under the cache's lock, so the table can't be evicted
+     * in between and lose the edit, once patched the evictable check sees it dirty
+     * a table evicted since it was opened is put back, unless another copy has been read since
+     */
+    private String patch(String file, Path path, HttpExchange exchange) throws IOException
+    {
+        Map<String, String> values = parse_object(new String(exchange.getRequestBody().readAllBytes(),
+                                                             StandardCharsets.UTF_8));
+        while(true)
+        {
+            PPTableEditor table = open(file, path);
+            synchronized(tables)
+            {
+                PPTableEditor cached = tables.get(path);
+                if(cached != null && cached != table)
+                    continue;
+
+                synchronized(table)
+                {
+                    table.check_editable();
+                    Map<String, PPTableEditor.Field> fields = new HashMap<>();
+                    for(PPTableEditor.Field f : table.fields())
+                        fields.put(f.name, f);
+
+                    // every value is checked before any is set, so a bad patch changes nothing
+                    List<PPTableEditor.Field> targets = new ArrayList<>();
+                    long[] parsed = new long[values.size()];
+                    for(Map.Entry<String, String> v : values.entrySet())
+                    {
+                        PPTableEditor.Field f = fields.get(v.getKey());
+                        if(f == null)
+                            throw new IllegalArgumentException("Unknown field " + v.getKey());
+                        long value = parse_value(v.getKey(), v.getValue());
+                        if(value < 0 || value >= 1L << 8 * f.size)
+                            throw new IllegalArgumentException(v.getKey() + " is out of range: " + value);
+                        parsed[targets.size()] = value;
+                        targets.add(f);
+                    }
+
+                    int changed = 0;
+                    for(int i = 0; i < targets.size(); i++)
+                    {
+                        PPTableEditor.Field f = targets.get(i);
+                        if(table.get_field(f) == parsed[i]) continue;
+                        table.set_value(f.offset, f.size, parsed[i]);
+                        changed++;
+                    }
+                    if(cached == null)
+                        tables.put(path, table);
+                    return "{\"file\": " + PPTableDiff.json_string(file) + ", \"changed\": " + changed +
+                           ", \"dirty\": " + table.is_dirty() + "}";
+                }
+            }
+        }
+    }
+
+    /*
+     * the cached table of file, read from path if it isn't cached
+     * two requests may both read an uncached file, the first to finish is kept
+     */
+    private PPTableEditor open(String file, Path path)
+    {
+        PPTableEditor table = tables.get(path);
+        if(table != null)
+            return table;
+
+        if(!Files.isRegularFile(path))
+            throw new UncheckedIOException(new NoSuchFileException(file));
+        PPTableEditor loaded = new PPTableEditor(path.toString());
+        synchronized(tables)
+        {
+            table = tables.get(path);
+            if(table == null)
+                tables.put(path, table = loaded);
+        }
+        return table;
+    }
+
+    /*
+     * file relative to the root, which it can't be outside of
+     */
+    private Path resolve(String file)
+    {
+        Path path = root.resolve(file).normalize();
+        if(!path.startsWith(root))
+            throw new IllegalArgumentException(file + " is outside of the root directory");
+        return path;
+    }
+
+    private String stats()
+    {
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long requests = 0, errors = 0;
+        for(Stats s : stats)
+        {
+            requests += s.requests.get();
+            errors += s.errors.get();
+        }
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("executor", executor_name);
+        values.put("uptime_s", round(seconds));
+        values.put("requests", requests);
+        values.put("errors", errors);
+        values.put("requests_per_s", round(requests / seconds));
+        values.put("cache.tables", tables.size());
+        values.put("cache.bytes", tables.get_bytes());
+        values.put("cache.evictions", tables.get_evictions());
+        for(int i = 0; i < ENDPOINTS.length; i++)
+        {
+            if(i != STATS)
+                stats[i].put(ENDPOINTS[i], values);
+        }
+
+        StringBuilder sb = new StringBuilder("{");
+        for(Map.Entry<String, Object> v : values.entrySet())
+        {
+            sb.append(sb.length() > 1 ? ", " : "").append(PPTableDiff.json_string(v.getKey())).append(": ")
+              .append(v.getValue() instanceof String ? PPTableDiff.json_string((String)v.getValue()) : v.getValue());
+        }
+        return sb.append('}').toString();
+    }
+
+    /*
+     * loads file, then fetches its fields requests times over connections threads, and checks
+     * the server counted exactly those requests, without errors
+     */
+    static boolean load_test(String url, String file, int requests, int connections)
+        throws IOException, InterruptedException
+    {
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        String q = "?file=" + URLEncoder.encode(file, StandardCharsets.UTF_8);
+        String load = send(http, HttpRequest.newBuilder(URI.create(url + "/load" + q))
+                                            .POST(HttpRequest.BodyPublishers.noBody()).build());
+        System.out.println(load);
+        Map<String, String> before = parse_object(send(http, HttpRequest.newBuilder(URI.create(url + "/stats")).build()));
+
+        HttpRequest fields = HttpRequest.newBuilder(URI.create(url + "/fields" + q)).build();
+        long[] latencies = new long[requests];
+        AtomicLong next = new AtomicLong(), failed = new AtomicLong();
+        Thread[] threads = new Thread[connections];
+        long start = System.nanoTime();
+        for(int t = 0; t < threads.length; t++)
+        {
+            threads[t] = new Thread(() -> {
+                for(int i; (i = (int)next.getAndIncrement()) < requests;)
+                {
+                    long s = System.nanoTime();
+                    try
+                    {
+                        if(http.send(fields, HttpResponse.BodyHandlers.discarding()).statusCode() != 200)
+                            failed.incrementAndGet();
+                    }
+                    catch(IOException | InterruptedException e)
+                    {
+                        failed.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - s;
+                }
+            });
+            threads[t].start();
+        }
+        for(Thread t : threads)
+            t.join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, String> after = parse_object(send(http, HttpRequest.newBuilder(URI.create(url + "/stats")).build()));
+        Arrays.sort(latencies);
+        System.out.printf("client: %d requests, %d failed in %.3f s (%.1f requests/s), p50 %d us, p99 %d us%n",
+                          requests, failed.get(), seconds, requests / seconds,
+                          latencies[requests / 2] / 1000, latencies[(int)(requests * 0.99)] / 1000);
+        System.out.printf("server: %s threads, fields p50 <= %s us, p99 <= %s us, max %s us%n",
+                          after.get("executor"), after.get("fields.p50_us"), after.get("fields.p99_us"),
+                          after.get("fields.max_us"));
+
+        long counted = Long.parseLong(after.get("fields.requests")) - Long.parseLong(before.get("fields.requests"));
+        long errors = Long.parseLong(after.get("fields.errors")) - Long.parseLong(before.get("fields.errors"));
+        boolean ok = counted == requests && errors == failed.get() && failed.get() == 0;
+        System.out.println(ok ? "server counted every request"
+                              : "server counted " + counted + " requests and " + errors + " errors");
+        return ok;
+    }
+
+    private static String send(HttpClient http, HttpRequest request) throws IOException, InterruptedException
+    {
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if(response.statusCode() != 200)
+            throw new IOException(request.uri() + ": " + response.statusCode() + " " + response.body());
+        return response.body();
+    }
+
+    private static Map<String, String> query(URI uri)
+    {
+        Map<String, String> query = new HashMap<>();
+        String raw = uri.getRawQuery();
+        if(raw == null)
+            return query;
+
+        for(String pair : raw.split("&"))
+        {
+            int eq = pair.indexOf('=');
+            String key = eq == -1 ? pair : pair.substring(0, eq);
+            String value = eq == -1 ? "" : pair.substring(eq + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    /*
+     * a flat JSON object of strings, numbers, booleans and nulls, each value as its text
+     * throws IllegalArgumentException if s isn't one
+     */
+    static Map<String, String> parse_object(String s) throws IllegalArgumentException
+    {
+        Map<String, String> values = new LinkedHashMap<>();
+        int[] pos = { skip_space(s, 0) };
+        expect(s, pos, '{');
+        if(peek(s, pos) == '}')
+        {
+            pos[0]++;
+        }
+        else
+        {
+            while(true)
+            {
+                String key = parse_string(s, pos);
+                expect(s, pos, ':');
+                String value;
+                if(peek(s, pos) == '"')
+                {
+                    value = parse_string(s, pos);
+                }
+                else
+                {
+                    int start = pos[0];
+                    while(pos[0] < s.length() && ",} \t\r\n".indexOf(s.charAt(pos[0])) == -1)
+                        pos[0]++;
+                    value = s.substring(start, pos[0]);
+                    if(value.isEmpty())
+                        throw new IllegalArgumentException("Invalid JSON: expected a value at " + start);
+                }
+                values.put(key, value);
+
+                if(peek(s, pos) == ',')
+                {
+                    pos[0]++;
+                    continue;
+                }
+                expect(s, pos, '}');
+                break;
+            }
+        }
+        if(skip_space(s, pos[0]) != s.length())
+            throw new IllegalArgumentException("Invalid JSON: unexpected text at " + pos[0]);
+        return values;
+    }
+
+    private static String parse_string(String s, int[] pos)
+    {
+        expect(s, pos, '"');
+        StringBuilder sb = new StringBuilder();
+        for(int i = pos[0]; i < s.length(); i++)
+        {
+            char c = s.charAt(i);
+            if(c == '"')
+            {
+                pos[0] = i + 1;
+                return sb.toString();
+            }
+            if(c == '\\' && i + 1 < s.length())
+            {
+                char e = s.charAt(++i);
+                switch(e)
+                {
+                    case 'n': sb.append('\n'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if(i + 4 >= s.length())
+                            throw new IllegalArgumentException("Invalid JSON: bad escape at " + i);
+                        sb.append((char)Integer.parseInt(s.substring(i + 1, i + 5), 16));
+                        i += 4;
+                        break;
+                    default: sb.append(e);
+                }
+            }
+            else sb.append(c);
+        }
+        throw new IllegalArgumentException("Invalid JSON: unterminated string at " + pos[0]);
+    }
+
+    private static char peek(String s, int[] pos)
+    {
+        pos[0] = skip_space(s, pos[0]);
+        if(pos[0] >= s.length())
+            throw new IllegalArgumentException("Invalid JSON: unexpected end");
+        return s.charAt(pos[0]);
+    }
+
+    private static void expect(String s, int[] pos, char c)
+    {
+        if(peek(s, pos) != c)
+            throw new IllegalArgumentException("Invalid JSON: expected '" + c + "' at " + pos[0]);
+        pos[0]++;
+    }
+
+    private static int skip_space(String s, int i)
+    {
+        while(i < s.length() && Character.isWhitespace(s.charAt(i)))
+            i++;
+        return i;
+    }
+
+    private static long parse_value(String name, String value)
+    {
+        try
+        {
+            return Long.parseLong(value);
+        }
+        catch(NumberFormatException e)
+        {
+            throw new IllegalArgumentException(name + " isn't an integer: " + value);
+        }
+    }
+
+    private static ByteBuffer buffer(PPTableEditor table)
+    {
+        return ByteBuffer.wrap(table.get_pp_bytes()).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static String error(String message)
+    {
+        return "{\"error\": " + PPTableDiff.json_string(String.valueOf(message)) + "}";
+    }
+
+    private static double round(double d)
+    {
+        return Math.round(d * 10) / 10.0;
+    }
+
+    private static String next_arg(String[] args, int i)
+    {
+        if(i >= args.length)
+            throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        return args[i];
+    }
+
+    /*
+     * counts and a latency histogram of an endpoint, in power of 2 microsecond buckets
+     * so percentiles are reported as the upper bound of their bucket
+     */
+    private static class Stats
+    {
+        void record(long nanos, boolean error)
+        {
+            long us = nanos / 1000;
+            requests.incrementAndGet();
+            if(error)
+                errors.incrementAndGet();
+            total_us.addAndGet(us);
+            max_us.accumulateAndGet(us, Math::max);
+            buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(us));
+        }
+
+        void put(String name, Map<String, Object> values)
+        {
+            long n = requests.get();
+            values.put(name + ".requests", n);
+            values.put(name + ".errors", errors.get());
+            values.put(name + ".mean_us", n == 0 ? 0 : round((double)total_us.get() / n));
+            values.put(name + ".p50_us", percentile(n, 0.5));
+            values.put(name + ".p99_us", percentile(n, 0.99));
+            values.put(name + ".max_us", max_us.get());
+        }
+
+        private long percentile(long n, double p)
+        {
+            long rank = (long)Math.ceil(n * p), seen = 0;
+            for(int b = 0; b < buckets.length() && rank > 0; b++)
+            {
+                seen += buckets.get(b);
+                if(seen >= rank)
+                    return b == 0 ? 0 : 1L << b;
+            }
+            return 0;
+        }
+
+        final AtomicLong requests = new AtomicLong(), errors = new AtomicLong();
+        final AtomicLong total_us = new AtomicLong(), max_us = new AtomicLong();
+        final AtomicLongArray buckets = new AtomicLongArray(65);   // bucket b holds latencies below 2^b us
+    }
+
+    // endpoints
+    private static final int LOAD = 0,
+                             FIELDS = 1,
+                             PATCH = 2,
+                             VALIDATE = 3,
+                             SAVE = 4,
+                             STATS = 5;
+    private static final String[] ENDPOINTS = { "load", "fields", "patch", "validate", "save", "stats" };
+
+    private final Path root;
+    // by resolved path, so every name of a file shares one table
+    private final PPTableLRUCache<Path> tables;
+    private final PPTableValidator validator = new PPTableValidator();
+    private final ExecutorService executor;
+    private final String executor_name;
+    private final Stats[] stats = new Stats[ENDPOINTS.length];
+    private HttpServer server;
+    private long started;
+}
@@ -0,0 +1,376 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/*
+ * archive of named PowerPlay tables, each stored as the ranges of bytes that differ
+ * from a base table, bases are stored once and addressed by the hash of their bytes
+ * a table comes back from get() as the kind of file it was put from, registry file or raw binary table
+ *
+ * bases/<hash>.base:  "PPTB", u32 header length, u32 table length, header, table
+ * tables/<name>.delta: "PPTD", u64 base hash, u32 header length (0 if it's the base's header,
+ *                      0xFFFFFFFF for a raw binary table, which has none),
+ *                      header, u32 table length, u32 range count,
+ *                      then per range u16 offset, u16 length, bytes
+ * all little endian
+ *
+ * usage: java PPTableStore <dir> put <name> <reg file> [base hash]
+ *                          <dir> get <name> <reg file>
+ *                          <dir> list [base hash]
+ *                          <dir> bases
+ */
+public class PPTableStore
+{
+    public static void main(String[] args)
+    {
+        if(args.length < 2 || (args[1].equals("put") || args[1].equals("get")) && args.length < 4)
+        {
+            System.err.println(
+                "usage: java PPTableStore <dir> put <name> <reg file> [base hash]\n" +
+                "                         <dir> get <name> <reg file>\n" +
+                "                         <dir> list [base hash]\n" +
+                "                         <dir> bases"
+            );
+            System.exit(2);
+        }
+
+        try
+        {
+            PPTableStore store = new PPTableStore(Paths.get(args[0]));
+            switch(args[1])
+            {
+                case "put":
+                    PPTableEditor ppte = new PPTableEditor(args[3]);
+                    long base = args.length > 4 ? Long.parseUnsignedLong(args[4], 16) :
+                                                  store.put(args[2], ppte);
+                    if(args.length > 4)
+                        store.put(args[2], ppte, base);
+                    System.out.printf("%s -> %016x%n", args[2], base);
+                    break;
+                case "get":
+                    if(!store.get(args[2]).save(args[3]))
+                        System.exit(1);
+                    break;
+                case "list":
+                    List<String> names = args.length > 2 ?
+                        store.derived_from(Long.parseUnsignedLong(args[2], 16)) : store.names();
+                    for(String name : names)
+                        System.out.printf("%s %016x%n", name, store.base_of(name));
+                    break;
+                case "bases":
+                    for(long hash : store.bases())
+                        System.out.printf("%016x %d%n", hash, store.derived_from(hash).size());
+                    break;
+                default:
+                    System.err.println("Unknown command " + args[1]);
+                    System.exit(2);
+            }
+        }
+        catch(IllegalArgumentException | IOException e)
+        {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    public PPTableStore(Path dir) throws IOException
+    {
+        bases_dir = Files.createDirectories(dir.resolve("bases"));
+        tables_dir = Files.createDirectories(dir.resolve("tables"));
+
+        // only the base hash of each delta is read up front
+        try(Stream<Path> files = Files.list(tables_dir))
+        {
+            for(Path file : (Iterable<Path>)files::iterator)
+            {
+                String name = file.getFileName().toString();
+                if(!name.endsWith(DELTA)) continue;
+
+                try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+                {
+                    ByteBuffer buf = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+                    while(buf.hasRemaining() && channel.read(buf) > 0);
+                    if(buf.hasRemaining() || buf.getInt(0) != DELTA_MAGIC) continue;
+
+                    table_bases.put(name.substring(0, name.length() - DELTA.length()), buf.getLong(4));
+                }
+            }
+        }
+    }
+
+    /*
+     * stores ppte as name against the closest base of the same size,
+     * or as a new base if there is none close enough
+     * returns the hash of the base
+     */
+    public long put(String name, PPTableEditor ppte) throws IOException
+    {
+        byte[] table = ppte.get_pp_bytes();
+
+        long best = 0;
+        int best_cost = table.length / 2 + 1;
+        for(long hash : bases())
+        {
+            byte[] base = read_base(hash).table;
+            if(base.length != table.length) continue;
+
+            int cost = delta_size(base, table);
+            if(cost < best_cost)
+            {
+                best = hash;
+                best_cost = cost;
+            }
+        }
+
+        if(best_cost > table.length / 2)
+            best = add_base(ppte);
+
+        put(name, ppte, best);
+        return best;
+    }
+
+    public void put(String name, PPTableEditor ppte, long base_hash) throws IOException
+    {
+        check_name(name);
+        PPTableEditor.RegFile base = read_base(base_hash);
+        byte[] table = ppte.get_pp_bytes();
+        if(base.table.length != table.length)
+            throw new IllegalArgumentException(name + ": table size differs from base " + hex(base_hash));
+
+        List<int[]> ranges = diff_ranges(base.table, table);
+        byte[] header = ppte.is_binary() || ppte.get_reg_header().equals(base.header)
+                        ? new byte[0]
+                        : ppte.get_reg_header().getBytes();
+
+        int size = 4 + 8 + 4 + header.length + 4 + 4;
+        for(int[] r : ranges)
+            size += 4 + r[1];
+
+        ByteBuffer buf = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(DELTA_MAGIC)
+           .putLong(base_hash)
+           .putInt(ppte.is_binary() ? BINARY_TABLE : header.length)
+           .put(header)
+           .putInt(table.length)
+           .putInt(ranges.size());
+        for(int[] r : ranges)
+        {
+            buf.putShort((short)r[0])
+               .putShort((short)r[1])
+               .put(table, r[0], r[1]);
+        }
+        buf.flip();
+
+        write_atomic(tables_dir.resolve(name + DELTA), buf);
+        table_bases.put(name, base_hash);
+    }
+
+    /*
+     * stores the table as a base if it isn't one already, returns its hash
+     */
+    public long add_base(PPTableEditor ppte) throws IOException
+    {
+        byte[] table = ppte.get_pp_bytes();
+        long hash = PPTableCache.hash(ByteBuffer.wrap(table));
+
+        Path file = base_path(hash);
+        if(!Files.exists(file))
+        {
+            byte[] header = ppte.get_reg_header().getBytes();
+            ByteBuffer buf = ByteBuffer.allocate(12 + header.length + table.length).order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(BASE_MAGIC)
+               .putInt(header.length)
+               .putInt(table.length)
+               .put(header)
+               .put(table)
+               .flip();
+            write_atomic(file, buf);
+        }
+
+        return hash;
+    }
+
+    /*
+     * rebuilds the table stored as name
+     */
+    public PPTableEditor get(String name) throws IOException, IllegalArgumentException
+    {
+        check_name(name);
+        Path file = tables_dir.resolve(name + DELTA);
+        if(!Files.exists(file))
+            throw new IllegalArgumentException("No table named " + name);
+
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        if(buf.getInt() != DELTA_MAGIC)
+            throw new IllegalArgumentException(file + ": not a table delta");
+
+        PPTableEditor.RegFile base = read_base(buf.getLong());
+        int header_length = buf.getInt();
+        byte[] header = new byte[header_length == BINARY_TABLE ? 0 : header_length];
+        buf.get(header);
+
+        byte[] table = Arrays.copyOf(base.table, buf.getInt());
+        for(int n = buf.getInt(); n > 0; n--)
+        {
+            int offset = Short.toUnsignedInt(buf.getShort());
+            int length = Short.toUnsignedInt(buf.getShort());
+            buf.get(table, offset, length);
+        }
+
+        // a raw binary table is one without a registry header
+        String reg_header = header_length == BINARY_TABLE ? "" : header.length > 0 ? new String(header) : base.header;
+        return new PPTableEditor(new PPTableEditor.RegFile(reg_header, table));
+    }
+
+    public List<String> names()
+    {
+        return new ArrayList<>(new TreeMap<>(table_bases).keySet());
+    }
+
+    public List<String> derived_from(long base_hash)
+    {
+        List<String> names = new ArrayList<>();
+        for(Map.Entry<String, Long> e : new TreeMap<>(table_bases).entrySet())
+        {
+            if(e.getValue() == base_hash)
+                names.add(e.getKey());
+        }
+
+        return names;
+    }
+
+    public long base_of(String name)
+    {
+        Long hash = table_bases.get(name);
+        if(hash == null)
+            throw new IllegalArgumentException("No table named " + name);
+        return hash;
+    }
+
+    public List<Long> bases() throws IOException
+    {
+        List<Long> hashes = new ArrayList<>();
+        try(Stream<Path> files = Files.list(bases_dir))
+        {
+            for(Path file : (Iterable<Path>)files::iterator)
+            {
+                String name = file.getFileName().toString();
+                if(name.endsWith(BASE))
+                    hashes.add(Long.parseUnsignedLong(name.substring(0, name.length() - BASE.length()), 16));
+            }
+        }
+
+        return hashes;
+    }
+
+    /*
+     * ranges of b that differ from a as {offset, length}
+     * differing runs separated by fewer than 4 equal bytes are merged,
+     * as another range would cost more than storing the equal bytes
+     */
+    static List<int[]> diff_ranges(byte[] a, byte[] b)
+    {
+        List<int[]> ranges = new ArrayList<>();
+        int n = Math.min(a.length, b.length), i = 0;
+        while(i < n)
+        {
+            int m = Arrays.mismatch(a, i, n, b, i, n);
+            if(m == -1) break;
+
+            int start = i + m, end = start + 1;
+            while(end < n)
+            {
+                int next = Arrays.mismatch(a, end, Math.min(n, end + RANGE_COST), b, end, Math.min(n, end + RANGE_COST));
+                if(next == -1) break;
+                end += next + 1;
+            }
+
+            // a range's length has to fit in 16 bits
+            for(int s = start; s < end; s += 0xFFFF)
+                ranges.add(new int[] { s, Math.min(0xFFFF, end - s) });
+            i = end;
+        }
+
+        return ranges;
+    }
+
+    private static int delta_size(byte[] a, byte[] b)
+    {
+        int size = 0;
+        for(int[] r : diff_ranges(a, b))
+            size += RANGE_COST + r[1];
+        return size;
+    }
+
+    private PPTableEditor.RegFile read_base(long hash) throws IOException
+    {
+        PPTableEditor.RegFile base = base_cache.get(hash);
+        if(base != null)
+            return base;
+
+        Path file = base_path(hash);
+        if(!Files.exists(file))
+            throw new IllegalArgumentException("No base " + hex(hash));
+
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        if(buf.getInt() != BASE_MAGIC)
+            throw new IllegalArgumentException(file + ": not a base table");
+
+        byte[] header = new byte[buf.getInt()], table = new byte[buf.getInt()];
+        buf.get(header).get(table);
+
+        base = new PPTableEditor.RegFile(new String(header), table);
+        base_cache.put(hash, base);
+        return base;
+    }
+
+    private Path base_path(long hash)
+    {
+        return bases_dir.resolve(hex(hash) + BASE);
+    }
+
+    private static void write_atomic(Path file, ByteBuffer buf) throws IOException
+    {
+        Path tmp = Files.createTempFile(file.getParent(), "store", ".tmp");
+        try(FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE))
+        {
+            while(buf.hasRemaining())
+                channel.write(buf);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void check_name(String name)
+    {
+        if(name.isEmpty() || !name.matches("[A-Za-z0-9._-]+") || name.startsWith("."))
+            throw new IllegalArgumentException("Invalid table name \"" + name + "\"");
+    }
+
+    private static String hex(long hash)
+    {
+        return String.format("%016x", hash);
+    }
+
+    private static final int BASE_MAGIC = 0x42545050;     // "PPTB"
+    private static final int DELTA_MAGIC = 0x44545050;    // "PPTD"
+    private static final String BASE = ".base", DELTA = ".delta";
+    private static final int RANGE_COST = 4;              // bytes of offset and length per range
+    private static final int BINARY_TABLE = -1;           // header length of a raw binary table
+
+    private final Path bases_dir, tables_dir;
+    private final Map<String, Long> table_bases = new ConcurrentHashMap<>();
+    private final Map<Long, PPTableEditor.RegFile> base_cache = new ConcurrentHashMap<>();
+}
@@ -0,0 +1,365 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+/*
+ * writes every combination of a set of edits to a base table, or a random sample of them
+ * each dimension is a PPTableEdit target with a range or list of values:
+ *   sclk7=1500:1700:25      1500 to 1700 MHz in steps of 25
+ *   vdd7=1050,1100,1150
+ *
+ * points are numbered in row-major order of the dimensions and generated lazily,
+ * so memory doesn't grow with the size of the grid
+ *
+ * usage: java PPTableSweep [-o dir] [-n count] [-seed n] [-bin] [-j threads] <base> <dimension>...
+ */
+public class PPTableSweep
+{
+    public static void main(String[] args)
+    {
+        Path out_dir = Paths.get("sweep");
+        long samples = -1, seed = 0;
+        boolean binary = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String base = null;
+        List<Dimension> dimensions = new ArrayList<>();
+
+        try
+        {
+            for(int i = 0; i < args.length; i++)
+            {
+                switch(args[i])
+                {
+                    case "-o": out_dir = Paths.get(args[++i]); break;
+                    case "-n": samples = Long.parseLong(args[++i]); break;
+                    case "-seed": seed = Long.parseLong(args[++i]); break;
+                    case "-bin": binary = true; break;
+                    case "-j": threads = Integer.parseInt(args[++i]); break;
+                    default:
+                        if(base == null) base = args[i];
+                        else dimensions.add(Dimension.parse(args[i]));
+                }
+            }
+
+            if(base == null || dimensions.isEmpty())
+            {
+                System.err.println(
+                    "usage: java PPTableSweep [-o dir] [-n count] [-seed n] [-bin] [-j threads] <base> <dimension>...\n" +
+                    "  a dimension is target=from:to:step or target=v1,v2,... with a PPTableEdit target"
+                );
+                System.exit(2);
+            }
+
+            PPTableSweep sweep = new PPTableSweep(new PPTableEditor(base), dimensions);
+            sweep.run(Files.createDirectories(out_dir), binary, samples, seed, threads);
+        }
+        catch(IllegalArgumentException | IOException | IndexOutOfBoundsException e)
+        {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    public PPTableSweep(PPTableEditor base, List<Dimension> dimensions) throws IllegalArgumentException
+    {
+        this.base = base;
+        this.dimensions = dimensions;
+
+        long n = 1;
+        for(Dimension d : dimensions)
+        {
+            try
+            {
+                n = Math.multiplyExact(n, d.values.length);
+            }
+            catch(ArithmeticException e)
+            {
+                throw new IllegalArgumentException("Sweep has more than " + Long.MAX_VALUE + " points");
+            }
+        }
+        size = n;
+
+        // fail on targets the table doesn't have and values out of range before starting,
+        // each target is a range so a dimension's smallest and largest values cover the rest
+        Point p = new Point(this);
+        for(Dimension d : dimensions)
+        {
+            int min = 0, max = 0;
+            for(int i = 1; i < d.values.length; i++)
+            {
+                if(d.values[i] < d.values[min]) min = i;
+                if(d.values[i] > d.values[max]) max = i;
+            }
+            for(int i : new int[] { min, max })
+            {
+                p.ppte.set_pp_bytes(base.get_pp_bytes());
+                d.edits[i].apply(p.ppte);
+            }
+        }
+        p.apply(0);
+    }
+
+    /*
+     * the number of points in the grid
+     */
+    public long size()
+    {
+        return size;
+    }
+
+    /*
+     * values of each dimension at point index
+     */
+    public int[] values(long index)
+    {
+        int[] values = new int[dimensions.size()];
+        for(int d = dimensions.size() - 1; d >= 0; d--)
+        {
+            int[] v = dimensions.get(d).values;
+            values[d] = v[(int)(index % v.length)];
+            index /= v.length;
+        }
+        return values;
+    }
+
+    /*
+     * writes the whole grid, or samples distinct random points of it if 0 <= samples < size(),
+     * along with manifest.csv mapping file names to the values of the dimensions
+     */
+    public void run(Path out_dir, boolean binary, long samples, long seed, int threads) throws IOException
+    {
+        boolean sampled = samples >= 0 && samples < size;
+        LongStream indices = !sampled ? LongStream.range(0, size) :
+                                        LongStream.range(0, samples).map(k -> random_index(seed, k));
+        long count = sampled ? samples : size;
+        int digits = String.valueOf(Math.max(0, size - 1)).length();
+        String ext = binary ? ".bin" : ".reg";
+
+        AtomicLong written = new AtomicLong();
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        ThreadLocal<Point> points = ThreadLocal.withInitial(() -> new Point(this));
+
+        try(BufferedWriter manifest = Files.newBufferedWriter(out_dir.resolve("manifest.csv")))
+        {
+            StringBuilder header = new StringBuilder("file");
+            for(Dimension d : dimensions)
+                header.append(',').append(d.name);
+            manifest.write(header.append('\n').toString());
+
+            pool.submit(() -> indices.parallel().forEach(index -> {
+                String name = String.format("point_%0" + digits + "d", index) + ext;
+                Point p = points.get();
+                try
+                {
+                    p.apply(index);
+                    p.write(out_dir.resolve(name), binary);
+                }
+                catch(IOException e)
+                {
+                    throw new IllegalStateException("Failed to write to " + out_dir.resolve(name), e);
+                }
+
+                StringBuilder line = new StringBuilder(name);
+                for(int v : p.values)
+                    line.append(',').append(v);
+                synchronized(manifest)
+                {
+                    try
+                    {
+                        manifest.write(line.append('\n').toString());
+                    }
+                    catch(IOException e)
+                    {
+                        throw new IllegalStateException(e);
+                    }
+                }
+
+                long n = written.incrementAndGet();
+                if(n % 100000 == 0)
+                    System.out.printf("%d/%d%n", n, count);
+            })).get();
+        }
+        catch(InterruptedException | ExecutionException e)
+        {
+            throw new IOException(e.getCause() != null ? e.getCause().getMessage() : e.getMessage(), e);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d points written to %s in %.3f s (%.1f points/s)%n",
+                          written.get(), out_dir, seconds, written.get() / seconds);
+    }
+
+    /*
+     * k-th random point, a seeded permutation of 0..size-1 so no point is sampled twice
+     * and any thread can compute any sample
+     * each round is a bijection on the bits below the smallest power of two >= size,
+     * results past the end of the grid are permuted again until they fall inside it
+     */
+    private long random_index(long seed, long k)
+    {
+        int bits = 64 - Long.numberOfLeadingZeros(size - 1);
+        long mask = (1L << bits) - 1;   // bits < 64 as size is a positive long
+        int shift = Math.max(1, bits / 2);
+
+        long x = k;
+        do
+        {
+            for(int round = 0; round < 4; round++)
+            {
+                x = (x + splitmix64(seed + round)) & mask;
+                x = (x * 0xBF58476D1CE4E5B9L) & mask;     // odd, so invertible mod 2^bits
+                x ^= x >>> shift;
+            }
+        }
+        while(x >= size);
+        return x;
+    }
+
+    private static long splitmix64(long seed)
+    {
+        long z = seed * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /*
+     * a target of PPTableEdit and the values it's swept over
+     */
+    public static class Dimension
+    {
+        public Dimension(String name, int[] values) throws IllegalArgumentException
+        {
+            this.name = name;
+            this.values = values;
+
+            // parsed once here rather than for every point
+            edits = new PPTableEdit[values.length];
+            for(int i = 0; i < values.length; i++)
+                edits[i] = PPTableEdit.parse(name + "=" + values[i]);
+        }
+
+        public static Dimension parse(String spec) throws IllegalArgumentException
+        {
+            int eq = spec.indexOf('=');
+            if(eq == -1)
+                throw new IllegalArgumentException("Invalid dimension \"" + spec + "\"");
+            String name = spec.substring(0, eq).trim(), range = spec.substring(eq + 1).trim();
+
+            try
+            {
+                int[] values;
+                String[] parts = range.split(":");
+                if(parts.length == 3)
+                {
+                    int from = Integer.parseInt(parts[0]), to = Integer.parseInt(parts[1]);
+                    int step = Integer.parseInt(parts[2]);
+                    if(step <= 0 || to < from)
+                        throw new IllegalArgumentException("Invalid range in \"" + spec + "\"");
+
+                    long count = ((long)to - from) / step + 1;
+                    if(count > MAX_VALUES)
+                        throw new IllegalArgumentException("\"" + spec + "\" has more than " + MAX_VALUES + " values");
+
+                    values = new int[(int)count];
+                    for(int i = 0; i < values.length; i++)
+                        values[i] = (int)(from + (long)step * i);
+                }
+                else
+                {
+                    parts = range.split(",");
+                    values = new int[parts.length];
+                    for(int i = 0; i < parts.length; i++)
+                        values[i] = Integer.parseInt(parts[i].trim());
+                }
+
+                return new Dimension(name, values);
+            }
+            catch(NumberFormatException e)
+            {
+                throw new IllegalArgumentException("Invalid dimension \"" + spec + "\": " + e.getMessage());
+            }
+        }
+
+        // the largest array most VMs allocate
+        private static final int MAX_VALUES = Integer.MAX_VALUE - 8;
+
+        public final String name;
+        public final int[] values;
+        final PPTableEdit[] edits;
+    }
+
+    /*
+     * a worker's copy of the base table and output buffer, reused for every point it writes
+     */
+    private static class Point
+    {
+        Point(PPTableSweep sweep)
+        {
+            this.sweep = sweep;
+            byte[] table = sweep.base.get_pp_bytes();
+            ppte = new PPTableEditor(new PPTableEditor.RegFile(sweep.base.get_reg_header(), table.clone()));
+            header = sweep.base.get_reg_header().getBytes();
+            text = new byte[PPTableEditor.encoded_reg_length(header, table)];
+            values = new int[sweep.dimensions.size()];
+        }
+
+        void apply(long index)
+        {
+            ppte.set_pp_bytes(sweep.base.get_pp_bytes());
+
+            for(int d = values.length - 1; d >= 0; d--)
+            {
+                Dimension dim = sweep.dimensions.get(d);
+                int i = (int)(index % dim.values.length);
+                values[d] = dim.values[i];
+                dim.edits[i].apply(ppte);
+                index /= dim.values.length;
+            }
+        }
+
+        void write(Path file, boolean binary) throws IOException
+        {
+            ByteBuffer buf;
+            if(binary)
+                buf = ByteBuffer.wrap(ppte.get_pp_bytes());
+            else buf = ByteBuffer.wrap(text, 0, PPTableEditor.encode_reg(header, ppte.get_pp_bytes(), text));
+
+            try(FileChannel channel = FileChannel.open(
+                    file,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE
+                ))
+            {
+                while(buf.hasRemaining())
+                    channel.write(buf);
+            }
+        }
+
+        final PPTableSweep sweep;
+        final PPTableEditor ppte;
+        final byte[] header, text;
+        final int[] values;
+    }
+
+    private final PPTableEditor base;
+    private final List<Dimension> dimensions;
+    private final long size;
+}
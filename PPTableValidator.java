@@ -0,0 +1,583 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ * consistency checks for PowerPlay tables
+ * a table is read once into a Snapshot of plain ints and every rule runs over that,
+ * so tables the editor refuses to open are still reported rule by rule
+ * tables of formats other than Tonga, Fiji and Polaris are only checked by the rules
+ * that apply to any format, see PPTableFormat
+ *
+ * usage: java PPTableValidator [-json] [-j threads] [-r rule]... <file|dir>...
+ */
+public class PPTableValidator
+{
+    public static void main(String[] args)
+    {
+        boolean json = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<String> rule_names = new ArrayList<>();
+        List<Path> files = new ArrayList<>();
+
+        try
+        {
+            for(int i = 0; i < args.length; i++)
+            {
+                if(args[i].equals("-json"))
+                    json = true;
+                else if(args[i].equals("-j") && i + 1 < args.length)
+                    threads = Integer.parseInt(args[++i]);
+                else if(args[i].equals("-r") && i + 1 < args.length)
+                    rule_names.add(args[++i]);
+                else PPTableBatch.add_files(Paths.get(args[i]), files);
+            }
+        }
+        catch(IllegalArgumentException | IOException e)
+        {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+
+        if(files.isEmpty())
+        {
+            StringBuilder names = new StringBuilder();
+            for(Rule r : RULES)
+                names.append(' ').append(r.name);
+            System.err.println("usage: java PPTableValidator [-json] [-j threads] [-r rule]... <file|dir>...");
+            System.err.println("rules:" + names);
+            System.exit(2);
+        }
+
+        PPTableValidator validator = null;
+        try
+        {
+            validator = rule_names.isEmpty() ? new PPTableValidator() :
+                                               new PPTableValidator(rule_names.toArray(new String[0]));
+        }
+        catch(IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+
+        final PPTableValidator v = validator;
+        final boolean as_json = json;
+        int[] failed = new int[1], printed = new int[1];
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try
+        {
+            if(as_json) System.out.println("[");
+            pool.submit(() ->
+                files.parallelStream()
+                     .map(file -> v.validate_file(file))
+                     .forEachOrdered(r -> {
+                         if(r.error != null || !r.violations.isEmpty())
+                         {
+                             failed[0]++;
+                             System.out.print(as_json ? r.to_json(printed[0]++ == 0) : r.to_text());
+                         }
+                     })
+            ).get();
+            if(as_json) System.out.println("\n]");
+        }
+        catch(InterruptedException | ExecutionException e)
+        {
+            throw new IllegalStateException(e);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("%d files, %d failed in %.3f s (%.1f files/s)%n",
+                          files.size(), failed[0], seconds, files.size() / seconds);
+        System.exit(failed[0] == 0 ? 0 : 1);
+    }
+
+    /*
+     * checks every rule
+     */
+    public PPTableValidator()
+    {
+        rules = RULES;
+    }
+
+    /*
+     * checks only the named rules
+     */
+    public PPTableValidator(String... names) throws IllegalArgumentException
+    {
+        rules = new Rule[names.length];
+        for(int i = 0; i < names.length; i++)
+        {
+            for(Rule r : RULES)
+            {
+                if(r.name.equals(names[i]))
+                    rules[i] = r;
+            }
+            if(rules[i] == null)
+                throw new IllegalArgumentException("Unknown rule " + names[i]);
+        }
+    }
+
+    public static class Violation
+    {
+        Violation(String rule, String message)
+        {
+            this.rule = rule;
+            this.message = message;
+        }
+
+        @Override
+        public String toString()
+        {
+            return rule + ": " + message;
+        }
+
+        public final String rule, message;
+    }
+
+    public List<Violation> validate(PPTableEditor ppte)
+    {
+        return validate(ppte.get_pp_bytes());
+    }
+
+    /*
+     * validates a raw PowerPlay table
+     */
+    public List<Violation> validate(byte[] table)
+    {
+        Snapshot s = new Snapshot(table);
+        List<Violation> violations = new ArrayList<>();
+        for(Rule r : rules)
+        {
+            if(s.v1 || r.any_format)
+                r.check.check(s, new Report(r.name, violations));
+        }
+
+        return violations;
+    }
+
+    private Result validate_file(Path file)
+    {
+        Result r = new Result(file);
+        try
+        {
+            PPTableEditor.RegFile reg = PPTableEditor.parse_reg_file(file.toString());
+            if(reg == null)
+                r.error = "Invalid registry file";
+            else r.violations = validate(reg.table);
+        }
+        catch(IllegalArgumentException e)
+        {
+            r.error = e.getMessage();
+        }
+        return r;
+    }
+
+    /*
+     * the fields the rules look at, read out of the table in one pass
+     * counts are 0 for sub-tables that don't fit in the table
+     */
+    static class Snapshot
+    {
+        Snapshot(byte[] table)
+        {
+            ByteBuffer b = ByteBuffer.wrap(table).order(ByteOrder.LITTLE_ENDIAN);
+            length = table.length;
+            buf = b;
+            format = PPTableFormat.of(b);
+            v1 = format == PPTableFormat.TONGA;
+            if(length < PPTableEditor.ATOM_POWERPLAY_TABLE.size || !v1)
+            {
+                structure_size = length < PPTableEditor.ATOM_COMMON_TABLE_HEADER.size ||
+                                 length < PPTableEditor.ATOM_POWERPLAY_TABLE.size && v1
+                                 ? -1 : Short.toUnsignedInt(b.getShort(0));
+                sclk_entry_size = PPTableEditor.ATOM_SCLK_ENTRY.size;
+                ptune_size = PPTableEditor.ATOM_POWERTUNE_TABLE.size;
+                offsets = new int[OFFSET_FIELDS.length];
+                mclk_clocks = mclk_vddc_ind = mclk_mvdd = sclk_clocks = sclk_vdd_ind = vdd = new int[0];
+                ptune_offset = -1;
+                return;
+            }
+
+            structure_size = Short.toUnsignedInt(b.getShort(0));
+            offsets = new int[OFFSET_FIELDS.length];
+            for(int i = 0; i < offsets.length; i++)
+                offsets[i] = Short.toUnsignedInt(b.getShort(OFFSET_FIELDS[i]));
+
+            int mclk = offsets[MCLK], sclk = offsets[SCLK], vddc = offsets[VDDC];
+            int n = entry_count(table, mclk, PPTableEditor.ATOM_MCLK_ENTRY.size);
+            mclk_clocks = new int[n];
+            mclk_vddc_ind = new int[n];
+            mclk_mvdd = new int[n];
+            for(int i = 0; i < n; i++)
+            {
+                int e = mclk + PPTableEditor.ATOM_MCLK_TABLE.size + PPTableEditor.ATOM_MCLK_ENTRY.size * i;
+                mclk_vddc_ind[i] = Byte.toUnsignedInt(b.get(e));
+                mclk_mvdd[i] = Short.toUnsignedInt(b.getShort(e + 5));
+                mclk_clocks[i] = b.getInt(e + 7);
+            }
+
+            // Tonga and Fiji entries are 2 bytes shorter, every ucRevId has a layout
+            sclk_entry_size = sclk != 0 && sclk < length
+                              ? PPTableLayout.SCLK.entry(b, sclk).size : PPTableEditor.ATOM_SCLK_ENTRY.size;
+            n = entry_count(table, sclk, sclk_entry_size);
+            sclk_clocks = new int[n];
+            sclk_vdd_ind = new int[n];
+            for(int i = 0; i < n; i++)
+            {
+                int e = sclk + PPTableEditor.ATOM_SCLK_TABLE.size + sclk_entry_size * i;
+                sclk_vdd_ind[i] = Byte.toUnsignedInt(b.get(e));
+                sclk_clocks[i] = b.getInt(e + 3);
+            }
+
+            n = entry_count(table, vddc, PPTableEditor.ATOM_VOLTAGE_ENTRY.size);
+            vdd = new int[n];
+            for(int i = 0; i < n; i++)
+                vdd[i] = Short.toUnsignedInt(b.getShort(vddc + PPTableEditor.ATOM_VOLTAGE_TABLE.size +
+                                                        PPTableEditor.ATOM_VOLTAGE_ENTRY.size * i));
+
+            int ptune = offsets[POWERTUNE];
+            ptune_size = ptune != 0 && ptune < length
+                         ? PPTableLayout.POWERTUNE_TABLE.header(b, ptune).size : PPTableEditor.ATOM_POWERTUNE_TABLE.size;
+            if(ptune == 0 || ptune + ptune_size > length)
+            {
+                ptune_offset = -1;
+                return;
+            }
+            ptune_offset = ptune;
+            // Tonga tables have only usTjMax and usSoftwareShutdownTemp, the others are left at 0
+            for(int i = 0; i < temperatures.length; i++)
+            {
+                if(TEMPERATURE_FIELDS[i] + 2 <= ptune_size)
+                    temperatures[i] = Short.toUnsignedInt(b.getShort(ptune + TEMPERATURE_FIELDS[i]));
+            }
+        }
+
+        /*
+         * the number of entries of the sub-table at offset, 0 if they don't all fit
+         */
+        private static int entry_count(byte[] table, int offset, int entry_size)
+        {
+            if(offset == 0 || offset + 2 > table.length)
+                return 0;
+
+            int n = Byte.toUnsignedInt(table[offset + 1]);
+            return offset + 2 + entry_size * n <= table.length ? n : 0;
+        }
+
+        final ByteBuffer buf;
+        final PPTableFormat format;     // null if the format revision is unknown
+        final boolean v1;               // a Tonga, Fiji or Polaris table
+        final int length, structure_size, ptune_offset, ptune_size, sclk_entry_size;
+        final int[] offsets;
+        final int[] mclk_clocks, mclk_vddc_ind, mclk_mvdd;
+        final int[] sclk_clocks, sclk_vdd_ind;
+        final int[] vdd;
+        final int[] temperatures = new int[TEMPERATURE_NAMES.length];
+    }
+
+    /*
+     * collects a rule's violations
+     */
+    private static class Report
+    {
+        Report(String rule, List<Violation> violations)
+        {
+            this.rule = rule;
+            this.violations = violations;
+        }
+
+        void add(String format, Object... args)
+        {
+            violations.add(new Violation(rule, String.format(format, args)));
+        }
+
+        final String rule;
+        final List<Violation> violations;
+    }
+
+    private interface Check
+    {
+        void check(Snapshot s, Report r);
+    }
+
+    private static class Rule
+    {
+        Rule(String name, Check check, boolean any_format)
+        {
+            this.name = name;
+            this.check = check;
+            this.any_format = any_format;
+        }
+
+        final String name;
+        final Check check;
+        final boolean any_format;   // false if the rule only applies to Tonga, Fiji and Polaris tables
+    }
+
+    /*
+     * the table has a known format and every sub-table has a known ucRevId
+     */
+    private static void check_format(Snapshot s, Report r)
+    {
+        if(s.length < PPTableEditor.ATOM_COMMON_TABLE_HEADER.size) return;
+
+        int revision = Byte.toUnsignedInt(s.buf.get(2));
+        if(s.format == null)
+        {
+            r.add("ucTableFormatRevision %d is unknown", revision);
+            return;
+        }
+        if(!s.format.is_supported())
+        {
+            r.add("ucTableFormatRevision %d, %s tables aren't supported", revision, s.format.name);
+            return;
+        }
+        if(s.length < s.format.powerplay.size) return;
+
+        for(PPTableLayout.Table table : s.format.tables)
+        {
+            int offset = table.offset(s.buf);
+            if(offset == 0 || offset >= s.length) continue;
+
+            PPTableLayout.Struct layout = table.entries != null ? table.entry(s.buf, offset) : table.header(s.buf, offset);
+            if(layout == null)
+                r.add("%s: ucRevId %d is unknown", table.name, Byte.toUnsignedInt(s.buf.get(offset)));
+        }
+    }
+
+    private static void check_structure_size(Snapshot s, Report r)
+    {
+        if(s.structure_size == -1)
+            r.add("table is %d bytes, shorter than ATOM_POWERPLAY_TABLE", s.length);
+        else if(s.structure_size != s.length)
+            r.add("usStructureSize is %d, table is %d bytes", s.structure_size, s.length);
+    }
+
+    private static void check_offsets(Snapshot s, Report r)
+    {
+        if(s.structure_size == -1) return;
+
+        for(int i = 0; i < s.offsets.length; i++)
+        {
+            if(s.offsets[i] == 0) continue;
+
+            if(s.offsets[i] < PPTableEditor.ATOM_POWERPLAY_TABLE.size || s.offsets[i] >= s.length)
+                r.add("%s %d is outside the table (%d..%d)", OFFSET_NAMES[i], s.offsets[i],
+                      PPTableEditor.ATOM_POWERPLAY_TABLE.size, s.length - 1);
+        }
+        for(int i : new int[] { MCLK, SCLK, VDDC, POWERTUNE })
+        {
+            if(s.offsets[i] == 0)
+                r.add("%s is missing", OFFSET_NAMES[i]);
+        }
+    }
+
+    /*
+     * the entries of each table have to fit before the next table starts
+     */
+    private static void check_table_sizes(Snapshot s, Report r)
+    {
+        if(s.structure_size == -1) return;
+
+        check_table_size(s, r, MCLK, s.mclk_clocks.length, PPTableEditor.ATOM_MCLK_ENTRY.size);
+        check_table_size(s, r, SCLK, s.sclk_clocks.length, s.sclk_entry_size);
+        check_table_size(s, r, VDDC, s.vdd.length, PPTableEditor.ATOM_VOLTAGE_ENTRY.size);
+        if(s.offsets[POWERTUNE] != 0 && s.ptune_offset == -1)
+            r.add("ATOM_POWERTUNE_TABLE at %d runs past the end of the table", s.offsets[POWERTUNE]);
+        else if(s.ptune_offset != -1)
+            check_end(s, r, POWERTUNE, s.ptune_offset + s.ptune_size);
+    }
+
+    private static void check_table_size(Snapshot s, Report r, int table, int count, int entry_size)
+    {
+        int offset = s.offsets[table];
+        if(offset == 0 || offset >= s.length) return;
+
+        if(count == 0)
+        {
+            r.add("%s: table at %d has no entries or runs past the end of the table", OFFSET_NAMES[table], offset);
+            return;
+        }
+        check_end(s, r, table, offset + 2 + entry_size * count);
+    }
+
+    private static void check_end(Snapshot s, Report r, int table, int end)
+    {
+        int offset = s.offsets[table];
+        for(int i = 0; i < s.offsets.length; i++)
+        {
+            if(s.offsets[i] > offset && s.offsets[i] < end)
+                r.add("%s: table ends at %d, overlapping %s at %d",
+                      OFFSET_NAMES[table], end, OFFSET_NAMES[i], s.offsets[i]);
+        }
+    }
+
+    private static void check_voltage_indices(Snapshot s, Report r)
+    {
+        for(int i = 0; i < s.sclk_vdd_ind.length; i++)
+        {
+            if(s.sclk_vdd_ind[i] >= s.vdd.length)
+                r.add("sclk_entries[%d].ucVddInd %d, voltage table has %d entries", i, s.sclk_vdd_ind[i], s.vdd.length);
+        }
+        for(int i = 0; i < s.mclk_vddc_ind.length; i++)
+        {
+            if(s.mclk_vddc_ind[i] >= s.vdd.length)
+                r.add("mclk_entries[%d].ucVddcInd %d, voltage table has %d entries", i, s.mclk_vddc_ind[i], s.vdd.length);
+        }
+    }
+
+    private static void check_monotonic_clocks(Snapshot s, Report r)
+    {
+        for(int i = 1; i < s.sclk_clocks.length; i++)
+        {
+            if(Integer.compareUnsigned(s.sclk_clocks[i], s.sclk_clocks[i - 1]) <= 0)
+                r.add("sclk_entries[%d].ulSclk %d is not above P-state %d's %d",
+                      i, Integer.toUnsignedLong(s.sclk_clocks[i]) / 100, i - 1,
+                      Integer.toUnsignedLong(s.sclk_clocks[i - 1]) / 100);
+        }
+        for(int i = 1; i < s.mclk_clocks.length; i++)
+        {
+            if(Integer.compareUnsigned(s.mclk_clocks[i], s.mclk_clocks[i - 1]) <= 0)
+                r.add("mclk_entries[%d].ulMclk %d is not above P-state %d's %d",
+                      i, Integer.toUnsignedLong(s.mclk_clocks[i]) / 100, i - 1,
+                      Integer.toUnsignedLong(s.mclk_clocks[i - 1]) / 100);
+        }
+    }
+
+    /*
+     * leakage IDs stand in for a voltage and aren't checked
+     */
+    private static void check_voltages(Snapshot s, Report r)
+    {
+        for(int i = 0; i < s.vdd.length; i++)
+        {
+            if(s.vdd[i] < LEAKAGE_ID && (s.vdd[i] < MIN_VOLTAGE || s.vdd[i] > MAX_VOLTAGE))
+                r.add("voltage_entries[%d].usVdd %d mV is outside %d..%d mV", i, s.vdd[i], MIN_VOLTAGE, MAX_VOLTAGE);
+        }
+        for(int i = 0; i < s.mclk_mvdd.length; i++)
+        {
+            if(s.mclk_mvdd[i] < MIN_VOLTAGE || s.mclk_mvdd[i] > MAX_VOLTAGE)
+                r.add("mclk_entries[%d].usMvdd %d mV is outside %d..%d mV", i, s.mclk_mvdd[i], MIN_VOLTAGE, MAX_VOLTAGE);
+        }
+    }
+
+    /*
+     * limits of 0 are unused and aren't checked
+     */
+    private static void check_temperatures(Snapshot s, Report r)
+    {
+        if(s.ptune_offset == -1) return;
+
+        for(int i = 0; i < s.temperatures.length; i++)
+        {
+            int t = s.temperatures[i];
+            if(t != 0 && (t < MIN_TEMPERATURE || t > MAX_TEMPERATURE))
+                r.add("ptune.%s %d C is outside %d..%d C",
+                      TEMPERATURE_NAMES[i], t, MIN_TEMPERATURE, MAX_TEMPERATURE);
+        }
+
+        int tjmax = s.temperatures[0], shutdown = s.temperatures[1];
+        if(tjmax != 0 && shutdown != 0 && shutdown < tjmax)
+            r.add("ptune.usSoftwareShutdownTemp %d C is below usTjMax %d C", shutdown, tjmax);
+    }
+
+    private static Rule rule(String name, Check check)
+    {
+        return new Rule(name, check, false);
+    }
+
+    private static Rule any_format_rule(String name, Check check)
+    {
+        return new Rule(name, check, true);
+    }
+
+    private static class Result
+    {
+        Result(Path file)
+        {
+            this.file = file;
+        }
+
+        String to_text()
+        {
+            if(error != null)
+                return file + ": " + error + "\n";
+
+            StringBuilder sb = new StringBuilder();
+            sb.append(file).append(": ").append(violations.size()).append(" violations\n");
+            for(Violation v : violations)
+                sb.append("  ").append(v).append('\n');
+            return sb.toString();
+        }
+
+        String to_json(boolean first)
+        {
+            StringBuilder sb = new StringBuilder(first ? "  " : ",\n  ");
+            sb.append("{\"file\": ").append(PPTableDiff.json_string(file.toString()));
+            if(error != null)
+                return sb.append(", \"error\": ").append(PPTableDiff.json_string(error)).append('}').toString();
+
+            sb.append(", \"violations\": [");
+            for(int i = 0; i < violations.size(); i++)
+            {
+                Violation v = violations.get(i);
+                sb.append(i == 0 ? "" : ", ")
+                  .append("{\"rule\": ").append(PPTableDiff.json_string(v.rule))
+                  .append(", \"message\": ").append(PPTableDiff.json_string(v.message))
+                  .append('}');
+            }
+            return sb.append("]}").toString();
+        }
+
+        final Path file;
+        List<Violation> violations;
+        String error;
+    }
+
+    // offsets of the sub-table offsets in ATOM_POWERPLAY_TABLE
+    private static final int[] OFFSET_FIELDS = { 43, 45, 47, 57, 35, 37, 39, 49, 51, 53, 55, 59, 61, 63 };
+    private static final String[] OFFSET_NAMES = {
+        "usMclkDependencyTableOffset", "usSclkDependencyTableOffset", "usVddcLookupTableOffset",
+        "usPowerTuneTableOffset", "usStateArrayOffset", "usFanTableOffset", "usThermalControllerOffset",
+        "usVddgfxLookupTableOffset", "usMMDependencyTableOffset", "usVCEStateTableOffset",
+        "usPPMTableOffset", "usHardLimitTableOffset", "usPCIETableOffset", "usGPIOTableOffset"
+    };
+    private static final int MCLK = 0, SCLK = 1, VDDC = 2, POWERTUNE = 3;
+
+    // offsets in ATOM_POWERTUNE_TABLE, usTjMax and usSoftwareShutdownTemp first
+    private static final int[] TEMPERATURE_FIELDS = { 17, 23, 27, 29, 31, 33, 35, 37 };
+    private static final String[] TEMPERATURE_NAMES = {
+        "usTjMax", "usSoftwareShutdownTemp", "usTemperatureLimitHotspot", "usTemperatureLimitLiquid1",
+        "usTemperatureLimitLiquid2", "usTemperatureLimitVrVddc", "usTemperatureLimitVrMvdd",
+        "usTemperatureLimitPlx"
+    };
+
+    private static final int MIN_VOLTAGE = 500, MAX_VOLTAGE = 1500;        // mV
+    private static final int MIN_TEMPERATURE = 40, MAX_TEMPERATURE = 125;  // C
+    private static final int LEAKAGE_ID = 0xFF00;
+
+    private static final Rule[] RULES = {
+        any_format_rule("format", PPTableValidator::check_format),
+        any_format_rule("structure_size", PPTableValidator::check_structure_size),
+        rule("offsets", PPTableValidator::check_offsets),
+        rule("table_sizes", PPTableValidator::check_table_sizes),
+        rule("voltage_indices", PPTableValidator::check_voltage_indices),
+        rule("monotonic_clocks", PPTableValidator::check_monotonic_clocks),
+        rule("voltages", PPTableValidator::check_voltages),
+        rule("temperatures", PPTableValidator::check_temperatures)
+    };
+
+    private final Rule[] rules;
+}
@@ -0,0 +1,458 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/*
+ * keeps the tables under a directory decoded in memory and in sync with the files
+ * file events are coalesced until the directory has been quiet for delay_ms, or for at most
+ * MAX_DELAYS delays while files keep changing, then only the files whose size or modification
+ * time changed are re-parsed, diffed against their previous table and validated in parallel
+ * a TableChanged for each is published on the bus from the watching thread, in path order
+ *
+ * usage: java PPTableWatcher [-d delay_ms] [-j threads] [-r rule]... <dir>
+ */
+public class PPTableWatcher implements AutoCloseable
+{
+    public static void main(String[] args)
+    {
+        long delay_ms = 200;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<String> rule_names = new ArrayList<>();
+        Path dir = null;
+
+        try
+        {
+            for(int i = 0; i < args.length; i++)
+            {
+                if(args[i].equals("-d") && i + 1 < args.length)
+                    delay_ms = Long.parseLong(args[++i]);
+                else if(args[i].equals("-j") && i + 1 < args.length)
+                    threads = Integer.parseInt(args[++i]);
+                else if(args[i].equals("-r") && i + 1 < args.length)
+                    rule_names.add(args[++i]);
+                else if(dir == null)
+                    dir = Paths.get(args[i]);
+                else throw new IllegalArgumentException("Unexpected argument " + args[i]);
+            }
+        }
+        catch(IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+
+        if(dir == null || !Files.isDirectory(dir))
+        {
+            System.err.println("usage: java PPTableWatcher [-d delay_ms] [-j threads] [-r rule]... <dir>");
+            System.exit(2);
+        }
+
+        PPTableEventBus bus = new PPTableEventBus();
+        bus.subscribe(PPTableEventBus.TableChanged.class, e -> System.out.print(to_text(e)));
+
+        try(PPTableWatcher watcher = new PPTableWatcher(
+                dir, bus,
+                rule_names.isEmpty() ? new PPTableValidator() : new PPTableValidator(rule_names.toArray(new String[0])),
+                delay_ms, threads
+            ))
+        {
+            watcher.run();
+        }
+        catch(IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+        catch(IOException e)
+        {
+            System.err.println("Failed to watch " + dir);
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /*
+     * validator is null to skip validation, the tables are read once run() is called
+     */
+    public PPTableWatcher(Path dir, PPTableEventBus bus, PPTableValidator validator, long delay_ms, int threads)
+        throws IOException
+    {
+        this.dir = dir;
+        this.bus = bus;
+        this.validator = validator;
+        this.delay_ms = delay_ms;
+        watch_service = FileSystems.getDefault().newWatchService();
+        pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "PPTableWatcher parse");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /*
+     * runs the watcher on a daemon thread of its own
+     */
+    public void start()
+    {
+        Thread t = new Thread(this::run, "PPTableWatcher " + dir);
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /*
+     * reads every table under the directory, then follows the changes until closed
+     */
+    public void run()
+    {
+        try
+        {
+            register_all(dir);
+            reload(scan(dir));
+
+            Set<Path> pending = new LinkedHashSet<>();
+            long first = 0, last = 0;
+            while(!closed)
+            {
+                WatchKey key;
+                if(pending.isEmpty())
+                {
+                    key = watch_service.take();
+                    first = System.nanoTime();
+                }
+                else
+                {
+                    long now = System.nanoTime();
+                    long wait = Math.min(last + delay_ms * 1_000_000, first + MAX_DELAYS * delay_ms * 1_000_000) - now;
+                    key = wait > 0 ? watch_service.poll(wait, TimeUnit.NANOSECONDS) : null;
+                }
+
+                if(key == null)
+                {
+                    reload(pending);
+                    pending.clear();
+                    continue;
+                }
+
+                last = System.nanoTime();
+                collect(key, pending);
+            }
+        }
+        catch(ClosedWatchServiceException | InterruptedException e)
+        {
+            // closed
+        }
+        catch(IOException e)
+        {
+            if(!closed)
+            {
+                System.err.println("Failed to watch " + dir);
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /*
+     * the table of file, null if it isn't under the directory or can't be read
+     */
+    public PPTableEditor get(Path file)
+    {
+        Entry e = entries.get(file);
+        return e != null ? e.table : null;
+    }
+
+    /*
+     * every table that could be read, by path
+     */
+    public Map<Path, PPTableEditor> tables()
+    {
+        Map<Path, PPTableEditor> tables = new HashMap<>();
+        for(Map.Entry<Path, Entry> e : entries.entrySet())
+        {
+            if(e.getValue().table != null)
+                tables.put(e.getKey(), e.getValue().table);
+        }
+        return Collections.unmodifiableMap(tables);
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        closed = true;
+        watch_service.close();
+        pool.shutdownNow();
+    }
+
+    /*
+     * adds the files the events of key are about to pending
+     * a directory that can't be walked is skipped and the others are still watched, one that's
+     * already gone again has its files, if any were seen, removed once its key is no longer valid
+     */
+    private void collect(WatchKey key, Set<Path> pending)
+    {
+        Path watched = (Path)key.watchable();
+        for(WatchEvent<?> event : key.pollEvents())
+        {
+            try
+            {
+                if(event.kind() == StandardWatchEventKinds.OVERFLOW)
+                {
+                    // events were lost, so every file is checked
+                    pending.addAll(entries.keySet());
+                    pending.addAll(scan(dir));
+                    continue;
+                }
+
+                Path file = watched.resolve((Path)event.context());
+                if(event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(file))
+                {
+                    // files created before the directory was registered have no events of their own
+                    register_all(file);
+                    pending.addAll(scan(file));
+                }
+                else if(PPTableBatch.is_table_name(file.getFileName().toString().toLowerCase()))
+                    pending.add(file);
+            }
+            catch(IOException e)
+            {
+                skipped(watched, event, e);
+            }
+            catch(UncheckedIOException e)
+            {
+                // from walking a directory whose subdirectories change meanwhile
+                skipped(watched, event, e.getCause());
+            }
+        }
+
+        if(!key.reset())
+        {
+            // the directory is gone, with every file under it
+            for(Path file : entries.keySet())
+            {
+                if(file.startsWith(watched))
+                    pending.add(file);
+            }
+        }
+    }
+
+    private static void skipped(Path watched, WatchEvent<?> event, IOException e)
+    {
+        // created and deleted again before it was walked, such as a temporary directory
+        if(e instanceof NoSuchFileException)
+            return;
+        System.err.println("Failed to watch " + watched.resolve(String.valueOf(event.context())) + ": " + e.getMessage());
+    }
+
+    /*
+     * re-parses the files in parallel and publishes their changes in order
+     */
+    private void reload(Collection<Path> files) throws InterruptedException
+    {
+        List<Path> sorted = new ArrayList<>(files);
+        Collections.sort(sorted);
+
+        List<Callable<PPTableEventBus.TableChanged>> tasks = new ArrayList<>();
+        for(Path file : sorted)
+        {
+            tasks.add(() -> {
+                try
+                {
+                    return load(file);
+                }
+                catch(RuntimeException e)
+                {
+                    // a bug for this file only, the other files are still followed
+                    return changed(file, entries.get(file), new Entry(null, e.toString(), -1, null));
+                }
+            });
+        }
+
+        for(Future<PPTableEventBus.TableChanged> f : pool.invokeAll(tasks))
+        {
+            PPTableEventBus.TableChanged e;
+            try
+            {
+                e = f.get();
+            }
+            catch(ExecutionException ex)
+            {
+                throw new IllegalStateException(ex.getCause());
+            }
+
+            if(e != null)
+                bus.publish(e);
+        }
+    }
+
+    /*
+     * runs on the pool, null if the file hasn't changed
+     * reloads don't overlap, so a file is only loaded by one task at a time
+     */
+    private PPTableEventBus.TableChanged load(Path file)
+    {
+        Entry previous = entries.get(file);
+        PPTableEditor before = previous != null ? previous.table : null;
+
+        BasicFileAttributes attrs;
+        try
+        {
+            attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        }
+        catch(NoSuchFileException e)
+        {
+            attrs = null;
+        }
+        catch(IOException e)
+        {
+            return changed(file, previous, new Entry(null, e.getMessage(), -1, null));
+        }
+
+        if(attrs == null || !attrs.isRegularFile())
+        {
+            if(previous == null)
+                return null;
+            entries.remove(file);
+            return new PPTableEventBus.TableChanged(
+                file, before, null, null, Collections.emptyList(), Collections.emptyList()
+            );
+        }
+        if(previous != null && previous.size == attrs.size() && attrs.lastModifiedTime().equals(previous.mtime))
+            return null;
+
+        try
+        {
+            PPTableEditor table = new PPTableEditor(file.toString());
+            return changed(file, previous, new Entry(table, null, attrs.size(), attrs.lastModifiedTime()));
+        }
+        catch(IllegalArgumentException e)
+        {
+            // a file being written may be read part way through, the next event re-reads it
+            return changed(file, previous, new Entry(null, e.getMessage(), attrs.size(), attrs.lastModifiedTime()));
+        }
+    }
+
+    /*
+     * records the new entry of file, null if nothing a listener sees has changed
+     */
+    private PPTableEventBus.TableChanged changed(Path file, Entry previous, Entry current)
+    {
+        entries.put(file, current);
+
+        PPTableEditor before = previous != null ? previous.table : null, after = current.table;
+        List<PPTableDiff.Change> changes = Collections.emptyList();
+        if(before != null && after != null && before.get_format().editable && after.get_format().editable)
+            changes = PPTableDiff.diff(before, after);
+
+        if(before != null && after != null)
+        {
+            if(changes.isEmpty() && Arrays.equals(before.get_pp_bytes(), after.get_pp_bytes()))
+                return null;
+        }
+        else if(before == null && after == null && previous != null &&
+                String.valueOf(previous.error).equals(String.valueOf(current.error)))
+            return null;
+
+        List<PPTableValidator.Violation> violations = validator != null && after != null
+                                                      ? validator.validate(after)
+                                                      : Collections.emptyList();
+        return new PPTableEventBus.TableChanged(file, before, after, current.error, changes, violations);
+    }
+
+    private void register_all(Path root) throws IOException
+    {
+        try(Stream<Path> walk = Files.walk(root))
+        {
+            for(Path d : (Iterable<Path>)walk.filter(Files::isDirectory)::iterator)
+            {
+                d.register(
+                    watch_service,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE,
+                    StandardWatchEventKinds.ENTRY_MODIFY
+                );
+            }
+        }
+    }
+
+    private static List<Path> scan(Path root) throws IOException
+    {
+        List<Path> files = new ArrayList<>();
+        PPTableBatch.add_files(root, files);
+        return files;
+    }
+
+    private static String to_text(PPTableEventBus.TableChanged e)
+    {
+        StringBuilder sb = new StringBuilder();
+        if(e.error != null)
+            sb.append("FAIL    ").append(e.path).append(": ").append(e.error).append('\n');
+        else if(e.table == null)
+            sb.append("removed ").append(e.path).append('\n');
+        else if(e.previous == null)
+            sb.append("added   ").append(e.path).append('\n');
+        else sb.append("changed ").append(e.path).append(": ").append(e.changes.size()).append(" changes\n");
+
+        for(PPTableDiff.Change c : e.changes)
+            sb.append("  ").append(c).append('\n');
+        for(PPTableValidator.Violation v : e.violations)
+            sb.append("  ! ").append(v).append('\n');
+        return sb.toString();
+    }
+
+    /*
+     * a file's table, or why it couldn't be read, and the attributes it was read with
+     */
+    private static class Entry
+    {
+        Entry(PPTableEditor table, String error, long size, FileTime mtime)
+        {
+            this.table = table;
+            this.error = error;
+            this.size = size;
+            this.mtime = mtime;
+        }
+
+        final PPTableEditor table;
+        final String error;
+        final long size;
+        final FileTime mtime;
+    }
+
+    private static final int MAX_DELAYS = 10;
+
+    private final Path dir;
+    private final PPTableEventBus bus;
+    private final PPTableValidator validator;
+    private final long delay_ms;
+    private final WatchService watch_service;
+    private final ExecutorService pool;
+    private final Map<Path, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+}